@@ -0,0 +1,60 @@
+"""
+一次性脚本：为所有缺少波形峰值的音频资产补充峰值数据
+在 Docker 容器内运行: python backfill_peaks.py
+"""
+import logging
+import os
+
+logging.basicConfig(level=logging.INFO, format="%(asctime)s [%(levelname)s] %(message)s")
+logger = logging.getLogger("backfill")
+
+from src.database import engine
+from src.minio_client import download_to_temp, upload_bytes
+from src.peaks import CONTENT_TYPE, compute_peaks, peaks_object_name
+
+from sqlalchemy import text
+from sqlalchemy.orm import sessionmaker
+
+SessionLocal = sessionmaker(bind=engine, autocommit=False, autoflush=False)
+
+
+def main():
+    logger.info("开始补充波形峰值...")
+
+    with SessionLocal() as session:
+        # 内容去重后多个资产可能共用同一对象，按对象处理一次
+        rows = session.execute(
+            text("SELECT DISTINCT storage_name FROM assets "
+                 "WHERE deleted=0 AND type='AUDIO' AND peaks_name IS NULL")
+        ).fetchall()
+
+        logger.info("找到 %d 个缺少峰值的音频对象", len(rows))
+
+        for (storage_name,) in rows:
+            temp_path = None
+            try:
+                logger.info("处理 storage_name=%s", storage_name)
+                temp_path = download_to_temp(storage_name)
+
+                object_name = peaks_object_name(storage_name)
+                upload_bytes(object_name, compute_peaks(temp_path), CONTENT_TYPE)
+
+                session.execute(
+                    text("UPDATE assets SET peaks_name = :peaks WHERE storage_name = :storage AND deleted = 0"),
+                    {"peaks": object_name, "storage": storage_name},
+                )
+                session.commit()
+
+                logger.info("✅ %s 峰值已生成: %s", storage_name, object_name)
+            except Exception:
+                logger.exception("❌ %s 处理失败", storage_name)
+                session.rollback()
+            finally:
+                if temp_path and os.path.exists(temp_path):
+                    os.remove(temp_path)
+
+    logger.info("补充完成!")
+
+
+if __name__ == "__main__":
+    main()
@@ -48,9 +48,10 @@ def update_asset_analysis(
     duration: int,
     audio_vector: Optional[list[float]] = None,
     auto_tags: Optional[str] = None,
+    peaks_name: Optional[str] = None,
 ) -> None:
     """
-    更新资产的音频分析结果（含嵌入向量 + 自动标签）
+    更新资产的音频分析结果（含嵌入向量 + 自动标签 + 波形峰值对象名）
 
     :param asset_id: 资产数据库主键
     :param bpm: 节拍速度 (BPM)
@@ -58,6 +59,7 @@ def update_asset_analysis(
     :param duration: 音频时长 (秒)
     :param audio_vector: 512 维音频嵌入向量 (可选)
     :param auto_tags: 自动标注的标签，逗号分隔 (可选)
+    :param peaks_name: 波形峰值的 MinIO 对象名 (可选，为空时保留原值)
     """
     vector_json = json.dumps(audio_vector) if audio_vector else None
 
@@ -70,6 +72,7 @@ def update_asset_analysis(
                     duration = :duration,
                     audio_vector = :audio_vector,
                     auto_tags = :auto_tags,
+                    peaks_name = COALESCE(:peaks_name, peaks_name),
                     status = 1
                 WHERE id = :asset_id
                   AND deleted = 0
@@ -80,6 +83,7 @@ def update_asset_analysis(
                 "duration": duration,
                 "audio_vector": vector_json,
                 "auto_tags": auto_tags,
+                "peaks_name": peaks_name,
                 "asset_id": asset_id,
             },
         )
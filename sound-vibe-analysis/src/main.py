@@ -49,6 +49,15 @@ class EmbedResponse(BaseModel):
     dimension: int = Field(default=EMBEDDING_DIM, description="向量维度")
 
 
+class TextBatchEmbedRequest(BaseModel):
+    texts: list[str] = Field(..., min_length=1, max_length=64, description="文本描述列表（单批最多 64 条）")
+
+
+class BatchEmbedResponse(BaseModel):
+    vectors: list[list[float]] = Field(..., description="与 texts 顺序一致的嵌入向量")
+    dimension: int = Field(default=EMBEDDING_DIM, description="向量维度")
+
+
 class GenerateRequest(BaseModel):
     prompt: str = Field(..., min_length=1, max_length=512, description="音乐描述文本")
     duration: int = Field(default=5, ge=1, le=30, description="生成时长（秒）")
@@ -93,6 +102,26 @@ def embed_text(req: TextEmbedRequest):
         raise HTTPException(status_code=500, detail=f"嵌入生成失败: {e}") from e
 
 
+@app.post("/api/embed/text/batch", response_model=BatchEmbedResponse, tags=["嵌入向量"])
+def embed_text_batch(req: TextBatchEmbedRequest):
+    """
+    批量文本转嵌入向量 (供 Java 端合批调用)
+
+    vibe-search 将几毫秒内到达的并发语义搜索合并为一批，
+    在一次前向推理中完成编码，返回顺序与 texts 一致。
+    """
+    texts = [text[:512] for text in req.texts]
+    if any(not text.strip() for text in texts):
+        raise HTTPException(status_code=422, detail="texts 中不能包含空文本")
+    try:
+        manager = get_manager()
+        vectors = manager.get_text_embeddings(texts)
+        return BatchEmbedResponse(vectors=vectors, dimension=len(vectors[0]))
+    except Exception as e:
+        logger.exception("批量文本嵌入生成失败: batch=%d", len(texts))
+        raise HTTPException(status_code=500, detail=f"批量嵌入生成失败: {e}") from e
+
+
 # ======================== AI 音乐生成 API ========================
 @app.post("/api/generate", response_model=GenerateResponse, tags=["AI 生成"])
 async def generate_music(req: GenerateRequest):
@@ -144,6 +173,7 @@ def main() -> None:
     logger.info("  SoundVibe Audio Analysis Service v2.0")
     logger.info("  Health Check: http://%s:%d/health", service_config.host, service_config.port)
     logger.info("  Text Embed:   POST http://%s:%d/api/embed/text", service_config.host, service_config.port)
+    logger.info("  Batch Embed:  POST http://%s:%d/api/embed/text/batch", service_config.host, service_config.port)
     logger.info("  AI Generate:  POST http://%s:%d/api/generate", service_config.host, service_config.port)
     logger.info("=" * 50)
 
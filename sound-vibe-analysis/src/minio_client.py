@@ -1,8 +1,9 @@
 """
 SoundVibe Analysis MinIO 客户端模块
-负责从 MinIO 下载音频文件到本地临时路径
+负责从 MinIO 下载音频文件到本地临时路径，以及写回分析产物（如波形峰值）
 """
 
+import io
 import logging
 import os
 import tempfile
@@ -57,6 +58,25 @@ def download_to_temp(storage_name: str) -> str:
         raise
 
 
+def upload_bytes(object_name: str, data: bytes, content_type: str) -> None:
+    """
+    将内存中的数据写入 MinIO（同名对象被覆盖）
+
+    :param object_name: MinIO 对象名
+    :param data: 对象内容
+    :param content_type: MIME 类型
+    :raises Exception: 上传失败时抛出
+    """
+    _client.put_object(
+        bucket_name=minio_config.bucket,
+        object_name=object_name,
+        data=io.BytesIO(data),
+        length=len(data),
+        content_type=content_type,
+    )
+    logger.info("对象上传成功: object_name=%s, size=%d bytes", object_name, len(data))
+
+
 def _cleanup_file(file_path: str) -> None:
     """安全删除临时文件"""
     try:
@@ -93,8 +93,18 @@ class CLAPModelManager:
         :param text: 文本描述 (如 "cinematic dark synthwave")
         :return: 512 维浮点数列表
         """
+        return self.get_text_embeddings([text])[0]
+
+    @torch.no_grad()
+    def get_text_embeddings(self, texts: list[str]) -> list[list[float]]:
+        """
+        批量生成文本嵌入向量（一次前向推理，供 Java 端合批调用）
+
+        :param texts: 文本描述列表
+        :return: 与输入顺序一致的 512 维向量列表
+        """
         inputs = self.processor(
-            text=[text],
+            text=texts,
             return_tensors="pt",
             padding=True,
         )
@@ -105,10 +115,10 @@ class CLAPModelManager:
             embeddings = embeddings.text_embeds
         elif hasattr(embeddings, 'pooler_output'):
             embeddings = embeddings.pooler_output
-        vector = embeddings.squeeze().cpu().numpy().tolist()
+        vectors = embeddings.reshape(len(texts), -1).cpu().numpy().tolist()
 
-        logger.debug("文本嵌入生成完成: dim=%d, text='%s'", len(vector), text[:60])
-        return vector
+        logger.debug("文本嵌入生成完成: batch=%d, dim=%d", len(vectors), len(vectors[0]))
+        return vectors
 
 
 def get_manager() -> CLAPModelManager:
@@ -8,14 +8,16 @@ SoundVibe Analysis Worker - RabbitMQ 消费者
   3. 调用 processor.analyze_audio() 提取 BPM/调性/时长
   4. 调用 model_manager.get_audio_embedding() 生成 512 维嵌入向量
   5. 调用 tagger.match_tags() 执行 Zero-Shot 自动标注
-  6. 更新 MySQL assets 表（含 audio_vector + auto_tags）
-  7. 清理临时文件
-  8. ACK 消息
+  6. 调用 peaks.compute_peaks() 计算波形峰值并写入 MinIO
+  7. 更新 MySQL assets 表（含 audio_vector + auto_tags + peaks_name）
+  8. 清理临时文件
+  9. ACK 消息
 
 约束:
   - prefetch_count=1: 一次只处理一个文件，防止 OOM
   - 分析失败时仍然 ACK（避免消息无限重试），并标记 status=4
   - 嵌入向量生成失败不阻断 BPM/调性分析，仅记录警告
+  - 波形峰值计算失败同样不阻断分析，仅记录警告
 """
 
 from __future__ import annotations
@@ -32,8 +34,10 @@ from pika.spec import Basic, BasicProperties
 
 from src.config import rabbitmq_config
 from src.database import mark_asset_analysis_failed, update_asset_analysis
-from src.minio_client import download_to_temp
+from src.minio_client import download_to_temp, upload_bytes
 from src.model_manager import get_manager
+from src.peaks import CONTENT_TYPE as PEAKS_CONTENT_TYPE
+from src.peaks import compute_peaks, peaks_object_name
 from src.processor import analyze_audio
 from src.tagger import match_tags
 
@@ -107,7 +111,18 @@ def _on_message(
             except Exception:
                 logger.exception("自动标注失败，跳过: asset_id=%s", asset_id)
 
-        # 6. 更新数据库
+        # 6. 波形峰值 (多级 min/max，写入 MinIO)
+        peaks_name: Optional[str] = None
+        try:
+            start_time = time.time()
+            object_name = peaks_object_name(storage_name)
+            upload_bytes(object_name, compute_peaks(temp_path), PEAKS_CONTENT_TYPE)
+            peaks_name = object_name
+            logger.info("波形峰值耗时: %.2fs, object=%s", time.time() - start_time, peaks_name)
+        except Exception:
+            logger.exception("波形峰值计算失败，跳过: asset_id=%s", asset_id)
+
+        # 7. 更新数据库
         update_asset_analysis(
             asset_id=asset_id,
             bpm=result["bpm"],
@@ -115,6 +130,7 @@ def _on_message(
             duration=result["duration"],
             audio_vector=audio_vector,
             auto_tags=auto_tags,
+            peaks_name=peaks_name,
         )
 
         logger.info(
@@ -126,7 +142,7 @@ def _on_message(
             download_elapsed, analysis_elapsed,
         )
 
-        # 7. 发送分析完成通知，触发 vibe-catalog 重新同步 ES 索引
+        # 8. 发送分析完成通知，触发 vibe-catalog 重新同步 ES 索引
         try:
             completion_msg = json.dumps({"assetId": asset_id})
             channel.basic_publish(
@@ -4,6 +4,7 @@ import org.mybatis.spring.annotation.MapperScan;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * SoundVibe 数字资产管理服务启动类
@@ -14,6 +15,7 @@ import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
 @SpringBootApplication(scanBasePackages = {"com.soundvibe.asset", "com.soundvibe.common"})
 @EnableDiscoveryClient
 @MapperScan("com.soundvibe.asset.mapper")
+@EnableScheduling
 public class AssetApplication {
 
     public static void main(String[] args) {
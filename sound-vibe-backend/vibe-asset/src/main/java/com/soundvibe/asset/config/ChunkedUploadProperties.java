@@ -0,0 +1,52 @@
+package com.soundvibe.asset.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 分片上传配置属性类
+ * 绑定 application.yml 中 asset.chunked-upload.* 配置项
+ *
+ * @author SoundVibe Team
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "asset.chunked-upload")
+public class ChunkedUploadProperties {
+
+    /**
+     * 单文件最大大小（字节），默认 2GB
+     */
+    private long maxFileSize = 2L * 1024 * 1024 * 1024;
+
+    /**
+     * 默认分片大小（字节）
+     */
+    private long defaultPartSize = 8L * 1024 * 1024;
+
+    /**
+     * 最小分片大小（S3 要求除最后一片外不小于 5MB）
+     */
+    private long minPartSize = 5L * 1024 * 1024;
+
+    /**
+     * 最大分片大小（单个请求的上传量上限）
+     */
+    private long maxPartSize = 64L * 1024 * 1024;
+
+    /**
+     * 会话有效期（小时），过期未合并的会话被取消
+     */
+    private int sessionTtlHours = 24;
+
+    /**
+     * 过期会话清理间隔（毫秒）
+     */
+    private long cleanupIntervalMillis = 3600000;
+
+    /**
+     * 每轮清理的会话数上限
+     */
+    private int cleanupBatchSize = 100;
+}
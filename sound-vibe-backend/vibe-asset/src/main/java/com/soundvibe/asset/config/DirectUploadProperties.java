@@ -0,0 +1,42 @@
+package com.soundvibe.asset.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 直传配置属性类
+ * 绑定 application.yml 中 asset.direct-upload.* 配置项
+ *
+ * @author SoundVibe Team
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "asset.direct-upload")
+public class DirectUploadProperties {
+
+    /**
+     * 单文件最大大小（字节），默认 2GB
+     */
+    private long maxFileSize = 2L * 1024 * 1024 * 1024;
+
+    /**
+     * 预签名 POST 表单有效期（分钟），须在此期限内开始上传
+     */
+    private int policyExpiryMinutes = 30;
+
+    /**
+     * 上传意图有效期（小时），过期未确认的意图被取消，已上传的对象被删除
+     */
+    private int intentTtlHours = 24;
+
+    /**
+     * 过期意图清理间隔（毫秒）
+     */
+    private long cleanupIntervalMillis = 3600000;
+
+    /**
+     * 每轮清理的意图数上限
+     */
+    private int cleanupBatchSize = 100;
+}
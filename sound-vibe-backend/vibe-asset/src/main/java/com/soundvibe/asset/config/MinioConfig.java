@@ -1,5 +1,7 @@
 package com.soundvibe.asset.config;
 
+import com.soundvibe.asset.infrastructure.MultipartMinioClient;
+import io.minio.MinioAsyncClient;
 import io.minio.MinioClient;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -34,4 +36,18 @@ public class MinioConfig {
                 .credentials(minioProperties.getAccessKey(), minioProperties.getSecretKey())
                 .build();
     }
+
+    /**
+     * 创建分片上传客户端（与 MinioClient 使用相同的端点与凭证）
+     * 供分片上传流式写入 MinIO，见 MultipartMinioClient
+     *
+     * @return MultipartMinioClient Bean
+     */
+    @Bean
+    public MultipartMinioClient multipartMinioClient() {
+        return new MultipartMinioClient(MinioAsyncClient.builder()
+                .endpoint(minioProperties.getEndpoint())
+                .credentials(minioProperties.getAccessKey(), minioProperties.getSecretKey())
+                .build());
+    }
 }
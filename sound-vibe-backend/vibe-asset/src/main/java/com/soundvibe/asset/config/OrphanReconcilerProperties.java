@@ -0,0 +1,50 @@
+package com.soundvibe.asset.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 孤立对象对账配置属性类
+ * 绑定 application.yml 中 asset.orphan-reconciler.* 配置项
+ *
+ * @author SoundVibe Team
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "asset.orphan-reconciler")
+public class OrphanReconcilerProperties {
+
+    /**
+     * 是否启用定时对账
+     */
+    private boolean enabled = true;
+
+    /**
+     * 执行时间（cron，默认每天 04:00）
+     */
+    private String cron = "0 0 4 * * *";
+
+    /**
+     * 对账的对象名前缀（资产类型目录）；其他前缀（如 vibe-analysis 生成的 samples/）不参与
+     */
+    private List<String> prefixes = List.of("audio/", "image/", "midi/", "stem/");
+
+    /**
+     * 只处理修改时间早于该时长（小时）的对象
+     * 须大于分片上传会话与直传意图的有效期，避免删除已写入 MinIO、尚未登记资产的对象
+     */
+    private int minAgeHours = 48;
+
+    /**
+     * 每批比对的对象数（一次 IN 查询 + 一次批量删除）
+     */
+    private int batchSize = 1000;
+
+    /**
+     * 只统计不删除（默认开启，确认对账结果后再关闭以实际删除）
+     */
+    private boolean dryRun = true;
+}
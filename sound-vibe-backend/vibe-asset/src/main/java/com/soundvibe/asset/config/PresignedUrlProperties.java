@@ -0,0 +1,33 @@
+package com.soundvibe.asset.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 预签名 URL 缓存配置属性类
+ * 绑定 application.yml 中 asset.presigned-url.* 配置项
+ *
+ * @author SoundVibe Team
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "asset.presigned-url")
+public class PresignedUrlProperties {
+
+    /**
+     * URL 有效期（小时，自所在时间窗口的起点起算）
+     */
+    private int validityHours = 24;
+
+    /**
+     * 轮换周期（小时）：同一时间窗口内签发的 URL 完全相同，
+     * 窗口结束时 URL 仍至少有效 validityHours - rotationHours 小时
+     */
+    private int rotationHours = 6;
+
+    /**
+     * 缓存的资产数上限（LRU）
+     */
+    private int maxEntries = 10000;
+}
@@ -0,0 +1,32 @@
+package com.soundvibe.asset.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 试听片段配置属性类
+ * 绑定 application.yml 中 asset.preview.* 配置项
+ *
+ * @author SoundVibe Team
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "asset.preview")
+public class PreviewProperties {
+
+    /**
+     * 是否生成试听片段
+     */
+    private boolean enabled = true;
+
+    /**
+     * 默认试听时长（秒），资产尚未被作品引用时使用（与作品 previewDuration 默认值一致）
+     */
+    private int defaultDurationSeconds = 30;
+
+    /**
+     * 试听时长上限（秒），限制片段体积（MP3 片段在内存中组装）
+     */
+    private int maxDurationSeconds = 120;
+}
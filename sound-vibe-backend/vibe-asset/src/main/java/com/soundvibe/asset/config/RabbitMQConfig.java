@@ -12,6 +12,9 @@ import org.springframework.context.annotation.Configuration;
  * <p>
  * 拓扑结构:
  *   Producer → [soundvibe.asset.topic] → (asset.uploaded) → [soundvibe.asset.analysis.queue]
+ *   vibe-analysis → [soundvibe.asset.topic] → (asset.analysis.completed) → [soundvibe.asset.preview.queue]
+ *   vibe-catalog  → [soundvibe.asset.topic] → (asset.preview.requested)  → [soundvibe.asset.preview.queue]
+ *   vibe-asset    → [soundvibe.asset.topic] → (asset.image.uploaded)     → [soundvibe.asset.thumbnail.queue]
  *
  * @author SoundVibe Team
  */
@@ -33,6 +36,31 @@ public class RabbitMQConfig {
      */
     public static final String ROUTING_KEY_ASSET_UPLOADED = "asset.uploaded";
 
+    /**
+     * 试听片段生成队列（本服务消费）
+     */
+    public static final String ASSET_PREVIEW_QUEUE = "soundvibe.asset.preview.queue";
+
+    /**
+     * 路由键: 音频分析完成（vibe-analysis 发送）
+     */
+    public static final String ROUTING_KEY_ANALYSIS_COMPLETED = "asset.analysis.completed";
+
+    /**
+     * 路由键: 请求（重新）生成试听片段（vibe-catalog 在作品试听设置变更时发送，本服务在内容去重登记后发送）
+     */
+    public static final String ROUTING_KEY_PREVIEW_REQUESTED = "asset.preview.requested";
+
+    /**
+     * 缩略图生成队列（本服务消费）
+     */
+    public static final String ASSET_THUMBNAIL_QUEUE = "soundvibe.asset.thumbnail.queue";
+
+    /**
+     * 路由键: 图片资产上传完成（与 asset.uploaded 分开，vibe-analysis 不接收图片）
+     */
+    public static final String ROUTING_KEY_IMAGE_UPLOADED = "asset.image.uploaded";
+
     /**
      * 声明 Topic Exchange
      * durable=true: 持久化，RabbitMQ 重启后仍存在
@@ -68,6 +96,59 @@ public class RabbitMQConfig {
                 .with(ROUTING_KEY_ASSET_UPLOADED);
     }
 
+    /**
+     * 声明试听片段队列
+     */
+    @Bean
+    public Queue assetPreviewQueue() {
+        return QueueBuilder
+                .durable(ASSET_PREVIEW_QUEUE)
+                .build();
+    }
+
+    /**
+     * 分析完成后生成试听片段
+     */
+    @Bean
+    public Binding previewAnalysisCompletedBinding(Queue assetPreviewQueue, TopicExchange assetTopicExchange) {
+        return BindingBuilder
+                .bind(assetPreviewQueue)
+                .to(assetTopicExchange)
+                .with(ROUTING_KEY_ANALYSIS_COMPLETED);
+    }
+
+    /**
+     * 作品试听时长变更后重新生成
+     */
+    @Bean
+    public Binding previewRequestedBinding(Queue assetPreviewQueue, TopicExchange assetTopicExchange) {
+        return BindingBuilder
+                .bind(assetPreviewQueue)
+                .to(assetTopicExchange)
+                .with(ROUTING_KEY_PREVIEW_REQUESTED);
+    }
+
+    /**
+     * 声明缩略图队列
+     */
+    @Bean
+    public Queue assetThumbnailQueue() {
+        return QueueBuilder
+                .durable(ASSET_THUMBNAIL_QUEUE)
+                .build();
+    }
+
+    /**
+     * 图片上传后生成缩略图
+     */
+    @Bean
+    public Binding thumbnailImageUploadedBinding(Queue assetThumbnailQueue, TopicExchange assetTopicExchange) {
+        return BindingBuilder
+                .bind(assetThumbnailQueue)
+                .to(assetTopicExchange)
+                .with(ROUTING_KEY_IMAGE_UPLOADED);
+    }
+
     /**
      * JSON 消息转换器
      * 自动将 Java 对象序列化为 JSON 发送
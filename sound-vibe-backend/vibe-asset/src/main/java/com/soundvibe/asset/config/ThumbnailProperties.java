@@ -0,0 +1,59 @@
+package com.soundvibe.asset.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 封面缩略图配置属性类
+ * 绑定 application.yml 中 asset.thumbnail.* 配置项
+ *
+ * @author SoundVibe Team
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "asset.thumbnail")
+public class ThumbnailProperties {
+
+    /**
+     * 是否生成缩略图
+     */
+    private boolean enabled = true;
+
+    /**
+     * 缩略图尺寸（长边像素，升序）；原图长边不超过某尺寸时该尺寸直接使用原图
+     */
+    private List<Integer> sizes = List.of(64, 256, 640);
+
+    /**
+     * JPEG 压缩质量（0 ~ 1）
+     */
+    private float quality = 0.85f;
+
+    /**
+     * 原图像素上限（宽 × 高），超出时不生成，防止解码超大图片耗尽内存
+     */
+    private long maxSourcePixels = 50_000_000L;
+
+    /**
+     * 是否定时为存量图片补生成缩略图
+     */
+    private boolean backfillEnabled = true;
+
+    /**
+     * 补生成任务间隔（毫秒）
+     */
+    private long backfillIntervalMillis = 60_000L;
+
+    /**
+     * 补生成每批处理的图片数
+     */
+    private int backfillBatchSize = 20;
+
+    /**
+     * 补生成只处理创建超过该时长（分钟）的图片，新上传的图片由上传事件异步处理
+     */
+    private int backfillGraceMinutes = 10;
+}
@@ -1,24 +1,34 @@
 package com.soundvibe.asset.controller;
 
+import cn.hutool.core.util.IdUtil;
 import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.soundvibe.asset.infrastructure.ByteRanges;
+import com.soundvibe.asset.infrastructure.WaveformPeaks;
+import com.soundvibe.asset.model.dto.AssetBatchDTO;
+import com.soundvibe.asset.model.dto.AssetBatchRequest;
 import com.soundvibe.asset.model.dto.AssetDTO;
 import com.soundvibe.asset.model.dto.RenameRequest;
 import com.soundvibe.asset.service.AssetService;
+import com.soundvibe.asset.service.PreviewService;
+import com.soundvibe.asset.service.WaveformService;
 import com.soundvibe.common.exception.BizException;
 import com.soundvibe.common.result.Result;
 import com.soundvibe.common.result.ResultCode;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.core.io.InputStreamResource;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.net.URI;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 
 /**
  * 数字资产控制器
@@ -34,6 +44,13 @@ import java.nio.charset.StandardCharsets;
 public class AssetController {
 
     private final AssetService assetService;
+    private final PreviewService previewService;
+    private final WaveformService waveformService;
+
+    /**
+     * 波形峰值缓存时长（资产内容不变，峰值不变）
+     */
+    private static final Duration PEAKS_MAX_AGE = Duration.ofDays(365);
 
     /**
      * 文件上传
@@ -118,44 +135,102 @@ public class AssetController {
     }
 
     /**
-     * 根据资产 ID 获取文件（302 重定向到实时预签名 URL）
-     * GET /assets/file/{id}
+     * 根据资产 ID 批量获取资产详情及文件预签名 URL
+     * POST /assets/batch
+     * <p>
+     * 用途：跨微服务内部调用（如列表页一次取回多个作品的音频 / 封面元数据与 URL），
+     * 替代逐个调用 /{id}/detail 与 /file/{id}，或跨库直接读取 assets 表
+     * 不需要鉴权，仅供服务间调用
+     */
+    @PostMapping("/batch")
+    public Result<AssetBatchDTO> getBatch(@RequestBody AssetBatchRequest request) {
+        log.info("内部批量查询资产: count={}, size={}",
+                request.ids() == null ? 0 : request.ids().size(), request.size());
+        return Result.success(assetService.getBatch(request.ids(), request.size()));
+    }
+
+    /**
+     * 根据资产 ID 获取文件（302 重定向到预签名 URL）
+     * GET /assets/file/{id}?size=256
      * <p>
      * 用途：跨微服务展示资产文件（如 Catalog 页面展示封面图）
+     * 图片可用 size 指定长边像素，重定向到不小于该尺寸的最小缩略图（64 / 256 / 640 JPEG），
+     * 缩略图尚未生成时返回原图
      * 不需要鉴权，已发布作品的封面/音频对所有人可见
+     * 重定向目标在轮换窗口内不变，Cache-Control 允许浏览器缓存重定向直到窗口结束
      */
     @GetMapping("/file/{id}")
-    public ResponseEntity<Void> getFile(@PathVariable("id") Long id) {
-        log.info("请求资产文件: id={}", id);
-        var url = assetService.getFileUrl(id);
+    public ResponseEntity<Void> getFile(
+            @PathVariable("id") Long id,
+            @RequestParam(value = "size", required = false) Integer size) {
+        log.debug("请求资产文件: id={}, size={}", id, size);
+        var fileUrl = assetService.getFileUrl(id, size);
         return ResponseEntity.status(HttpStatus.FOUND)
-                .location(URI.create(url))
+                .location(URI.create(fileUrl.url()))
+                .cacheControl(CacheControl.maxAge(Duration.ofSeconds(fileUrl.maxAgeSeconds())).cachePublic())
                 .build();
     }
 
     /**
-     * 下载资产文件（流式返回文件内容）
+     * 下载资产文件（流式返回文件内容，支持 Range）
      * GET /assets/download/{id}
      * <p>
      * 与 /assets/file/{id}（302 重定向）不同，此端点直接返回文件字节流，
      * 并设置 Content-Disposition: attachment 强制浏览器下载。
      * 解决前端跨域 302 重定向导致无法触发下载的问题。
+     * <p>
+     * Range（RFC 7233）：单区间返回 206 + Content-Range，多区间返回 multipart/byteranges，
+     * 每个区间只从 MinIO 读取对应字节；If-Range 与对象 ETag 不符时返回完整内容，
+     * 区间均不可满足时返回 416。播放器拖动进度、断点续传不再从头传输
      */
     @GetMapping("/download/{id}")
-    public ResponseEntity<InputStreamResource> download(@PathVariable("id") Long id) {
-        log.info("下载资产文件: id={}", id);
-        var downloadInfo = assetService.getDownloadInfo(id);
+    public ResponseEntity<StreamingResponseBody> download(
+            @PathVariable("id") Long id,
+            @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+            @RequestHeader(value = HttpHeaders.IF_RANGE, required = false) String ifRange) {
 
-        // 中文文件名需要 URL 编码，遵循 RFC 5987
-        var encodedFileName = URLEncoder.encode(downloadInfo.fileName(), StandardCharsets.UTF_8)
-                .replace("+", "%20");
+        log.info("下载资产文件: id={}, range={}", id, range);
+        return rangeResponse(assetService.getDownloadInfo(id), "attachment", range, ifRange);
+    }
+
+    /**
+     * 试听片段（前 previewDuration 秒，支持 Range）
+     * GET /assets/{id}/preview
+     * <p>
+     * 片段在分析完成或作品试听时长变更后由服务端截取并存入 MinIO，
+     * 试听只传输片段本身，不再读取完整原始文件；片段尚未生成时返回 ASSET_NOT_FOUND
+     */
+    @GetMapping("/{id}/preview")
+    public ResponseEntity<StreamingResponseBody> preview(
+            @PathVariable("id") Long id,
+            @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+            @RequestHeader(value = HttpHeaders.IF_RANGE, required = false) String ifRange) {
+
+        log.debug("请求试听片段: id={}, range={}", id, range);
+        return rangeResponse(previewService.getPreview(id), "inline", range, ifRange);
+    }
+
+    /**
+     * 波形峰值（预计算的多级 min/max 二进制块，格式见 WaveformPeaks）
+     * GET /assets/{id}/peaks?level=0
+     * <p>
+     * 列表页取 level=0（最粗一级，数 KB）即可绘制波形，不再下载、解码完整音频；
+     * 不带 level 时返回全部级别。资产内容不可变，峰值长期缓存，
+     * 携带 If-None-Match 的请求在 ETag 一致时返回 304
+     */
+    @GetMapping("/{id}/peaks")
+    public ResponseEntity<byte[]> peaks(
+            @PathVariable("id") Long id,
+            @RequestParam(value = "level", required = false) Integer level) {
 
+        log.debug("请求波形峰值: id={}, level={}", id, level);
+        var peaks = waveformService.getPeaks(id, level);
         return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION,
-                        "attachment; filename=\"" + encodedFileName + "\"; filename*=UTF-8''" + encodedFileName)
-                .header(HttpHeaders.CONTENT_TYPE, downloadInfo.contentType())
-                .header(HttpHeaders.CONTENT_LENGTH, String.valueOf(downloadInfo.fileSize()))
-                .body(new InputStreamResource(downloadInfo.inputStream()));
+                .contentType(MediaType.parseMediaType(WaveformPeaks.CONTENT_TYPE))
+                .contentLength(peaks.data().length)
+                .eTag(ByteRanges.quote(peaks.etag()))
+                .cacheControl(CacheControl.maxAge(PEAKS_MAX_AGE).cachePublic().immutable())
+                .body(peaks.data());
     }
 
     /**
@@ -178,6 +253,67 @@ public class AssetController {
 
     // ==================== Private ====================
 
+    /**
+     * 按 Range / If-Range 返回完整内容（200）、单区间（206）、多区间（206 multipart/byteranges）或 416
+     */
+    private ResponseEntity<StreamingResponseBody> rangeResponse(
+            AssetService.DownloadInfo downloadInfo, String disposition, String range, String ifRange) {
+
+        var size = downloadInfo.fileSize();
+        var reader = downloadInfo.reader();
+
+        // 中文文件名需要 URL 编码，遵循 RFC 5987
+        var encodedFileName = URLEncoder.encode(downloadInfo.fileName(), StandardCharsets.UTF_8)
+                .replace("+", "%20");
+        var headers = new HttpHeaders();
+        headers.set(HttpHeaders.CONTENT_DISPOSITION,
+                disposition + "; filename=\"" + encodedFileName + "\"; filename*=UTF-8''" + encodedFileName);
+        headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (downloadInfo.etag() != null) {
+            headers.setETag(ByteRanges.quote(downloadInfo.etag()));
+        }
+
+        var ranges = ByteRanges.ifRangeMatches(ifRange, downloadInfo.etag(), downloadInfo.lastModified())
+                ? ByteRanges.parse(range, size)
+                : null;
+
+        // 1. 完整内容
+        if (ranges == null) {
+            headers.set(HttpHeaders.CONTENT_TYPE, downloadInfo.contentType());
+            headers.setContentLength(size);
+            var full = new ByteRanges.ByteRange(0, size - 1);
+            return ResponseEntity.ok().headers(headers)
+                    .body(out -> {
+                        if (size > 0) {
+                            ByteRanges.writeRange(out, full, reader);
+                        }
+                    });
+        }
+
+        // 2. 区间不可满足
+        if (ranges.isEmpty()) {
+            headers.set(HttpHeaders.CONTENT_RANGE, ByteRanges.unsatisfiedContentRange(size));
+            return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE).headers(headers).build();
+        }
+
+        // 3. 单区间
+        if (ranges.size() == 1) {
+            var single = ranges.get(0);
+            headers.set(HttpHeaders.CONTENT_TYPE, downloadInfo.contentType());
+            headers.set(HttpHeaders.CONTENT_RANGE, ByteRanges.contentRange(single, size));
+            headers.setContentLength(single.length());
+            return ResponseEntity.status(HttpStatus.PARTIAL_CONTENT).headers(headers)
+                    .body(out -> ByteRanges.writeRange(out, single, reader));
+        }
+
+        // 4. 多区间
+        var boundary = IdUtil.simpleUUID();
+        headers.set(HttpHeaders.CONTENT_TYPE, "multipart/byteranges; boundary=" + boundary);
+        headers.setContentLength(ByteRanges.multipartLength(ranges, size, downloadInfo.contentType(), boundary));
+        return ResponseEntity.status(HttpStatus.PARTIAL_CONTENT).headers(headers)
+                .body(out -> ByteRanges.writeMultipart(out, ranges, size, downloadInfo.contentType(), boundary, reader));
+    }
+
     /**
      * 校验用户身份
      */
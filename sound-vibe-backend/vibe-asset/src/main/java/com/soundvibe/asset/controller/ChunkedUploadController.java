@@ -0,0 +1,121 @@
+package com.soundvibe.asset.controller;
+
+import com.soundvibe.asset.model.dto.AssetDTO;
+import com.soundvibe.asset.model.dto.UploadInitRequest;
+import com.soundvibe.asset.model.dto.UploadPartDTO;
+import com.soundvibe.asset.model.dto.UploadSessionDTO;
+import com.soundvibe.asset.service.ChunkedUploadService;
+import com.soundvibe.common.exception.BizException;
+import com.soundvibe.common.result.Result;
+import com.soundvibe.common.result.ResultCode;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+
+/**
+ * 分片上传控制器（可断点续传）
+ * 大文件按分片上传，分片请求体为原始字节（application/octet-stream），不经过 multipart 解析
+ *
+ * @author SoundVibe Team
+ */
+@Slf4j
+@RestController
+@RequestMapping("/assets/uploads")
+@RequiredArgsConstructor
+public class ChunkedUploadController {
+
+    private final ChunkedUploadService chunkedUploadService;
+
+    /**
+     * 建立上传会话
+     * POST /assets/uploads
+     */
+    @PostMapping
+    public Result<UploadSessionDTO> init(
+            @RequestBody UploadInitRequest request,
+            @RequestHeader(value = "X-User-Id", required = false) Long userId) {
+
+        checkUserId(userId);
+        log.info("建立分片上传会话: userId={}, fileName={}, size={}", userId, request.fileName(), request.size());
+
+        return Result.success(chunkedUploadService.init(request, userId));
+    }
+
+    /**
+     * 查询上传会话（含已上传分片，用于断点续传）
+     * GET /assets/uploads/{uploadCode}
+     */
+    @GetMapping("/{uploadCode}")
+    public Result<UploadSessionDTO> getSession(
+            @PathVariable("uploadCode") String uploadCode,
+            @RequestHeader(value = "X-User-Id", required = false) Long userId) {
+
+        checkUserId(userId);
+        return Result.success(chunkedUploadService.getSession(uploadCode, userId));
+    }
+
+    /**
+     * 上传分片（请求体即分片数据，必须携带 Content-Length）
+     * PUT /assets/uploads/{uploadCode}/parts/{partNumber}
+     */
+    @PutMapping(value = "/{uploadCode}/parts/{partNumber}", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public Result<UploadPartDTO> uploadPart(
+            @PathVariable("uploadCode") String uploadCode,
+            @PathVariable("partNumber") int partNumber,
+            @RequestHeader(value = "X-User-Id", required = false) Long userId,
+            HttpServletRequest request) throws IOException {
+
+        checkUserId(userId);
+        long size = request.getContentLengthLong();
+        if (size < 0) {
+            throw new BizException(ResultCode.PARAM_ERROR, "分片上传须携带 Content-Length");
+        }
+
+        var part = chunkedUploadService.uploadPart(uploadCode, partNumber, request.getInputStream(), size, userId);
+        return Result.success(part);
+    }
+
+    /**
+     * 合并分片并登记资产
+     * POST /assets/uploads/{uploadCode}/complete
+     */
+    @PostMapping("/{uploadCode}/complete")
+    public Result<AssetDTO> complete(
+            @PathVariable("uploadCode") String uploadCode,
+            @RequestHeader(value = "X-User-Id", required = false) Long userId) {
+
+        checkUserId(userId);
+        log.info("合并分片上传: userId={}, uploadCode={}", userId, uploadCode);
+
+        return Result.success(chunkedUploadService.complete(uploadCode, userId));
+    }
+
+    /**
+     * 取消上传
+     * DELETE /assets/uploads/{uploadCode}
+     */
+    @DeleteMapping("/{uploadCode}")
+    public Result<Void> abort(
+            @PathVariable("uploadCode") String uploadCode,
+            @RequestHeader(value = "X-User-Id", required = false) Long userId) {
+
+        checkUserId(userId);
+        chunkedUploadService.abort(uploadCode, userId);
+        return Result.success(null);
+    }
+
+    // ==================== Private ====================
+
+    /**
+     * 校验用户身份
+     */
+    private void checkUserId(Long userId) {
+        if (userId == null) {
+            throw new BizException(ResultCode.UNAUTHORIZED, "缺少用户身份信息（X-User-Id）");
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.soundvibe.asset.controller;
+
+import com.soundvibe.asset.model.dto.AssetDTO;
+import com.soundvibe.asset.model.dto.UploadIntentDTO;
+import com.soundvibe.asset.model.dto.UploadIntentRequest;
+import com.soundvibe.asset.service.DirectUploadService;
+import com.soundvibe.common.exception.BizException;
+import com.soundvibe.common.result.Result;
+import com.soundvibe.common.result.ResultCode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * 直传控制器
+ * 签发预签名 POST 表单，客户端直接上传到 MinIO 后确认，文件字节不经过网关与资产服务
+ *
+ * @author SoundVibe Team
+ */
+@Slf4j
+@RestController
+@RequestMapping("/assets/upload-intent")
+@RequiredArgsConstructor
+public class DirectUploadController {
+
+    private final DirectUploadService directUploadService;
+
+    /**
+     * 签发上传意图
+     * POST /assets/upload-intent
+     */
+    @PostMapping
+    public Result<UploadIntentDTO> createIntent(
+            @RequestBody UploadIntentRequest request,
+            @RequestHeader(value = "X-User-Id", required = false) Long userId) {
+
+        checkUserId(userId);
+        log.info("签发直传意图: userId={}, fileName={}, size={}", userId, request.fileName(), request.size());
+
+        return Result.success(directUploadService.createIntent(request, userId));
+    }
+
+    /**
+     * 确认直传完成并登记资产
+     * POST /assets/upload-intent/{intentCode}/complete
+     */
+    @PostMapping("/{intentCode}/complete")
+    public Result<AssetDTO> complete(
+            @PathVariable("intentCode") String intentCode,
+            @RequestHeader(value = "X-User-Id", required = false) Long userId) {
+
+        checkUserId(userId);
+        log.info("确认直传: userId={}, intentCode={}", userId, intentCode);
+
+        return Result.success(directUploadService.complete(intentCode, userId));
+    }
+
+    // ==================== Private ====================
+
+    /**
+     * 校验用户身份
+     */
+    private void checkUserId(Long userId) {
+        if (userId == null) {
+            throw new BizException(ResultCode.UNAUTHORIZED, "缺少用户身份信息（X-User-Id）");
+        }
+    }
+}
@@ -97,6 +97,13 @@ public class Asset extends BaseEntity {
     @TableField("duration")
     private Integer duration;
 
+    /**
+     * 文件内容的 SHA-256（十六进制，64 位）
+     * 上传时随字节流写入 MinIO 一并计算；内容相同的资产共用同一 MinIO 对象与分析结果
+     */
+    @TableField("content_hash")
+    private String contentHash;
+
     /**
      * 自动标注标签（逗号分隔）
      * 由 vibe-analysis 服务通过 CLAP Zero-Shot Audio Tagging 生成
@@ -104,6 +111,33 @@ public class Asset extends BaseEntity {
     @TableField("auto_tags")
     private String autoTags;
 
+    /**
+     * 试听片段的 MinIO 对象名（与原文件同目录、按资产区分，如 audio/2026/02/uuid.preview-42.mp3）
+     * 分析完成或作品试听时长变更后生成，仅音频类型有效
+     */
+    @TableField("preview_name")
+    private String previewName;
+
+    /**
+     * 试听片段的目标时长（秒），与作品 previewDuration 不一致时重新生成
+     */
+    @TableField("preview_duration")
+    private Integer previewDuration;
+
+    /**
+     * 波形峰值的 MinIO 对象名（与原文件同目录，如 audio/2026/02/uuid.peaks）
+     * 由 vibe-analysis 服务分析时写入，格式见 WaveformPeaks
+     */
+    @TableField("peaks_name")
+    private String peaksName;
+
+    /**
+     * 已生成的缩略图尺寸（长边像素，逗号分隔，如 64,256,640），仅图片类型有效
+     * NULL 表示尚未处理；空字符串表示无需或无法生成（使用原图）
+     */
+    @TableField("thumbnail_sizes")
+    private String thumbnailSizes;
+
     /**
      * 逻辑删除标记: 0=未删除, 1=已删除
      * MyBatis-Plus 会自动在查询时追加 WHERE deleted = 0
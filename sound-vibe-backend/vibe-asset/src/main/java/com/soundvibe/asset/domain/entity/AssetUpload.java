@@ -0,0 +1,95 @@
+package com.soundvibe.asset.domain.entity;
+
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableName;
+import com.soundvibe.asset.enums.AssetType;
+import com.soundvibe.asset.enums.UploadStatus;
+import com.soundvibe.common.domain.BaseEntity;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.util.Date;
+
+/**
+ * 分片上传会话实体
+ * 对应数据库表 asset_uploads，一个会话对应一个 MinIO 分片上传（uploadId）
+ *
+ * @author SoundVibe Team
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+@TableName("asset_uploads")
+public class AssetUpload extends BaseEntity {
+
+    /**
+     * 会话编码（对外唯一标识，UUID）
+     */
+    @TableField("upload_code")
+    private String uploadCode;
+
+    /**
+     * 上传者用户 ID
+     */
+    @TableField("user_id")
+    private Long userId;
+
+    /**
+     * MinIO 分片上传 ID
+     */
+    @TableField("upload_id")
+    private String uploadId;
+
+    /**
+     * 合并后的 MinIO 对象名
+     */
+    @TableField("storage_name")
+    private String storageName;
+
+    /**
+     * 原始文件名
+     */
+    @TableField("original_name")
+    private String originalName;
+
+    /**
+     * 资产类型
+     */
+    @TableField("type")
+    private AssetType type;
+
+    /**
+     * 文件总大小（字节）
+     */
+    @TableField("total_size")
+    private Long totalSize;
+
+    /**
+     * 分片大小（字节，最后一个分片可更小）
+     */
+    @TableField("part_size")
+    private Long partSize;
+
+    /**
+     * 分片总数
+     */
+    @TableField("part_count")
+    private Integer partCount;
+
+    /**
+     * 会话状态: 0=上传中, 1=已合并, 2=已取消
+     */
+    @TableField("status")
+    private UploadStatus status;
+
+    /**
+     * 合并后登记的资产 ID
+     */
+    @TableField("asset_id")
+    private Long assetId;
+
+    /**
+     * 过期时间（过期未合并的会话由定时任务取消）
+     */
+    @TableField("expire_time")
+    private Date expireTime;
+}
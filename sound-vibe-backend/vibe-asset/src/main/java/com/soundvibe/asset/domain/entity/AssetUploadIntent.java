@@ -0,0 +1,84 @@
+package com.soundvibe.asset.domain.entity;
+
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableName;
+import com.soundvibe.asset.enums.AssetType;
+import com.soundvibe.asset.enums.UploadStatus;
+import com.soundvibe.common.domain.BaseEntity;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.util.Date;
+
+/**
+ * 直传意图实体
+ * 对应数据库表 asset_upload_intents，记录签发给客户端的预签名 POST 表单，
+ * 客户端直传 MinIO 后凭意图编码确认，服务端校验对象并登记资产
+ *
+ * @author SoundVibe Team
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+@TableName("asset_upload_intents")
+public class AssetUploadIntent extends BaseEntity {
+
+    /**
+     * 意图编码（对外唯一标识，UUID）
+     */
+    @TableField("intent_code")
+    private String intentCode;
+
+    /**
+     * 上传者用户 ID
+     */
+    @TableField("user_id")
+    private Long userId;
+
+    /**
+     * 签发的 MinIO 对象名（POST 策略限定该 key）
+     */
+    @TableField("storage_name")
+    private String storageName;
+
+    /**
+     * 原始文件名
+     */
+    @TableField("original_name")
+    private String originalName;
+
+    /**
+     * 资产类型
+     */
+    @TableField("type")
+    private AssetType type;
+
+    /**
+     * 声明的文件大小（字节，POST 策略限定）
+     */
+    @TableField("size")
+    private Long size;
+
+    /**
+     * 声明的 MIME 类型（POST 策略限定）
+     */
+    @TableField("content_type")
+    private String contentType;
+
+    /**
+     * 状态: 0=待上传, 1=已确认, 2=已取消（复用分片上传状态）
+     */
+    @TableField("status")
+    private UploadStatus status;
+
+    /**
+     * 确认后登记的资产 ID
+     */
+    @TableField("asset_id")
+    private Long assetId;
+
+    /**
+     * 过期时间（过期未确认的意图由定时任务取消）
+     */
+    @TableField("expire_time")
+    private Date expireTime;
+}
@@ -0,0 +1,43 @@
+package com.soundvibe.asset.domain.entity;
+
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableName;
+import com.soundvibe.common.domain.BaseEntity;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+/**
+ * 已上传分片实体
+ * 对应数据库表 asset_upload_parts，记录每个分片的 ETag，用于断点续传与合并
+ *
+ * @author SoundVibe Team
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+@TableName("asset_upload_parts")
+public class AssetUploadPart extends BaseEntity {
+
+    /**
+     * 所属会话 ID（关联 asset_uploads.id）
+     */
+    @TableField("session_id")
+    private Long sessionId;
+
+    /**
+     * 分片号（从 1 开始）
+     */
+    @TableField("part_number")
+    private Integer partNumber;
+
+    /**
+     * MinIO 返回的分片 ETag
+     */
+    @TableField("etag")
+    private String etag;
+
+    /**
+     * 分片大小（字节）
+     */
+    @TableField("size")
+    private Long size;
+}
@@ -5,6 +5,9 @@ import com.fasterxml.jackson.annotation.JsonValue;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 
+import cn.hutool.core.util.IdUtil;
+
+import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -88,4 +91,44 @@ public enum AssetType {
     public boolean isTradeable() {
         return this == AUDIO || this == MIDI;
     }
+
+    /**
+     * 生成该类型文件的 MinIO 对象存储名称
+     * 格式: {type}/{year}/{month}/{uuid}.{ext}
+     * 示例: audio/2026/02/a1b2c3d4e5f6.mp3
+     *
+     * @param extension 文件扩展名（不含 '.'）
+     * @return 对象存储名称
+     */
+    public String newStorageName(String extension) {
+        var now = LocalDate.now();
+        return String.join("/",
+                value.toLowerCase(),
+                String.valueOf(now.getYear()),
+                String.format("%02d", now.getMonthValue()),
+                IdUtil.simpleUUID() + "." + extension.toLowerCase()
+        );
+    }
+
+    /**
+     * 根据文件扩展名推断 Content-Type
+     *
+     * @param extension 文件扩展名（不含 '.'，可为 null）
+     * @return MIME 类型，无法识别时为 application/octet-stream
+     */
+    public static String contentTypeOf(String extension) {
+        if (extension == null) return "application/octet-stream";
+        return switch (extension.toLowerCase()) {
+            case "mp3" -> "audio/mpeg";
+            case "wav" -> "audio/wav";
+            case "flac" -> "audio/flac";
+            case "aac" -> "audio/aac";
+            case "ogg" -> "audio/ogg";
+            case "mid", "midi" -> "audio/midi";
+            case "jpg", "jpeg" -> "image/jpeg";
+            case "png" -> "image/png";
+            case "webp" -> "image/webp";
+            default -> "application/octet-stream";
+        };
+    }
 }
@@ -0,0 +1,43 @@
+package com.soundvibe.asset.enums;
+
+import com.baomidou.mybatisplus.annotation.EnumValue;
+import com.fasterxml.jackson.annotation.JsonValue;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 分片上传会话状态枚举
+ *
+ * @author SoundVibe Team
+ */
+@Getter
+@AllArgsConstructor
+public enum UploadStatus {
+
+    /**
+     * 上传中（可继续上传分片、合并或取消）
+     */
+    UPLOADING(0, "上传中"),
+
+    /**
+     * 已合并（资产已登记）
+     */
+    COMPLETED(1, "已合并"),
+
+    /**
+     * 已取消（用户取消或过期清理，MinIO 分片已释放）
+     */
+    ABORTED(2, "已取消");
+
+    /**
+     * 数据库存储值
+     */
+    @EnumValue
+    @JsonValue
+    private final Integer code;
+
+    /**
+     * 状态描述
+     */
+    private final String description;
+}
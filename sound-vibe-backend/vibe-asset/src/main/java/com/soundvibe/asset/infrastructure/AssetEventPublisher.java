@@ -7,6 +7,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.stereotype.Component;
 
+import java.util.Map;
+
 /**
  * 资产事件发布器
  * 负责将资产生命周期事件发送到 RabbitMQ
@@ -44,4 +46,46 @@ public class AssetEventPublisher {
             log.error("资产上传事件发布失败: assetId={}, storageName={}", assetId, storageName, e);
         }
     }
+
+    /**
+     * 发布「图片上传完成」事件
+     * 路由键为 asset.image.uploaded，由本服务的缩略图监听器消费
+     *
+     * @param assetId     资产数据库主键
+     * @param storageName MinIO 存储对象名
+     */
+    public void publishImageUploadedEvent(Long assetId, String storageName) {
+        var event = new AssetUploadedEvent(assetId, storageName);
+        try {
+            rabbitTemplate.convertAndSend(
+                    RabbitMQConfig.ASSET_TOPIC_EXCHANGE,
+                    RabbitMQConfig.ROUTING_KEY_IMAGE_UPLOADED,
+                    event
+            );
+            log.info("图片上传事件已发布: assetId={}, storageName={}", assetId, storageName);
+        } catch (Exception e) {
+            // 发送失败由定时补生成兜底
+            log.error("图片上传事件发布失败: assetId={}, storageName={}", assetId, storageName, e);
+        }
+    }
+
+    /**
+     * 发布「试听片段请求」事件
+     * 路由键为 asset.preview.requested，由本服务的试听片段监听器消费；不带时长，按作品设置或默认时长生成
+     *
+     * @param assetId 资产数据库主键
+     */
+    public void publishPreviewRequestedEvent(Long assetId) {
+        try {
+            rabbitTemplate.convertAndSend(
+                    RabbitMQConfig.ASSET_TOPIC_EXCHANGE,
+                    RabbitMQConfig.ROUTING_KEY_PREVIEW_REQUESTED,
+                    Map.of("assetId", assetId)
+            );
+            log.info("试听片段请求已发布: assetId={}", assetId);
+        } catch (Exception e) {
+            // 发送失败时片段缺失，作品试听设置变更时会重新请求
+            log.error("试听片段请求发布失败: assetId={}", assetId, e);
+        }
+    }
 }
@@ -0,0 +1,360 @@
+package com.soundvibe.asset.infrastructure;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 音频片段截取（纯 Java，不重新编码）
+ * <p>
+ * WAV：按 RIFF 分块解析，保留 fmt 块，data 块截取 seconds * byteRate 字节（按 blockAlign 对齐），
+ * 重写 RIFF / data 长度；其余分块（LIST、bext 等）丢弃。输出为「新文件头 + 原始 PCM 的前缀」，
+ * 大小预先可知，PCM 部分直接从输入流透传，不在内存中缓冲
+ * <p>
+ * MP3（MPEG Layer III）：跳过 ID3v2 标签，逐帧解析帧头（版本 / 比特率 / 采样率 / padding），
+ * 按整帧复制，累计采样数达到 seconds * sampleRate 即停止，切点精确到帧（MPEG-1 每帧 1152 个采样，约 26ms）。
+ * 首帧为 Xing / Info / VBRI 信息帧时丢弃（其中的总帧数对片段不成立，播放器会显示错误的时长）。
+ * 帧之间的垃圾字节会被跳过并重新同步；片段按帧在内存中累积（时长有上限，320kbps 下每分钟约 2.4MB）
+ *
+ * @author SoundVibe Team
+ */
+public final class AudioClipCutter {
+
+    /**
+     * MP3 重新同步时最多跳过的字节数，超出则认为不是有效的 MP3 流
+     */
+    private static final int MAX_RESYNC_BYTES = 64 * 1024;
+
+    private static final int[] MPEG1_L3_BITRATES = {0, 32, 40, 48, 56, 64, 80, 96, 112, 128, 160, 192, 224, 256, 320};
+    private static final int[] MPEG2_L3_BITRATES = {0, 8, 16, 24, 32, 40, 48, 56, 64, 80, 96, 112, 128, 144, 160};
+    private static final int[] MPEG1_SAMPLE_RATES = {44100, 48000, 32000};
+
+    private AudioClipCutter() {
+    }
+
+    /**
+     * 截取 WAV 片段
+     *
+     * @param in      原始 WAV 数据流（从文件头开始）；返回的片段流读取时继续消费它，调用方负责关闭
+     * @param seconds 片段时长（秒）
+     * @return 片段（长度已知，流式读取）
+     */
+    public static Clip cutWav(InputStream in, int seconds) throws IOException {
+        var data = new DataInputStream(in);
+        var riff = readTag(data);
+        if ("RF64".equals(riff)) {
+            throw new UnsupportedAudioException("不支持 RF64 格式的 WAV");
+        }
+        data.readInt();
+        if (!"RIFF".equals(riff) || !"WAVE".equals(readTag(data))) {
+            throw new UnsupportedAudioException("不是有效的 WAV 文件");
+        }
+
+        byte[] fmt = null;
+        while (true) {
+            String chunkId;
+            long chunkSize;
+            try {
+                chunkId = readTag(data);
+                chunkSize = Integer.toUnsignedLong(Integer.reverseBytes(data.readInt()));
+            } catch (EOFException e) {
+                throw new UnsupportedAudioException("WAV 文件缺少 data 块");
+            }
+
+            if ("fmt ".equals(chunkId)) {
+                if (chunkSize < 16 || chunkSize > 1024) {
+                    throw new UnsupportedAudioException("WAV fmt 块长度异常: " + chunkSize);
+                }
+                fmt = new byte[(int) chunkSize];
+                data.readFully(fmt);
+                skipFully(data, chunkSize & 1);
+            } else if ("data".equals(chunkId)) {
+                if (fmt == null) {
+                    throw new UnsupportedAudioException("WAV data 块位于 fmt 块之前");
+                }
+                var format = ByteBuffer.wrap(fmt).order(ByteOrder.LITTLE_ENDIAN);
+                long byteRate = Integer.toUnsignedLong(format.getInt(8));
+                int blockAlign = Short.toUnsignedInt(format.getShort(12));
+                if (byteRate == 0 || blockAlign == 0) {
+                    throw new UnsupportedAudioException("WAV fmt 块缺少 byteRate / blockAlign");
+                }
+                // 流式录制的 WAV 可能把 data 长度写为 0 或 0xFFFFFFFF，此时以读到的实际数据为准
+                boolean sizeUnknown = chunkSize == 0 || chunkSize == 0xFFFFFFFFL;
+                long clipBytes = byteRate * seconds;
+                if (!sizeUnknown) {
+                    clipBytes = Math.min(clipBytes, chunkSize);
+                }
+                clipBytes -= clipBytes % blockAlign;
+                if ((clipBytes & 1) == 1) {
+                    // RIFF 分块须为偶数长度：blockAlign 为奇数时再去掉一个采样帧
+                    clipBytes -= blockAlign;
+                }
+                if (sizeUnknown) {
+                    return bufferedWav(data, fmt, clipBytes, blockAlign);
+                }
+                return new Clip(new SequenceInputStream(
+                        new ByteArrayInputStream(wavHeader(fmt, clipBytes)), new BoundedInputStream(data, clipBytes)),
+                        wavHeaderLength(fmt) + clipBytes, "audio/wav");
+            } else {
+                skipFully(data, chunkSize + (chunkSize & 1));
+            }
+        }
+    }
+
+    /**
+     * 截取 MP3 片段（Layer III）
+     *
+     * @param in      原始 MP3 数据流（从文件头开始），调用方负责关闭
+     * @param seconds 片段时长（秒）
+     * @return 片段
+     */
+    public static Clip cutMp3(InputStream in, int seconds) throws IOException {
+        var source = new PushbackInputStream(new BufferedInputStream(in, 64 * 1024), 10);
+        skipId3v2(source);
+
+        var out = new ByteArrayOutputStream();
+        var header = new byte[4];
+        long samples = 0;
+        long targetSamples = -1;
+        int frames = 0;
+        int sampleRate = -1;
+        int skipped = 0;
+
+        while (targetSamples < 0 || samples < targetSamples) {
+            if (!readFully(source, header, 0, 4)) {
+                break;
+            }
+            var frame = FrameHeader.parse(header);
+            if (frame == null || (sampleRate > 0 && frame.sampleRate() != sampleRate)) {
+                // 非帧头：前移一个字节重新同步
+                source.unread(header, 1, 3);
+                if (++skipped > MAX_RESYNC_BYTES) {
+                    if (frames == 0) {
+                        throw new UnsupportedAudioException("未找到有效的 MP3 帧");
+                    }
+                    break;
+                }
+                continue;
+            }
+            var body = new byte[frame.length() - 4];
+            if (!readFully(source, body, 0, body.length)) {
+                // 文件末尾的不完整帧丢弃
+                break;
+            }
+            skipped = 0;
+            if (sampleRate < 0) {
+                sampleRate = frame.sampleRate();
+                targetSamples = (long) sampleRate * seconds;
+                if (frame.isInfoFrame(body)) {
+                    continue;
+                }
+            }
+            out.write(header);
+            out.write(body);
+            samples += frame.samplesPerFrame();
+            frames++;
+        }
+        if (frames == 0) {
+            throw new UnsupportedAudioException("未找到有效的 MP3 帧");
+        }
+        return new Clip(new ByteArrayInputStream(out.toByteArray()), out.size(), "audio/mpeg");
+    }
+
+    // ======================== Private Methods ========================
+
+    /**
+     * data 长度未知时先读出片段（最多 clipBytes），再以实际长度写文件头
+     */
+    private static Clip bufferedWav(InputStream data, byte[] fmt, long clipBytes, int blockAlign) throws IOException {
+        var pcm = new ByteArrayOutputStream();
+        new BoundedInputStream(data, clipBytes).transferTo(pcm);
+        long actual = pcm.size();
+        actual -= actual % blockAlign;
+        if ((actual & 1) == 1) {
+            actual -= blockAlign;
+        }
+        var header = wavHeader(fmt, actual);
+        return new Clip(new SequenceInputStream(new ByteArrayInputStream(header),
+                new ByteArrayInputStream(pcm.toByteArray(), 0, (int) actual)),
+                header.length + actual, "audio/wav");
+    }
+
+    private static int wavHeaderLength(byte[] fmt) {
+        return 12 + 8 + fmt.length + (fmt.length & 1) + 8;
+    }
+
+    private static byte[] wavHeader(byte[] fmt, long dataBytes) {
+        int headerLength = wavHeaderLength(fmt);
+        var buffer = ByteBuffer.allocate(headerLength).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.put("RIFF".getBytes(StandardCharsets.US_ASCII));
+        buffer.putInt((int) (headerLength - 8 + dataBytes));
+        buffer.put("WAVE".getBytes(StandardCharsets.US_ASCII));
+        buffer.put("fmt ".getBytes(StandardCharsets.US_ASCII));
+        buffer.putInt(fmt.length);
+        buffer.put(fmt);
+        if ((fmt.length & 1) == 1) {
+            buffer.put((byte) 0);
+        }
+        buffer.put("data".getBytes(StandardCharsets.US_ASCII));
+        buffer.putInt((int) dataBytes);
+        return buffer.array();
+    }
+
+    private static String readTag(DataInputStream in) throws IOException {
+        var tag = new byte[4];
+        in.readFully(tag);
+        return new String(tag, StandardCharsets.US_ASCII);
+    }
+
+    private static void skipFully(InputStream in, long bytes) throws IOException {
+        long remaining = bytes;
+        while (remaining > 0) {
+            long skipped = in.skip(remaining);
+            if (skipped <= 0) {
+                if (in.read() == -1) {
+                    throw new EOFException();
+                }
+                skipped = 1;
+            }
+            remaining -= skipped;
+        }
+    }
+
+    private static boolean readFully(InputStream in, byte[] buffer, int offset, int length) throws IOException {
+        int read = 0;
+        while (read < length) {
+            int n = in.read(buffer, offset + read, length - read);
+            if (n == -1) {
+                return false;
+            }
+            read += n;
+        }
+        return true;
+    }
+
+    /**
+     * 跳过文件开头的 ID3v2 标签（长度为 synchsafe 整数，带 footer 时再加 10 字节）
+     */
+    private static void skipId3v2(PushbackInputStream in) throws IOException {
+        var header = new byte[10];
+        if (!readFully(in, header, 0, 10)) {
+            throw new UnsupportedAudioException("MP3 文件过短");
+        }
+        if (header[0] != 'I' || header[1] != 'D' || header[2] != '3') {
+            in.unread(header);
+            return;
+        }
+        int size = ((header[6] & 0x7F) << 21) | ((header[7] & 0x7F) << 14) | ((header[8] & 0x7F) << 7) | (header[9] & 0x7F);
+        boolean footer = (header[5] & 0x10) != 0;
+        skipFully(in, size + (footer ? 10 : 0));
+    }
+
+    /**
+     * MPEG 音频帧头（仅 Layer III）
+     */
+    private record FrameHeader(boolean mpeg1, boolean mono, int sampleRate, int length) {
+
+        static FrameHeader parse(byte[] h) {
+            if ((h[0] & 0xFF) != 0xFF || (h[1] & 0xE0) != 0xE0) {
+                return null;
+            }
+            int version = (h[1] >> 3) & 0x3;
+            int layer = (h[1] >> 1) & 0x3;
+            int bitrateIndex = (h[2] >> 4) & 0xF;
+            int sampleRateIndex = (h[2] >> 2) & 0x3;
+            int padding = (h[2] >> 1) & 0x1;
+            // version 1 保留；layer 1 即 Layer III；比特率 0 为 free format（不支持），15 无效；采样率 3 保留
+            if (version == 1 || layer != 1 || bitrateIndex == 0 || bitrateIndex == 15 || sampleRateIndex == 3) {
+                return null;
+            }
+            boolean mpeg1 = version == 3;
+            int sampleRate = MPEG1_SAMPLE_RATES[sampleRateIndex] >> (mpeg1 ? 0 : version == 2 ? 1 : 2);
+            int bitrate = (mpeg1 ? MPEG1_L3_BITRATES : MPEG2_L3_BITRATES)[bitrateIndex] * 1000;
+            int length = (mpeg1 ? 144 : 72) * bitrate / sampleRate + padding;
+            boolean mono = ((h[3] >> 6) & 0x3) == 3;
+            return new FrameHeader(mpeg1, mono, sampleRate, length);
+        }
+
+        int samplesPerFrame() {
+            return mpeg1 ? 1152 : 576;
+        }
+
+        /**
+         * Xing / Info 标签位于 side info 之后；VBRI 固定在帧头后 32 字节
+         */
+        boolean isInfoFrame(byte[] body) {
+            int sideInfo = mpeg1 ? (mono ? 17 : 32) : (mono ? 9 : 17);
+            return hasTag(body, sideInfo, "Xing") || hasTag(body, sideInfo, "Info") || hasTag(body, 32, "VBRI");
+        }
+
+        private static boolean hasTag(byte[] body, int offset, String tag) {
+            if (body.length < offset + 4) {
+                return false;
+            }
+            for (int i = 0; i < 4; i++) {
+                if (body[offset + i] != tag.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * 限制读取长度的输入流（不关闭底层流之外的资源）
+     */
+    private static final class BoundedInputStream extends FilterInputStream {
+
+        private long remaining;
+
+        private BoundedInputStream(InputStream in, long limit) {
+            super(in);
+            this.remaining = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int b = super.read();
+            if (b != -1) {
+                remaining--;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int n = super.read(b, off, (int) Math.min(len, remaining));
+            if (n > 0) {
+                remaining -= n;
+            }
+            return n;
+        }
+    }
+
+    /**
+     * 截取结果
+     *
+     * @param stream      片段数据流
+     * @param size        片段字节数
+     * @param contentType MIME 类型
+     */
+    public record Clip(InputStream stream, long size, String contentType) {
+    }
+
+    /**
+     * 不支持或无法解析的音频
+     */
+    public static class UnsupportedAudioException extends IOException {
+
+        public UnsupportedAudioException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.soundvibe.asset.infrastructure;
+
+import org.springframework.http.HttpRange;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * HTTP 字节范围请求（RFC 7233）
+ * <p>
+ * - 解析 Range 头，换算为对象内的闭区间，重叠或相邻的区间合并
+ * - If-Range 校验：实体标签须与对象 ETag 强匹配，或 HTTP 日期与对象修改时间一致，否则按完整响应处理
+ * - 多区间响应按 multipart/byteranges 逐段写出，每段单独向存储读取 [offset, offset + length)，
+ *   Content-Length 预先算出
+ * <p>
+ * 读取由 RangeReader 提供，与存储解耦（下载时对应 MinIO GetObject 的 offset / length）
+ *
+ * @author SoundVibe Team
+ */
+public final class ByteRanges {
+
+    /**
+     * 单个请求最多处理的区间数，超出时忽略 Range 头返回完整内容
+     */
+    public static final int MAX_RANGES = 16;
+
+    private static final int COPY_BUFFER_SIZE = 8192;
+    private static final String CRLF = "\r\n";
+
+    private ByteRanges() {
+    }
+
+    /**
+     * 解析 Range 头
+     *
+     * @param rangeHeader Range 头（可为空）
+     * @param size        对象大小
+     * @return null 表示应忽略 Range（未携带、语法错误、非 bytes 单位或区间过多），
+     *         空列表表示所有区间均不可满足（416），否则为按起点排序、合并后的区间
+     */
+    public static List<ByteRange> parse(String rangeHeader, long size) {
+        if (rangeHeader == null || rangeHeader.isBlank()) {
+            return null;
+        }
+        List<HttpRange> httpRanges;
+        try {
+            httpRanges = HttpRange.parseRanges(rangeHeader);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        if (httpRanges.isEmpty() || httpRanges.size() > MAX_RANGES) {
+            return null;
+        }
+
+        List<ByteRange> ranges = new ArrayList<>();
+        for (var httpRange : httpRanges) {
+            // HttpRange 不校验起点是否越界：起点超出对象末尾（或对象为空）的区间不可满足，跳过
+            long start = httpRange.getRangeStart(size);
+            long end = httpRange.getRangeEnd(size);
+            if (start < size && start <= end) {
+                ranges.add(new ByteRange(start, end));
+            }
+        }
+        return coalesce(ranges);
+    }
+
+    /**
+     * If-Range 校验：未携带时视为匹配
+     *
+     * @param ifRange      If-Range 头
+     * @param etag         对象 ETag（不含引号）
+     * @param lastModified 对象修改时间
+     */
+    public static boolean ifRangeMatches(String ifRange, String etag, ZonedDateTime lastModified) {
+        if (ifRange == null || ifRange.isBlank()) {
+            return true;
+        }
+        var value = ifRange.trim();
+        if (value.startsWith("W/")) {
+            // 弱标签不能用于范围请求
+            return false;
+        }
+        if (value.startsWith("\"")) {
+            return etag != null && value.equals(quote(etag));
+        }
+        if (lastModified == null) {
+            return false;
+        }
+        try {
+            var date = ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME);
+            return date.toInstant().equals(lastModified.toInstant().truncatedTo(ChronoUnit.SECONDS));
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Content-Range 头的值
+     */
+    public static String contentRange(ByteRange range, long size) {
+        return "bytes " + range.start() + "-" + range.end() + "/" + size;
+    }
+
+    /**
+     * 416 响应的 Content-Range 头的值
+     */
+    public static String unsatisfiedContentRange(long size) {
+        return "bytes */" + size;
+    }
+
+    /**
+     * 带引号的 ETag 头的值
+     */
+    public static String quote(String etag) {
+        return "\"" + etag.replace("\"", "") + "\"";
+    }
+
+    /**
+     * multipart/byteranges 响应体的总长度
+     */
+    public static long multipartLength(List<ByteRange> ranges, long size, String contentType, String boundary) {
+        long length = 0;
+        for (var range : ranges) {
+            length += partHeader(range, size, contentType, boundary).length + range.length();
+        }
+        return length + closeDelimiter(boundary).length;
+    }
+
+    /**
+     * 写出单个区间
+     */
+    public static void writeRange(OutputStream out, ByteRange range, RangeReader reader) throws IOException {
+        try (var in = reader.open(range.start(), range.length())) {
+            copy(in, out, range.length());
+        }
+    }
+
+    /**
+     * 按 multipart/byteranges 写出多个区间，每段单独读取
+     */
+    public static void writeMultipart(OutputStream out, List<ByteRange> ranges, long size, String contentType,
+                                      String boundary, RangeReader reader) throws IOException {
+        for (var range : ranges) {
+            out.write(partHeader(range, size, contentType, boundary));
+            writeRange(out, range, reader);
+        }
+        out.write(closeDelimiter(boundary));
+    }
+
+    // ======================== Private Methods ========================
+
+    private static List<ByteRange> coalesce(List<ByteRange> ranges) {
+        ranges.sort(Comparator.comparingLong(ByteRange::start));
+        List<ByteRange> merged = new ArrayList<>();
+        for (var range : ranges) {
+            var last = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+            if (last != null && range.start() <= last.end() + 1) {
+                merged.set(merged.size() - 1, new ByteRange(last.start(), Math.max(last.end(), range.end())));
+            } else {
+                merged.add(range);
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * 每段之前的分隔行与段头（首段前同样有 CRLF，符合 RFC 2046 的 dash-boundary 前导）
+     */
+    private static byte[] partHeader(ByteRange range, long size, String contentType, String boundary) {
+        return (CRLF + "--" + boundary + CRLF
+                + "Content-Type: " + contentType + CRLF
+                + "Content-Range: " + contentRange(range, size) + CRLF
+                + CRLF).getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static byte[] closeDelimiter(String boundary) {
+        return (CRLF + "--" + boundary + "--" + CRLF).getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static void copy(InputStream in, OutputStream out, long length) throws IOException {
+        var buffer = new byte[COPY_BUFFER_SIZE];
+        long remaining = length;
+        while (remaining > 0) {
+            int read = in.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+            if (read == -1) {
+                throw new EOFException("对象数据不足: 还差 " + remaining + " 字节");
+            }
+            out.write(buffer, 0, read);
+            remaining -= read;
+        }
+    }
+
+    /**
+     * 闭区间 [start, end]
+     */
+    public record ByteRange(long start, long end) {
+
+        public long length() {
+            return end - start + 1;
+        }
+    }
+
+    /**
+     * 按偏移与长度读取对象（调用方负责关闭返回的流）
+     */
+    @FunctionalInterface
+    public interface RangeReader {
+
+        InputStream open(long offset, long length) throws IOException;
+    }
+}
@@ -0,0 +1,189 @@
+package com.soundvibe.asset.infrastructure;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import java.awt.Color;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * 图片缩略图生成（JDK Image I/O，无本地依赖）
+ * <p>
+ * - 只解码一次：按最大目标尺寸的 2 倍做源采样（ImageReadParam.setSourceSubsampling），
+ *   3000×3000 的封面按 640 生成时只解码约 1500×1500，内存与耗时约为完整解码的 1/4
+ * - 逐级减半缩放后再缩放到目标尺寸，避免一次缩小过多产生锯齿；较小的尺寸由较大的缩略图继续缩小
+ * - 输出 JPEG（JDK 不含 WebP 编码器），透明区域以白色填充
+ *
+ * @author SoundVibe Team
+ */
+public final class ImageThumbnailer {
+
+    public static final String CONTENT_TYPE = "image/jpeg";
+    public static final String EXTENSION = "jpg";
+
+    private static final Pattern THUMBNAIL_NAME = Pattern.compile("(.+)\\.thumb\\d+\\." + EXTENSION);
+
+    private ImageThumbnailer() {
+    }
+
+    /**
+     * 生成缩略图
+     *
+     * @param in              原图数据（调用方负责关闭）
+     * @param sizes           目标尺寸（长边像素）
+     * @param quality         JPEG 质量（0 ~ 1）
+     * @param maxSourcePixels 原图像素上限
+     * @return 尺寸 → JPEG 数据（只包含小于原图长边的尺寸，按尺寸升序）
+     * @throws UnsupportedImageException 格式无法解码、尺寸无效或超出像素上限
+     * @throws IOException               读取或解码失败
+     */
+    public static Map<Integer, byte[]> createThumbnails(InputStream in, List<Integer> sizes, float quality,
+                                                        long maxSourcePixels) throws IOException {
+        try (var input = ImageIO.createImageInputStream(in)) {
+            if (input == null) {
+                throw new UnsupportedImageException("无法读取图片数据");
+            }
+            var readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                throw new UnsupportedImageException("不支持的图片格式");
+            }
+            var reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if (width <= 0 || height <= 0) {
+                    throw new UnsupportedImageException("图片尺寸无效: " + width + "x" + height);
+                }
+                if ((long) width * height > maxSourcePixels) {
+                    throw new UnsupportedImageException("图片像素超出上限: " + width + "x" + height);
+                }
+
+                int longest = Math.max(width, height);
+                var targets = sizes.stream()
+                        .filter(size -> size > 0 && size < longest)
+                        .distinct()
+                        .sorted(Comparator.reverseOrder())
+                        .toList();
+                if (targets.isEmpty()) {
+                    return Map.of();
+                }
+
+                // 1. 按最大目标尺寸的 2 倍采样解码
+                var param = reader.getDefaultReadParam();
+                int subsampling = Math.max(1, longest / (targets.get(0) * 2));
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                var image = reader.read(0, param);
+
+                // 2. 由大到小依次缩放，每级以上一级结果为源
+                Map<Integer, byte[]> thumbnails = new LinkedHashMap<>();
+                for (var size : targets) {
+                    image = scale(image, size);
+                    thumbnails.put(size, encodeJpeg(image, quality));
+                }
+                return ascending(thumbnails);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * 缩略图对象名（与原图同目录）：image/2026/02/uuid.png → image/2026/02/uuid.thumb256.jpg
+     */
+    public static String objectName(String storageName, int size) {
+        int dot = storageName.lastIndexOf('.');
+        var base = dot > storageName.lastIndexOf('/') ? storageName.substring(0, dot) : storageName;
+        return base + ".thumb" + size + "." + EXTENSION;
+    }
+
+    /**
+     * 从缩略图对象名还原原图对象名的前缀（去掉扩展名），不是缩略图对象名时返回 null
+     * image/2026/02/uuid.thumb256.jpg → image/2026/02/uuid
+     */
+    public static String originalBaseOf(String objectName) {
+        var matcher = THUMBNAIL_NAME.matcher(objectName);
+        return matcher.matches() ? matcher.group(1) : null;
+    }
+
+    // ======================== Private Methods ========================
+
+    /**
+     * 等比缩放到长边为 maxDimension
+     */
+    private static BufferedImage scale(BufferedImage source, int maxDimension) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        double ratio = (double) maxDimension / Math.max(width, height);
+        int targetWidth = Math.max(1, (int) Math.round(width * ratio));
+        int targetHeight = Math.max(1, (int) Math.round(height * ratio));
+
+        var current = source;
+        // 双线性插值每次只参考 2×2 邻域，逐级减半保留细节
+        while (current.getWidth() / 2 >= targetWidth && current.getHeight() / 2 >= targetHeight) {
+            current = draw(current, current.getWidth() / 2, current.getHeight() / 2);
+        }
+        if (current == source || current.getWidth() != targetWidth || current.getHeight() != targetHeight) {
+            current = draw(current, targetWidth, targetHeight);
+        }
+        return current;
+    }
+
+    /**
+     * 绘制到 RGB 画布（透明区域填充白色，JPEG 不支持透明通道）
+     */
+    private static BufferedImage draw(BufferedImage source, int width, int height) {
+        var target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        var graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, width, height);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    private static byte[] encodeJpeg(BufferedImage image, float quality) throws IOException {
+        var writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        var param = writer.getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(quality);
+        var buffer = new ByteArrayOutputStream();
+        try (var output = ImageIO.createImageOutputStream(buffer)) {
+            writer.setOutput(output);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return buffer.toByteArray();
+    }
+
+    private static Map<Integer, byte[]> ascending(Map<Integer, byte[]> thumbnails) {
+        Map<Integer, byte[]> ascending = new LinkedHashMap<>();
+        thumbnails.keySet().stream().sorted().forEach(size -> ascending.put(size, thumbnails.get(size)));
+        return ascending;
+    }
+
+    /**
+     * 图片无法生成缩略图（格式不支持、尺寸无效或过大），重试也不会成功
+     */
+    public static class UnsupportedImageException extends IOException {
+
+        public UnsupportedImageException(String message) {
+            super(message);
+        }
+    }
+}
@@ -4,13 +4,24 @@ import com.soundvibe.asset.config.MinioProperties;
 import com.soundvibe.common.exception.BizException;
 import com.soundvibe.common.result.ResultCode;
 import io.minio.*;
+import io.minio.errors.ErrorResponseException;
 import io.minio.http.Method;
+import io.minio.messages.DeleteObject;
+import io.minio.messages.Item;
+import io.minio.messages.Part;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
 import java.io.InputStream;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -22,6 +33,9 @@ import java.util.concurrent.TimeUnit;
  * 2. 文件上传（PutObject）
  * 3. 获取预签名 URL
  * 4. 文件删除
+ * 5. 分片上传（建立 / 流式写入分片 / 合并 / 取消）
+ * 6. 直传（签发预签名 POST 表单 / 查询对象元数据）
+ * 7. 对账（分页遍历对象 / 批量删除）
  *
  * @author SoundVibe Team
  */
@@ -31,6 +45,7 @@ import java.util.concurrent.TimeUnit;
 public class MinioTemplate {
 
     private final MinioClient minioClient;
+    private final MultipartMinioClient multipartMinioClient;
     private final MinioProperties minioProperties;
 
     /**
@@ -111,6 +126,24 @@ public class MinioTemplate {
         }
     }
 
+    /**
+     * 以指定签名时间获取预签名访问 URL（相同参数生成相同的 URL）
+     *
+     * @param objectName 对象名称
+     * @param signedAt   签名时间
+     * @param validity   有效期（自签名时间起算，不超过 7 天）
+     * @return 预签名 URL
+     */
+    public String getPresignedUrl(String objectName, ZonedDateTime signedAt, Duration validity) {
+        try {
+            return multipartMinioClient.presignGetObject(
+                    minioProperties.getBucketName(), objectName, signedAt, (int) validity.toSeconds());
+        } catch (Exception e) {
+            log.error("获取预签名 URL 失败: object={}", objectName, e);
+            throw new BizException(ResultCode.SYSTEM_ERROR, "获取文件访问链接失败: " + e.getMessage());
+        }
+    }
+
     /**
      * 从 MinIO 中读取文件对象（流式）
      * 用于下载场景，调用方负责关闭 InputStream
@@ -132,6 +165,31 @@ public class MinioTemplate {
         }
     }
 
+    /**
+     * 从 MinIO 中读取对象的一段（GetObject offset / length，只传输该段字节）
+     * 调用方负责关闭 InputStream
+     *
+     * @param objectName 对象名称
+     * @param offset     起始偏移
+     * @param length     长度（字节）
+     * @return 该段的输入流
+     */
+    public InputStream getObject(String objectName, long offset, long length) {
+        try {
+            return minioClient.getObject(
+                    GetObjectArgs.builder()
+                            .bucket(minioProperties.getBucketName())
+                            .object(objectName)
+                            .offset(offset)
+                            .length(length)
+                            .build()
+            );
+        } catch (Exception e) {
+            log.error("从 MinIO 读取文件失败: object={}, offset={}, length={}", objectName, offset, length, e);
+            throw new BizException(ResultCode.SYSTEM_ERROR, "文件读取失败: " + e.getMessage());
+        }
+    }
+
     /**
      * 从 MinIO 中删除文件
      *
@@ -152,4 +210,203 @@ public class MinioTemplate {
             throw new BizException(ResultCode.SYSTEM_ERROR, "文件删除失败: " + e.getMessage());
         }
     }
+
+    // ======================== 分片上传 ========================
+
+    /**
+     * 建立分片上传
+     *
+     * @param objectName  合并后的对象名称
+     * @param contentType 文件 MIME 类型
+     * @return MinIO uploadId
+     */
+    public String createMultipartUpload(String objectName, String contentType) {
+        try {
+            var uploadId = multipartMinioClient.createMultipartUpload(
+                    minioProperties.getBucketName(), objectName, contentType);
+            log.info("分片上传已建立: object={}, uploadId={}", objectName, uploadId);
+            return uploadId;
+        } catch (Exception e) {
+            log.error("建立分片上传失败: object={}", objectName, e);
+            throw new BizException(ResultCode.FILE_UPLOAD_FAILED, "建立分片上传失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 流式写入一个分片（不在本地缓冲）
+     *
+     * @param inputStream 分片数据流，须恰好提供 size 字节
+     * @return 分片 ETag
+     */
+    public String uploadPart(String objectName, String uploadId, int partNumber, InputStream inputStream, long size) {
+        try {
+            return multipartMinioClient.uploadPart(
+                    minioProperties.getBucketName(), objectName, uploadId, partNumber, inputStream, size);
+        } catch (Exception e) {
+            log.error("分片写入 MinIO 失败: object={}, partNumber={}", objectName, partNumber, e);
+            throw new BizException(ResultCode.FILE_UPLOAD_FAILED, "分片上传失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 合并分片
+     *
+     * @param parts 全部分片（按分片号升序）
+     */
+    public void completeMultipartUpload(String objectName, String uploadId, List<Part> parts) {
+        try {
+            multipartMinioClient.completeMultipartUpload(
+                    minioProperties.getBucketName(), objectName, uploadId, parts.toArray(new Part[0]));
+            log.info("分片合并成功: object={}, parts={}", objectName, parts.size());
+        } catch (Exception e) {
+            log.error("分片合并失败: object={}, uploadId={}", objectName, uploadId, e);
+            throw new BizException(ResultCode.FILE_UPLOAD_FAILED, "分片合并失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 取消分片上传，释放已上传的分片
+     */
+    public void abortMultipartUpload(String objectName, String uploadId) {
+        try {
+            multipartMinioClient.abortMultipartUpload(minioProperties.getBucketName(), objectName, uploadId);
+            log.info("分片上传已取消: object={}, uploadId={}", objectName, uploadId);
+        } catch (Exception e) {
+            log.error("取消分片上传失败: object={}, uploadId={}", objectName, uploadId, e);
+            throw new BizException(ResultCode.SYSTEM_ERROR, "取消分片上传失败: " + e.getMessage());
+        }
+    }
+
+    // ======================== 直传 ========================
+
+    /**
+     * 签发预签名 POST 表单（浏览器表单直传 MinIO）
+     * 策略限定对象名、Content-Type 与文件大小，MinIO 拒绝不符合策略的上传
+     *
+     * @param objectName  允许写入的对象名称
+     * @param contentType 须使用的 MIME 类型
+     * @param size        允许的文件大小（字节，精确匹配）
+     * @param expiration  表单失效时间
+     * @return 表单字段（含 key 与 Content-Type，客户端原样提交）
+     */
+    public Map<String, String> getPresignedPostForm(String objectName, String contentType, long size,
+                                                    ZonedDateTime expiration) {
+        try {
+            var policy = new PostPolicy(minioProperties.getBucketName(), expiration);
+            policy.addEqualsCondition("key", objectName);
+            policy.addEqualsCondition("Content-Type", contentType);
+            policy.addContentLengthRangeCondition(size, size);
+
+            var formData = new HashMap<>(minioClient.getPresignedPostFormData(policy));
+            formData.put("key", objectName);
+            formData.put("Content-Type", contentType);
+            return formData;
+        } catch (Exception e) {
+            log.error("签发预签名 POST 表单失败: object={}", objectName, e);
+            throw new BizException(ResultCode.SYSTEM_ERROR, "签发上传凭证失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 桶的访问地址（预签名 POST 表单的提交地址）
+     */
+    public String getBucketUrl() {
+        var endpoint = minioProperties.getEndpoint();
+        return (endpoint.endsWith("/") ? endpoint : endpoint + "/") + minioProperties.getBucketName();
+    }
+
+    /**
+     * 查询对象元数据
+     *
+     * @param objectName 对象名称
+     * @return 对象元数据；对象不存在时返回 null
+     */
+    public StatObjectResponse statObject(String objectName) {
+        try {
+            return minioClient.statObject(
+                    StatObjectArgs.builder()
+                            .bucket(minioProperties.getBucketName())
+                            .object(objectName)
+                            .build()
+            );
+        } catch (ErrorResponseException e) {
+            if ("NoSuchKey".equals(e.errorResponse().code())) {
+                return null;
+            }
+            log.error("查询对象元数据失败: object={}", objectName, e);
+            throw new BizException(ResultCode.SYSTEM_ERROR, "查询文件信息失败: " + e.getMessage());
+        } catch (Exception e) {
+            log.error("查询对象元数据失败: object={}", objectName, e);
+            throw new BizException(ResultCode.SYSTEM_ERROR, "查询文件信息失败: " + e.getMessage());
+        }
+    }
+
+    // ======================== 对账 ========================
+
+    /**
+     * 遍历前缀下的全部对象（按对象名字典序）
+     * 惰性分页：每次向 MinIO 请求一页（最多 1000 个），迭代到页尾时才请求下一页，内存占用与对象总数无关
+     *
+     * @param prefix 对象名前缀（如 audio/）
+     * @return 对象迭代器（迭代中出错时抛出 BizException）
+     */
+    public Iterable<Item> listObjects(String prefix) {
+        var results = minioClient.listObjects(
+                ListObjectsArgs.builder()
+                        .bucket(minioProperties.getBucketName())
+                        .prefix(prefix)
+                        .recursive(true)
+                        .build()
+        );
+        return () -> new Iterator<>() {
+            private final Iterator<Result<Item>> delegate = results.iterator();
+
+            @Override
+            public boolean hasNext() {
+                return delegate.hasNext();
+            }
+
+            @Override
+            public Item next() {
+                try {
+                    return delegate.next().get();
+                } catch (Exception e) {
+                    log.error("遍历 MinIO 对象失败: prefix={}", prefix, e);
+                    throw new BizException(ResultCode.SYSTEM_ERROR, "遍历存储对象失败: " + e.getMessage());
+                }
+            }
+        };
+    }
+
+    /**
+     * 批量删除对象（DeleteObjects，每个请求最多 1000 个，由 SDK 分批）
+     *
+     * @param objectNames 对象名称
+     * @return 删除失败的对象名称
+     */
+    public List<String> removeObjects(List<String> objectNames) {
+        List<String> failed = new ArrayList<>();
+        if (objectNames.isEmpty()) {
+            return failed;
+        }
+        // removeObjects 是惰性的：只有遍历结果时才真正发送删除请求
+        var results = minioClient.removeObjects(
+                RemoveObjectsArgs.builder()
+                        .bucket(minioProperties.getBucketName())
+                        .objects(objectNames.stream().map(DeleteObject::new).toList())
+                        .build()
+        );
+        for (var result : results) {
+            try {
+                var error = result.get();
+                log.warn("批量删除对象失败: object={}, code={}, message={}",
+                        error.objectName(), error.code(), error.message());
+                failed.add(error.objectName());
+            } catch (Exception e) {
+                log.error("批量删除对象失败", e);
+                throw new BizException(ResultCode.SYSTEM_ERROR, "批量删除文件失败: " + e.getMessage());
+            }
+        }
+        return failed;
+    }
 }
@@ -0,0 +1,205 @@
+package com.soundvibe.asset.infrastructure;
+
+import com.google.common.collect.ImmutableMultimap;
+import com.google.common.collect.Multimap;
+import io.minio.MinioAsyncClient;
+import io.minio.Signer;
+import io.minio.http.Method;
+import io.minio.messages.Part;
+import okhttp3.HttpUrl;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * 暴露 S3 分片上传原语的 MinIO 客户端
+ * SDK 8.5 的分片接口（CreateMultipartUpload / UploadPart / Complete / Abort）为 protected，
+ * 且 UploadPart 只接受 byte[] 或 PartSource，会把整个分片读入内存或临时文件
+ * <p>
+ * 本类继承 MinioAsyncClient：
+ * - 建立 / 合并 / 取消直接复用 SDK 的实现
+ * - UploadPart 自行构造请求：请求体直接包装调用方的输入流（边读边写，每次 8KB），
+ *   签名使用 UNSIGNED-PAYLOAD，无需预先计算分片 SHA-256，服务端内存占用与分片大小无关
+ * - 预签名 GET URL 支持指定签名时间：SDK 的 getPresignedObjectUrl 固定以当前时间签名，每次调用得到不同的 URL
+ *
+ * @author SoundVibe Team
+ */
+public class MultipartMinioClient extends MinioAsyncClient {
+
+    private static final String UNSIGNED_PAYLOAD = "UNSIGNED-PAYLOAD";
+    private static final DateTimeFormatter AMZ_DATE_FORMAT =
+            DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'", Locale.US);
+    private static final int COPY_BUFFER_SIZE = 8192;
+
+    public MultipartMinioClient(MinioAsyncClient client) {
+        super(client);
+    }
+
+    /**
+     * 建立分片上传
+     *
+     * @return MinIO uploadId
+     */
+    public String createMultipartUpload(String bucket, String object, String contentType) throws Exception {
+        Multimap<String, String> headers = contentType != null
+                ? ImmutableMultimap.of("Content-Type", contentType)
+                : ImmutableMultimap.of();
+        return await(createMultipartUploadAsync(bucket, null, object, headers, ImmutableMultimap.of()))
+                .result().uploadId();
+    }
+
+    /**
+     * 流式上传一个分片
+     * 输入流必须恰好提供 length 字节，不足时请求失败；请求体为一次性消费，连接失败不会重放
+     *
+     * @return 分片 ETag（不含引号）
+     */
+    public String uploadPart(String bucket, String object, String uploadId, int partNumber,
+                             InputStream data, long length) throws Exception {
+        var region = getRegion(bucket, null);
+        var url = buildUrl(Method.PUT, bucket, object, region, ImmutableMultimap.of(
+                "partNumber", String.valueOf(partNumber),
+                "uploadId", uploadId));
+
+        var builder = new Request.Builder()
+                .url(url)
+                .put(new StreamingBody(data, length))
+                .header("Host", hostHeader(url))
+                .header("x-amz-date", ZonedDateTime.now(ZoneOffset.UTC).format(AMZ_DATE_FORMAT))
+                .header("x-amz-content-sha256", UNSIGNED_PAYLOAD);
+        var credentials = provider != null ? provider.fetch() : null;
+        if (credentials != null && credentials.sessionToken() != null) {
+            builder.header("X-Amz-Security-Token", credentials.sessionToken());
+        }
+        var request = builder.build();
+        if (credentials != null) {
+            request = Signer.signV4S3(request, region, credentials.accessKey(), credentials.secretKey(), UNSIGNED_PAYLOAD);
+        }
+
+        try (var response = httpClient.newCall(request).execute()) {
+            if (!response.isSuccessful()) {
+                var detail = response.body() != null ? response.body().string() : "";
+                throw new IOException("UploadPart 失败: HTTP " + response.code() + " " + detail);
+            }
+            var etag = response.header("ETag");
+            if (etag == null) {
+                throw new IOException("UploadPart 响应缺少 ETag");
+            }
+            return etag.replace("\"", "");
+        }
+    }
+
+    /**
+     * 按分片号升序合并
+     */
+    public void completeMultipartUpload(String bucket, String object, String uploadId, Part[] parts) throws Exception {
+        await(completeMultipartUploadAsync(bucket, null, object, uploadId, parts,
+                ImmutableMultimap.of(), ImmutableMultimap.of()));
+    }
+
+    /**
+     * 取消分片上传，MinIO 释放已上传的分片
+     */
+    public void abortMultipartUpload(String bucket, String object, String uploadId) throws Exception {
+        await(abortMultipartUploadAsync(bucket, null, object, uploadId,
+                ImmutableMultimap.of(), ImmutableMultimap.of()));
+    }
+
+    /**
+     * 以指定的签名时间生成预签名 GET URL
+     * 对象、签名时间与有效期相同时生成的 URL 完全一致，便于浏览器与 CDN 缓存
+     *
+     * @param signedAt      签名时间（URL 有效期自该时间起算）
+     * @param expirySeconds 有效期（秒）
+     */
+    public String presignGetObject(String bucket, String object, ZonedDateTime signedAt, int expirySeconds)
+            throws Exception {
+        var region = getRegion(bucket, null);
+        var credentials = provider != null ? provider.fetch() : null;
+        Multimap<String, String> queryParams = credentials != null && credentials.sessionToken() != null
+                ? ImmutableMultimap.of("X-Amz-Security-Token", credentials.sessionToken())
+                : ImmutableMultimap.of();
+        var url = buildUrl(Method.GET, bucket, object, region, queryParams);
+        if (credentials == null) {
+            return url.toString();
+        }
+        var request = new Request.Builder()
+                .url(url)
+                .get()
+                .header("Host", hostHeader(url))
+                .header("x-amz-date", signedAt.withZoneSameInstant(ZoneOffset.UTC).format(AMZ_DATE_FORMAT))
+                .build();
+        return Signer.presignV4(request, region, credentials.accessKey(), credentials.secretKey(), expirySeconds)
+                .toString();
+    }
+
+    // ======================== Private Methods ========================
+
+    private static <T> T await(CompletableFuture<T> future) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        }
+    }
+
+    private static String hostHeader(HttpUrl url) {
+        return url.port() == HttpUrl.defaultPort(url.scheme())
+                ? url.host()
+                : url.host() + ":" + url.port();
+    }
+
+    /**
+     * 包装输入流的请求体：长度已知，写出时边读边发
+     */
+    private static final class StreamingBody extends RequestBody {
+
+        private final InputStream data;
+        private final long length;
+
+        private StreamingBody(InputStream data, long length) {
+            this.data = data;
+            this.length = length;
+        }
+
+        @Override
+        public MediaType contentType() {
+            return null;
+        }
+
+        @Override
+        public long contentLength() {
+            return length;
+        }
+
+        @Override
+        public boolean isOneShot() {
+            return true;
+        }
+
+        @Override
+        public void writeTo(BufferedSink sink) throws IOException {
+            var buffer = new byte[COPY_BUFFER_SIZE];
+            long remaining = length;
+            while (remaining > 0) {
+                int read = data.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+                if (read == -1) {
+                    throw new EOFException("分片数据不足: 还差 " + remaining + " 字节");
+                }
+                sink.write(buffer, 0, read);
+                remaining -= read;
+            }
+        }
+    }
+}
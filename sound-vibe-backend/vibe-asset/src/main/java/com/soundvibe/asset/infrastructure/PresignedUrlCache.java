@@ -0,0 +1,115 @@
+package com.soundvibe.asset.infrastructure;
+
+import com.soundvibe.asset.config.PresignedUrlProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * 资产预签名 URL 缓存（进程内 LRU，按时间窗口轮换）
+ * <p>
+ * 时间按 rotationHours 切分为窗口，URL 以所在窗口的起点作为签名时间、有效期 validityHours，
+ * 因此同一窗口内同一对象的 URL 完全相同（与哪个实例签发无关），浏览器可缓存重定向与图片本身
+ * <p>
+ * 命中时不查库也不签名；窗口切换时复用缓存的对象名重新签名，仍不查库
+ * 缓存键为（资产 ID, 规格），规格 0 为原文件，其余为缩略图尺寸；资产删除时由 AssetService 主动失效其全部规格
+ *
+ * @author SoundVibe Team
+ */
+@Slf4j
+@Component
+public class PresignedUrlCache {
+
+    private final MinioTemplate minioTemplate;
+    private final Duration validity;
+    private final long rotationMillis;
+
+    private final Map<Key, Entry> cache;
+
+    public PresignedUrlCache(MinioTemplate minioTemplate, PresignedUrlProperties properties) {
+        this.minioTemplate = minioTemplate;
+        this.validity = Duration.ofHours(properties.getValidityHours());
+        this.rotationMillis = Duration.ofHours(properties.getRotationHours()).toMillis();
+        if (rotationMillis <= 0 || rotationMillis >= validity.toMillis()) {
+            throw new IllegalArgumentException("asset.presigned-url.rotation-hours 须大于 0 且小于 validity-hours");
+        }
+        int maxEntries = properties.getMaxEntries();
+        this.cache = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * 获取资产的预签名 URL
+     *
+     * @param assetId           资产 ID
+     * @param storageNameLoader 未缓存时加载对象名（查库，资产不存在时抛出异常，不缓存）
+     * @return URL 及其在当前窗口内的剩余时间
+     */
+    public SignedUrl get(Long assetId, Supplier<String> storageNameLoader) {
+        return get(assetId, 0, storageNameLoader);
+    }
+
+    /**
+     * 获取资产指定规格（如缩略图尺寸）的预签名 URL
+     *
+     * @param assetId          资产 ID
+     * @param variant          规格（0 为原文件）
+     * @param objectNameLoader 未缓存时加载对象名；返回 null 表示该规格暂不可用，不缓存
+     * @return URL 及其在当前窗口内的剩余时间；规格暂不可用时返回 null
+     */
+    public SignedUrl get(Long assetId, int variant, Supplier<String> objectNameLoader) {
+        long now = System.currentTimeMillis();
+        long windowStart = now - now % rotationMillis;
+        var key = new Key(assetId, variant);
+        Entry entry;
+        synchronized (cache) {
+            entry = cache.get(key);
+        }
+        if (entry == null || entry.windowStart() != windowStart) {
+            var objectName = entry != null ? entry.storageName() : objectNameLoader.get();
+            if (objectName == null) {
+                return null;
+            }
+            var signedAt = Instant.ofEpochMilli(windowStart).atZone(ZoneOffset.UTC);
+            entry = new Entry(objectName, windowStart, minioTemplate.getPresignedUrl(objectName, signedAt, validity));
+            synchronized (cache) {
+                cache.put(key, entry);
+            }
+        }
+        return new SignedUrl(entry.url(), (windowStart + rotationMillis - now) / 1000);
+    }
+
+    /**
+     * 失效资产全部规格的缓存（资产删除后不再签发其 URL）
+     */
+    public void evict(Long assetId) {
+        synchronized (cache) {
+            cache.keySet().removeIf(key -> key.assetId().equals(assetId));
+        }
+    }
+
+    private record Key(Long assetId, int variant) {
+    }
+
+    private record Entry(String storageName, long windowStart, String url) {
+    }
+
+    /**
+     * 预签名 URL
+     *
+     * @param url           URL（同一窗口内不变）
+     * @param maxAgeSeconds 距当前窗口结束的秒数，可作为重定向的缓存时间
+     */
+    public record SignedUrl(String url, long maxAgeSeconds) {
+    }
+}
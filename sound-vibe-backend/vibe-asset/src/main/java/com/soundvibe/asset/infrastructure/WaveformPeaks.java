@@ -0,0 +1,111 @@
+package com.soundvibe.asset.infrastructure;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * 波形峰值二进制块（由 vibe-analysis 的 peaks.py 生成）
+ * <p>
+ * 格式（小端序）：
+ * <pre>
+ * 偏移  长度   字段
+ * 0     4      magic "SVPK"
+ * 4     1      版本 (1)
+ * 5     1      级数 L
+ * 6     2      保留
+ * 8     4      采样率
+ * 12    4      总采样数（单声道）
+ * 16    8 * L  每级: 每峰采样数, 峰值个数
+ * ...          每级数据依次排列: 峰值个数 * [min (int8), max (int8)]
+ * </pre>
+ * 级别由粗到细，列表页只取第 0 级
+ *
+ * @author SoundVibe Team
+ */
+public final class WaveformPeaks {
+
+    public static final String CONTENT_TYPE = "application/octet-stream";
+
+    private static final int MAGIC = 0x4B505653; // "SVPK" 小端读取
+    private static final int HEADER_SIZE = 16;
+    private static final int LEVEL_HEADER_SIZE = 8;
+
+    private WaveformPeaks() {
+    }
+
+    /**
+     * 校验峰值块：magic、头部与各级数据长度完整
+     */
+    public static boolean isValid(byte[] blob) {
+        try {
+            var buffer = header(blob);
+            int levels = buffer.get(5) & 0xFF;
+            long length = HEADER_SIZE + (long) LEVEL_HEADER_SIZE * levels;
+            for (int i = 0; i < levels; i++) {
+                length += 2L * Integer.toUnsignedLong(buffer.getInt(HEADER_SIZE + LEVEL_HEADER_SIZE * i + 4));
+            }
+            return length <= blob.length;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 级数
+     *
+     * @throws IllegalArgumentException 数据不是有效的峰值块
+     */
+    public static int levelCount(byte[] blob) {
+        return header(blob).get(5) & 0xFF;
+    }
+
+    /**
+     * 取出单级数据，组成只含该级的峰值块（格式不变，客户端按同一方式解析）
+     *
+     * @param blob  完整峰值块
+     * @param level 级别（0 为最粗）
+     * @throws IllegalArgumentException 数据无效或级别超出范围
+     */
+    public static byte[] selectLevel(byte[] blob, int level) {
+        var buffer = header(blob);
+        int levels = buffer.get(5) & 0xFF;
+        if (level < 0 || level >= levels) {
+            throw new IllegalArgumentException("级别超出范围: " + level + "（共 " + levels + " 级）");
+        }
+
+        long dataOffset = HEADER_SIZE + (long) LEVEL_HEADER_SIZE * levels;
+        for (int i = 0; i < level; i++) {
+            dataOffset += 2L * Integer.toUnsignedLong(buffer.getInt(HEADER_SIZE + LEVEL_HEADER_SIZE * i + 4));
+        }
+        int levelHeader = HEADER_SIZE + LEVEL_HEADER_SIZE * level;
+        long dataLength = 2L * Integer.toUnsignedLong(buffer.getInt(levelHeader + 4));
+        if (dataOffset + dataLength > blob.length) {
+            throw new IllegalArgumentException("峰值数据不完整");
+        }
+
+        var result = ByteBuffer.allocate(HEADER_SIZE + LEVEL_HEADER_SIZE + (int) dataLength)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        result.put(blob, 0, HEADER_SIZE);
+        result.put(5, (byte) 1);
+        result.put(blob, levelHeader, LEVEL_HEADER_SIZE);
+        result.put(blob, (int) dataOffset, (int) dataLength);
+        return result.array();
+    }
+
+    // ======================== Private Methods ========================
+
+    private static ByteBuffer header(byte[] blob) {
+        if (blob == null || blob.length < HEADER_SIZE) {
+            throw new IllegalArgumentException("峰值数据过短");
+        }
+        var buffer = ByteBuffer.wrap(blob).order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("不是有效的峰值数据");
+        }
+        int levels = buffer.get(5) & 0xFF;
+        if (blob.length < HEADER_SIZE + LEVEL_HEADER_SIZE * levels) {
+            throw new IllegalArgumentException("峰值数据头不完整");
+        }
+        return buffer;
+    }
+}
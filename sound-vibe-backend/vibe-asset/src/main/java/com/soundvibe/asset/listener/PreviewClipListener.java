@@ -0,0 +1,64 @@
+package com.soundvibe.asset.listener;
+
+import com.soundvibe.asset.config.RabbitMQConfig;
+import com.soundvibe.asset.service.PreviewService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 试听片段生成消息监听器
+ * 消费两类事件（同一队列）：
+ * - asset.analysis.completed（vibe-analysis 发送，含 assetId）：音频已可用，按作品设置生成片段
+ * - asset.preview.requested（vibe-catalog 发送，含 assetIds + previewDuration）：作品试听设置变更，重新生成；
+ *   作品关闭试听时不含 previewDuration，不再允许试听的资产由 PreviewService 移除片段
+ *   本服务在内容去重登记后也会发送（仅含 assetId）：新资产不经过分析，按作品设置或默认时长生成自己的片段
+ *
+ * @author SoundVibe Team
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PreviewClipListener {
+
+    private final PreviewService previewService;
+
+    @RabbitListener(queues = RabbitMQConfig.ASSET_PREVIEW_QUEUE)
+    public void onPreviewEvent(Map<String, Object> message) {
+        var assetIds = assetIdsOf(message);
+        if (assetIds.isEmpty()) {
+            log.warn("收到无效的试听片段消息（缺少 assetId）: {}", message);
+            return;
+        }
+        var rawDuration = message.get("previewDuration");
+        Integer previewDuration = rawDuration instanceof Number number ? number.intValue() : null;
+
+        for (var assetId : assetIds) {
+            try {
+                previewService.generate(assetId, previewDuration);
+            } catch (Exception e) {
+                log.error("处理试听片段消息失败: assetId={}, error={}", assetId, e.getMessage(), e);
+            }
+        }
+    }
+
+    private List<Long> assetIdsOf(Map<String, Object> message) {
+        List<Long> ids = new ArrayList<>();
+        if (message.get("assetId") != null) {
+            ids.add(toLong(message.get("assetId")));
+        }
+        if (message.get("assetIds") instanceof List<?> list) {
+            list.stream().filter(id -> id != null).forEach(id -> ids.add(toLong(id)));
+        }
+        return ids;
+    }
+
+    private Long toLong(Object raw) {
+        return raw instanceof Number number ? number.longValue() : Long.parseLong(raw.toString());
+    }
+}
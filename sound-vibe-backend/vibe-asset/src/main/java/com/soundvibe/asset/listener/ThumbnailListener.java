@@ -0,0 +1,40 @@
+package com.soundvibe.asset.listener;
+
+import com.soundvibe.asset.config.RabbitMQConfig;
+import com.soundvibe.asset.service.ThumbnailService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * 缩略图生成消息监听器
+ * 消费 asset.image.uploaded（图片资产登记后由本服务发送），在上传请求之外异步生成缩略图
+ *
+ * @author SoundVibe Team
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ThumbnailListener {
+
+    private final ThumbnailService thumbnailService;
+
+    @RabbitListener(queues = RabbitMQConfig.ASSET_THUMBNAIL_QUEUE)
+    public void onImageUploaded(Map<String, Object> message) {
+        var rawAssetId = message.get("assetId");
+        if (rawAssetId == null) {
+            log.warn("收到无效的缩略图消息（缺少 assetId）: {}", message);
+            return;
+        }
+        Long assetId = rawAssetId instanceof Number number ? number.longValue() : Long.parseLong(rawAssetId.toString());
+        try {
+            thumbnailService.generate(assetId);
+        } catch (Exception e) {
+            // 失败由定时补生成兜底
+            log.error("处理缩略图消息失败: assetId={}, error={}", assetId, e.getMessage(), e);
+        }
+    }
+}
@@ -3,6 +3,11 @@ package com.soundvibe.asset.mapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.soundvibe.asset.domain.entity.Asset;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import java.util.List;
 
 /**
  * 数字资产 Mapper 接口
@@ -12,4 +17,29 @@ import org.apache.ibatis.annotations.Mapper;
  */
 @Mapper
 public interface AssetMapper extends BaseMapper<Asset> {
+
+    /**
+     * 复制音频向量（audio_vector 由 vibe-analysis 写入，实体未映射该列）
+     * 内容去重时新资产沿用已有资产的分析结果
+     *
+     * @param targetId 新资产 ID
+     * @param sourceId 内容相同的已分析资产 ID
+     * @return 影响行数
+     */
+    @Update("UPDATE assets t JOIN assets s ON s.id = #{sourceId} " +
+            "SET t.audio_vector = s.audio_vector " +
+            "WHERE t.id = #{targetId}")
+    int copyAudioVector(@Param("targetId") Long targetId, @Param("sourceId") Long sourceId);
+
+    /**
+     * 锁定引用同一 MinIO 对象的全部未删除资产（当前读，按 ID 顺序加锁）
+     * 内容去重登记与资产删除都先调用此方法，「仍有引用」的判断与引用的新增在同一把锁下串行
+     *
+     * @param storageName MinIO 存储对象名
+     * @return 引用该对象的资产 ID
+     */
+    @Select("SELECT id FROM assets " +
+            "WHERE storage_name = #{storageName} AND deleted = 0 " +
+            "ORDER BY id FOR UPDATE")
+    List<Long> lockByStorageName(@Param("storageName") String storageName);
 }
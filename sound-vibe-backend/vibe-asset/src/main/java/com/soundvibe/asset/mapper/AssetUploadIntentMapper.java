@@ -0,0 +1,14 @@
+package com.soundvibe.asset.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.soundvibe.asset.domain.entity.AssetUploadIntent;
+import org.apache.ibatis.annotations.Mapper;
+
+/**
+ * 直传意图 Mapper 接口
+ *
+ * @author SoundVibe Team
+ */
+@Mapper
+public interface AssetUploadIntentMapper extends BaseMapper<AssetUploadIntent> {
+}
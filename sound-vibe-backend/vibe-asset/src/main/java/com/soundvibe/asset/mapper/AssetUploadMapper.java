@@ -0,0 +1,14 @@
+package com.soundvibe.asset.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.soundvibe.asset.domain.entity.AssetUpload;
+import org.apache.ibatis.annotations.Mapper;
+
+/**
+ * 分片上传会话 Mapper 接口
+ *
+ * @author SoundVibe Team
+ */
+@Mapper
+public interface AssetUploadMapper extends BaseMapper<AssetUpload> {
+}
@@ -0,0 +1,27 @@
+package com.soundvibe.asset.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.soundvibe.asset.domain.entity.AssetUploadPart;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+/**
+ * 已上传分片 Mapper 接口
+ *
+ * @author SoundVibe Team
+ */
+@Mapper
+public interface AssetUploadPartMapper extends BaseMapper<AssetUploadPart> {
+
+    /**
+     * 记录分片（同一分片重传时覆盖 ETag，以最后一次成功写入 MinIO 的为准）
+     */
+    @Insert("INSERT INTO asset_upload_parts (session_id, part_number, etag, size) " +
+            "VALUES (#{sessionId}, #{partNumber}, #{etag}, #{size}) " +
+            "ON DUPLICATE KEY UPDATE etag = VALUES(etag), size = VALUES(size)")
+    int upsert(@Param("sessionId") Long sessionId,
+               @Param("partNumber") int partNumber,
+               @Param("etag") String etag,
+               @Param("size") long size);
+}
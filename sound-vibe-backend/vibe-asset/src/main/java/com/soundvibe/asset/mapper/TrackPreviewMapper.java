@@ -0,0 +1,40 @@
+package com.soundvibe.asset.mapper;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+/**
+ * 作品试听设置只读 Mapper
+ * 跨表读取 vibe-catalog 维护的 tracks / track_files，确定音频资产的试听时长
+ * <p>
+ * 因共享同一个数据库（sound_vibe_db），可直接 SQL 查询，无需跨服务调用
+ *
+ * @author SoundVibe Team
+ */
+@Mapper
+public interface TrackPreviewMapper {
+
+    /**
+     * 引用该资产且允许试听（作品与文件均允许）的作品中最长的试听时长（秒）
+     *
+     * @param assetId 资产 ID
+     * @return 试听时长；资产尚未被作品引用或均不允许试听时为 null，两者由 {@link #countReferences} 区分
+     */
+    @Select("SELECT MAX(t.preview_duration) " +
+            "FROM track_files tf JOIN tracks t ON t.id = tf.track_id " +
+            "WHERE tf.asset_id = #{assetId} AND tf.deleted = 0 AND t.deleted = 0 " +
+            "AND t.allow_preview = 1 AND tf.allow_preview = 1")
+    Integer selectPreviewDuration(@Param("assetId") Long assetId);
+
+    /**
+     * 引用该资产的作品文件数（不论是否允许试听）
+     *
+     * @param assetId 资产 ID
+     * @return 引用数；为 0 时资产尚未被作品引用（刚上传），按默认时长生成试听片段
+     */
+    @Select("SELECT COUNT(*) " +
+            "FROM track_files tf JOIN tracks t ON t.id = tf.track_id " +
+            "WHERE tf.asset_id = #{assetId} AND tf.deleted = 0 AND t.deleted = 0")
+    int countReferences(@Param("assetId") Long assetId);
+}
@@ -0,0 +1,31 @@
+package com.soundvibe.asset.model.dto;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * 批量查询资产结果
+ *
+ * @param items      查到的资产，按请求 ID 的顺序排列
+ * @param missingIds 不存在（或已删除）的资产 ID
+ * @author SoundVibe Team
+ */
+public record AssetBatchDTO(
+        List<Item> items,
+        List<Long> missingIds
+) implements Serializable {
+
+    /**
+     * 单个资产及其预签名 URL
+     *
+     * @param asset         资产传输对象（含分析元数据）
+     * @param fileUrl       文件的预签名 URL（指定 size 且缩略图可用时为缩略图）
+     * @param maxAgeSeconds URL 保持不变的剩余秒数
+     */
+    public record Item(
+            AssetDTO asset,
+            String fileUrl,
+            long maxAgeSeconds
+    ) implements Serializable {
+    }
+}
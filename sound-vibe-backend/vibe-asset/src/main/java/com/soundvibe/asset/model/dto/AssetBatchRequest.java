@@ -0,0 +1,17 @@
+package com.soundvibe.asset.model.dto;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * 批量查询资产请求体
+ *
+ * @param ids  资产数据库主键 ID（重复的 ID 只返回一次）
+ * @param size 图片缩略图尺寸（长边像素，可选），语义同 GET /assets/file/{id}?size=
+ * @author SoundVibe Team
+ */
+public record AssetBatchRequest(
+        List<Long> ids,
+        Integer size
+) implements Serializable {
+}
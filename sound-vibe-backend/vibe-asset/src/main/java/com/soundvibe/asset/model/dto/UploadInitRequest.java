@@ -0,0 +1,20 @@
+package com.soundvibe.asset.model.dto;
+
+import java.io.Serializable;
+
+/**
+ * 分片上传初始化请求体
+ *
+ * @param fileName 原始文件名（用于推断类型与扩展名）
+ * @param size     文件总大小（字节）
+ * @param type     资产类型（AUDIO / IMAGE / MIDI，可选）
+ * @param partSize 期望的分片大小（字节，可选，超出范围时按配置修正）
+ * @author SoundVibe Team
+ */
+public record UploadInitRequest(
+        String fileName,
+        Long size,
+        String type,
+        Long partSize
+) implements Serializable {
+}
@@ -0,0 +1,29 @@
+package com.soundvibe.asset.model.dto;
+
+import java.io.Serializable;
+import java.util.Date;
+import java.util.Map;
+
+/**
+ * 直传意图数据传输对象
+ * 客户端向 url 发送 multipart/form-data POST：先按原样附上 formData 的全部字段，最后附上 file 字段
+ *
+ * @param intentCode       意图编码（上传完成后凭此确认）
+ * @param url              上传地址（MinIO 桶地址）
+ * @param formData         表单字段（key、Content-Type、策略与签名）
+ * @param size             允许上传的文件大小（字节）
+ * @param contentType      须使用的 MIME 类型
+ * @param policyExpireTime 表单失效时间（须在此之前开始上传）
+ * @param expireTime       意图失效时间（须在此之前确认）
+ * @author SoundVibe Team
+ */
+public record UploadIntentDTO(
+        String intentCode,
+        String url,
+        Map<String, String> formData,
+        Long size,
+        String contentType,
+        Date policyExpireTime,
+        Date expireTime
+) implements Serializable {
+}
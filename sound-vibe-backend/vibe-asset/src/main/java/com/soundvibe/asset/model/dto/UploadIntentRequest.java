@@ -0,0 +1,18 @@
+package com.soundvibe.asset.model.dto;
+
+import java.io.Serializable;
+
+/**
+ * 直传意图请求体
+ *
+ * @param fileName 原始文件名（用于推断类型与扩展名）
+ * @param size     文件大小（字节），直传的对象必须恰好为该大小
+ * @param type     资产类型（AUDIO / IMAGE / MIDI，可选）
+ * @author SoundVibe Team
+ */
+public record UploadIntentRequest(
+        String fileName,
+        Long size,
+        String type
+) implements Serializable {
+}
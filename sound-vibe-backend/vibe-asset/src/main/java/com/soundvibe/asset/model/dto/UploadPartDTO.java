@@ -0,0 +1,18 @@
+package com.soundvibe.asset.model.dto;
+
+import java.io.Serializable;
+
+/**
+ * 已上传分片信息
+ *
+ * @param partNumber 分片号（从 1 开始）
+ * @param size       分片大小（字节）
+ * @param etag       MinIO 返回的分片 ETag
+ * @author SoundVibe Team
+ */
+public record UploadPartDTO(
+        Integer partNumber,
+        Long size,
+        String etag
+) implements Serializable {
+}
@@ -0,0 +1,33 @@
+package com.soundvibe.asset.model.dto;
+
+import java.io.Serializable;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * 分片上传会话数据传输对象
+ * 断点续传时客户端据 uploadedParts 只补传缺失的分片
+ *
+ * @param uploadCode    会话编码
+ * @param fileName      原始文件名
+ * @param size          文件总大小（字节）
+ * @param partSize      分片大小（字节，最后一个分片为剩余字节数）
+ * @param partCount     分片总数
+ * @param status        会话状态: 0=上传中, 1=已合并, 2=已取消
+ * @param uploadedParts 已上传的分片（按分片号升序）
+ * @param assetId       合并后的资产 ID（未合并时为 null）
+ * @param expireTime    过期时间
+ * @author SoundVibe Team
+ */
+public record UploadSessionDTO(
+        String uploadCode,
+        String fileName,
+        Long size,
+        Long partSize,
+        Integer partCount,
+        Integer status,
+        List<UploadPartDTO> uploadedParts,
+        Long assetId,
+        Date expireTime
+) implements Serializable {
+}
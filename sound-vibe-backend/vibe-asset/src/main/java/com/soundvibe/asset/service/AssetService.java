@@ -1,9 +1,14 @@
 package com.soundvibe.asset.service;
 
 import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.soundvibe.asset.enums.AssetType;
+import com.soundvibe.asset.infrastructure.ByteRanges;
+import com.soundvibe.asset.model.dto.AssetBatchDTO;
 import com.soundvibe.asset.model.dto.AssetDTO;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.List;
+
 /**
  * 数字资产服务接口
  * 定义资产上传、查询、删除、重命名等业务逻辑
@@ -22,6 +27,29 @@ public interface AssetService {
      */
     AssetDTO upload(MultipartFile file, Long userId, String type);
 
+    /**
+     * 确定上传文件的资产类型并校验扩展名
+     * 优先使用显式传入的 type，否则根据扩展名推断
+     *
+     * @param originalName 原始文件名
+     * @param type         资产类型（可选）
+     * @return 资产类型
+     */
+    AssetType resolveUploadType(String originalName, String type);
+
+    /**
+     * 登记已写入 MinIO 的文件：保存元数据，音频类型发布分析事件
+     * 供单请求上传与分片上传合并后共用
+     *
+     * @param userId       上传者 ID
+     * @param originalName 原始文件名
+     * @param storageName  MinIO 对象名称
+     * @param size         文件大小（字节）
+     * @param assetType    资产类型
+     * @return 资产传输对象
+     */
+    AssetDTO createAsset(Long userId, String originalName, String storageName, long size, AssetType assetType);
+
     /**
      * 分页查询用户的资产列表
      *
@@ -63,22 +91,24 @@ public interface AssetService {
     AssetDTO rename(String assetCode, Long userId, String newName);
 
     /**
-     * 根据数据库主键 ID 获取文件的实时预签名 URL
+     * 根据数据库主键 ID 获取文件的预签名 URL
      * 用于跨微服务场景（如 Catalog 展示封面图）
      * 不校验所有权（已发布作品的封面对所有人可见）
+     * URL 按时间窗口缓存，同一窗口内重复请求不查库、不签名，返回相同的 URL
      *
-     * @param id 资产数据库主键 ID
-     * @return 实时生成的预签名 URL
+     * @param id   资产数据库主键 ID
+     * @param size 图片缩略图尺寸（长边像素，可选）；缩略图尚未生成或原图不大于该尺寸时返回原图
+     * @return 预签名 URL 及可缓存时间
      */
-    String getFileUrl(Long id);
+    FileUrl getFileUrl(Long id, Integer size);
 
     /**
      * 根据数据库主键 ID 获取文件的下载信息
-     * 返回 InputStream + 原始文件名 + 文件大小，用于流式下载
-     * 调用方负责关闭 InputStream
+     * 返回对象元数据（大小、ETag、修改时间）与按区间读取的 reader，用于流式下载与 Range 请求
+     * reader 每次打开的流由调用方负责关闭
      *
      * @param id 资产数据库主键 ID
-     * @return 下载信息（包含输入流、文件名、大小）
+     * @return 下载信息（文件名、大小、类型、ETag、区间读取器）
      */
     DownloadInfo getDownloadInfo(Long id);
 
@@ -92,8 +122,25 @@ public interface AssetService {
      */
     AssetDTO getById(Long id);
 
+    /**
+     * 根据数据库主键 ID 批量获取资产详情及文件的预签名 URL
+     * 用于跨微服务内部调用，替代逐个调用 getById / getFileUrl
+     * 一次查库取出全部资产，URL 走与 getFileUrl 相同的窗口缓存；不校验所有权
+     *
+     * @param ids  资产数据库主键 ID（单次最多 200 个，重复 ID 只返回一次）
+     * @param size 图片缩略图尺寸（长边像素，可选），语义同 getFileUrl
+     * @return 按请求顺序排列的资产及 URL，以及不存在的 ID
+     */
+    AssetBatchDTO getBatch(List<Long> ids, Integer size);
+
     /**
      * 文件下载信息封装
      */
-    record DownloadInfo(java.io.InputStream inputStream, String fileName, long fileSize, String contentType) {}
+    record DownloadInfo(String fileName, long fileSize, String contentType, String etag,
+                        java.time.ZonedDateTime lastModified, ByteRanges.RangeReader reader) {}
+
+    /**
+     * 文件访问 URL 封装（maxAgeSeconds 为 URL 保持不变的剩余秒数）
+     */
+    record FileUrl(String url, long maxAgeSeconds) {}
 }
@@ -0,0 +1,65 @@
+package com.soundvibe.asset.service;
+
+import com.soundvibe.asset.model.dto.AssetDTO;
+import com.soundvibe.asset.model.dto.UploadInitRequest;
+import com.soundvibe.asset.model.dto.UploadPartDTO;
+import com.soundvibe.asset.model.dto.UploadSessionDTO;
+
+import java.io.InputStream;
+
+/**
+ * 分片上传服务接口
+ * 将 init / put-part / complete / abort 映射为 MinIO 分片上传，
+ * 分片直接从请求流写入 MinIO，已上传分片记录在数据库中，支持断点续传与并行上传
+ *
+ * @author SoundVibe Team
+ */
+public interface ChunkedUploadService {
+
+    /**
+     * 建立上传会话：校验文件名与大小，确定分片大小并创建 MinIO 分片上传
+     *
+     * @param request 初始化请求
+     * @param userId  上传者 ID
+     * @return 上传会话（含分片大小与分片总数）
+     */
+    UploadSessionDTO init(UploadInitRequest request, Long userId);
+
+    /**
+     * 查询上传会话（断点续传时获取已上传分片）
+     *
+     * @param uploadCode 会话编码
+     * @param userId     当前用户 ID
+     * @return 上传会话
+     */
+    UploadSessionDTO getSession(String uploadCode, Long userId);
+
+    /**
+     * 上传一个分片（流式写入 MinIO，不在本地缓冲），同一分片可重复上传
+     *
+     * @param uploadCode  会话编码
+     * @param partNumber  分片号（从 1 开始）
+     * @param inputStream 请求体数据流
+     * @param size        请求体长度（Content-Length），须与该分片的预期大小一致
+     * @param userId      当前用户 ID
+     * @return 分片信息
+     */
+    UploadPartDTO uploadPart(String uploadCode, int partNumber, InputStream inputStream, long size, Long userId);
+
+    /**
+     * 合并全部分片并登记资产（已合并的会话重复调用返回同一资产）
+     *
+     * @param uploadCode 会话编码
+     * @param userId     当前用户 ID
+     * @return 资产传输对象
+     */
+    AssetDTO complete(String uploadCode, Long userId);
+
+    /**
+     * 取消上传，释放 MinIO 中已上传的分片
+     *
+     * @param uploadCode 会话编码
+     * @param userId     当前用户 ID
+     */
+    void abort(String uploadCode, Long userId);
+}
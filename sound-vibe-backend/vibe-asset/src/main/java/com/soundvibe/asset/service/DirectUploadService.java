@@ -0,0 +1,34 @@
+package com.soundvibe.asset.service;
+
+import com.soundvibe.asset.model.dto.AssetDTO;
+import com.soundvibe.asset.model.dto.UploadIntentDTO;
+import com.soundvibe.asset.model.dto.UploadIntentRequest;
+
+/**
+ * 直传服务接口
+ * 客户端凭预签名 POST 表单直接上传到 MinIO，文件字节不经过网关与资产服务，
+ * 上传完成后确认意图，服务端校验对象并登记资产
+ *
+ * @author SoundVibe Team
+ */
+public interface DirectUploadService {
+
+    /**
+     * 签发上传意图：校验文件名与大小，生成对象名并签发限定 key、大小与 Content-Type 的 POST 表单
+     *
+     * @param request 意图请求
+     * @param userId  上传者 ID
+     * @return 上传意图（含表单地址与字段）
+     */
+    UploadIntentDTO createIntent(UploadIntentRequest request, Long userId);
+
+    /**
+     * 确认直传完成：statObject 校验对象大小与类型，登记资产（音频类型发布分析事件）
+     * 已确认的意图重复调用返回同一资产
+     *
+     * @param intentCode 意图编码
+     * @param userId     当前用户 ID
+     * @return 资产传输对象
+     */
+    AssetDTO complete(String intentCode, Long userId);
+}
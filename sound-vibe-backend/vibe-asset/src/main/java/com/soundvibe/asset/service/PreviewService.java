@@ -0,0 +1,29 @@
+package com.soundvibe.asset.service;
+
+/**
+ * 试听片段服务接口
+ * 为音频资产截取前 previewDuration 秒（不重新编码）并存入 MinIO，供试听端点直接返回，
+ * 试听不再需要读取完整的原始文件
+ *
+ * @author SoundVibe Team
+ */
+public interface PreviewService {
+
+    /**
+     * 生成（或按新时长重新生成）试听片段；目标时长与已生成的片段一致时跳过
+     * 资产已被作品引用但均不允许试听时不生成，并移除已有的片段
+     *
+     * @param assetId         资产 ID
+     * @param previewDuration 试听时长（秒）；为 null 时取引用该资产的作品设置，无作品引用时取默认值
+     */
+    void generate(Long assetId, Integer previewDuration);
+
+    /**
+     * 获取试听片段的下载信息（支持 Range）
+     * 引用该资产的作品均不允许试听时拒绝返回
+     *
+     * @param assetId 资产 ID
+     * @return 下载信息
+     */
+    AssetService.DownloadInfo getPreview(Long assetId);
+}
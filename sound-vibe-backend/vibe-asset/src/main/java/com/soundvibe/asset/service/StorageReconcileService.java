@@ -0,0 +1,32 @@
+package com.soundvibe.asset.service;
+
+/**
+ * 存储对账服务接口
+ * 找出 MinIO 中不再被任何资产引用的对象（删除资产时 MinIO 删除失败、上传中断等遗留）并批量删除
+ *
+ * @author SoundVibe Team
+ */
+public interface StorageReconcileService {
+
+    /**
+     * 执行一次对账
+     *
+     * @return 对账报告
+     */
+    ReconcileReport reconcile();
+
+    /**
+     * 对账报告
+     *
+     * @param scannedObjects 遍历的对象数
+     * @param scannedBytes   遍历的对象总大小（字节）
+     * @param orphanObjects  孤立对象数
+     * @param reclaimedBytes 已删除（dryRun 时为可删除）的字节数
+     * @param failedObjects  删除失败的对象数
+     * @param dryRun         是否只统计不删除
+     * @param elapsedMillis  耗时（毫秒）
+     */
+    record ReconcileReport(long scannedObjects, long scannedBytes, long orphanObjects, long reclaimedBytes,
+                           long failedObjects, boolean dryRun, long elapsedMillis) {
+    }
+}
@@ -0,0 +1,43 @@
+package com.soundvibe.asset.service;
+
+import com.soundvibe.asset.domain.entity.Asset;
+
+import java.util.List;
+
+/**
+ * 封面缩略图服务接口
+ * 图片上传后异步生成多个尺寸的 JPEG 缩略图，存放在原图旁；/assets/file/{id}?size= 按尺寸选择
+ *
+ * @author SoundVibe Team
+ */
+public interface ThumbnailService {
+
+    /**
+     * 生成缩略图（已处理过的图片跳过）
+     *
+     * @param assetId 资产 ID
+     */
+    void generate(Long assetId);
+
+    /**
+     * 将请求的尺寸归一到配置的尺寸：取不小于请求值的最小尺寸
+     *
+     * @param size 请求的长边像素（可为 null）
+     * @return 配置的尺寸；为 null 或超出最大尺寸时返回 null（使用原图）
+     */
+    Integer normalizeSize(Integer size);
+
+    /**
+     * 资产在指定尺寸下应返回的对象名
+     *
+     * @param asset 资产
+     * @param size  归一后的尺寸
+     * @return 缩略图对象名；原图不大于该尺寸时为原图对象名；尚未处理时返回 null
+     */
+    String resolveObjectName(Asset asset, int size);
+
+    /**
+     * 资产已生成的全部缩略图对象名（删除资产时清理）
+     */
+    List<String> thumbnailNames(Asset asset);
+}
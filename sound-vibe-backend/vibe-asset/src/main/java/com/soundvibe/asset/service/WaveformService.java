@@ -0,0 +1,28 @@
+package com.soundvibe.asset.service;
+
+/**
+ * 波形峰值服务接口
+ * 峰值由 vibe-analysis 分析音频时预计算并写入 MinIO，前端据此绘制波形，无需下载完整音频
+ *
+ * @author SoundVibe Team
+ */
+public interface WaveformService {
+
+    /**
+     * 获取资产的波形峰值
+     *
+     * @param assetId 资产 ID
+     * @param level   级别（0 为最粗）；为 null 时返回全部级别
+     * @return 峰值数据
+     */
+    Peaks getPeaks(Long assetId, Integer level);
+
+    /**
+     * 波形峰值
+     *
+     * @param data 峰值二进制块（格式见 WaveformPeaks）
+     * @param etag 实体标签（对象 ETag + 级别，内容不变则不变）
+     */
+    record Peaks(byte[] data, String etag) {
+    }
+}
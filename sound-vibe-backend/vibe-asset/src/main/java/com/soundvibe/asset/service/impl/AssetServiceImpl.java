@@ -11,9 +11,12 @@ import com.soundvibe.asset.enums.AssetStatus;
 import com.soundvibe.asset.enums.AssetType;
 import com.soundvibe.asset.infrastructure.AssetEventPublisher;
 import com.soundvibe.asset.infrastructure.MinioTemplate;
+import com.soundvibe.asset.infrastructure.PresignedUrlCache;
 import com.soundvibe.asset.mapper.AssetMapper;
+import com.soundvibe.asset.model.dto.AssetBatchDTO;
 import com.soundvibe.asset.model.dto.AssetDTO;
 import com.soundvibe.asset.service.AssetService;
+import com.soundvibe.asset.service.ThumbnailService;
 import com.soundvibe.common.exception.BizException;
 import com.soundvibe.common.result.ResultCode;
 import lombok.RequiredArgsConstructor;
@@ -22,7 +25,18 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.time.LocalDate;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 /**
  * 数字资产服务实现类
@@ -38,40 +52,38 @@ public class AssetServiceImpl implements AssetService {
     private final MinioTemplate minioTemplate;
     private final AssetMapper assetMapper;
     private final AssetEventPublisher assetEventPublisher;
+    private final PresignedUrlCache presignedUrlCache;
+    private final ThumbnailService thumbnailService;
 
     /**
      * 单文件最大大小限制: 100MB
      */
     private static final long MAX_FILE_SIZE = 100 * 1024 * 1024L;
 
+    /**
+     * 批量查询单次最多的资产数
+     */
+    private static final int MAX_BATCH_SIZE = 200;
+
     @Override
     @Transactional(rollbackFor = Exception.class)
     public AssetDTO upload(MultipartFile file, Long userId, String type) {
         // 1. 校验文件
         validateFile(file);
 
-        // 2. 解析文件信息
+        // 2. 确定资产类型并校验扩展名（优先使用显式传入的 type，否则根据扩展名推断）
         var originalName = file.getOriginalFilename();
+        var assetType = resolveUploadType(originalName, type);
         var extension = FileNameUtil.extName(originalName);
-        if (StrUtil.isBlank(extension)) {
-            throw new BizException(ResultCode.FILE_TYPE_NOT_SUPPORTED, "无法识别文件扩展名");
-        }
 
-        // 3. 确定资产类型（优先使用显式传入的 type，否则根据扩展名推断）
-        var assetType = resolveAssetType(type, extension);
+        // 3. 生成存储路径: {type}/{year}/{month}/{uuid}.{ext}
+        var storageName = assetType.newStorageName(extension);
 
-        // 4. 校验扩展名是否在该类型允许范围内
-        if (!assetType.getAllowedExtensions().contains(extension.toLowerCase())) {
-            throw new BizException(ResultCode.FILE_TYPE_NOT_SUPPORTED,
-                    "文件类型 [" + extension + "] 不属于 [" + assetType.getValue() + "] 允许的格式");
-        }
-
-        // 5. 生成存储路径: {type}/{year}/{month}/{uuid}.{ext}
-        var storageName = generateStorageName(assetType, extension);
-
-        // 6. 上传到 MinIO
-        try (var inputStream = file.getInputStream()) {
+        // 4. 上传到 MinIO，同时计算内容 SHA-256（随字节流计算，不额外读取文件）
+        String contentHash;
+        try (var inputStream = new DigestInputStream(file.getInputStream(), newSha256())) {
             minioTemplate.upload(storageName, inputStream, file.getSize(), file.getContentType());
+            contentHash = HexFormat.of().formatHex(inputStream.getMessageDigest().digest());
         } catch (BizException e) {
             throw e;
         } catch (Exception e) {
@@ -79,31 +91,44 @@ public class AssetServiceImpl implements AssetService {
             throw new BizException(ResultCode.FILE_UPLOAD_FAILED, "读取上传文件失败");
         }
 
-        // 7. 获取访问 URL
-        var url = minioTemplate.getPresignedUrl(storageName);
+        // 5. 内容去重：已有相同内容（且音频已分析完成）的对象时，引用该对象并沿用分析结果
+        //    先锁定该对象的全部引用行，与 delete 串行；引用已被删光（对象即将删除）时按新内容登记
+        var source = findDuplicate(contentHash, assetType, extension);
+        if (source != null && !assetMapper.lockByStorageName(source.getStorageName()).isEmpty()) {
+            try {
+                minioTemplate.remove(storageName);
+            } catch (Exception e) {
+                log.warn("删除重复上传的对象失败（由孤立对象清理兜底）: storageName={}", storageName, e);
+            }
+            return registerAsset(userId, originalName, source.getStorageName(), file.getSize(), assetType,
+                    contentHash, source);
+        }
 
-        // 8. 构建实体 & 持久化
-        var asset = new Asset();
-        asset.setAssetCode(IdUtil.simpleUUID());
-        asset.setUserId(userId);
-        asset.setOriginalName(originalName);
-        asset.setStorageName(storageName);
-        asset.setUrl(url);
-        asset.setSize(file.getSize());
-        asset.setExtension(extension.toLowerCase());
-        asset.setType(assetType);
-        asset.setStatus(AssetStatus.NORMAL);
+        // 6. 登记资产元数据并发布事件
+        return registerAsset(userId, originalName, storageName, file.getSize(), assetType, contentHash, null);
+    }
 
-        assetMapper.insert(asset);
-        log.info("资产上传成功: id={}, storageName={}, userId={}", asset.getId(), storageName, userId);
+    @Override
+    public AssetType resolveUploadType(String originalName, String type) {
+        var extension = FileNameUtil.extName(originalName);
+        if (StrUtil.isBlank(extension)) {
+            throw new BizException(ResultCode.FILE_TYPE_NOT_SUPPORTED, "无法识别文件扩展名");
+        }
 
-        // 9. 发布「资产上传完成」事件到 RabbitMQ（仅音频类型触发分析）
-        if (assetType.isTradeable() && assetType == AssetType.AUDIO) {
-            assetEventPublisher.publishUploadedEvent(asset.getId(), storageName);
+        var assetType = resolveAssetType(type, extension);
+
+        // 校验扩展名是否在该类型允许范围内
+        if (!assetType.getAllowedExtensions().contains(extension.toLowerCase())) {
+            throw new BizException(ResultCode.FILE_TYPE_NOT_SUPPORTED,
+                    "文件类型 [" + extension + "] 不属于 [" + assetType.getValue() + "] 允许的格式");
         }
+        return assetType;
+    }
 
-        // 10. 返回 DTO（隔离内部存储细节）
-        return toDTO(asset);
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public AssetDTO createAsset(Long userId, String originalName, String storageName, long size, AssetType assetType) {
+        return registerAsset(userId, originalName, storageName, size, assetType, null, null);
     }
 
     @Override
@@ -144,10 +169,24 @@ public class AssetServiceImpl implements AssetService {
         var asset = findByCodeOrThrow(assetCode);
         checkOwnership(asset, userId);
 
-        // 1. 逻辑删除数据库记录（MyBatis-Plus @TableLogic 自动处理）
+        // 1. 锁定引用同一对象的全部资产行（与去重登记相同的锁），再逻辑删除数据库记录（@TableLogic 自动处理）
+        //    锁内读到的是最新提交的引用，并发的去重登记要么已提交可见，要么等待本事务提交后发现引用已删光
+        var references = assetMapper.lockByStorageName(asset.getStorageName());
         assetMapper.deleteById(asset.getId());
+        presignedUrlCache.evict(asset.getId());
+
+        // 2. 试听片段按资产生成，直接删除
+        if (asset.getPreviewName() != null) {
+            removeQuietly(asset.getPreviewName());
+        }
 
-        // 2. 删除 MinIO 中的文件
+        // 3. 删除 MinIO 中的文件（内容去重后对象可能被其他资产引用，仍有引用时保留）
+        var stillReferenced = references.stream().anyMatch(id -> !id.equals(asset.getId()));
+        if (stillReferenced) {
+            log.info("资产删除成功（对象仍被其他资产引用，保留文件）: assetCode={}, storageName={}",
+                    assetCode, asset.getStorageName());
+            return;
+        }
         try {
             minioTemplate.remove(asset.getStorageName());
         } catch (Exception e) {
@@ -155,6 +194,13 @@ public class AssetServiceImpl implements AssetService {
             log.warn("MinIO 文件删除失败（已标记为逻辑删除）: storageName={}", asset.getStorageName(), e);
         }
 
+        // 4. 删除随对象共用的派生对象（波形峰值、缩略图）
+        List<String> derived = new ArrayList<>(thumbnailService.thumbnailNames(asset));
+        if (asset.getPeaksName() != null) {
+            derived.add(asset.getPeaksName());
+        }
+        derived.forEach(this::removeQuietly);
+
         log.info("资产删除成功: assetCode={}, userId={}", assetCode, userId);
     }
 
@@ -179,16 +225,44 @@ public class AssetServiceImpl implements AssetService {
     }
 
     @Override
-    public String getFileUrl(Long id) {
+    public FileUrl getFileUrl(Long id, Integer size) {
         if (id == null) {
             throw new BizException(ResultCode.PARAM_ERROR, "资产 ID 不能为空");
         }
-        var asset = assetMapper.selectById(id);
-        if (asset == null) {
-            throw new BizException(ResultCode.ASSET_NOT_FOUND, "资产不存在: id=" + id);
+        // 缓存未命中时才查库
+        return signFileUrl(id, thumbnailService.normalizeSize(size), () -> findByIdOrThrow(id));
+    }
+
+    @Override
+    public AssetBatchDTO getBatch(List<Long> ids, Integer size) {
+        if (ids == null || ids.isEmpty()) {
+            throw new BizException(ResultCode.PARAM_ERROR, "资产 ID 列表不能为空");
+        }
+        var uniqueIds = ids.stream().filter(Objects::nonNull).collect(Collectors.toCollection(LinkedHashSet::new));
+        if (uniqueIds.isEmpty()) {
+            throw new BizException(ResultCode.PARAM_ERROR, "资产 ID 列表不能为空");
         }
-        // 根据 storageName 实时生成预签名 URL
-        return minioTemplate.getPresignedUrl(asset.getStorageName());
+        if (uniqueIds.size() > MAX_BATCH_SIZE) {
+            throw new BizException(ResultCode.PARAM_ERROR, "单次最多查询 " + MAX_BATCH_SIZE + " 个资产");
+        }
+
+        // 一次 IN 查询取出全部资产；签名时 URL 缓存未命中也直接使用已查出的实体，不再逐个查库
+        Map<Long, Asset> assets = assetMapper.selectBatchIds(uniqueIds).stream()
+                .collect(Collectors.toMap(Asset::getId, Function.identity()));
+        var variant = thumbnailService.normalizeSize(size);
+
+        List<AssetBatchDTO.Item> items = new ArrayList<>(assets.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (var id : uniqueIds) {
+            var asset = assets.get(id);
+            if (asset == null) {
+                missingIds.add(id);
+                continue;
+            }
+            var fileUrl = signFileUrl(id, variant, () -> asset);
+            items.add(new AssetBatchDTO.Item(toDTO(asset), fileUrl.url(), fileUrl.maxAgeSeconds()));
+        }
+        return new AssetBatchDTO(items, missingIds);
     }
 
     @Override
@@ -214,17 +288,121 @@ public class AssetServiceImpl implements AssetService {
         }
 
         // 推断 Content-Type
-        var contentType = resolveContentType(asset.getExtension());
+        var contentType = AssetType.contentTypeOf(asset.getExtension());
 
-        // 从 MinIO 获取文件流
-        var inputStream = minioTemplate.getObject(asset.getStorageName());
-        log.info("准备下载文件: id={}, originalName={}, size={}", id, asset.getOriginalName(), asset.getSize());
+        // 以 MinIO 对象元数据为准（大小、ETag 用于 Range / If-Range），内容按区间延迟读取
+        var storageName = asset.getStorageName();
+        var stat = minioTemplate.statObject(storageName);
+        if (stat == null) {
+            throw new BizException(ResultCode.ASSET_NOT_FOUND, "资产文件不存在: id=" + id);
+        }
+        log.info("准备下载文件: id={}, originalName={}, size={}", id, asset.getOriginalName(), stat.size());
 
-        return new DownloadInfo(inputStream, asset.getOriginalName(), asset.getSize(), contentType);
+        return new DownloadInfo(asset.getOriginalName(), stat.size(), contentType, stat.etag(), stat.lastModified(),
+                (offset, length) -> minioTemplate.getObject(storageName, offset, length));
     }
 
     // ======================== Private Methods ========================
 
+    /**
+     * 保存资产元数据
+     *
+     * @param contentHash 内容 SHA-256（未知时为 null）
+     * @param source      内容相同的已有资产（为 null 时按新内容处理并发布分析事件）
+     */
+    private AssetDTO registerAsset(Long userId, String originalName, String storageName, long size,
+                                   AssetType assetType, String contentHash, Asset source) {
+        var extension = FileNameUtil.extName(storageName);
+
+        // 1. 获取访问 URL
+        var url = minioTemplate.getPresignedUrl(storageName);
+
+        // 2. 构建实体 & 持久化
+        var asset = new Asset();
+        asset.setAssetCode(IdUtil.simpleUUID());
+        asset.setUserId(userId);
+        asset.setOriginalName(originalName);
+        asset.setStorageName(storageName);
+        asset.setUrl(url);
+        asset.setSize(size);
+        asset.setExtension(extension.toLowerCase());
+        asset.setType(assetType);
+        asset.setStatus(AssetStatus.NORMAL);
+        asset.setContentHash(contentHash);
+        if (source != null) {
+            // 内容相同：沿用已有的分析结果、波形峰值与缩略图（试听片段按资产单独生成）
+            asset.setBpm(source.getBpm());
+            asset.setMusicalKey(source.getMusicalKey());
+            asset.setDuration(source.getDuration());
+            asset.setAutoTags(source.getAutoTags());
+            asset.setPeaksName(source.getPeaksName());
+            asset.setThumbnailSizes(source.getThumbnailSizes());
+        }
+
+        assetMapper.insert(asset);
+
+        // 3. 发布「资产上传完成」事件到 RabbitMQ（仅音频类型触发分析；内容去重命中时复制向量，不重复分析）
+        if (source != null) {
+            if (assetType == AssetType.AUDIO) {
+                assetMapper.copyAudioVector(asset.getId(), source.getId());
+                assetEventPublisher.publishPreviewRequestedEvent(asset.getId());
+            }
+            log.info("资产内容去重命中: id={}, sourceId={}, storageName={}, userId={}",
+                    asset.getId(), source.getId(), storageName, userId);
+        } else {
+            log.info("资产上传成功: id={}, storageName={}, userId={}", asset.getId(), storageName, userId);
+            if (assetType.isTradeable() && assetType == AssetType.AUDIO) {
+                assetEventPublisher.publishUploadedEvent(asset.getId(), storageName);
+            } else if (assetType == AssetType.IMAGE) {
+                assetEventPublisher.publishImageUploadedEvent(asset.getId(), storageName);
+            }
+        }
+
+        // 4. 返回 DTO（隔离内部存储细节）
+        return toDTO(asset);
+    }
+
+    /**
+     * 签发资产文件的预签名 URL（按时间窗口缓存）
+     * 指定缩略图尺寸时优先返回缩略图；缩略图尚未生成时不缓存，回退到原图
+     *
+     * @param variant     缩略图尺寸（已规范化，可为 null）
+     * @param assetLoader URL 缓存未命中时提供资产实体
+     */
+    private FileUrl signFileUrl(Long id, Integer variant, Supplier<Asset> assetLoader) {
+        if (variant != null) {
+            var signed = presignedUrlCache.get(id, variant,
+                    () -> thumbnailService.resolveObjectName(assetLoader.get(), variant));
+            if (signed != null) {
+                return new FileUrl(signed.url(), signed.maxAgeSeconds());
+            }
+        }
+        var signed = presignedUrlCache.get(id, () -> assetLoader.get().getStorageName());
+        return new FileUrl(signed.url(), signed.maxAgeSeconds());
+    }
+
+    /**
+     * 删除 MinIO 对象，失败只记录日志（由孤立对象清理兜底）
+     */
+    private void removeQuietly(String objectName) {
+        try {
+            minioTemplate.remove(objectName);
+        } catch (Exception e) {
+            log.warn("MinIO 派生对象删除失败: objectName={}", objectName, e);
+        }
+    }
+
+    /**
+     * 根据 ID 查找资产，不存在则抛异常
+     */
+    private Asset findByIdOrThrow(Long id) {
+        var asset = assetMapper.selectById(id);
+        if (asset == null) {
+            throw new BizException(ResultCode.ASSET_NOT_FOUND, "资产不存在: id=" + id);
+        }
+        return asset;
+    }
+
     /**
      * 根据 assetCode 查找资产，不存在则抛异常
      */
@@ -276,40 +454,26 @@ public class AssetServiceImpl implements AssetService {
     }
 
     /**
-     * 生成 MinIO 对象存储名称
-     * 格式: {type}/{year}/{month}/{uuid}.{ext}
-     * 示例: audio/2026/02/a1b2c3d4e5f6.mp3
+     * 查找内容相同、可直接复用的资产：同类型同扩展名，音频须已分析完成（bpm 已回写）
      */
-    private String generateStorageName(AssetType assetType, String extension) {
-        var now = LocalDate.now();
-        var year = String.valueOf(now.getYear());
-        var month = String.format("%02d", now.getMonthValue());
-        var uuid = IdUtil.simpleUUID();
-        return String.join("/",
-                assetType.getValue().toLowerCase(),
-                year,
-                month,
-                uuid + "." + extension.toLowerCase()
-        );
+    private Asset findDuplicate(String contentHash, AssetType assetType, String extension) {
+        var wrapper = new LambdaQueryWrapper<Asset>()
+                .eq(Asset::getContentHash, contentHash)
+                .eq(Asset::getType, assetType)
+                .eq(Asset::getExtension, extension.toLowerCase())
+                .eq(Asset::getStatus, AssetStatus.NORMAL)
+                .isNotNull(assetType == AssetType.AUDIO, Asset::getBpm)
+                .orderByAsc(Asset::getId)
+                .last("LIMIT 1");
+        return assetMapper.selectOne(wrapper);
     }
 
-    /**
-     * 根据文件扩展名推断 Content-Type
-     */
-    private String resolveContentType(String extension) {
-        if (extension == null) return "application/octet-stream";
-        return switch (extension.toLowerCase()) {
-            case "mp3" -> "audio/mpeg";
-            case "wav" -> "audio/wav";
-            case "flac" -> "audio/flac";
-            case "aac" -> "audio/aac";
-            case "ogg" -> "audio/ogg";
-            case "mid", "midi" -> "audio/midi";
-            case "jpg", "jpeg" -> "image/jpeg";
-            case "png" -> "image/png";
-            case "webp" -> "image/webp";
-            default -> "application/octet-stream";
-        };
+    private static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 不可用", e);
+        }
     }
 
     /**
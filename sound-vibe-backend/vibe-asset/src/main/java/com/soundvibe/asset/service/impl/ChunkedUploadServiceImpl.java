@@ -0,0 +1,324 @@
+package com.soundvibe.asset.service.impl;
+
+import cn.hutool.core.io.file.FileNameUtil;
+import cn.hutool.core.util.IdUtil;
+import cn.hutool.core.util.StrUtil;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import com.soundvibe.asset.config.ChunkedUploadProperties;
+import com.soundvibe.asset.domain.entity.AssetUpload;
+import com.soundvibe.asset.domain.entity.AssetUploadPart;
+import com.soundvibe.asset.enums.AssetType;
+import com.soundvibe.asset.enums.UploadStatus;
+import com.soundvibe.asset.infrastructure.MinioTemplate;
+import com.soundvibe.asset.mapper.AssetUploadMapper;
+import com.soundvibe.asset.mapper.AssetUploadPartMapper;
+import com.soundvibe.asset.model.dto.AssetDTO;
+import com.soundvibe.asset.model.dto.UploadInitRequest;
+import com.soundvibe.asset.model.dto.UploadPartDTO;
+import com.soundvibe.asset.model.dto.UploadSessionDTO;
+import com.soundvibe.asset.service.AssetService;
+import com.soundvibe.asset.service.ChunkedUploadService;
+import com.soundvibe.common.exception.BizException;
+import com.soundvibe.common.result.ResultCode;
+import io.minio.messages.Part;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.InputStream;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * 分片上传服务实现类
+ * <p>
+ * 协议：
+ * 1. init：校验文件，确定分片大小，创建 MinIO 分片上传并保存会话
+ * 2. put-part：请求体即分片数据，长度须与该分片的预期大小一致，直接流式写入 MinIO，成功后记录 ETag
+ * 3. complete：所有分片齐全后按分片号合并，登记资产（复用 AssetService.createAsset，音频触发分析）；
+ *    会话状态与资产登记在同一事务中，失败时会话保持上传中
+ * 4. abort：取消 MinIO 分片上传并标记会话
+ * <p>
+ * 分片互不依赖，客户端可并行上传；连接中断后查询会话，只补传缺失的分片
+ * 单个请求的内存占用为固定的拷贝缓冲区，与文件大小、分片大小无关
+ *
+ * @author SoundVibe Team
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ChunkedUploadServiceImpl implements ChunkedUploadService {
+
+    private final MinioTemplate minioTemplate;
+    private final AssetService assetService;
+    private final AssetUploadMapper assetUploadMapper;
+    private final AssetUploadPartMapper assetUploadPartMapper;
+    private final ChunkedUploadProperties properties;
+
+    /**
+     * S3 分片上传的分片数上限
+     */
+    private static final int MAX_PARTS = 10000;
+
+    /**
+     * 合并缺片提示中最多列出的分片号
+     */
+    private static final int MAX_MISSING_PARTS_IN_MESSAGE = 20;
+
+    @Override
+    public UploadSessionDTO init(UploadInitRequest request, Long userId) {
+        // 1. 校验文件名与大小
+        if (request == null || StrUtil.isBlank(request.fileName())) {
+            throw new BizException(ResultCode.PARAM_ERROR, "文件名不能为空");
+        }
+        if (request.size() == null || request.size() <= 0) {
+            throw new BizException(ResultCode.FILE_IS_EMPTY);
+        }
+        if (request.size() > properties.getMaxFileSize()) {
+            throw new BizException(ResultCode.FILE_SIZE_EXCEEDED,
+                    "文件大小 [" + request.size() + " bytes] 超过限制 [" + properties.getMaxFileSize() + " bytes]");
+        }
+        var assetType = assetService.resolveUploadType(request.fileName(), request.type());
+        var extension = FileNameUtil.extName(request.fileName());
+
+        // 2. 确定分片大小：限制在 [minPartSize, maxPartSize]，且分片数不超过 S3 上限
+        long partSize = request.partSize() != null ? request.partSize() : properties.getDefaultPartSize();
+        partSize = Math.max(properties.getMinPartSize(), Math.min(partSize, properties.getMaxPartSize()));
+        partSize = Math.max(partSize, (request.size() + MAX_PARTS - 1) / MAX_PARTS);
+        int partCount = (int) ((request.size() + partSize - 1) / partSize);
+
+        // 3. 创建 MinIO 分片上传
+        var storageName = assetType.newStorageName(extension);
+        var uploadId = minioTemplate.createMultipartUpload(storageName, AssetType.contentTypeOf(extension));
+
+        // 4. 保存会话
+        var session = new AssetUpload();
+        session.setUploadCode(IdUtil.simpleUUID());
+        session.setUserId(userId);
+        session.setUploadId(uploadId);
+        session.setStorageName(storageName);
+        session.setOriginalName(request.fileName());
+        session.setType(assetType);
+        session.setTotalSize(request.size());
+        session.setPartSize(partSize);
+        session.setPartCount(partCount);
+        session.setStatus(UploadStatus.UPLOADING);
+        session.setExpireTime(new Date(System.currentTimeMillis()
+                + TimeUnit.HOURS.toMillis(properties.getSessionTtlHours())));
+        assetUploadMapper.insert(session);
+
+        log.info("分片上传会话已建立: uploadCode={}, userId={}, fileName={}, size={}, partSize={}, partCount={}",
+                session.getUploadCode(), userId, request.fileName(), request.size(), partSize, partCount);
+        return toDTO(session, List.of());
+    }
+
+    @Override
+    public UploadSessionDTO getSession(String uploadCode, Long userId) {
+        var session = findOwnedOrThrow(uploadCode, userId);
+        return toDTO(session, listParts(session.getId()));
+    }
+
+    @Override
+    public UploadPartDTO uploadPart(String uploadCode, int partNumber, InputStream inputStream, long size, Long userId) {
+        var session = findActiveOrThrow(uploadCode, userId);
+
+        // 1. 校验分片号与长度（最后一个分片为剩余字节数）
+        if (partNumber < 1 || partNumber > session.getPartCount()) {
+            throw new BizException(ResultCode.PARAM_ERROR,
+                    "分片号超出范围: " + partNumber + "（共 " + session.getPartCount() + " 片）");
+        }
+        long expectedSize = expectedPartSize(session, partNumber);
+        if (size != expectedSize) {
+            throw new BizException(ResultCode.PARAM_ERROR,
+                    "分片 " + partNumber + " 长度应为 " + expectedSize + " 字节，实际 " + size);
+        }
+
+        // 2. 流式写入 MinIO，成功后记录 ETag（重传同一分片时覆盖）
+        var etag = minioTemplate.uploadPart(session.getStorageName(), session.getUploadId(),
+                partNumber, inputStream, expectedSize);
+        assetUploadPartMapper.upsert(session.getId(), partNumber, etag, expectedSize);
+
+        log.debug("分片上传成功: uploadCode={}, partNumber={}, size={}", uploadCode, partNumber, expectedSize);
+        return new UploadPartDTO(partNumber, expectedSize, etag);
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public AssetDTO complete(String uploadCode, Long userId) {
+        var session = findOwnedOrThrow(uploadCode, userId);
+        if (session.getStatus() == UploadStatus.COMPLETED) {
+            return completedAsset(session);
+        }
+        if (session.getStatus() != UploadStatus.UPLOADING) {
+            throw new BizException(ResultCode.UPLOAD_SESSION_NOT_FOUND, "上传已取消: " + uploadCode);
+        }
+
+        // 1. 校验分片齐全
+        var parts = listParts(session.getId());
+        if (parts.size() < session.getPartCount()) {
+            throw new BizException(ResultCode.UPLOAD_INCOMPLETE,
+                    "缺少分片: " + missingParts(session, parts) + "（已上传 " + parts.size() + "/" + session.getPartCount() + "）");
+        }
+
+        // 2. 抢占会话（UPLOADING → COMPLETED），并发的重复合并请求只有一个继续
+        //    抢占、登记资产与回填 assetId 在同一事务中：任一步失败整体回滚，会话回到上传中，客户端可重试
+        int claimed = assetUploadMapper.update(null, new LambdaUpdateWrapper<AssetUpload>()
+                .set(AssetUpload::getStatus, UploadStatus.COMPLETED)
+                .eq(AssetUpload::getId, session.getId())
+                .eq(AssetUpload::getStatus, UploadStatus.UPLOADING));
+        if (claimed == 0) {
+            return completedAsset(assetUploadMapper.selectById(session.getId()));
+        }
+
+        // 3. 合并分片
+        mergeParts(session, parts);
+
+        // 4. 登记资产（音频类型发布分析事件）
+        var asset = assetService.createAsset(userId, session.getOriginalName(), session.getStorageName(),
+                session.getTotalSize(), session.getType());
+        assetUploadMapper.update(null, new LambdaUpdateWrapper<AssetUpload>()
+                .set(AssetUpload::getAssetId, asset.id())
+                .eq(AssetUpload::getId, session.getId()));
+
+        log.info("分片上传已合并: uploadCode={}, assetId={}, parts={}", uploadCode, asset.id(), parts.size());
+        return asset;
+    }
+
+    @Override
+    public void abort(String uploadCode, Long userId) {
+        var session = findActiveOrThrow(uploadCode, userId);
+        abortSession(session);
+        log.info("分片上传已取消: uploadCode={}, userId={}", uploadCode, userId);
+    }
+
+    /**
+     * 定时取消过期未合并的会话，释放 MinIO 中的分片
+     */
+    @Scheduled(fixedDelayString = "${asset.chunked-upload.cleanup-interval-millis:3600000}")
+    public void abortExpiredSessions() {
+        var expired = assetUploadMapper.selectList(new LambdaQueryWrapper<AssetUpload>()
+                .eq(AssetUpload::getStatus, UploadStatus.UPLOADING)
+                .lt(AssetUpload::getExpireTime, new Date())
+                .last("LIMIT " + properties.getCleanupBatchSize()));
+        for (var session : expired) {
+            try {
+                abortSession(session);
+            } catch (Exception e) {
+                log.warn("取消过期上传会话失败: uploadCode={}, error={}", session.getUploadCode(), e.getMessage());
+            }
+        }
+        if (!expired.isEmpty()) {
+            log.info("已取消过期上传会话: {} 个", expired.size());
+        }
+    }
+
+    // ======================== Private Methods ========================
+
+    /**
+     * 查找会话并校验归属
+     */
+    private AssetUpload findOwnedOrThrow(String uploadCode, Long userId) {
+        var session = assetUploadMapper.selectOne(new LambdaQueryWrapper<AssetUpload>()
+                .eq(AssetUpload::getUploadCode, uploadCode));
+        if (session == null) {
+            throw new BizException(ResultCode.UPLOAD_SESSION_NOT_FOUND, "上传会话不存在: " + uploadCode);
+        }
+        if (!session.getUserId().equals(userId)) {
+            throw new BizException(ResultCode.FORBIDDEN, "无权操作此上传会话");
+        }
+        return session;
+    }
+
+    /**
+     * 查找仍可上传的会话（未合并、未取消、未过期）
+     */
+    private AssetUpload findActiveOrThrow(String uploadCode, Long userId) {
+        var session = findOwnedOrThrow(uploadCode, userId);
+        if (session.getStatus() != UploadStatus.UPLOADING) {
+            throw new BizException(ResultCode.UPLOAD_SESSION_NOT_FOUND,
+                    "上传会话已" + session.getStatus().getDescription() + ": " + uploadCode);
+        }
+        if (session.getExpireTime().before(new Date())) {
+            throw new BizException(ResultCode.UPLOAD_SESSION_NOT_FOUND, "上传会话已过期: " + uploadCode);
+        }
+        return session;
+    }
+
+    private void abortSession(AssetUpload session) {
+        minioTemplate.abortMultipartUpload(session.getStorageName(), session.getUploadId());
+        assetUploadMapper.update(null, new LambdaUpdateWrapper<AssetUpload>()
+                .set(AssetUpload::getStatus, UploadStatus.ABORTED)
+                .eq(AssetUpload::getId, session.getId())
+                .eq(AssetUpload::getStatus, UploadStatus.UPLOADING));
+        assetUploadPartMapper.delete(new LambdaQueryWrapper<AssetUploadPart>()
+                .eq(AssetUploadPart::getSessionId, session.getId()));
+    }
+
+    /**
+     * 按分片号合并 MinIO 分片
+     * 合并成功但事务回滚（如登记资产失败）后重试时，分片上传已不存在，此时对象已完整即视为已合并
+     */
+    private void mergeParts(AssetUpload session, List<AssetUploadPart> parts) {
+        try {
+            minioTemplate.completeMultipartUpload(session.getStorageName(), session.getUploadId(),
+                    parts.stream().map(p -> new Part(p.getPartNumber(), p.getEtag())).toList());
+        } catch (BizException e) {
+            var merged = minioTemplate.statObject(session.getStorageName());
+            if (merged == null || merged.size() != session.getTotalSize()) {
+                throw e;
+            }
+            log.info("分片此前已合并，跳过合并: uploadCode={}", session.getUploadCode());
+        }
+    }
+
+    /**
+     * 已合并会话对应的资产；资产尚在登记中（并发合并请求）时提示稍后查询
+     */
+    private AssetDTO completedAsset(AssetUpload session) {
+        if (session.getAssetId() == null) {
+            throw new BizException(ResultCode.BIZ_ERROR, "分片正在合并中，请稍后查询");
+        }
+        return assetService.getById(session.getAssetId());
+    }
+
+    private List<AssetUploadPart> listParts(Long sessionId) {
+        return assetUploadPartMapper.selectList(new LambdaQueryWrapper<AssetUploadPart>()
+                .eq(AssetUploadPart::getSessionId, sessionId)
+                .orderByAsc(AssetUploadPart::getPartNumber));
+    }
+
+    private long expectedPartSize(AssetUpload session, int partNumber) {
+        if (partNumber < session.getPartCount()) {
+            return session.getPartSize();
+        }
+        return session.getTotalSize() - session.getPartSize() * (session.getPartCount() - 1);
+    }
+
+    private List<Integer> missingParts(AssetUpload session, List<AssetUploadPart> parts) {
+        var uploaded = parts.stream().map(AssetUploadPart::getPartNumber).toList();
+        return IntStream.rangeClosed(1, session.getPartCount())
+                .filter(n -> !uploaded.contains(n))
+                .limit(MAX_MISSING_PARTS_IN_MESSAGE)
+                .boxed()
+                .toList();
+    }
+
+    private UploadSessionDTO toDTO(AssetUpload session, List<AssetUploadPart> parts) {
+        return new UploadSessionDTO(
+                session.getUploadCode(),
+                session.getOriginalName(),
+                session.getTotalSize(),
+                session.getPartSize(),
+                session.getPartCount(),
+                session.getStatus().getCode(),
+                parts.stream().map(p -> new UploadPartDTO(p.getPartNumber(), p.getSize(), p.getEtag())).toList(),
+                session.getAssetId(),
+                session.getExpireTime()
+        );
+    }
+}
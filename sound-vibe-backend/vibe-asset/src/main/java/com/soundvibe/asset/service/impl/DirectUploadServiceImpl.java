@@ -0,0 +1,199 @@
+package com.soundvibe.asset.service.impl;
+
+import cn.hutool.core.io.file.FileNameUtil;
+import cn.hutool.core.util.IdUtil;
+import cn.hutool.core.util.StrUtil;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import com.soundvibe.asset.config.DirectUploadProperties;
+import com.soundvibe.asset.domain.entity.AssetUploadIntent;
+import com.soundvibe.asset.enums.AssetType;
+import com.soundvibe.asset.enums.UploadStatus;
+import com.soundvibe.asset.infrastructure.MinioTemplate;
+import com.soundvibe.asset.mapper.AssetUploadIntentMapper;
+import com.soundvibe.asset.model.dto.AssetDTO;
+import com.soundvibe.asset.model.dto.UploadIntentDTO;
+import com.soundvibe.asset.model.dto.UploadIntentRequest;
+import com.soundvibe.asset.service.AssetService;
+import com.soundvibe.asset.service.DirectUploadService;
+import com.soundvibe.common.exception.BizException;
+import com.soundvibe.common.result.ResultCode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.ZonedDateTime;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 直传服务实现类
+ * <p>
+ * 流程：
+ * 1. upload-intent：生成对象名，签发预签名 POST 表单（策略限定 key、Content-Type、content-length-range），保存意图
+ * 2. 客户端按表单直接 POST 到 MinIO，不符合策略的上传由 MinIO 拒绝
+ * 3. complete：statObject 校验对象存在且大小、类型与意图一致，登记资产（复用 AssetService.createAsset）；
+ *    意图状态与资产登记在同一事务中，失败时意图保持上传中
+ * <p>
+ * 选择 POST 表单而非预签名 PUT：PUT URL 只能签名方法与对象名，无法限制上传大小；
+ * POST 策略的 content-length-range 由 MinIO 在接收时强制校验
+ *
+ * @author SoundVibe Team
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DirectUploadServiceImpl implements DirectUploadService {
+
+    private final MinioTemplate minioTemplate;
+    private final AssetService assetService;
+    private final AssetUploadIntentMapper assetUploadIntentMapper;
+    private final DirectUploadProperties properties;
+
+    @Override
+    public UploadIntentDTO createIntent(UploadIntentRequest request, Long userId) {
+        // 1. 校验文件名与大小
+        if (request == null || StrUtil.isBlank(request.fileName())) {
+            throw new BizException(ResultCode.PARAM_ERROR, "文件名不能为空");
+        }
+        if (request.size() == null || request.size() <= 0) {
+            throw new BizException(ResultCode.FILE_IS_EMPTY);
+        }
+        if (request.size() > properties.getMaxFileSize()) {
+            throw new BizException(ResultCode.FILE_SIZE_EXCEEDED,
+                    "文件大小 [" + request.size() + " bytes] 超过限制 [" + properties.getMaxFileSize() + " bytes]");
+        }
+        var assetType = assetService.resolveUploadType(request.fileName(), request.type());
+        var extension = FileNameUtil.extName(request.fileName());
+        var storageName = assetType.newStorageName(extension);
+        var contentType = AssetType.contentTypeOf(extension);
+
+        // 2. 签发 POST 表单
+        var policyExpiration = ZonedDateTime.now().plusMinutes(properties.getPolicyExpiryMinutes());
+        var formData = minioTemplate.getPresignedPostForm(storageName, contentType, request.size(), policyExpiration);
+
+        // 3. 保存意图
+        var intent = new AssetUploadIntent();
+        intent.setIntentCode(IdUtil.simpleUUID());
+        intent.setUserId(userId);
+        intent.setStorageName(storageName);
+        intent.setOriginalName(request.fileName());
+        intent.setType(assetType);
+        intent.setSize(request.size());
+        intent.setContentType(contentType);
+        intent.setStatus(UploadStatus.UPLOADING);
+        intent.setExpireTime(new Date(System.currentTimeMillis()
+                + TimeUnit.HOURS.toMillis(properties.getIntentTtlHours())));
+        assetUploadIntentMapper.insert(intent);
+
+        log.info("直传意图已签发: intentCode={}, userId={}, fileName={}, size={}, object={}",
+                intent.getIntentCode(), userId, request.fileName(), request.size(), storageName);
+        return new UploadIntentDTO(
+                intent.getIntentCode(),
+                minioTemplate.getBucketUrl(),
+                formData,
+                request.size(),
+                contentType,
+                Date.from(policyExpiration.toInstant()),
+                intent.getExpireTime()
+        );
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public AssetDTO complete(String intentCode, Long userId) {
+        var intent = assetUploadIntentMapper.selectOne(new LambdaQueryWrapper<AssetUploadIntent>()
+                .eq(AssetUploadIntent::getIntentCode, intentCode));
+        if (intent == null) {
+            throw new BizException(ResultCode.UPLOAD_SESSION_NOT_FOUND, "上传意图不存在: " + intentCode);
+        }
+        if (!intent.getUserId().equals(userId)) {
+            throw new BizException(ResultCode.FORBIDDEN, "无权操作此上传意图");
+        }
+        if (intent.getStatus() == UploadStatus.COMPLETED) {
+            return completedAsset(intent);
+        }
+        if (intent.getStatus() != UploadStatus.UPLOADING || intent.getExpireTime().before(new Date())) {
+            throw new BizException(ResultCode.UPLOAD_SESSION_NOT_FOUND, "上传意图已失效: " + intentCode);
+        }
+
+        // 1. 校验对象（POST 策略已限定，这里防止客户端未上传或绕过表单）
+        var stat = minioTemplate.statObject(intent.getStorageName());
+        if (stat == null) {
+            throw new BizException(ResultCode.UPLOAD_OBJECT_INVALID, "文件尚未上传到存储: " + intentCode);
+        }
+        if (stat.size() != intent.getSize()) {
+            throw new BizException(ResultCode.UPLOAD_OBJECT_INVALID,
+                    "文件大小应为 " + intent.getSize() + " 字节，实际 " + stat.size());
+        }
+        if (!intent.getContentType().equalsIgnoreCase(stat.contentType())) {
+            throw new BizException(ResultCode.UPLOAD_OBJECT_INVALID,
+                    "文件类型应为 " + intent.getContentType() + "，实际 " + stat.contentType());
+        }
+
+        // 2. 抢占意图（UPLOADING → COMPLETED），并发的重复确认只有一个登记资产
+        //    抢占、登记资产与回填 assetId 在同一事务中：任一步失败整体回滚，意图回到上传中，客户端可重试
+        int claimed = assetUploadIntentMapper.update(null, new LambdaUpdateWrapper<AssetUploadIntent>()
+                .set(AssetUploadIntent::getStatus, UploadStatus.COMPLETED)
+                .eq(AssetUploadIntent::getId, intent.getId())
+                .eq(AssetUploadIntent::getStatus, UploadStatus.UPLOADING));
+        if (claimed == 0) {
+            return completedAsset(assetUploadIntentMapper.selectById(intent.getId()));
+        }
+
+        // 3. 登记资产（音频类型发布分析事件）
+        var asset = assetService.createAsset(userId, intent.getOriginalName(), intent.getStorageName(),
+                stat.size(), intent.getType());
+        assetUploadIntentMapper.update(null, new LambdaUpdateWrapper<AssetUploadIntent>()
+                .set(AssetUploadIntent::getAssetId, asset.id())
+                .eq(AssetUploadIntent::getId, intent.getId()));
+
+        log.info("直传已确认: intentCode={}, assetId={}, size={}", intentCode, asset.id(), stat.size());
+        return asset;
+    }
+
+    /**
+     * 定时取消过期未确认的意图，删除已直传但未登记的对象
+     */
+    @Scheduled(fixedDelayString = "${asset.direct-upload.cleanup-interval-millis:3600000}")
+    public void abortExpiredIntents() {
+        var expired = assetUploadIntentMapper.selectList(new LambdaQueryWrapper<AssetUploadIntent>()
+                .eq(AssetUploadIntent::getStatus, UploadStatus.UPLOADING)
+                .lt(AssetUploadIntent::getExpireTime, new Date())
+                .last("LIMIT " + properties.getCleanupBatchSize()));
+        int aborted = 0;
+        for (var intent : expired) {
+            // 先抢占状态，避免删除正在确认的对象
+            int claimed = assetUploadIntentMapper.update(null, new LambdaUpdateWrapper<AssetUploadIntent>()
+                    .set(AssetUploadIntent::getStatus, UploadStatus.ABORTED)
+                    .eq(AssetUploadIntent::getId, intent.getId())
+                    .eq(AssetUploadIntent::getStatus, UploadStatus.UPLOADING));
+            if (claimed == 0) {
+                continue;
+            }
+            try {
+                minioTemplate.remove(intent.getStorageName());
+                aborted++;
+            } catch (Exception e) {
+                log.warn("删除过期直传对象失败: intentCode={}, error={}", intent.getIntentCode(), e.getMessage());
+            }
+        }
+        if (aborted > 0) {
+            log.info("已取消过期直传意图: {} 个", aborted);
+        }
+    }
+
+    // ======================== Private Methods ========================
+
+    /**
+     * 已确认意图对应的资产；资产尚在登记中（并发确认请求）时提示稍后查询
+     */
+    private AssetDTO completedAsset(AssetUploadIntent intent) {
+        if (intent.getAssetId() == null) {
+            throw new BizException(ResultCode.BIZ_ERROR, "上传正在确认中，请稍后查询");
+        }
+        return assetService.getById(intent.getAssetId());
+    }
+}
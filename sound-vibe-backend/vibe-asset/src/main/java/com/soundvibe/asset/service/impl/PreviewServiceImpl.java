@@ -0,0 +1,178 @@
+package com.soundvibe.asset.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import com.soundvibe.asset.config.PreviewProperties;
+import com.soundvibe.asset.domain.entity.Asset;
+import com.soundvibe.asset.enums.AssetType;
+import com.soundvibe.asset.infrastructure.AudioClipCutter;
+import com.soundvibe.asset.infrastructure.MinioTemplate;
+import com.soundvibe.asset.mapper.AssetMapper;
+import com.soundvibe.asset.mapper.TrackPreviewMapper;
+import com.soundvibe.asset.service.AssetService;
+import com.soundvibe.asset.service.PreviewService;
+import com.soundvibe.common.exception.BizException;
+import com.soundvibe.common.result.ResultCode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+
+/**
+ * 试听片段服务实现类
+ * <p>
+ * 触发：
+ * - 分析完成（asset.analysis.completed）：时长取引用该资产的作品设置，尚未被引用时取默认 30 秒
+ * - 作品试听设置变更（asset.preview.requested，由 vibe-catalog 发布）：按消息中的时长重新生成
+ * <p>
+ * 是否允许试听以数据库为准：资产已被作品引用、但引用它的作品或文件均不允许试听时不生成片段，
+ * 已有的片段连同 preview_name 一并清除，试听端点同样拒绝返回；尚未被引用的新资产按默认时长生成
+ * <p>
+ * 片段按资产生成，存放在原文件旁（{原对象名去扩展名}.preview-{资产ID}.{ext}），重新生成时覆盖同名对象
+ * 内容去重后多个资产共用原文件，但各自的试听时长由各自作品决定，片段不共用
+ * 支持 WAV（PCM 前缀透传）与 MP3（整帧截取），其余格式跳过
+ *
+ * @author SoundVibe Team
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PreviewServiceImpl implements PreviewService {
+
+    private final AssetMapper assetMapper;
+    private final TrackPreviewMapper trackPreviewMapper;
+    private final MinioTemplate minioTemplate;
+    private final PreviewProperties properties;
+
+    @Override
+    public void generate(Long assetId, Integer previewDuration) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        var asset = assetMapper.selectById(assetId);
+        if (asset == null || asset.getType() != AssetType.AUDIO) {
+            log.debug("非音频资产或资产不存在，跳过试听片段: assetId={}", assetId);
+            return;
+        }
+        var extension = asset.getExtension() != null ? asset.getExtension().toLowerCase() : "";
+        if (!"mp3".equals(extension) && !"wav".equals(extension)) {
+            log.info("格式不支持无损截取，跳过试听片段: assetId={}, extension={}", assetId, extension);
+            return;
+        }
+
+        // 1. 确定时长（已被引用但均不允许试听时移除已有片段）
+        var allowedDuration = trackPreviewMapper.selectPreviewDuration(assetId);
+        if (allowedDuration == null && trackPreviewMapper.countReferences(assetId) > 0) {
+            removePreview(asset);
+            return;
+        }
+        int seconds = resolveDuration(previewDuration != null ? previewDuration : allowedDuration);
+        if (asset.getPreviewName() != null && asset.getPreviewDuration() != null
+                && asset.getPreviewDuration() == seconds) {
+            log.debug("试听片段已是最新: assetId={}, duration={}s", assetId, seconds);
+            return;
+        }
+
+        // 2. 截取并上传（只读取原文件开头所需的部分）
+        var previewName = previewNameOf(asset);
+        try (var original = minioTemplate.getObject(asset.getStorageName())) {
+            var clip = "wav".equals(extension)
+                    ? AudioClipCutter.cutWav(original, seconds)
+                    : AudioClipCutter.cutMp3(original, seconds);
+            minioTemplate.upload(previewName, clip.stream(), clip.size(), clip.contentType());
+
+            // 3. 记录片段（只更新本资产）
+            assetMapper.update(null, new LambdaUpdateWrapper<Asset>()
+                    .set(Asset::getPreviewName, previewName)
+                    .set(Asset::getPreviewDuration, seconds)
+                    .eq(Asset::getId, assetId));
+            log.info("试听片段已生成: assetId={}, object={}, duration={}s, size={}",
+                    assetId, previewName, seconds, clip.size());
+        } catch (AudioClipCutter.UnsupportedAudioException e) {
+            log.warn("音频无法截取，跳过试听片段: assetId={}, reason={}", assetId, e.getMessage());
+        } catch (IOException e) {
+            log.error("生成试听片段失败: assetId={}", assetId, e);
+            throw new BizException(ResultCode.SYSTEM_ERROR, "生成试听片段失败: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public AssetService.DownloadInfo getPreview(Long assetId) {
+        if (assetId == null) {
+            throw new BizException(ResultCode.PARAM_ERROR, "资产 ID 不能为空");
+        }
+        var asset = assetMapper.selectById(assetId);
+        if (asset == null) {
+            throw new BizException(ResultCode.ASSET_NOT_FOUND, "资产不存在: id=" + assetId);
+        }
+        if (asset.getPreviewName() == null) {
+            throw new BizException(ResultCode.ASSET_NOT_FOUND, "试听片段尚未生成: id=" + assetId);
+        }
+        if (!isPreviewAllowed(assetId)) {
+            throw new BizException(ResultCode.FORBIDDEN, "作品不允许试听: id=" + assetId);
+        }
+        var previewName = asset.getPreviewName();
+        var stat = minioTemplate.statObject(previewName);
+        if (stat == null) {
+            throw new BizException(ResultCode.ASSET_NOT_FOUND, "试听片段不存在: id=" + assetId);
+        }
+        return new AssetService.DownloadInfo(
+                "preview-" + asset.getOriginalName(),
+                stat.size(),
+                AssetType.contentTypeOf(asset.getExtension()),
+                stat.etag(),
+                stat.lastModified(),
+                (offset, length) -> minioTemplate.getObject(previewName, offset, length));
+    }
+
+    // ======================== Private Methods ========================
+
+    private int resolveDuration(Integer seconds) {
+        if (seconds == null || seconds <= 0) {
+            seconds = properties.getDefaultDurationSeconds();
+        }
+        return Math.min(seconds, properties.getMaxDurationSeconds());
+    }
+
+    /**
+     * 尚未被作品引用，或至少一个引用它的作品（及文件）允许试听
+     */
+    private boolean isPreviewAllowed(Long assetId) {
+        return trackPreviewMapper.selectPreviewDuration(assetId) != null
+                || trackPreviewMapper.countReferences(assetId) == 0;
+    }
+
+    /**
+     * 作品关闭试听：先清除 preview_name 使试听端点立即失效，再删除片段对象
+     * 对象删除失败时只记录日志，由孤立对象清理任务回收
+     */
+    private void removePreview(Asset asset) {
+        if (asset.getPreviewName() == null) {
+            log.debug("作品不允许试听，跳过试听片段: assetId={}", asset.getId());
+            return;
+        }
+        assetMapper.update(null, new LambdaUpdateWrapper<Asset>()
+                .set(Asset::getPreviewName, null)
+                .set(Asset::getPreviewDuration, null)
+                .eq(Asset::getId, asset.getId()));
+        try {
+            minioTemplate.remove(asset.getPreviewName());
+        } catch (Exception e) {
+            log.warn("试听片段删除失败（preview_name 已清除）: assetId={}, object={}",
+                    asset.getId(), asset.getPreviewName(), e);
+        }
+        log.info("作品不允许试听，试听片段已移除: assetId={}, object={}", asset.getId(), asset.getPreviewName());
+    }
+
+    /**
+     * 与原文件同目录，按资产区分：audio/2026/02/uuid.mp3 → audio/2026/02/uuid.preview-42.mp3
+     */
+    private String previewNameOf(Asset asset) {
+        var storageName = asset.getStorageName();
+        var suffix = ".preview-" + asset.getId();
+        int dot = storageName.lastIndexOf('.');
+        return dot > storageName.lastIndexOf('/')
+                ? storageName.substring(0, dot) + suffix + storageName.substring(dot)
+                : storageName + suffix;
+    }
+}
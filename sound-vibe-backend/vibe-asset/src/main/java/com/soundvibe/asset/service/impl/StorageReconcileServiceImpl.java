@@ -0,0 +1,197 @@
+package com.soundvibe.asset.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.soundvibe.asset.config.OrphanReconcilerProperties;
+import com.soundvibe.asset.domain.entity.Asset;
+import com.soundvibe.asset.domain.entity.AssetUploadIntent;
+import com.soundvibe.asset.enums.AssetType;
+import com.soundvibe.asset.enums.UploadStatus;
+import com.soundvibe.asset.infrastructure.ImageThumbnailer;
+import com.soundvibe.asset.infrastructure.MinioTemplate;
+import com.soundvibe.asset.mapper.AssetMapper;
+import com.soundvibe.asset.mapper.AssetUploadIntentMapper;
+import com.soundvibe.asset.service.StorageReconcileService;
+import com.soundvibe.asset.service.ThumbnailService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 存储对账服务实现类
+ * <p>
+ * 按前缀惰性遍历 MinIO 对象（ListObjects 分页），每凑满一批（默认 1000 个）：
+ * 1. 以批内对象名做一次 IN 查询，取出引用它们的未删除资产
+ *    - storage_name / preview_name / peaks_name 直接匹配
+ *    - 缩略图由对象名还原原图对象名（图片允许的每种扩展名），再按 thumbnail_sizes 判断
+ * 2. 引用集合（HashSet）之外的对象即为孤立对象，以 DeleteObjects 批量删除
+ * <p>
+ * 任意时刻内存中只有一批对象名及其引用集合，对象总数达到百万级也不会全部加载
+ * 修改时间在 minAgeHours 之内的对象跳过（可能是尚未登记的分片 / 直传上传），待确认的直传意图同样视为引用
+ *
+ * @author SoundVibe Team
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StorageReconcileServiceImpl implements StorageReconcileService {
+
+    private final MinioTemplate minioTemplate;
+    private final AssetMapper assetMapper;
+    private final AssetUploadIntentMapper assetUploadIntentMapper;
+    private final ThumbnailService thumbnailService;
+    private final OrphanReconcilerProperties properties;
+
+    @Override
+    public ReconcileReport reconcile() {
+        long startTime = System.currentTimeMillis();
+        var cutoff = ZonedDateTime.now().minusHours(properties.getMinAgeHours());
+        var stats = new Stats();
+
+        for (var prefix : properties.getPrefixes()) {
+            Map<String, Long> batch = new LinkedHashMap<>();
+            for (var item : minioTemplate.listObjects(prefix)) {
+                if (item.isDir()) {
+                    continue;
+                }
+                stats.scannedObjects++;
+                stats.scannedBytes += item.size();
+                if (item.lastModified() == null || item.lastModified().isAfter(cutoff)) {
+                    continue;
+                }
+                batch.put(item.objectName(), item.size());
+                if (batch.size() >= properties.getBatchSize()) {
+                    reconcileBatch(batch, stats);
+                    batch.clear();
+                }
+            }
+            reconcileBatch(batch, stats);
+        }
+
+        var report = new ReconcileReport(stats.scannedObjects, stats.scannedBytes, stats.orphanObjects,
+                stats.reclaimedBytes, stats.failedObjects, properties.isDryRun(),
+                System.currentTimeMillis() - startTime);
+        log.info("存储对账完成: 遍历 {} 个对象 ({} bytes), 孤立 {} 个, {} {} bytes, 删除失败 {} 个, 耗时 {} ms",
+                report.scannedObjects(), report.scannedBytes(), report.orphanObjects(),
+                report.dryRun() ? "可回收" : "已回收", report.reclaimedBytes(), report.failedObjects(),
+                report.elapsedMillis());
+        return report;
+    }
+
+    /**
+     * 定时对账
+     */
+    @Scheduled(cron = "${asset.orphan-reconciler.cron:0 0 4 * * *}")
+    public void scheduledReconcile() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        try {
+            reconcile();
+        } catch (Exception e) {
+            log.error("存储对账失败", e);
+        }
+    }
+
+    // ======================== Private Methods ========================
+
+    /**
+     * 比对一批对象并删除其中的孤立对象
+     *
+     * @param batch 对象名 → 大小
+     */
+    private void reconcileBatch(Map<String, Long> batch, Stats stats) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        var referenced = referencedObjects(batch.keySet());
+        List<String> orphans = new ArrayList<>();
+        long orphanBytes = 0;
+        for (var object : batch.entrySet()) {
+            if (!referenced.contains(object.getKey())) {
+                orphans.add(object.getKey());
+                orphanBytes += object.getValue();
+            }
+        }
+        if (orphans.isEmpty()) {
+            return;
+        }
+
+        stats.orphanObjects += orphans.size();
+        if (properties.isDryRun()) {
+            stats.reclaimedBytes += orphanBytes;
+            log.info("存储对账（dry-run）: 本批孤立对象 {} 个, {} bytes, 示例={}",
+                    orphans.size(), orphanBytes, orphans.get(0));
+            return;
+        }
+
+        var failed = minioTemplate.removeObjects(orphans);
+        for (var name : failed) {
+            orphanBytes -= batch.getOrDefault(name, 0L);
+        }
+        stats.failedObjects += failed.size();
+        stats.reclaimedBytes += orphanBytes;
+        log.info("存储对账: 本批删除孤立对象 {} 个, {} bytes, 失败 {} 个",
+                orphans.size() - failed.size(), orphanBytes, failed.size());
+    }
+
+    /**
+     * 批内被引用的对象名集合
+     */
+    private Set<String> referencedObjects(Set<String> names) {
+        // 缩略图 → 可能的原图对象名（原图扩展名未知，取图片允许的全部扩展名）
+        Set<String> storageCandidates = new HashSet<>(names);
+        for (var name : names) {
+            var base = ImageThumbnailer.originalBaseOf(name);
+            if (base != null) {
+                AssetType.IMAGE.getAllowedExtensions().forEach(ext -> storageCandidates.add(base + "." + ext));
+            }
+        }
+
+        var assets = assetMapper.selectList(new LambdaQueryWrapper<Asset>()
+                .select(Asset::getId, Asset::getStorageName, Asset::getPreviewName,
+                        Asset::getPeaksName, Asset::getThumbnailSizes)
+                .and(w -> w.in(Asset::getStorageName, storageCandidates)
+                        .or().in(Asset::getPreviewName, names)
+                        .or().in(Asset::getPeaksName, names)));
+
+        Set<String> referenced = new HashSet<>();
+        for (var asset : assets) {
+            referenced.add(asset.getStorageName());
+            if (asset.getPreviewName() != null) {
+                referenced.add(asset.getPreviewName());
+            }
+            if (asset.getPeaksName() != null) {
+                referenced.add(asset.getPeaksName());
+            }
+            referenced.addAll(thumbnailService.thumbnailNames(asset));
+        }
+
+        // 已直传、尚未确认的对象
+        assetUploadIntentMapper.selectList(new LambdaQueryWrapper<AssetUploadIntent>()
+                        .select(AssetUploadIntent::getId, AssetUploadIntent::getStorageName)
+                        .eq(AssetUploadIntent::getStatus, UploadStatus.UPLOADING)
+                        .in(AssetUploadIntent::getStorageName, names))
+                .forEach(intent -> referenced.add(intent.getStorageName()));
+        return referenced;
+    }
+
+    /**
+     * 对账统计（单次对账内累加）
+     */
+    private static final class Stats {
+        private long scannedObjects;
+        private long scannedBytes;
+        private long orphanObjects;
+        private long reclaimedBytes;
+        private long failedObjects;
+    }
+}
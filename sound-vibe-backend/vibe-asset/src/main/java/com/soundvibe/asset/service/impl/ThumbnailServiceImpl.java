@@ -0,0 +1,182 @@
+package com.soundvibe.asset.service.impl;
+
+import cn.hutool.core.util.StrUtil;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import com.soundvibe.asset.config.ThumbnailProperties;
+import com.soundvibe.asset.domain.entity.Asset;
+import com.soundvibe.asset.enums.AssetType;
+import com.soundvibe.asset.infrastructure.ImageThumbnailer;
+import com.soundvibe.asset.infrastructure.MinioTemplate;
+import com.soundvibe.asset.mapper.AssetMapper;
+import com.soundvibe.asset.service.ThumbnailService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 封面缩略图服务实现类
+ * <p>
+ * 触发：
+ * - 图片上传完成（asset.image.uploaded，本服务发送并消费）
+ * - 定时补生成：按 ID 游标分批处理尚未处理的存量图片，失败的图片在下一轮重试，不阻塞后续批次
+ * <p>
+ * assets.thumbnail_sizes 记录已生成的尺寸（逗号分隔）：NULL 表示尚未处理，
+ * 空字符串表示已处理但无需或无法生成（原图过小、格式不支持）
+ *
+ * @author SoundVibe Team
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ThumbnailServiceImpl implements ThumbnailService {
+
+    private final AssetMapper assetMapper;
+    private final MinioTemplate minioTemplate;
+    private final ThumbnailProperties properties;
+
+    /**
+     * 补生成游标（已处理到的最大资产 ID），一轮结束后归零
+     */
+    private volatile long backfillCursor;
+
+    @Override
+    public void generate(Long assetId) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        var asset = assetMapper.selectById(assetId);
+        if (asset == null || asset.getType() != AssetType.IMAGE || asset.getThumbnailSizes() != null) {
+            return;
+        }
+
+        // 1. 解码并生成（流式读取原图，不落盘）
+        Map<Integer, byte[]> thumbnails;
+        try (var original = minioTemplate.getObject(asset.getStorageName())) {
+            thumbnails = ImageThumbnailer.createThumbnails(original, properties.getSizes(),
+                    properties.getQuality(), properties.getMaxSourcePixels());
+        } catch (ImageThumbnailer.UnsupportedImageException e) {
+            log.info("图片无法生成缩略图，使用原图: assetId={}, reason={}", assetId, e.getMessage());
+            markProcessed(asset, "");
+            return;
+        } catch (IOException e) {
+            log.error("生成缩略图失败（等待补生成重试）: assetId={}", assetId, e);
+            return;
+        }
+
+        // 2. 写入 MinIO
+        long totalBytes = 0;
+        for (var thumbnail : thumbnails.entrySet()) {
+            var data = thumbnail.getValue();
+            minioTemplate.upload(ImageThumbnailer.objectName(asset.getStorageName(), thumbnail.getKey()),
+                    new ByteArrayInputStream(data), data.length, ImageThumbnailer.CONTENT_TYPE);
+            totalBytes += data.length;
+        }
+
+        // 3. 记录已生成的尺寸
+        var sizes = thumbnails.keySet().stream().map(String::valueOf).collect(Collectors.joining(","));
+        markProcessed(asset, sizes);
+        log.info("缩略图已生成: assetId={}, sizes=[{}], totalBytes={}, originalSize={}",
+                assetId, sizes, totalBytes, asset.getSize());
+    }
+
+    @Override
+    public Integer normalizeSize(Integer size) {
+        if (size == null || size <= 0) {
+            return null;
+        }
+        return properties.getSizes().stream()
+                .filter(candidate -> candidate >= size)
+                .min(Integer::compare)
+                .orElse(null);
+    }
+
+    @Override
+    public String resolveObjectName(Asset asset, int size) {
+        if (asset.getThumbnailSizes() == null) {
+            return null;
+        }
+        // 取已生成的不小于 size 的最小缩略图；没有时说明原图不大于 size（或无法生成），使用原图
+        return parseSizes(asset.getThumbnailSizes()).stream()
+                .filter(generated -> generated >= size)
+                .min(Integer::compare)
+                .map(generated -> ImageThumbnailer.objectName(asset.getStorageName(), generated))
+                .orElse(asset.getStorageName());
+    }
+
+    @Override
+    public List<String> thumbnailNames(Asset asset) {
+        if (StrUtil.isBlank(asset.getThumbnailSizes())) {
+            return List.of();
+        }
+        return parseSizes(asset.getThumbnailSizes()).stream()
+                .map(size -> ImageThumbnailer.objectName(asset.getStorageName(), size))
+                .toList();
+    }
+
+    /**
+     * 定时为存量图片补生成缩略图
+     */
+    @Scheduled(fixedDelayString = "${asset.thumbnail.backfill-interval-millis:60000}")
+    public void backfill() {
+        if (!properties.isEnabled() || !properties.isBackfillEnabled()) {
+            return;
+        }
+        var graceCutoff = new Date(System.currentTimeMillis()
+                - TimeUnit.MINUTES.toMillis(properties.getBackfillGraceMinutes()));
+        var batch = assetMapper.selectList(new LambdaQueryWrapper<Asset>()
+                .select(Asset::getId)
+                .eq(Asset::getType, AssetType.IMAGE)
+                .isNull(Asset::getThumbnailSizes)
+                .gt(Asset::getId, backfillCursor)
+                .lt(Asset::getCreateTime, graceCutoff)
+                .orderByAsc(Asset::getId)
+                .last("LIMIT " + properties.getBackfillBatchSize()));
+        if (batch.isEmpty()) {
+            backfillCursor = 0;
+            return;
+        }
+
+        for (var asset : batch) {
+            try {
+                generate(asset.getId());
+            } catch (Exception e) {
+                log.warn("补生成缩略图失败: assetId={}, error={}", asset.getId(), e.getMessage());
+            }
+            backfillCursor = asset.getId();
+        }
+        if (batch.size() < properties.getBackfillBatchSize()) {
+            backfillCursor = 0;
+        }
+        log.info("缩略图补生成: 本批 {} 张, 游标={}", batch.size(), backfillCursor);
+    }
+
+    // ======================== Private Methods ========================
+
+    /**
+     * 记录处理结果（内容去重后多个资产共用同一原图，缩略图随原图共用）
+     */
+    private void markProcessed(Asset asset, String sizes) {
+        assetMapper.update(null, new LambdaUpdateWrapper<Asset>()
+                .set(Asset::getThumbnailSizes, sizes)
+                .eq(Asset::getStorageName, asset.getStorageName()));
+    }
+
+    private List<Integer> parseSizes(String sizes) {
+        return Arrays.stream(sizes.split(","))
+                .filter(StrUtil::isNotBlank)
+                .map(String::trim)
+                .map(Integer::valueOf)
+                .toList();
+    }
+}
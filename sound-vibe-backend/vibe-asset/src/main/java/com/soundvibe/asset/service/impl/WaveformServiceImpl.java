@@ -0,0 +1,69 @@
+package com.soundvibe.asset.service.impl;
+
+import com.soundvibe.asset.infrastructure.MinioTemplate;
+import com.soundvibe.asset.infrastructure.WaveformPeaks;
+import com.soundvibe.asset.mapper.AssetMapper;
+import com.soundvibe.asset.service.WaveformService;
+import com.soundvibe.common.exception.BizException;
+import com.soundvibe.common.result.ResultCode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+
+/**
+ * 波形峰值服务实现类
+ * 峰值块只有几十 KB（单级数 KB），整块读入内存后按需截取单级
+ *
+ * @author SoundVibe Team
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class WaveformServiceImpl implements WaveformService {
+
+    private final AssetMapper assetMapper;
+    private final MinioTemplate minioTemplate;
+
+    @Override
+    public Peaks getPeaks(Long assetId, Integer level) {
+        if (assetId == null) {
+            throw new BizException(ResultCode.PARAM_ERROR, "资产 ID 不能为空");
+        }
+        var asset = assetMapper.selectById(assetId);
+        if (asset == null) {
+            throw new BizException(ResultCode.ASSET_NOT_FOUND, "资产不存在: id=" + assetId);
+        }
+        if (asset.getPeaksName() == null) {
+            throw new BizException(ResultCode.ASSET_NOT_FOUND, "波形峰值尚未生成: id=" + assetId);
+        }
+
+        var peaksName = asset.getPeaksName();
+        var stat = minioTemplate.statObject(peaksName);
+        if (stat == null) {
+            throw new BizException(ResultCode.ASSET_NOT_FOUND, "波形峰值不存在: id=" + assetId);
+        }
+
+        byte[] blob;
+        try (var in = minioTemplate.getObject(peaksName)) {
+            blob = in.readAllBytes();
+        } catch (IOException e) {
+            log.error("读取波形峰值失败: id={}, object={}", assetId, peaksName, e);
+            throw new BizException(ResultCode.SYSTEM_ERROR, "读取波形峰值失败");
+        }
+        if (!WaveformPeaks.isValid(blob)) {
+            log.error("波形峰值数据无效: id={}, object={}, size={}", assetId, peaksName, blob.length);
+            throw new BizException(ResultCode.SYSTEM_ERROR, "波形峰值数据无效");
+        }
+
+        int levels = WaveformPeaks.levelCount(blob);
+        if (level == null) {
+            return new Peaks(blob, stat.etag());
+        }
+        if (level < 0 || level >= levels) {
+            throw new BizException(ResultCode.PARAM_ERROR, "级别超出范围: " + level + "（共 " + levels + " 级）");
+        }
+        return new Peaks(WaveformPeaks.selectLevel(blob, level), stat.etag() + "-" + level);
+    }
+}
@@ -54,3 +54,94 @@ ALTER TABLE `assets`
 -- ============================================
 ALTER TABLE `assets`
     ADD COLUMN `auto_tags`    VARCHAR(500)  DEFAULT NULL COMMENT '自动标注标签 (逗号分隔, 由 CLAP Zero-Shot 生成)' AFTER `duration`;
+
+-- ============================================
+-- Phase 8: 分片上传（可断点续传）
+-- 会话对应一个 MinIO 分片上传，分片表记录已上传分片的 ETag
+-- ============================================
+CREATE TABLE IF NOT EXISTS `asset_uploads` (
+    `id`            BIGINT          NOT NULL AUTO_INCREMENT  COMMENT '主键 ID',
+    `upload_code`   VARCHAR(64)     NOT NULL                 COMMENT '会话编码 (UUID)',
+    `user_id`       BIGINT          NOT NULL                 COMMENT '上传者用户 ID',
+    `upload_id`     VARCHAR(255)    NOT NULL                 COMMENT 'MinIO 分片上传 ID',
+    `storage_name`  VARCHAR(255)    NOT NULL                 COMMENT 'MinIO 存储对象名',
+    `original_name` VARCHAR(255)    NOT NULL                 COMMENT '原始文件名',
+    `type`          VARCHAR(20)     NOT NULL                 COMMENT '资产类型: AUDIO, IMAGE, MIDI',
+    `total_size`    BIGINT          NOT NULL                 COMMENT '文件总大小 (字节)',
+    `part_size`     BIGINT          NOT NULL                 COMMENT '分片大小 (字节, 最后一片为剩余字节)',
+    `part_count`    INT             NOT NULL                 COMMENT '分片数',
+    `status`        TINYINT         NOT NULL DEFAULT 0       COMMENT '状态: 0=上传中, 1=已合并, 2=已取消',
+    `asset_id`      BIGINT          DEFAULT NULL             COMMENT '合并后登记的资产 ID',
+    `expire_time`   DATETIME        NOT NULL                 COMMENT '过期时间',
+    `create_time`   DATETIME        NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    `update_time`   DATETIME        NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    PRIMARY KEY (`id`),
+    UNIQUE INDEX `uk_upload_code` (`upload_code`),
+    INDEX `idx_status_expire` (`status`, `expire_time`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='分片上传会话表';
+
+CREATE TABLE IF NOT EXISTS `asset_upload_parts` (
+    `id`            BIGINT          NOT NULL AUTO_INCREMENT  COMMENT '主键 ID',
+    `session_id`    BIGINT          NOT NULL                 COMMENT '上传会话 ID (asset_uploads.id)',
+    `part_number`   INT             NOT NULL                 COMMENT '分片号 (从 1 开始)',
+    `etag`          VARCHAR(64)     NOT NULL                 COMMENT '分片 ETag',
+    `size`          BIGINT          NOT NULL                 COMMENT '分片大小 (字节)',
+    `create_time`   DATETIME        NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    `update_time`   DATETIME        NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    PRIMARY KEY (`id`),
+    UNIQUE INDEX `uk_session_part` (`session_id`, `part_number`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='分片上传分片表';
+
+-- ============================================
+-- Phase 9: 直传（预签名 POST 表单）
+-- 客户端直接上传到 MinIO，确认时校验对象并登记资产
+-- ============================================
+CREATE TABLE IF NOT EXISTS `asset_upload_intents` (
+    `id`            BIGINT          NOT NULL AUTO_INCREMENT  COMMENT '主键 ID',
+    `intent_code`   VARCHAR(64)     NOT NULL                 COMMENT '意图编码 (UUID)',
+    `user_id`       BIGINT          NOT NULL                 COMMENT '上传者用户 ID',
+    `storage_name`  VARCHAR(255)    NOT NULL                 COMMENT 'MinIO 存储对象名 (POST 策略限定)',
+    `original_name` VARCHAR(255)    NOT NULL                 COMMENT '原始文件名',
+    `type`          VARCHAR(20)     NOT NULL                 COMMENT '资产类型: AUDIO, IMAGE, MIDI',
+    `size`          BIGINT          NOT NULL                 COMMENT '声明的文件大小 (字节)',
+    `content_type`  VARCHAR(100)    NOT NULL                 COMMENT '声明的 MIME 类型',
+    `status`        TINYINT         NOT NULL DEFAULT 0       COMMENT '状态: 0=待上传, 1=已确认, 2=已取消',
+    `asset_id`      BIGINT          DEFAULT NULL             COMMENT '确认后登记的资产 ID',
+    `expire_time`   DATETIME        NOT NULL                 COMMENT '过期时间',
+    `create_time`   DATETIME        NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    `update_time`   DATETIME        NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    PRIMARY KEY (`id`),
+    UNIQUE INDEX `uk_intent_code` (`intent_code`),
+    INDEX `idx_status_expire` (`status`, `expire_time`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='直传意图表';
+
+-- ============================================
+-- Phase 10: 试听片段
+-- 分析完成 / 作品试听时长变更后截取音频前 N 秒存入 MinIO
+-- ============================================
+ALTER TABLE `assets`
+    ADD COLUMN `preview_name`     VARCHAR(255) DEFAULT NULL COMMENT '试听片段 MinIO 对象名 (原对象名.preview-资产ID.ext，按资产生成)' AFTER `auto_tags`,
+    ADD COLUMN `preview_duration` INT          DEFAULT NULL COMMENT '试听片段时长 (秒)' AFTER `preview_name`;
+
+-- ============================================
+-- Phase 11: 内容去重
+-- 上传时随字节流计算 SHA-256；内容相同的资产共用 MinIO 对象与分析结果
+-- ============================================
+ALTER TABLE `assets`
+    ADD COLUMN `content_hash` CHAR(64) DEFAULT NULL COMMENT '文件内容 SHA-256 (十六进制)' AFTER `type`,
+    ADD INDEX `idx_content_hash` (`content_hash`),
+    ADD INDEX `idx_storage_name` (`storage_name`);
+
+-- ============================================
+-- Phase 12: 波形峰值
+-- vibe-analysis 分析时预计算多级 min/max 峰值写入 MinIO（格式见 WaveformPeaks / peaks.py）
+-- ============================================
+ALTER TABLE `assets`
+    ADD COLUMN `peaks_name` VARCHAR(255) DEFAULT NULL COMMENT '波形峰值 MinIO 对象名 (原对象名.peaks)' AFTER `preview_duration`;
+
+-- ============================================
+-- Phase 13: 封面缩略图
+-- 图片上传后异步生成 64 / 256 / 640 JPEG 缩略图，与原图同目录（原对象名.thumb{size}.jpg）
+-- ============================================
+ALTER TABLE `assets`
+    ADD COLUMN `thumbnail_sizes` VARCHAR(50) DEFAULT NULL COMMENT '已生成的缩略图尺寸 (逗号分隔; NULL=未处理, 空=无需生成)' AFTER `peaks_name`;
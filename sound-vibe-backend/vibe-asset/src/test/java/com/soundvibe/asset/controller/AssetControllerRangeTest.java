@@ -0,0 +1,136 @@
+package com.soundvibe.asset.controller;
+
+import com.soundvibe.asset.service.AssetService;
+import com.soundvibe.asset.service.PreviewService;
+import com.soundvibe.asset.service.WaveformService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * AssetController 下载接口的 Range 响应：200 / 206 / 416 的状态码、Content-Range 与响应体
+ *
+ * @author SoundVibe Team
+ */
+class AssetControllerRangeTest {
+
+    private static final long ASSET_ID = 7L;
+    private static final String ETAG = "9b2cf535f27731c974343645a3985328";
+    private static final String CONTENT_TYPE = "audio/wav";
+
+    private final byte[] data = new byte[1000];
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) (i * 31);
+        }
+        var assetService = mock(AssetService.class);
+        when(assetService.getDownloadInfo(ASSET_ID)).thenReturn(new AssetService.DownloadInfo(
+                "beat.wav", data.length, CONTENT_TYPE, ETAG,
+                ZonedDateTime.of(2026, 3, 1, 8, 30, 15, 0, ZoneOffset.UTC),
+                (offset, length) -> new ByteArrayInputStream(data, (int) offset, (int) length)));
+        var controller = new AssetController(assetService, mock(PreviewService.class), mock(WaveformService.class));
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @Test
+    void withoutRangeReturnsTheWholeObject() throws Exception {
+        var result = dispatch(mockMvc.perform(get("/assets/download/{id}", ASSET_ID)).andReturn());
+
+        assertThat(result.getResponse().getStatus()).isEqualTo(200);
+        assertThat(result.getResponse().getHeader(HttpHeaders.ACCEPT_RANGES)).isEqualTo("bytes");
+        assertThat(result.getResponse().getHeader(HttpHeaders.CONTENT_RANGE)).isNull();
+        assertThat(result.getResponse().getContentAsByteArray()).isEqualTo(data);
+    }
+
+    @Test
+    void singleRangeReturns206WithContentRange() throws Exception {
+        var started = mockMvc.perform(get("/assets/download/{id}", ASSET_ID).header(HttpHeaders.RANGE, "bytes=100-199"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 100-199/1000"))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 100))
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, CONTENT_TYPE))
+                .andExpect(content().bytes(Arrays.copyOfRange(data, 100, 200)));
+    }
+
+    @Test
+    void suffixAndOpenEndedRangesReturnTheTail() throws Exception {
+        var suffix = dispatch(mockMvc.perform(get("/assets/download/{id}", ASSET_ID)
+                .header(HttpHeaders.RANGE, "bytes=-50")).andReturn());
+        assertThat(suffix.getResponse().getStatus()).isEqualTo(206);
+        assertThat(suffix.getResponse().getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 950-999/1000");
+        assertThat(suffix.getResponse().getContentAsByteArray()).isEqualTo(Arrays.copyOfRange(data, 950, 1000));
+
+        var openEnded = dispatch(mockMvc.perform(get("/assets/download/{id}", ASSET_ID)
+                .header(HttpHeaders.RANGE, "bytes=900-")).andReturn());
+        assertThat(openEnded.getResponse().getStatus()).isEqualTo(206);
+        assertThat(openEnded.getResponse().getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 900-999/1000");
+        assertThat(openEnded.getResponse().getContentAsByteArray()).isEqualTo(Arrays.copyOfRange(data, 900, 1000));
+    }
+
+    @Test
+    void multipleRangesReturnMultipartByteranges() throws Exception {
+        var result = dispatch(mockMvc.perform(get("/assets/download/{id}", ASSET_ID)
+                .header(HttpHeaders.RANGE, "bytes=0-9,500-509")).andReturn());
+
+        var response = result.getResponse();
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getContentType()).startsWith("multipart/byteranges; boundary=");
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isNull();
+        assertThat((long) response.getContentAsByteArray().length)
+                .isEqualTo(Long.parseLong(response.getHeader(HttpHeaders.CONTENT_LENGTH)));
+        var body = response.getContentAsString(StandardCharsets.ISO_8859_1);
+        assertThat(body).contains("Content-Range: bytes 0-9/1000", "Content-Range: bytes 500-509/1000");
+    }
+
+    @Test
+    void unsatisfiableRangeReturns416() throws Exception {
+        mockMvc.perform(get("/assets/download/{id}", ASSET_ID).header(HttpHeaders.RANGE, "bytes=1000-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */1000"));
+    }
+
+    @Test
+    void staleIfRangeFallsBackToTheWholeObject() throws Exception {
+        var result = dispatch(mockMvc.perform(get("/assets/download/{id}", ASSET_ID)
+                .header(HttpHeaders.RANGE, "bytes=100-199")
+                .header(HttpHeaders.IF_RANGE, "\"stale\"")).andReturn());
+
+        assertThat(result.getResponse().getStatus()).isEqualTo(200);
+        assertThat(result.getResponse().getContentAsByteArray()).isEqualTo(data);
+    }
+
+    // ==================== Private ====================
+
+    /**
+     * StreamingResponseBody 在异步分派中写出，取分派后的最终响应
+     */
+    private MvcResult dispatch(MvcResult started) throws Exception {
+        return mockMvc.perform(asyncDispatch(started)).andReturn();
+    }
+}
@@ -0,0 +1,213 @@
+package com.soundvibe.asset.infrastructure;
+
+import com.soundvibe.asset.infrastructure.AudioClipCutter.UnsupportedAudioException;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * AudioClipCutter 片段字节边界
+ * WAV 与 MP3 输入均在内存中按格式合成
+ *
+ * @author SoundVibe Team
+ */
+class AudioClipCutterTest {
+
+    /**
+     * 16 位立体声 44.1kHz：byteRate 176400，blockAlign 4
+     */
+    private static final int SAMPLE_RATE = 44100;
+    private static final int CHANNELS = 2;
+    private static final int BITS = 16;
+
+    /**
+     * MPEG-1 Layer III，128kbps，44.1kHz，无 padding：每帧 417 字节、1152 个采样
+     */
+    private static final byte[] MP3_HEADER = {(byte) 0xFF, (byte) 0xFB, (byte) 0x90, (byte) 0x44};
+    private static final int MP3_FRAME_LENGTH = 417;
+    private static final int MP3_SAMPLES_PER_FRAME = 1152;
+
+    private static final int WAV_HEADER_LENGTH = 44;
+
+    // ======================== WAV ========================
+
+    @Test
+    void wavClipKeepsExactlySecondsTimesByteRate() throws IOException {
+        var pcm = pcm(SAMPLE_RATE * CHANNELS * BITS / 8 * 3);
+        var clip = AudioClipCutter.cutWav(new ByteArrayInputStream(wav(pcm, pcm.length, true)), 1);
+
+        int byteRate = SAMPLE_RATE * CHANNELS * BITS / 8;
+        var bytes = clip.stream().readAllBytes();
+        assertThat(clip.contentType()).isEqualTo("audio/wav");
+        assertThat(clip.size()).isEqualTo(WAV_HEADER_LENGTH + byteRate);
+        assertThat(bytes).hasSize((int) clip.size());
+        assertHeader(bytes, byteRate);
+        // 附加的 LIST 块被丢弃，PCM 从原始 data 块开头透传
+        assertThat(Arrays.copyOfRange(bytes, WAV_HEADER_LENGTH, bytes.length))
+                .isEqualTo(Arrays.copyOf(pcm, byteRate));
+    }
+
+    @Test
+    void wavClipLongerThanTheFileKeepsTheWholeDataChunk() throws IOException {
+        var pcm = pcm(10_000);
+        var clip = AudioClipCutter.cutWav(new ByteArrayInputStream(wav(pcm, pcm.length, false)), 30);
+
+        var bytes = clip.stream().readAllBytes();
+        assertThat(clip.size()).isEqualTo(WAV_HEADER_LENGTH + pcm.length);
+        assertHeader(bytes, pcm.length);
+        assertThat(Arrays.copyOfRange(bytes, WAV_HEADER_LENGTH, bytes.length)).isEqualTo(pcm);
+    }
+
+    @Test
+    void wavClipIsAlignedToWholeSampleFramesAndEvenLength() throws IOException {
+        // 8 位三声道 11025Hz：blockAlign 3，byteRate 33075（奇数）→ 去掉一个采样帧得到 33072
+        var pcm = pcm(50_000);
+        var wav = wav(pcm, pcm.length, false, 11025, 3, 8);
+        var clip = AudioClipCutter.cutWav(new ByteArrayInputStream(wav), 1);
+
+        assertThat(clip.size()).isEqualTo(WAV_HEADER_LENGTH + 33072);
+        assertHeader(clip.stream().readAllBytes(), 33072);
+    }
+
+    @Test
+    void wavWithUnknownDataLengthUsesTheBytesActuallyRead() throws IOException {
+        var pcm = pcm(1_002);
+        var clip = AudioClipCutter.cutWav(new ByteArrayInputStream(wav(pcm, 0xFFFFFFFFL, false)), 5);
+
+        var bytes = clip.stream().readAllBytes();
+        // 1002 字节按 blockAlign 4 对齐为 1000
+        assertThat(clip.size()).isEqualTo(WAV_HEADER_LENGTH + 1_000);
+        assertHeader(bytes, 1_000);
+        assertThat(Arrays.copyOfRange(bytes, WAV_HEADER_LENGTH, bytes.length)).isEqualTo(Arrays.copyOf(pcm, 1_000));
+    }
+
+    @Test
+    void unsupportedWavVariantsAreRejected() {
+        var rf64 = wav(pcm(100), 100, false);
+        System.arraycopy("RF64".getBytes(StandardCharsets.US_ASCII), 0, rf64, 0, 4);
+        assertThatThrownBy(() -> AudioClipCutter.cutWav(new ByteArrayInputStream(rf64), 1))
+                .isInstanceOf(UnsupportedAudioException.class);
+
+        var notWav = "not a wav file at all".getBytes(StandardCharsets.US_ASCII);
+        assertThatThrownBy(() -> AudioClipCutter.cutWav(new ByteArrayInputStream(notWav), 1))
+                .isInstanceOf(UnsupportedAudioException.class);
+    }
+
+    // ======================== MP3 ========================
+
+    @Test
+    void mp3ClipStopsAtTheFirstFrameReachingTheTargetSampleCount() throws IOException {
+        var clip = AudioClipCutter.cutMp3(new ByteArrayInputStream(mp3(200, false, false)), 1);
+
+        // 44100 个采样需要 ceil(44100 / 1152) = 39 帧
+        int frames = (SAMPLE_RATE + MP3_SAMPLES_PER_FRAME - 1) / MP3_SAMPLES_PER_FRAME;
+        var bytes = clip.stream().readAllBytes();
+        assertThat(clip.contentType()).isEqualTo("audio/mpeg");
+        assertThat(clip.size()).isEqualTo((long) frames * MP3_FRAME_LENGTH);
+        assertThat(bytes).hasSize((int) clip.size());
+        for (int f = 0; f < frames; f++) {
+            assertThat(Arrays.copyOfRange(bytes, f * MP3_FRAME_LENGTH, f * MP3_FRAME_LENGTH + 4)).isEqualTo(MP3_HEADER);
+        }
+    }
+
+    @Test
+    void mp3SkipsId3TagInfoFrameAndGarbageBetweenFrames() throws IOException {
+        var clip = AudioClipCutter.cutMp3(new ByteArrayInputStream(mp3(10, true, true)), 60);
+
+        // 信息帧丢弃，其余 10 帧全部保留；帧之间的垃圾字节不进入片段
+        var bytes = clip.stream().readAllBytes();
+        assertThat(clip.size()).isEqualTo(10L * MP3_FRAME_LENGTH);
+        for (int f = 0; f < 10; f++) {
+            assertThat(Arrays.copyOfRange(bytes, f * MP3_FRAME_LENGTH, f * MP3_FRAME_LENGTH + 4)).isEqualTo(MP3_HEADER);
+            assertThat(bytes[f * MP3_FRAME_LENGTH + 4]).isEqualTo((byte) f);
+        }
+    }
+
+    @Test
+    void streamWithoutMp3FramesIsRejected() {
+        var noise = new byte[4096];
+        Arrays.fill(noise, (byte) 0x55);
+        assertThatThrownBy(() -> AudioClipCutter.cutMp3(new ByteArrayInputStream(noise), 10))
+                .isInstanceOf(UnsupportedAudioException.class);
+    }
+
+    // ==================== Private ====================
+
+    private static byte[] pcm(int length) {
+        var pcm = new byte[length];
+        for (int i = 0; i < length; i++) {
+            pcm[i] = (byte) (i * 7 + 3);
+        }
+        return pcm;
+    }
+
+    private static byte[] wav(byte[] pcm, long declaredDataLength, boolean withListChunk) {
+        return wav(pcm, declaredDataLength, withListChunk, SAMPLE_RATE, CHANNELS, BITS);
+    }
+
+    private static byte[] wav(byte[] pcm, long declaredDataLength, boolean withListChunk,
+                              int sampleRate, int channels, int bits) {
+        var list = withListChunk ? "INFOISFT\u0004\u0000\u0000\u0000test".getBytes(StandardCharsets.ISO_8859_1) : new byte[0];
+        int blockAlign = channels * bits / 8;
+        var buffer = ByteBuffer.allocate(12 + 24 + (withListChunk ? 8 + list.length : 0) + 8 + pcm.length)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        buffer.put("RIFF".getBytes(StandardCharsets.US_ASCII)).putInt(buffer.capacity() - 8)
+                .put("WAVE".getBytes(StandardCharsets.US_ASCII));
+        buffer.put("fmt ".getBytes(StandardCharsets.US_ASCII)).putInt(16)
+                .putShort((short) 1).putShort((short) channels).putInt(sampleRate)
+                .putInt(sampleRate * blockAlign).putShort((short) blockAlign).putShort((short) bits);
+        if (withListChunk) {
+            buffer.put("LIST".getBytes(StandardCharsets.US_ASCII)).putInt(list.length).put(list);
+        }
+        buffer.put("data".getBytes(StandardCharsets.US_ASCII)).putInt((int) declaredDataLength).put(pcm);
+        return buffer.array();
+    }
+
+    private static void assertHeader(byte[] clip, long dataLength) {
+        var header = ByteBuffer.wrap(clip).order(ByteOrder.LITTLE_ENDIAN);
+        assertThat(new String(clip, 0, 4, StandardCharsets.US_ASCII)).isEqualTo("RIFF");
+        assertThat(Integer.toUnsignedLong(header.getInt(4))).isEqualTo(WAV_HEADER_LENGTH - 8 + dataLength);
+        assertThat(new String(clip, 8, 8, StandardCharsets.US_ASCII)).isEqualTo("WAVEfmt ");
+        assertThat(new String(clip, 36, 4, StandardCharsets.US_ASCII)).isEqualTo("data");
+        assertThat(Integer.toUnsignedLong(header.getInt(40))).isEqualTo(dataLength);
+    }
+
+    /**
+     * 合成 MP3：可选 ID3v2 标签与首个 Info 帧；每帧体首字节为帧序号，其余为 0
+     */
+    private static byte[] mp3(int frames, boolean withTagAndInfo, boolean withGarbage) throws IOException {
+        var out = new ByteArrayOutputStream();
+        if (withTagAndInfo) {
+            // ID3v2.3，标签体 20 字节（synchsafe）
+            out.write(new byte[]{'I', 'D', '3', 3, 0, 0, 0, 0, 0, 20});
+            out.write(new byte[20]);
+            var info = frame(0);
+            // 立体声 MPEG-1 的 side info 为 32 字节，Info 标签紧随其后
+            System.arraycopy("Info".getBytes(StandardCharsets.US_ASCII), 0, info, 4 + 32, 4);
+            out.write(info);
+        }
+        for (int f = 0; f < frames; f++) {
+            out.write(frame(f));
+            if (withGarbage && f % 3 == 0) {
+                out.write(new byte[]{0x12, 0x34, 0x56});
+            }
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] frame(int index) {
+        var frame = new byte[MP3_FRAME_LENGTH];
+        System.arraycopy(MP3_HEADER, 0, frame, 0, 4);
+        frame[4] = (byte) index;
+        return frame;
+    }
+}
@@ -0,0 +1,214 @@
+package com.soundvibe.asset.infrastructure;
+
+import com.soundvibe.asset.infrastructure.ByteRanges.ByteRange;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * ByteRanges 的 Range 解析、If-Range 校验与按区间读取
+ * 对象内容由偏移量确定（不占内存），同时统计从存储读取的字节数，校验只读取所请求的区间
+ *
+ * @author SoundVibe Team
+ */
+class ByteRangesTest {
+
+    private static final long SIZE = 8L * 1024 * 1024;
+    private static final String ETAG = "9b2cf535f27731c974343645a3985328";
+    private static final ZonedDateTime LAST_MODIFIED = ZonedDateTime.of(2026, 3, 1, 8, 30, 15, 0, ZoneOffset.UTC);
+
+    private final VirtualObject object = new VirtualObject(SIZE);
+
+    @Test
+    void randomSeeksReadOnlyTheRequestedBytes() throws IOException {
+        var random = new SplittableRandom(42);
+        long requested = 0;
+        int seeks = 50;
+        for (int i = 0; i < seeks; i++) {
+            long start = random.nextLong(SIZE);
+            long end = Math.min(SIZE - 1, start + 64 * 1024 - 1);
+            var ranges = ByteRanges.parse("bytes=" + start + "-" + end, SIZE);
+            assertThat(ranges).containsExactly(new ByteRange(start, end));
+
+            assertThat(write(ranges.get(0))).isEqualTo(expected(start, end - start + 1));
+            requested += end - start + 1;
+        }
+        assertThat(object.bytesRead).isEqualTo(requested);
+        assertThat(object.opens).isEqualTo(seeks);
+    }
+
+    @Test
+    void openEndedRangeResumesToTheEndOfTheObject() throws IOException {
+        long resumeAt = SIZE * 5 / 8 + 12345;
+        var ranges = ByteRanges.parse("bytes=" + resumeAt + "-", SIZE);
+
+        assertThat(ranges).containsExactly(new ByteRange(resumeAt, SIZE - 1));
+        assertThat(ByteRanges.contentRange(ranges.get(0), SIZE))
+                .isEqualTo("bytes " + resumeAt + "-" + (SIZE - 1) + "/" + SIZE);
+        assertThat(write(ranges.get(0))).isEqualTo(expected(resumeAt, SIZE - resumeAt));
+        assertThat(object.bytesRead).isEqualTo(SIZE - resumeAt);
+    }
+
+    @Test
+    void suffixRangeSelectsTheLastBytes() throws IOException {
+        var ranges = ByteRanges.parse("bytes=-4096", SIZE);
+        assertThat(ranges).containsExactly(new ByteRange(SIZE - 4096, SIZE - 1));
+        assertThat(write(ranges.get(0))).isEqualTo(expected(SIZE - 4096, 4096));
+        assertThat(object.bytesRead).isEqualTo(4096);
+
+        // 后缀长度超过对象大小时取整个对象
+        assertThat(ByteRanges.parse("bytes=-" + (SIZE * 2), SIZE)).containsExactly(new ByteRange(0, SIZE - 1));
+    }
+
+    @Test
+    void rangeBeyondTheEndIsClipped() {
+        var ranges = ByteRanges.parse("bytes=" + (SIZE - 10) + "-" + (SIZE + 1000), SIZE);
+        assertThat(ranges).containsExactly(new ByteRange(SIZE - 10, SIZE - 1));
+        assertThat(ranges.get(0).length()).isEqualTo(10);
+    }
+
+    @Test
+    void multiRangeIsCoalescedAndWrittenAsMultipartByteranges() throws IOException {
+        long mid = SIZE / 2;
+        var header = "bytes=0-99," + mid + "-" + (mid + 999) + "," + (mid + 500) + "-" + (mid + 1499) + ",-200";
+        var ranges = ByteRanges.parse(header, SIZE);
+        assertThat(ranges).containsExactly(
+                new ByteRange(0, 99),
+                new ByteRange(mid, mid + 1499),
+                new ByteRange(SIZE - 200, SIZE - 1));
+
+        var contentType = "audio/wav";
+        var boundary = "3d6b6a416f9b5";
+        var buffer = new ByteArrayOutputStream();
+        ByteRanges.writeMultipart(buffer, ranges, SIZE, contentType, boundary, object);
+
+        assertThat((long) buffer.size()).isEqualTo(ByteRanges.multipartLength(ranges, SIZE, contentType, boundary));
+        assertThat(object.bytesRead).isEqualTo(100 + 1500 + 200);
+
+        var body = buffer.toByteArray();
+        int pos = 0;
+        for (var range : ranges) {
+            var partHeader = "\r\n--" + boundary + "\r\nContent-Type: " + contentType + "\r\nContent-Range: "
+                    + ByteRanges.contentRange(range, SIZE) + "\r\n\r\n";
+            assertThat(new String(body, pos, partHeader.length(), StandardCharsets.US_ASCII)).isEqualTo(partHeader);
+            pos += partHeader.length();
+            assertThat(Arrays.copyOfRange(body, pos, pos + (int) range.length()))
+                    .isEqualTo(expected(range.start(), range.length()));
+            pos += (int) range.length();
+        }
+        assertThat(new String(body, pos, body.length - pos, StandardCharsets.US_ASCII))
+                .isEqualTo("\r\n--" + boundary + "--\r\n");
+    }
+
+    @Test
+    void unsatisfiableRangesYieldAnEmptyList() {
+        assertThat(ByteRanges.parse("bytes=" + SIZE + "-", SIZE)).isEmpty();
+        assertThat(ByteRanges.parse("bytes=" + SIZE + "-" + (SIZE + 10) + "," + (SIZE + 20) + "-", SIZE)).isEmpty();
+        assertThat(ByteRanges.parse("bytes=0-10", 0)).isEmpty();
+        assertThat(ByteRanges.unsatisfiedContentRange(SIZE)).isEqualTo("bytes */" + SIZE);
+    }
+
+    @Test
+    void invalidOrExcessiveRangeHeadersAreIgnored() {
+        assertThat(ByteRanges.parse(null, SIZE)).isNull();
+        assertThat(ByteRanges.parse("items=0-10", SIZE)).isNull();
+        assertThat(ByteRanges.parse("bytes=oops", SIZE)).isNull();
+
+        var tooMany = new StringBuilder("bytes=");
+        for (int i = 0; i <= ByteRanges.MAX_RANGES; i++) {
+            tooMany.append(i == 0 ? "" : ",").append(i * 10).append('-').append(i * 10 + 1);
+        }
+        assertThat(ByteRanges.parse(tooMany.toString(), SIZE)).isNull();
+    }
+
+    @Test
+    void ifRangeRequiresAStrongEtagOrTheExactLastModifiedSecond() {
+        var httpDate = DateTimeFormatter.RFC_1123_DATE_TIME.format(LAST_MODIFIED);
+
+        assertThat(ByteRanges.ifRangeMatches(null, ETAG, LAST_MODIFIED)).isTrue();
+        assertThat(ByteRanges.ifRangeMatches("\"" + ETAG + "\"", ETAG, LAST_MODIFIED)).isTrue();
+        assertThat(ByteRanges.ifRangeMatches("\"stale\"", ETAG, LAST_MODIFIED)).isFalse();
+        assertThat(ByteRanges.ifRangeMatches("W/\"" + ETAG + "\"", ETAG, LAST_MODIFIED)).isFalse();
+        assertThat(ByteRanges.ifRangeMatches(httpDate, ETAG, LAST_MODIFIED.plusNanos(400_000_000))).isTrue();
+        assertThat(ByteRanges.ifRangeMatches(httpDate, ETAG, LAST_MODIFIED.plusSeconds(1))).isFalse();
+    }
+
+    // ==================== Private ====================
+
+    private byte[] write(ByteRange range) throws IOException {
+        var out = new ByteArrayOutputStream();
+        ByteRanges.writeRange(out, range, object);
+        return out.toByteArray();
+    }
+
+    private static byte[] expected(long start, long length) {
+        var bytes = new byte[(int) length];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = VirtualObject.byteAt(start + i);
+        }
+        return bytes;
+    }
+
+    /**
+     * 虚拟对象：第 i 个字节由 i 确定；统计打开次数与读出的字节数（相当于存储传输量）
+     */
+    static final class VirtualObject implements ByteRanges.RangeReader {
+
+        private final long size;
+        private long bytesRead;
+        private int opens;
+
+        VirtualObject(long size) {
+            this.size = size;
+        }
+
+        static byte byteAt(long position) {
+            long x = position * 0x9E3779B97F4A7C15L;
+            return (byte) (x >>> 56);
+        }
+
+        @Override
+        public InputStream open(long offset, long length) {
+            if (offset < 0 || length < 0 || offset + length > size) {
+                throw new IllegalArgumentException("越界读取: offset=" + offset + ", length=" + length);
+            }
+            opens++;
+            return new InputStream() {
+                private long position = offset;
+                private final long end = offset + length;
+
+                @Override
+                public int read() {
+                    if (position >= end) {
+                        return -1;
+                    }
+                    bytesRead++;
+                    return byteAt(position++) & 0xFF;
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    if (position >= end) {
+                        return -1;
+                    }
+                    int n = (int) Math.min(len, end - position);
+                    for (int i = 0; i < n; i++) {
+                        b[off + i] = byteAt(position++);
+                    }
+                    bytesRead += n;
+                    return n;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.soundvibe.asset.infrastructure;
+
+import com.soundvibe.asset.infrastructure.ImageThumbnailer.UnsupportedImageException;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * ImageThumbnailer 的缩略图尺寸与宽高比
+ * 原图为内存中绘制的 PNG，缩略图解码后检查像素尺寸
+ *
+ * @author SoundVibe Team
+ */
+class ImageThumbnailerTest {
+
+    private static final List<Integer> SIZES = List.of(64, 256, 640);
+    private static final float QUALITY = 0.85f;
+    private static final long MAX_PIXELS = 40_000_000L;
+
+    @Test
+    void landscapeThumbnailsFitTheLongEdgeAndKeepTheAspectRatio() throws IOException {
+        var thumbnails = thumbnails(png(1600, 900, false), SIZES);
+
+        assertThat(thumbnails).containsOnlyKeys(64, 256, 640);
+        assertDimensions(thumbnails.get(640), 640, 360);
+        assertDimensions(thumbnails.get(256), 256, 144);
+        assertDimensions(thumbnails.get(64), 64, 36);
+    }
+
+    @Test
+    void portraitThumbnailsUseTheHeightAsTheLongEdge() throws IOException {
+        var thumbnails = thumbnails(png(600, 1200, false), SIZES);
+
+        assertDimensions(thumbnails.get(640), 320, 640);
+        assertDimensions(thumbnails.get(256), 128, 256);
+        assertDimensions(thumbnails.get(64), 32, 64);
+    }
+
+    @Test
+    void subsampledDecodeStillYieldsTheExactTargetSize() throws IOException {
+        // 3000 / (640 * 2) → 隔 2 像素采样解码为 1500×1000，再缩放到 640×427
+        var thumbnails = thumbnails(png(3000, 2000, false), SIZES);
+
+        for (var entry : thumbnails.entrySet()) {
+            var image = decode(entry.getValue());
+            assertThat(image.getWidth()).isEqualTo(entry.getKey());
+            assertThat((double) image.getHeight()).isCloseTo(entry.getKey() * 2000.0 / 3000, within(1.0));
+        }
+        assertDimensions(thumbnails.get(640), 640, 427);
+    }
+
+    @Test
+    void sizesNotSmallerThanTheOriginalAreSkippedAndTheResultIsAscending() throws IOException {
+        var thumbnails = thumbnails(png(500, 300, false), List.of(640, 256, 64, 256, 0, -1, 500));
+
+        assertThat(thumbnails.keySet()).containsExactly(64, 256);
+        assertDimensions(thumbnails.get(256), 256, 154);
+        assertThat(thumbnails(png(48, 48, false), SIZES)).isEmpty();
+    }
+
+    @Test
+    void extremeAspectRatiosNeverProduceAZeroPixelEdge() throws IOException {
+        var thumbnails = thumbnails(png(2000, 10, false), SIZES);
+
+        assertDimensions(thumbnails.get(640), 640, 3);
+        assertDimensions(thumbnails.get(64), 64, 1);
+    }
+
+    @Test
+    void transparentAreasAreFilledWithWhite() throws IOException {
+        var thumbnails = thumbnails(png(400, 400, true), List.of(64));
+
+        var image = decode(thumbnails.get(64));
+        var corner = new Color(image.getRGB(0, 0));
+        assertThat(corner.getRed()).isGreaterThan(240);
+        assertThat(corner.getGreen()).isGreaterThan(240);
+        assertThat(corner.getBlue()).isGreaterThan(240);
+    }
+
+    @Test
+    void oversizedOrUndecodableImagesAreRejected() throws IOException {
+        var large = png(1000, 1000, false);
+        assertThatThrownBy(() -> ImageThumbnailer.createThumbnails(new ByteArrayInputStream(large), SIZES, QUALITY,
+                999_999L)).isInstanceOf(UnsupportedImageException.class);
+
+        var notAnImage = "definitely not an image".getBytes(StandardCharsets.US_ASCII);
+        assertThatThrownBy(() -> thumbnails(notAnImage, SIZES)).isInstanceOf(UnsupportedImageException.class);
+    }
+
+    @Test
+    void objectNamesRoundTripToTheOriginalBase() {
+        var name = ImageThumbnailer.objectName("image/2026/02/uuid.png", 256);
+
+        assertThat(name).isEqualTo("image/2026/02/uuid.thumb256.jpg");
+        assertThat(ImageThumbnailer.originalBaseOf(name)).isEqualTo("image/2026/02/uuid");
+        assertThat(ImageThumbnailer.originalBaseOf("image/2026/02/uuid.png")).isNull();
+    }
+
+    // ==================== Private ====================
+
+    private static Map<Integer, byte[]> thumbnails(byte[] source, List<Integer> sizes) throws IOException {
+        return ImageThumbnailer.createThumbnails(new ByteArrayInputStream(source), sizes, QUALITY, MAX_PIXELS);
+    }
+
+    /**
+     * 渐变填充的 PNG；transparent 时只在中间画一块不透明区域，四周透明
+     */
+    private static byte[] png(int width, int height, boolean transparent) throws IOException {
+        var image = new BufferedImage(width, height,
+                transparent ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                boolean inside = x > width / 4 && x < width * 3 / 4 && y > height / 4 && y < height * 3 / 4;
+                int alpha = !transparent || inside ? 0xFF : 0x00;
+                int rgb = (x * 255 / width) << 16 | (y * 255 / height) << 8 | 0x40;
+                image.setRGB(x, y, alpha << 24 | rgb);
+            }
+        }
+        var buffer = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", buffer);
+        return buffer.toByteArray();
+    }
+
+    private static BufferedImage decode(byte[] jpeg) throws IOException {
+        var image = ImageIO.read(new ByteArrayInputStream(jpeg));
+        assertThat(image).isNotNull();
+        return image;
+    }
+
+    private static void assertDimensions(byte[] jpeg, int width, int height) throws IOException {
+        assertThat(jpeg).isNotNull();
+        var image = decode(jpeg);
+        assertThat(image.getWidth()).isEqualTo(width);
+        assertThat(image.getHeight()).isEqualTo(height);
+    }
+}
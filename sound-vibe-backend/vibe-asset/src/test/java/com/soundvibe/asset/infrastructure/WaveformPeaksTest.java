@@ -0,0 +1,170 @@
+package com.soundvibe.asset.infrastructure;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * WaveformPeaks 的分级峰值个数与 int8 量化削波
+ * 峰值块按 vibe-analysis peaks.py 的算法在内存中生成（按块取 min / max、末块补 0、量化后截断到 [-128, 127]）
+ *
+ * @author SoundVibe Team
+ */
+class WaveformPeaksTest {
+
+    private static final int SAMPLE_RATE = 22050;
+    private static final int[] SAMPLES_PER_PEAK = {4096, 1024, 256};
+
+    @Test
+    void eachLevelHasOnePeakPerBucketIncludingThePartialLast() {
+        // 3 秒多 17 个采样：每级最后一块都不满
+        var samples = sine(SAMPLE_RATE * 3 + 17, 0.5f);
+        var blob = encode(samples);
+
+        assertThat(WaveformPeaks.isValid(blob)).isTrue();
+        assertThat(WaveformPeaks.levelCount(blob)).isEqualTo(SAMPLES_PER_PEAK.length);
+        for (int level = 0; level < SAMPLES_PER_PEAK.length; level++) {
+            int samplesPerPeak = SAMPLES_PER_PEAK[level];
+            int buckets = (samples.length + samplesPerPeak - 1) / samplesPerPeak;
+
+            var selected = WaveformPeaks.selectLevel(blob, level);
+            var header = ByteBuffer.wrap(selected).order(ByteOrder.LITTLE_ENDIAN);
+            assertThat(selected[5]).isEqualTo((byte) 1);
+            assertThat(header.getInt(8)).isEqualTo(SAMPLE_RATE);
+            assertThat(header.getInt(12)).isEqualTo(samples.length);
+            assertThat(header.getInt(16)).isEqualTo(samplesPerPeak);
+            assertThat(header.getInt(20)).isEqualTo(buckets);
+            assertThat(selected).hasSize(24 + 2 * buckets);
+            assertThat(WaveformPeaks.isValid(selected)).isTrue();
+
+            // 与按同一算法单独计算的该级数据逐字节一致
+            assertThat(Arrays.copyOfRange(selected, 24, selected.length)).isEqualTo(levelPeaks(samples, samplesPerPeak));
+        }
+    }
+
+    @Test
+    void partialLastBucketIsPaddedWithSilence() {
+        // 最后一块只有 1 个正采样：补 0 后 min 为 0 而不是该采样
+        var samples = new float[4096 + 1];
+        Arrays.fill(samples, -0.5f);
+        samples[4096] = 0.25f;
+
+        var level0 = WaveformPeaks.selectLevel(encode(samples), 0);
+        assertThat(Arrays.copyOfRange(level0, 24, level0.length))
+                .containsExactly(quantize(-0.5f), quantize(-0.5f), (byte) 0, quantize(0.25f));
+    }
+
+    @Test
+    void samplesBeyondFullScaleAreClippedToInt8Range() {
+        // 过载的采样（|x| > 1）截断到 -128 / 127，不回绕
+        var samples = new float[1024 * 4];
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = (i / 1024 % 2 == 0 ? 1.8f : 1.0f) * (i % 2 == 0 ? 1 : -1);
+        }
+        var level1 = WaveformPeaks.selectLevel(encode(samples), 1);
+        var data = Arrays.copyOfRange(level1, 24, level1.length);
+
+        assertThat(data).containsExactly(
+                (byte) -128, (byte) 127,
+                (byte) -127, (byte) 127,
+                (byte) -128, (byte) 127,
+                (byte) -127, (byte) 127);
+        for (int i = 0; i < data.length; i += 2) {
+            assertThat(data[i]).isLessThanOrEqualTo(data[i + 1]);
+        }
+    }
+
+    @Test
+    void emptyAudioHasZeroPeaksOnEveryLevel() {
+        var blob = encode(new float[0]);
+
+        assertThat(WaveformPeaks.isValid(blob)).isTrue();
+        for (int level = 0; level < SAMPLES_PER_PEAK.length; level++) {
+            var selected = WaveformPeaks.selectLevel(blob, level);
+            assertThat(selected).hasSize(24);
+            assertThat(ByteBuffer.wrap(selected).order(ByteOrder.LITTLE_ENDIAN).getInt(20)).isZero();
+        }
+    }
+
+    @Test
+    void truncatedOrForeignDataIsRejected() {
+        var blob = encode(sine(10_000, 0.8f));
+
+        var truncated = Arrays.copyOf(blob, blob.length - 1);
+        assertThat(WaveformPeaks.isValid(truncated)).isFalse();
+        assertThatThrownBy(() -> WaveformPeaks.selectLevel(truncated, SAMPLES_PER_PEAK.length - 1))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        assertThatThrownBy(() -> WaveformPeaks.selectLevel(blob, SAMPLES_PER_PEAK.length))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> WaveformPeaks.selectLevel(blob, -1))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        var foreign = blob.clone();
+        foreign[0] = 'X';
+        assertThat(WaveformPeaks.isValid(foreign)).isFalse();
+        assertThat(WaveformPeaks.isValid(new byte[8])).isFalse();
+        assertThat(WaveformPeaks.isValid(null)).isFalse();
+    }
+
+    // ==================== Private ====================
+
+    private static float[] sine(int length, float amplitude) {
+        var samples = new float[length];
+        for (int i = 0; i < length; i++) {
+            samples[i] = (float) (amplitude * Math.sin(2 * Math.PI * 440 * i / SAMPLE_RATE));
+        }
+        return samples;
+    }
+
+    /**
+     * 与 peaks.py compute_peaks 相同的编码
+     */
+    private static byte[] encode(float[] samples) {
+        var out = new ByteArrayOutputStream();
+        var header = ByteBuffer.allocate(16 + 8 * SAMPLES_PER_PEAK.length).order(ByteOrder.LITTLE_ENDIAN);
+        header.put(new byte[]{'S', 'V', 'P', 'K'}).put((byte) 1).put((byte) SAMPLES_PER_PEAK.length).putShort((short) 0)
+                .putInt(SAMPLE_RATE).putInt(samples.length);
+        for (int samplesPerPeak : SAMPLES_PER_PEAK) {
+            header.putInt(samplesPerPeak).putInt((samples.length + samplesPerPeak - 1) / samplesPerPeak);
+        }
+        out.writeBytes(header.array());
+        for (int samplesPerPeak : SAMPLES_PER_PEAK) {
+            out.writeBytes(levelPeaks(samples, samplesPerPeak));
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * 与 peaks.py _level_peaks 相同：末块以 0 补齐，交错的 [min, max]
+     */
+    private static byte[] levelPeaks(float[] samples, int samplesPerPeak) {
+        int count = (samples.length + samplesPerPeak - 1) / samplesPerPeak;
+        var data = new byte[count * 2];
+        for (int b = 0; b < count; b++) {
+            float min = Float.POSITIVE_INFINITY;
+            float max = Float.NEGATIVE_INFINITY;
+            for (int i = b * samplesPerPeak; i < (b + 1) * samplesPerPeak; i++) {
+                float value = i < samples.length ? samples[i] : 0f;
+                min = Math.min(min, value);
+                max = Math.max(max, value);
+            }
+            data[2 * b] = quantize(min);
+            data[2 * b + 1] = quantize(max);
+        }
+        return data;
+    }
+
+    /**
+     * 与 np.clip(np.round(v * 127), -128, 127) 相同（np.round 为四舍六入五成双，对应 Math.rint）
+     */
+    private static byte quantize(float value) {
+        return (byte) Math.max(-128, Math.min(127, Math.rint(value * 127.0)));
+    }
+}
@@ -0,0 +1,214 @@
+package com.soundvibe.asset.service.impl;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.soundvibe.asset.config.OrphanReconcilerProperties;
+import com.soundvibe.asset.domain.entity.Asset;
+import com.soundvibe.asset.domain.entity.AssetUploadIntent;
+import com.soundvibe.asset.enums.UploadStatus;
+import com.soundvibe.asset.infrastructure.ImageThumbnailer;
+import com.soundvibe.asset.infrastructure.MinioTemplate;
+import com.soundvibe.asset.mapper.AssetMapper;
+import com.soundvibe.asset.mapper.AssetUploadIntentMapper;
+import com.soundvibe.asset.service.ThumbnailService;
+import io.minio.messages.Item;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * StorageReconcileServiceImpl 的引用判定、最短保留时间、dry-run 与部分删除失败时的回收字节统计
+ * MinIO 与 Mapper 均为 mock：对象列表按前缀返回，Mapper 返回全部资产 / 直传意图，是否引用由服务按对象名判定
+ *
+ * @author SoundVibe Team
+ */
+class StorageReconcileServiceImplTest {
+
+    private static final int MIN_AGE_HOURS = 48;
+    private static final int OLD = MIN_AGE_HOURS + 1;
+
+    private MinioTemplate minioTemplate;
+    private AssetMapper assetMapper;
+    private AssetUploadIntentMapper assetUploadIntentMapper;
+    private OrphanReconcilerProperties properties;
+    private StorageReconcileServiceImpl service;
+
+    private final List<Item> audioObjects = new ArrayList<>();
+    private final List<Item> imageObjects = new ArrayList<>();
+    private final List<Asset> assets = new ArrayList<>();
+    private final List<AssetUploadIntent> intents = new ArrayList<>();
+
+    @BeforeAll
+    static void initLambdaCache() {
+        // LambdaQueryWrapper 按实体元数据解析列名，不启动 MyBatis 时需手动注册
+        var assistant = new MapperBuilderAssistant(new MybatisConfiguration(), "");
+        TableInfoHelper.initTableInfo(assistant, Asset.class);
+        TableInfoHelper.initTableInfo(assistant, AssetUploadIntent.class);
+    }
+
+    @BeforeEach
+    void setUp() {
+        minioTemplate = mock(MinioTemplate.class);
+        assetMapper = mock(AssetMapper.class);
+        assetUploadIntentMapper = mock(AssetUploadIntentMapper.class);
+        var thumbnailService = mock(ThumbnailService.class);
+
+        when(minioTemplate.listObjects("audio/")).thenReturn(audioObjects);
+        when(minioTemplate.listObjects("image/")).thenReturn(imageObjects);
+        when(minioTemplate.removeObjects(anyList())).thenReturn(List.of());
+        when(assetMapper.selectList(any())).thenReturn(assets);
+        when(assetUploadIntentMapper.selectList(any())).thenReturn(intents);
+        when(thumbnailService.thumbnailNames(any())).thenAnswer(invocation -> {
+            Asset asset = invocation.getArgument(0);
+            if (asset.getThumbnailSizes() == null) {
+                return List.of();
+            }
+            return Arrays.stream(asset.getThumbnailSizes().split(","))
+                    .map(size -> ImageThumbnailer.objectName(asset.getStorageName(), Integer.parseInt(size)))
+                    .toList();
+        });
+
+        properties = new OrphanReconcilerProperties();
+        properties.setPrefixes(List.of("audio/", "image/"));
+        properties.setMinAgeHours(MIN_AGE_HOURS);
+        properties.setDryRun(false);
+        service = new StorageReconcileServiceImpl(minioTemplate, assetMapper, assetUploadIntentMapper,
+                thumbnailService, properties);
+    }
+
+    @Test
+    void objectsReferencedByAssetsOrPendingIntentsAreKept() {
+        assets.add(asset(1L, "audio/a.wav", "audio/a.preview-1.wav", "audio/a.peaks", null));
+        assets.add(asset(2L, "image/c.png", null, null, "64,256"));
+        intents.add(intent("audio/direct.wav"));
+
+        audioObjects.add(object("audio/a.wav", 1_000, OLD));
+        audioObjects.add(object("audio/a.preview-1.wav", 100, OLD));
+        audioObjects.add(object("audio/a.peaks", 10, OLD));
+        audioObjects.add(object("audio/direct.wav", 2_000, OLD));
+        audioObjects.add(object("audio/orphan.wav", 3_000, OLD));
+        imageObjects.add(object("image/c.png", 500, OLD));
+        imageObjects.add(object("image/c.thumb64.jpg", 5, OLD));
+        imageObjects.add(object("image/c.thumb256.jpg", 20, OLD));
+        // 不在 thumbnail_sizes 中的旧尺寸缩略图
+        imageObjects.add(object("image/c.thumb640.jpg", 50, OLD));
+
+        var report = service.reconcile();
+
+        assertThat(removedObjects()).containsExactly("audio/orphan.wav", "image/c.thumb640.jpg");
+        assertThat(report.scannedObjects()).isEqualTo(9);
+        assertThat(report.scannedBytes()).isEqualTo(6_685);
+        assertThat(report.orphanObjects()).isEqualTo(2);
+        assertThat(report.reclaimedBytes()).isEqualTo(3_050);
+        assertThat(report.failedObjects()).isZero();
+        assertThat(report.dryRun()).isFalse();
+    }
+
+    @Test
+    void objectsYoungerThanTheMinimumAgeAreSkipped() {
+        audioObjects.add(object("audio/uploading.wav", 4_000, MIN_AGE_HOURS - 1));
+        audioObjects.add(object("audio/orphan.wav", 3_000, OLD));
+
+        var report = service.reconcile();
+
+        assertThat(removedObjects()).containsExactly("audio/orphan.wav");
+        assertThat(report.scannedObjects()).isEqualTo(2);
+        assertThat(report.orphanObjects()).isEqualTo(1);
+        assertThat(report.reclaimedBytes()).isEqualTo(3_000);
+    }
+
+    @Test
+    void failedDeletesAreNotCountedAsReclaimed() {
+        audioObjects.add(object("audio/x.wav", 100, OLD));
+        audioObjects.add(object("audio/y.wav", 200, OLD));
+        audioObjects.add(object("audio/z.wav", 400, OLD));
+        when(minioTemplate.removeObjects(anyList())).thenReturn(List.of("audio/y.wav"));
+
+        var report = service.reconcile();
+
+        assertThat(report.orphanObjects()).isEqualTo(3);
+        assertThat(report.failedObjects()).isEqualTo(1);
+        assertThat(report.reclaimedBytes()).isEqualTo(500);
+    }
+
+    @Test
+    void orphansAreDeletedOneBatchAtATime() {
+        properties.setBatchSize(2);
+        for (int i = 0; i < 5; i++) {
+            audioObjects.add(object("audio/orphan-" + i + ".wav", 10, OLD));
+        }
+
+        var report = service.reconcile();
+
+        verify(minioTemplate, times(3)).removeObjects(anyList());
+        assertThat(report.orphanObjects()).isEqualTo(5);
+        assertThat(report.reclaimedBytes()).isEqualTo(50);
+    }
+
+    @Test
+    void dryRunIsTheDefaultAndDeletesNothing() {
+        assertThat(new OrphanReconcilerProperties().isDryRun()).isTrue();
+        properties.setDryRun(true);
+        audioObjects.add(object("audio/orphan.wav", 3_000, OLD));
+
+        var report = service.reconcile();
+
+        verify(minioTemplate, never()).removeObjects(anyList());
+        assertThat(report.dryRun()).isTrue();
+        assertThat(report.orphanObjects()).isEqualTo(1);
+        assertThat(report.reclaimedBytes()).isEqualTo(3_000);
+    }
+
+    // ==================== Private ====================
+
+    @SuppressWarnings("unchecked")
+    private List<String> removedObjects() {
+        ArgumentCaptor<List<String>> captor = ArgumentCaptor.forClass(List.class);
+        verify(minioTemplate, atLeastOnce()).removeObjects(captor.capture());
+        return captor.getAllValues().stream().flatMap(List::stream).toList();
+    }
+
+    private static Item object(String name, long size, int hoursAgo) {
+        var item = mock(Item.class);
+        when(item.objectName()).thenReturn(name);
+        when(item.size()).thenReturn(size);
+        when(item.isDir()).thenReturn(false);
+        when(item.lastModified()).thenReturn(ZonedDateTime.now().minusHours(hoursAgo));
+        return item;
+    }
+
+    private static Asset asset(Long id, String storageName, String previewName, String peaksName,
+                               String thumbnailSizes) {
+        var asset = new Asset();
+        asset.setId(id);
+        asset.setStorageName(storageName);
+        asset.setPreviewName(previewName);
+        asset.setPeaksName(peaksName);
+        asset.setThumbnailSizes(thumbnailSizes);
+        return asset;
+    }
+
+    private static AssetUploadIntent intent(String storageName) {
+        var intent = new AssetUploadIntent();
+        intent.setStorageName(storageName);
+        intent.setStatus(UploadStatus.UPLOADING);
+        return intent;
+    }
+}
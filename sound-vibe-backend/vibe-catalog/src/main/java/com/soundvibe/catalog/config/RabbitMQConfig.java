@@ -33,6 +33,11 @@ public class RabbitMQConfig {
      */
     public static final String ROUTING_KEY_ANALYSIS_COMPLETED = "asset.analysis.completed";
 
+    /**
+     * 试听片段重新生成路由键（本服务发送，vibe-asset 消费）
+     */
+    public static final String ROUTING_KEY_PREVIEW_REQUESTED = "asset.preview.requested";
+
     @Bean
     public Queue trackSyncQueue() {
         return new Queue(TRACK_SYNC_QUEUE, true);
@@ -1,5 +1,6 @@
 package com.soundvibe.catalog.domain.entity;
 
+import com.baomidou.mybatisplus.annotation.FieldStrategy;
 import com.baomidou.mybatisplus.annotation.TableField;
 import com.baomidou.mybatisplus.annotation.TableLogic;
 import com.baomidou.mybatisplus.annotation.TableName;
@@ -147,6 +148,14 @@ public class Track extends BaseEntity {
     @TableField("stock")
     private Integer stock;
 
+    /**
+     * 搜索索引同步版本号
+     * 每次发送同步事件前通过 TrackMapper.incrementSyncVersion 原子 +1，
+     * vibe-search 以此作为 ES 外部版本号，拒绝乱序到达的旧消息
+     */
+    @TableField(value = "sync_version", updateStrategy = FieldStrategy.NEVER)
+    private Long syncVersion;
+
     /**
      * 逻辑删除标记: 0=未删除, 1=已删除
      */
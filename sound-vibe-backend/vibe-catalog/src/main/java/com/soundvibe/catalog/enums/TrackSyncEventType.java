@@ -0,0 +1,40 @@
+package com.soundvibe.catalog.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 作品同步事件类型枚举
+ * 随同步消息的 eventType 字段发送给 vibe-search，决定索引侧执行全量写入还是局部更新
+ *
+ * @author SoundVibe Team
+ */
+@Getter
+@AllArgsConstructor
+public enum TrackSyncEventType {
+
+    /**
+     * 全量写入（标题/文件/标签等内容变化，含音频向量）
+     */
+    UPSERT("全量写入"),
+
+    /**
+     * 仅上下架状态变化
+     */
+    STATUS("状态变更"),
+
+    /**
+     * 仅价格变化
+     */
+    PRICE("价格变更"),
+
+    /**
+     * 作品删除
+     */
+    DELETE("删除");
+
+    /**
+     * 事件描述
+     */
+    private final String description;
+}
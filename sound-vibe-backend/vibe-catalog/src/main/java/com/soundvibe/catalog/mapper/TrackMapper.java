@@ -3,6 +3,9 @@ package com.soundvibe.catalog.mapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.soundvibe.catalog.domain.entity.Track;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
 
 /**
  * 音乐作品 Mapper 接口
@@ -12,4 +15,23 @@ import org.apache.ibatis.annotations.Mapper;
  */
 @Mapper
 public interface TrackMapper extends BaseMapper<Track> {
+
+    /**
+     * 同步版本号原子 +1（不受逻辑删除过滤，删除事件同样需要新版本）
+     * 在事务内执行时持有行锁直到提交，同一作品的版本号严格递增
+     *
+     * @param id 作品 ID
+     * @return 受影响行数
+     */
+    @Update("UPDATE tracks SET sync_version = sync_version + 1 WHERE id = #{id}")
+    int incrementSyncVersion(@Param("id") Long id);
+
+    /**
+     * 查询当前同步版本号
+     *
+     * @param id 作品 ID
+     * @return 同步版本号
+     */
+    @Select("SELECT sync_version FROM tracks WHERE id = #{id}")
+    Long selectSyncVersion(@Param("id") Long id);
 }
@@ -4,9 +4,11 @@ import cn.hutool.core.util.StrUtil;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.soundvibe.catalog.config.RabbitMQConfig;
 import com.soundvibe.catalog.domain.entity.Track;
 import com.soundvibe.catalog.domain.entity.TrackFile;
 import com.soundvibe.catalog.enums.TrackStatus;
+import com.soundvibe.catalog.enums.TrackSyncEventType;
 import com.soundvibe.catalog.enums.TrackType;
 import com.soundvibe.catalog.enums.TrackVisibility;
 import com.soundvibe.catalog.mapper.AssetMetadataMapper;
@@ -140,7 +142,8 @@ public class TrackServiceImpl implements TrackService {
 
         // 6. 异步发送消息到搜索服务同步 ES 索引
         var fileVOs = buildFileVOs(trackFiles);
-        sendTrackSyncMessage(track, fileVOs);
+        sendTrackSyncMessage(track, fileVOs, nextSyncVersion(track.getId()), true);
+        sendPreviewRequestedMessage(track, fileVOs);
 
         // 7. 返回 VO
         var username = userInfoMapper.selectUsernameById(userId);
@@ -165,6 +168,9 @@ public class TrackServiceImpl implements TrackService {
 
         log.info("作品状态切换: id={}, newStatus={}, newVisibility={}, userId={}",
                 id, track.getStatus(), track.getVisibility(), userId);
+
+        // 仅状态变化：索引侧局部更新，无需重发向量
+        sendTrackStatusMessage(track, nextSyncVersion(id));
         return toVO(track);
     }
 
@@ -248,9 +254,20 @@ public class TrackServiceImpl implements TrackService {
         trackMapper.updateById(track);
         log.info("作品信息更新: id={}, type={}, userId={}", id, track.getTrackType(), userId);
 
-        // 更新后同步 ES 索引
+        // 更新后同步 ES 索引：内容字段变化走全量写入；只改价格时发送价格事件；
+        // 描述/可见范围/试听/库存等未入索引的字段不触发同步
         var fileVOs = buildFileVOs(loadTrackFiles(id));
-        sendTrackSyncMessage(track, fileVOs);
+        if (touchesIndexedContent(dto, isPack)) {
+            sendTrackSyncMessage(track, fileVOs, nextSyncVersion(id));
+        } else if (dto.price() != null) {
+            sendTrackPriceMessage(track, nextSyncVersion(id));
+        }
+
+        // 试听设置或文件变化：按新时长重新生成试听片段（关闭试听时由 vibe-asset 移除片段）
+        boolean filesChanged = isPack ? dto.files() != null : dto.fileId() != null;
+        if (filesChanged || dto.allowPreview() != null || dto.previewDuration() != null) {
+            sendPreviewRequestedMessage(track, fileVOs);
+        }
 
         var username = userInfoMapper.selectUsernameById(track.getProducerId());
         return buildTrackVO(track, username, fileVOs);
@@ -358,6 +375,8 @@ public class TrackServiceImpl implements TrackService {
         // 逻辑删除作品
         trackMapper.deleteById(id);
         log.info("作品已删除: id={}, type={}, userId={}", id, track.getTrackType(), userId);
+
+        sendTrackDeleteMessage(id, nextSyncVersion(id));
     }
 
     // ======================== Track Files CRUD ========================
@@ -634,12 +653,25 @@ public class TrackServiceImpl implements TrackService {
 
     // ======================== 消息同步 ========================
 
+    /**
+     * 同步版本号 +1 并返回新值
+     * 每个同步事件占用一个版本号，vibe-search 据此拒绝乱序到达的旧消息
+     */
+    private long nextSyncVersion(Long trackId) {
+        trackMapper.incrementSyncVersion(trackId);
+        var version = trackMapper.selectSyncVersion(trackId);
+        return version != null ? version : 0L;
+    }
+
     /**
      * 发送作品同步消息到 RabbitMQ
      * 消息包含 track 元数据 + 从 assets 聚合的 BPM/Key/Duration 数组
      * 非阻塞：发送失败仅记录日志，不影响主流程
+     *
+     * @param version    同步版本号（ES 外部版本号）
+     * @param newRelease 是否为首次发布（vibe-search 据此匹配用户的已保存搜索并推送新作品提醒）
      */
-    private void sendTrackSyncMessage(Track track, List<TrackFileVO> fileVOs) {
+    private void sendTrackSyncMessage(Track track, List<TrackFileVO> fileVOs, long version, boolean newRelease) {
         try {
             var producerName = userInfoMapper.selectUsernameById(track.getProducerId());
 
@@ -669,6 +701,8 @@ public class TrackServiceImpl implements TrackService {
 
             // 构建消息 Map（vibe-search 的 TrackSyncListener 以 Map 接收）
             Map<String, Object> message = new LinkedHashMap<>();
+            message.put("eventType", TrackSyncEventType.UPSERT.name());
+            message.put("version", version);
             message.put("id", track.getId());
             message.put("title", track.getTitle());
             message.put("trackType", track.getTrackType() != null ? track.getTrackType().getValue() : "SINGLE");
@@ -679,13 +713,18 @@ public class TrackServiceImpl implements TrackService {
             message.put("tags", track.getTags());
             message.put("price", track.getPrice());
             message.put("status", track.getStatus().getCode());
+            if (newRelease) {
+                message.put("newRelease", true);
+            }
             // 聚合的分析数据数组
             message.put("bpmValues", bpmValues);
             message.put("musicalKeys", musicalKeys);
             message.put("durations", durations);
             message.put("autoTags", autoTagsList);
 
-            // CLAP 音频特征向量：取第一个音频文件的 feature_vector 用于语义搜索
+            // CLAP 音频特征向量：
+            // - audioVector：第一个有向量的文件，作品级向量（SINGLE / 旧版消费者）
+            // - fileVectors：按文件顺序的 {fileId, vector}，vibe-search 为 PACK 建分轨 nested 向量
             List<Long> assetIds = fileVOs.stream()
                     .map(TrackFileVO::assetId)
                     .filter(Objects::nonNull)
@@ -693,18 +732,35 @@ public class TrackServiceImpl implements TrackService {
                     .collect(Collectors.toList());
             if (!assetIds.isEmpty()) {
                 try {
-                    var vectorRows = assetMetadataMapper.selectFeatureVectorByIds(assetIds);
-                    for (var row : vectorRows) {
+                    Map<Long, List<Float>> vectorByAssetId = new HashMap<>();
+                    for (var row : assetMetadataMapper.selectFeatureVectorByIds(assetIds)) {
                         Object vectorData = row.get("feature_vector");
-                        if (vectorData != null) {
-                            String vectorJson = vectorData.toString();
-                            List<Float> audioVector = com.alibaba.fastjson2.JSON.parseArray(vectorJson, Float.class);
-                            if (audioVector != null && !audioVector.isEmpty()) {
-                                message.put("audioVector", audioVector);
-                                break;
+                        Object assetId = row.get("asset_id");
+                        if (vectorData != null && assetId instanceof Number number) {
+                            List<Float> vector = com.alibaba.fastjson2.JSON.parseArray(vectorData.toString(), Float.class);
+                            if (vector != null && !vector.isEmpty()) {
+                                vectorByAssetId.put(number.longValue(), vector);
                             }
                         }
                     }
+
+                    List<Map<String, Object>> fileVectors = new ArrayList<>();
+                    for (var fileVO : fileVOs) {
+                        var vector = fileVO.assetId() != null ? vectorByAssetId.get(fileVO.assetId()) : null;
+                        if (vector == null) {
+                            continue;
+                        }
+                        if (!message.containsKey("audioVector")) {
+                            message.put("audioVector", vector);
+                        }
+                        Map<String, Object> fileVector = new LinkedHashMap<>();
+                        fileVector.put("fileId", fileVO.id());
+                        fileVector.put("vector", vector);
+                        fileVectors.add(fileVector);
+                    }
+                    if (fileVectors.size() > 1) {
+                        message.put("fileVectors", fileVectors);
+                    }
                 } catch (Exception e) {
                     log.warn("加载 feature_vector 失败（不影响同步）: assetIds={}, error={}", assetIds, e.getMessage());
                 }
@@ -719,6 +775,102 @@ public class TrackServiceImpl implements TrackService {
         }
     }
 
+    /**
+     * 发送作品同步消息（非首次发布：内容更新、分析回写、全量重建）
+     */
+    private void sendTrackSyncMessage(Track track, List<TrackFileVO> fileVOs, long version) {
+        sendTrackSyncMessage(track, fileVOs, version, false);
+    }
+
+    /**
+     * 发送状态变更事件（仅 id + status，几十字节）
+     */
+    private void sendTrackStatusMessage(Track track, long version) {
+        Map<String, Object> message = new LinkedHashMap<>();
+        message.put("eventType", TrackSyncEventType.STATUS.name());
+        message.put("version", version);
+        message.put("id", track.getId());
+        message.put("status", track.getStatus().getCode());
+        sendPartialSyncMessage(message);
+    }
+
+    /**
+     * 发送价格变更事件（仅 id + price）
+     */
+    private void sendTrackPriceMessage(Track track, long version) {
+        Map<String, Object> message = new LinkedHashMap<>();
+        message.put("eventType", TrackSyncEventType.PRICE.name());
+        message.put("version", version);
+        message.put("id", track.getId());
+        message.put("price", track.getPrice());
+        sendPartialSyncMessage(message);
+    }
+
+    /**
+     * 发送删除事件
+     */
+    private void sendTrackDeleteMessage(Long trackId, long version) {
+        Map<String, Object> message = new LinkedHashMap<>();
+        message.put("eventType", TrackSyncEventType.DELETE.name());
+        message.put("version", version);
+        message.put("id", trackId);
+        sendPartialSyncMessage(message);
+    }
+
+    /**
+     * 发送轻量同步事件
+     * 非阻塞：发送失败仅记录日志，不影响主流程
+     */
+    private void sendPartialSyncMessage(Map<String, Object> message) {
+        try {
+            rabbitTemplate.convertAndSend(TRACK_SYNC_QUEUE, message);
+            log.info("作品同步事件已发送: {}", message);
+        } catch (Exception e) {
+            log.error("作品同步事件发送失败: message={}, error={}", message, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 请求 vibe-asset 按作品的试听时长（重新）生成音频文件的试听片段
+     * 包含全部文件：作品或文件不允许试听时不带 previewDuration，vibe-asset 按数据库中的试听设置移除已有片段
+     * 非阻塞：发送失败仅记录日志，片段仍会在分析完成时按默认时长生成
+     */
+    private void sendPreviewRequestedMessage(Track track, List<TrackFileVO> fileVOs) {
+        var assetIds = fileVOs.stream()
+                .map(TrackFileVO::assetId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        if (assetIds.isEmpty()) {
+            return;
+        }
+        Map<String, Object> message = new LinkedHashMap<>();
+        message.put("trackId", track.getId());
+        message.put("assetIds", assetIds);
+        if (Boolean.TRUE.equals(track.getAllowPreview())) {
+            message.put("previewDuration", track.getPreviewDuration());
+        }
+        try {
+            rabbitTemplate.convertAndSend(RabbitMQConfig.ASSET_TOPIC_EXCHANGE,
+                    RabbitMQConfig.ROUTING_KEY_PREVIEW_REQUESTED, message);
+            log.info("试听片段生成请求已发送: {}", message);
+        } catch (Exception e) {
+            log.error("试听片段生成请求发送失败: message={}, error={}", message, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 判断本次更新是否涉及索引中的内容字段（需要全量写入）
+     * 标题、文件、封面、标签的变化会影响检索文本、聚合数组或音频向量
+     */
+    private boolean touchesIndexedContent(TrackUpdateDTO dto, boolean isPack) {
+        boolean filesChanged = isPack ? dto.files() != null : dto.fileId() != null;
+        return dto.title() != null
+                || filesChanged
+                || dto.coverId() != null
+                || dto.tags() != null;
+    }
+
     // ======================== 全量重建索引 ========================
 
     @Override
@@ -732,7 +884,8 @@ public class TrackServiceImpl implements TrackService {
             try {
                 var files = loadTrackFiles(track.getId());
                 var fileVOs = buildFileVOs(files);
-                sendTrackSyncMessage(track, fileVOs);
+                // 内容未变化，沿用当前版本号（ES external_gte 接受相同版本的重放）
+                sendTrackSyncMessage(track, fileVOs, track.getSyncVersion() != null ? track.getSyncVersion() : 0L);
                 count++;
             } catch (Exception e) {
                 log.error("重建索引失败: trackId={}, error={}", track.getId(), e.getMessage(), e);
@@ -769,7 +922,8 @@ public class TrackServiceImpl implements TrackService {
                 }
                 var files = loadTrackFiles(trackId);
                 var fileVOs = buildFileVOs(files);
-                sendTrackSyncMessage(track, fileVOs);
+                // 分析结果改变了聚合字段/向量，占用新版本号
+                sendTrackSyncMessage(track, fileVOs, nextSyncVersion(trackId));
                 count++;
                 log.info("分析完成后重新同步 ES: trackId={}, assetId={}", trackId, assetId);
             } catch (Exception e) {
@@ -0,0 +1,21 @@
+-- ============================================
+-- Migration v8: 为 tracks 表添加 sync_version 字段
+-- 功能说明：
+--   每次向 vibe-search 发送同步事件前原子 +1，随消息下发
+--   ES 以 version_type=external_gte 写入，乱序/重试的旧消息被直接拒绝
+-- ============================================
+
+USE sound_vibe_db;
+
+SET @col_exists = (
+    SELECT COUNT(*) FROM INFORMATION_SCHEMA.COLUMNS
+    WHERE TABLE_SCHEMA = 'sound_vibe_db'
+      AND TABLE_NAME = 'tracks'
+      AND COLUMN_NAME = 'sync_version'
+);
+SET @sql = IF(@col_exists = 0,
+    'ALTER TABLE `tracks` ADD COLUMN `sync_version` BIGINT NOT NULL DEFAULT 0 COMMENT ''搜索索引同步版本号（每次发送同步事件前 +1）'' AFTER `stock`',
+    'SELECT ''Column sync_version already exists''');
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
@@ -29,6 +29,7 @@ CREATE TABLE IF NOT EXISTS `tracks` (
     `preview_duration` INT          NOT NULL DEFAULT 30      COMMENT '预览时长（秒），仅付费作品生效，默认 30 秒',
     `sold_count`    INT             NOT NULL DEFAULT 0       COMMENT '已售数量（每次购买成功 +1）',
     `stock`         INT             DEFAULT NULL             COMMENT '库存数量（null 表示不限库存，0 表示售罄）',
+    `sync_version`  BIGINT          NOT NULL DEFAULT 0       COMMENT '搜索索引同步版本号（每次发送同步事件前 +1）',
     `deleted`       TINYINT         NOT NULL DEFAULT 0       COMMENT '逻辑删除: 0=未删除, 1=已删除',
     `create_time`   DATETIME        NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
     `update_time`   DATETIME        NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
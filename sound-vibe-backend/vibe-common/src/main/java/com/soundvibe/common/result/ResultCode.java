@@ -90,6 +90,21 @@ public enum ResultCode {
      */
     ASSET_NOT_FOUND(2005, "资产不存在"),
 
+    /**
+     * 分片上传会话不存在或已失效
+     */
+    UPLOAD_SESSION_NOT_FOUND(2006, "上传会话不存在或已过期"),
+
+    /**
+     * 分片未全部上传
+     */
+    UPLOAD_INCOMPLETE(2007, "分片未全部上传"),
+
+    /**
+     * 直传对象与上传意图不符（未上传、大小或类型不一致）
+     */
+    UPLOAD_OBJECT_INVALID(2008, "上传的文件与声明不符"),
+
     // ==================== Catalog 模块 (3xxx) ====================
 
     /**
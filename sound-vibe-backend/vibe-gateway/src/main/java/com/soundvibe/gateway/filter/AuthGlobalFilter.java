@@ -24,6 +24,7 @@ import java.util.List;
  * <p>
  * 拦截所有经过 Gateway 的请求，执行 JWT Token 验证。
  * <ul>
+ *   <li>内部接口（服务间调用、运维）一律拒绝，不对外暴露</li>
  *   <li>白名单路径直接放行（登录、注册、公共资源）</li>
  *   <li>验证 Authorization: Bearer &lt;token&gt; 请求头</li>
  *   <li>校验通过后解析 userId，注入 X-User-Id Header 传递给下游服务</li>
@@ -38,6 +39,13 @@ public class AuthGlobalFilter implements GlobalFilter, Ordered {
 
     private final AntPathMatcher pathMatcher = new AntPathMatcher();
 
+    /**
+     * 内部接口路径（仅供内网直连服务调用，网关一律返回 403）
+     */
+    private static final List<String> INTERNAL_LIST = List.of(
+            "/search/internal/**"
+    );
+
     /**
      * 白名单路径（无需 Token 即可访问）
      */
@@ -47,9 +55,18 @@ public class AuthGlobalFilter implements GlobalFilter, Ordered {
             "/assets/public/**",
             "/assets/file/**",
             "/assets/download/**",
+            "/assets/*/preview",
+            "/assets/*/peaks",
             "/search/**"
     );
 
+    /**
+     * 白名单中仍需登录的子路径（按用户隔离的数据，依赖 X-User-Id）
+     */
+    private static final List<String> AUTH_REQUIRED_LIST = List.of(
+            "/search/saved/**"
+    );
+
     /**
      * Token 前缀
      */
@@ -60,6 +77,12 @@ public class AuthGlobalFilter implements GlobalFilter, Ordered {
         ServerHttpRequest request = exchange.getRequest();
         String path = request.getURI().getPath();
 
+        // ⓪ 内部接口不经网关暴露
+        if (isInternal(path)) {
+            log.warn("请求被拒绝 (内部接口): {} {}", request.getMethod(), path);
+            return errorResponse(exchange, HttpStatus.FORBIDDEN, "内部接口不允许外部访问");
+        }
+
         // ① 白名单放行
         if (isAllowed(path)) {
             log.debug("白名单放行: {}", path);
@@ -104,6 +127,17 @@ public class AuthGlobalFilter implements GlobalFilter, Ordered {
         return chain.filter(exchange.mutate().request(mutatedRequest).build());
     }
 
+    /**
+     * 判断请求路径是否为内部接口
+     *
+     * @param path 请求路径
+     * @return true=内部接口
+     */
+    private boolean isInternal(String path) {
+        return INTERNAL_LIST.stream()
+                .anyMatch(pattern -> pathMatcher.match(pattern, path));
+    }
+
     /**
      * 判断请求路径是否在白名单中
      *
@@ -111,6 +145,9 @@ public class AuthGlobalFilter implements GlobalFilter, Ordered {
      * @return true=在白名单中
      */
     private boolean isAllowed(String path) {
+        if (AUTH_REQUIRED_LIST.stream().anyMatch(pattern -> pathMatcher.match(pattern, path))) {
+            return false;
+        }
         return ALLOW_LIST.stream()
                 .anyMatch(pattern -> pathMatcher.match(pattern, path));
     }
@@ -123,13 +160,25 @@ public class AuthGlobalFilter implements GlobalFilter, Ordered {
      * @return Mono<Void>
      */
     private Mono<Void> unauthorizedResponse(ServerWebExchange exchange, String message) {
+        return errorResponse(exchange, HttpStatus.UNAUTHORIZED, message);
+    }
+
+    /**
+     * 构建错误响应
+     *
+     * @param exchange ServerWebExchange
+     * @param status   HTTP 状态码（同时作为响应体 code）
+     * @param message  错误描述
+     * @return Mono<Void>
+     */
+    private Mono<Void> errorResponse(ServerWebExchange exchange, HttpStatus status, String message) {
         ServerHttpResponse response = exchange.getResponse();
-        response.setStatusCode(HttpStatus.UNAUTHORIZED);
+        response.setStatusCode(status);
         response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
 
         String body = String.format(
-                "{\"code\":401,\"message\":\"%s\",\"data\":null}",
-                message
+                "{\"code\":%d,\"message\":\"%s\",\"data\":null}",
+                status.value(), message
         );
         DataBuffer buffer = response.bufferFactory()
                 .wrap(body.getBytes(StandardCharsets.UTF_8));
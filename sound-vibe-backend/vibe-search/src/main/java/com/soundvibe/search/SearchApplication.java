@@ -3,7 +3,6 @@ package com.soundvibe.search;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
-import org.springframework.cloud.openfeign.EnableFeignClients;
 
 /**
  * SoundVibe 搜索服务启动类
@@ -17,7 +16,6 @@ import org.springframework.cloud.openfeign.EnableFeignClients;
         "com.soundvibe.common.exception"
 })
 @EnableDiscoveryClient
-@EnableFeignClients(basePackages = "com.soundvibe.search.client")
 public class SearchApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,22 @@
+package com.soundvibe.search.client;
+
+import java.util.concurrent.CompletionException;
+import java.util.function.Predicate;
+
+/**
+ * 分析服务断路器的失败判定
+ * 绑定 resilience4j.circuitbreaker.instances.analysis-service.record-failure-predicate
+ * <p>
+ * 无效输入（空白 / 超长文本）导致的 4xx 由调用方造成，计入失败率会让任何人都能用无效请求打开断路器，
+ * 影响所有用户的语义搜索；超时、连接失败与 5xx 照常计入
+ *
+ * @author SoundVibe Team
+ */
+public class AnalysisFailurePredicate implements Predicate<Throwable> {
+
+    @Override
+    public boolean test(Throwable error) {
+        var cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        return !BatchingEmbedClient.isClientError(cause);
+    }
+}
@@ -0,0 +1,104 @@
+package com.soundvibe.search.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.soundvibe.common.exception.BizException;
+import com.soundvibe.search.client.dto.TextBatchEmbedRequest;
+import com.soundvibe.search.client.dto.TextBatchEmbedResponse;
+import com.soundvibe.search.client.dto.TextEmbedRequest;
+import com.soundvibe.search.client.dto.TextEmbedResponse;
+import com.soundvibe.search.config.AnalysisServiceProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * vibe-analysis Python 服务异步客户端
+ * 基于 JDK HttpClient 的非阻塞调用：请求发出后不占用调用线程，响应在固定大小的回调线程池上完成，
+ * 因此并发搜索数增加时线程数保持不变
+ * <p>
+ * HTTP 非 2xx 响应以 BizException(code=HTTP 状态码) 失败，调用方据 404 判断接口是否存在
+ *
+ * @author SoundVibe Team
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AsyncAnalysisClient {
+
+    private final AnalysisServiceProperties properties;
+    private final ObjectMapper objectMapper;
+
+    private ExecutorService callbackExecutor;
+    private HttpClient httpClient;
+
+    @PostConstruct
+    public void start() {
+        callbackExecutor = Executors.newFixedThreadPool(properties.getIoThreads(), r -> {
+            var thread = new Thread(r, "analysis-http");
+            thread.setDaemon(true);
+            return thread;
+        });
+        httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(properties.getConnectTimeoutMillis()))
+                .executor(callbackExecutor)
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        callbackExecutor.shutdownNow();
+    }
+
+    /**
+     * 将文本转换为 CLAP 嵌入向量（512 维）
+     */
+    public CompletableFuture<TextEmbedResponse> embedText(TextEmbedRequest request) {
+        return post("/api/embed/text", request, TextEmbedResponse.class);
+    }
+
+    /**
+     * 批量将文本转换为 CLAP 嵌入向量（一次前向推理）
+     */
+    public CompletableFuture<TextBatchEmbedResponse> embedTextBatch(TextBatchEmbedRequest request) {
+        return post("/api/embed/text/batch", request, TextBatchEmbedResponse.class);
+    }
+
+    private <T> CompletableFuture<T> post(String path, Object body, Class<T> responseType) {
+        HttpRequest httpRequest;
+        try {
+            httpRequest = HttpRequest.newBuilder(URI.create(properties.getUrl() + path))
+                    .timeout(Duration.ofMillis(properties.getReadTimeoutMillis()))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                    .build();
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        return httpClient.sendAsync(httpRequest, HttpResponse.BodyHandlers.ofByteArray())
+                .thenApply(response -> {
+                    if (response.statusCode() / 100 != 2) {
+                        throw new BizException(response.statusCode(), "分析服务调用失败: " + path + " HTTP " + response.statusCode());
+                    }
+                    try {
+                        return objectMapper.readValue(response.body(), responseType);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+    }
+}
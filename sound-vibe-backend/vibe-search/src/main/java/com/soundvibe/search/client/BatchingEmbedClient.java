@@ -0,0 +1,275 @@
+package com.soundvibe.search.client;
+
+import com.soundvibe.common.exception.BizException;
+import com.soundvibe.common.result.ResultCode;
+import com.soundvibe.search.client.dto.TextBatchEmbedRequest;
+import com.soundvibe.search.client.dto.TextEmbedRequest;
+import com.soundvibe.search.client.dto.TextEmbedResponse;
+import com.soundvibe.search.config.EmbedBatchProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.*;
+import java.util.function.Function;
+
+/**
+ * 合批文本嵌入客户端
+ * 将短时间窗口内并发到达的语义搜索文本合并为一次 /api/embed/text/batch 调用，
+ * 再把向量分发回各个等待中的调用方
+ * <p>
+ * 工作方式：
+ * 1. 调用方把文本放入队列，立即拿到自己的 CompletableFuture（不阻塞调用线程）
+ * 2. 收集线程取到批内第一条后最多再等 windowMillis，或攒满 maxBatchSize 立即发出
+ * 3. 同一批内相同文本只编码一次；在途批次数受 maxInFlight 限制，繁忙时下一批自然攒得更大
+ * 4. 批量请求经 AsyncAnalysisClient 异步发送，无需为在途批次占用线程
+ * <p>
+ * 失败隔离：
+ * - 空白或超长文本在入队前直接以 BizException(PARAM_ERROR) 失败，不会进入批次
+ * - 批量请求被拒绝（4xx）时逐条重试，只让无效文本失败，不连累同批的其他请求
+ * - 收集线程捕获单次循环中的任何异常，该批请求失败后继续攒下一批
+ * <p>
+ * 分析服务尚未提供批量接口（返回 404）时降级为逐条调用 /api/embed/text，
+ * 降级持续 unsupportedRetryMillis 后重新探测批量接口
+ *
+ * @author SoundVibe Team
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BatchingEmbedClient {
+
+    /**
+     * 单条文本最大长度（与分析服务 TextEmbedRequest.text 的 max_length 一致）
+     */
+    public static final int MAX_TEXT_LENGTH = 512;
+
+    private static final int HTTP_NOT_FOUND = 404;
+
+    private final AsyncAnalysisClient analysisClient;
+    private final EmbedBatchProperties properties;
+
+    private final BlockingQueue<PendingEmbed> queue = new LinkedBlockingQueue<>();
+
+    private Semaphore inFlight;
+    private Thread collector;
+
+    /**
+     * 批量接口不可用（404）的截止时间（System.currentTimeMillis），此前的请求直接走单条接口
+     */
+    private volatile long batchUnsupportedUntil;
+
+    @PostConstruct
+    public void start() {
+        if (!properties.isEnabled()) {
+            log.info("查询向量合批已关闭，语义搜索逐条调用分析服务");
+            return;
+        }
+        inFlight = new Semaphore(properties.getMaxInFlight());
+        collector = new Thread(this::collectLoop, "embed-batch-collector");
+        collector.setDaemon(true);
+        collector.start();
+        log.info("查询向量合批已启动: window={}ms, maxBatchSize={}, maxInFlight={}",
+                properties.getWindowMillis(), properties.getMaxBatchSize(), properties.getMaxInFlight());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (collector != null) {
+            collector.interrupt();
+        }
+    }
+
+    /**
+     * 获取文本的 CLAP 嵌入向量
+     *
+     * @param text 搜索文本
+     * @return 512 维向量（所在批次返回后完成）
+     */
+    public CompletableFuture<List<Float>> embed(String text) {
+        return embed(text, properties.getTimeoutMillis());
+    }
+
+    /**
+     * 获取文本的 CLAP 嵌入向量，超过 timeoutMillis 未返回则以 TimeoutException 失败
+     * 超时的请求若仍在队列中，收集线程会跳过它
+     *
+     * @param text          搜索文本
+     * @param timeoutMillis 调用方愿意等待的时间（毫秒）
+     * @return 512 维向量
+     */
+    public CompletableFuture<List<Float>> embed(String text, long timeoutMillis) {
+        if (text == null || text.isBlank()) {
+            return CompletableFuture.failedFuture(new BizException(ResultCode.PARAM_ERROR, "嵌入文本不能为空"));
+        }
+        if (text.length() > MAX_TEXT_LENGTH) {
+            return CompletableFuture.failedFuture(
+                    new BizException(ResultCode.PARAM_ERROR, "嵌入文本不能超过 " + MAX_TEXT_LENGTH + " 个字符"));
+        }
+        CompletableFuture<List<Float>> future;
+        if (!properties.isEnabled() || batchUnsupported()) {
+            future = analysisClient.embedText(new TextEmbedRequest(text)).thenApply(TextEmbedResponse::vector);
+        } else {
+            var pending = new PendingEmbed(text, new CompletableFuture<>());
+            queue.offer(pending);
+            future = pending.future();
+        }
+        return future.orTimeout(timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    // ======================== 攒批 ========================
+
+    private void collectLoop() {
+        while (!Thread.currentThread().isInterrupted()) {
+            // 先占用在途名额：名额耗尽期间请求继续在队列中堆积，下一批一次取走
+            try {
+                inFlight.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            List<PendingEmbed> batch = new ArrayList<>(properties.getMaxBatchSize());
+            try {
+                collect(batch);
+                dispatch(batch).whenComplete((ignored, error) -> inFlight.release());
+            } catch (InterruptedException e) {
+                inFlight.release();
+                failBatch(batch, e);
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                // 单批异常不能终止收集线程，否则后续请求全部超时
+                log.error("查询向量合批异常: requests={}, error={}", batch.size(), e.getMessage(), e);
+                inFlight.release();
+                failBatch(batch, e);
+            }
+        }
+    }
+
+    /**
+     * 阻塞取到批内第一条，之后最多再等 windowMillis 或攒满 maxBatchSize
+     */
+    private void collect(List<PendingEmbed> batch) throws InterruptedException {
+        batch.add(queue.take());
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(properties.getWindowMillis());
+        while (batch.size() < properties.getMaxBatchSize()) {
+            queue.drainTo(batch, properties.getMaxBatchSize() - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= properties.getMaxBatchSize() || remaining <= 0) {
+                break;
+            }
+            var next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+        }
+    }
+
+    /**
+     * 异步发送一批请求，返回的 future 在该批全部分发完毕后完成
+     */
+    private CompletableFuture<Void> dispatch(List<PendingEmbed> batch) {
+        // 相同文本合并，只编码一次；已超时的请求跳过
+        Map<String, List<CompletableFuture<List<Float>>>> byText = new LinkedHashMap<>();
+        for (var pending : batch) {
+            if (!pending.future().isDone()) {
+                byText.computeIfAbsent(pending.text(), t -> new ArrayList<>()).add(pending.future());
+            }
+        }
+        if (byText.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        if (batchUnsupported()) {
+            return embedOneByOne(byText);
+        }
+
+        var texts = new ArrayList<>(byText.keySet());
+        return analysisClient.embedTextBatch(new TextBatchEmbedRequest(texts))
+                .handle((response, error) -> {
+                    if (error == null) {
+                        var vectors = response.vectors();
+                        if (vectors == null || vectors.size() != texts.size()) {
+                            failAll(byText, new IllegalStateException("批量嵌入返回数量不匹配: expected=" + texts.size()
+                                    + ", actual=" + (vectors == null ? 0 : vectors.size())));
+                        } else {
+                            for (int i = 0; i < texts.size(); i++) {
+                                var vector = vectors.get(i);
+                                byText.get(texts.get(i)).forEach(future -> future.complete(vector));
+                            }
+                            log.debug("批量文本嵌入完成: requests={}, texts={}", batch.size(), texts.size());
+                        }
+                        return CompletableFuture.<Void>completedFuture(null);
+                    }
+                    var cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                    if (isHttpStatus(cause, HTTP_NOT_FOUND)) {
+                        batchUnsupportedUntil = System.currentTimeMillis() + properties.getUnsupportedRetryMillis();
+                        log.warn("分析服务未提供 /api/embed/text/batch，{} ms 内降级为逐条嵌入",
+                                properties.getUnsupportedRetryMillis());
+                        return embedOneByOne(byText);
+                    }
+                    if (isClientError(cause)) {
+                        // 批内某条文本被拒绝时整批失败：逐条重试，4xx 只落在无效文本自己的请求上
+                        log.warn("批量文本嵌入被拒绝，逐条重试: texts={}, error={}", texts.size(), cause.getMessage());
+                        return embedOneByOne(byText);
+                    }
+                    log.error("批量文本嵌入失败: texts={}, error={}", texts.size(), cause.getMessage(), cause);
+                    failAll(byText, cause);
+                    return CompletableFuture.<Void>completedFuture(null);
+                })
+                .thenCompose(Function.identity())
+                .whenComplete((ignored, error) -> {
+                    // 分发过程中的意外异常：未完成的请求立即失败，而不是等到超时
+                    if (error != null) {
+                        failAll(byText, error);
+                    }
+                });
+    }
+
+    private CompletableFuture<Void> embedOneByOne(Map<String, List<CompletableFuture<List<Float>>>> byText) {
+        var calls = byText.entrySet().stream()
+                .map(entry -> analysisClient.embedText(new TextEmbedRequest(entry.getKey()))
+                        .whenComplete((response, error) -> {
+                            if (error != null) {
+                                entry.getValue().forEach(future -> future.completeExceptionally(error));
+                            } else {
+                                entry.getValue().forEach(future -> future.complete(response.vector()));
+                            }
+                        }))
+                .toArray(CompletableFuture[]::new);
+        return CompletableFuture.allOf(calls).exceptionally(error -> null);
+    }
+
+    private void failAll(Map<String, List<CompletableFuture<List<Float>>>> byText, Throwable error) {
+        byText.values().forEach(futures -> futures.forEach(future -> future.completeExceptionally(error)));
+    }
+
+    private void failBatch(List<PendingEmbed> batch, Throwable error) {
+        batch.forEach(pending -> pending.future().completeExceptionally(error));
+    }
+
+    private boolean batchUnsupported() {
+        return batchUnsupportedUntil > System.currentTimeMillis();
+    }
+
+    private static boolean isHttpStatus(Throwable error, int status) {
+        return error instanceof BizException bizException && Objects.equals(bizException.getCode(), status);
+    }
+
+    /**
+     * HTTP 4xx：请求本身无效，重试或熔断都无意义
+     */
+    static boolean isClientError(Throwable error) {
+        return error instanceof BizException bizException && bizException.getCode() != null
+                && bizException.getCode() >= 400 && bizException.getCode() < 500;
+    }
+
+    private record PendingEmbed(String text, CompletableFuture<List<Float>> future) {
+    }
+}
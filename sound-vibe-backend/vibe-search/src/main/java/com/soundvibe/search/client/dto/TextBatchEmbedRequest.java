@@ -0,0 +1,11 @@
+package com.soundvibe.search.client.dto;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * 批量文本嵌入请求 DTO
+ * 由 BatchingEmbedClient 将短时间窗口内的多个查询合并后发送（单批最多 64 条）
+ */
+public record TextBatchEmbedRequest(List<String> texts) implements Serializable {
+}
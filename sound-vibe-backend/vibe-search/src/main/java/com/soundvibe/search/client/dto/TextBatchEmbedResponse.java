@@ -0,0 +1,11 @@
+package com.soundvibe.search.client.dto;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * 批量文本嵌入响应 DTO
+ * vectors 与请求中 texts 的顺序一一对应
+ */
+public record TextBatchEmbedResponse(List<List<Float>> vectors) implements Serializable {
+}
@@ -0,0 +1,37 @@
+package com.soundvibe.search.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * vibe-analysis 服务调用配置属性类
+ * 绑定 application.yml 中 analysis.service.* 配置项
+ *
+ * @author SoundVibe Team
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "analysis.service")
+public class AnalysisServiceProperties {
+
+    /**
+     * 服务地址
+     */
+    private String url = "http://localhost:8090";
+
+    /**
+     * 建连超时（毫秒）
+     */
+    private long connectTimeoutMillis = 500;
+
+    /**
+     * 单次请求超时（毫秒），分析服务卡顿时及时失败
+     */
+    private long readTimeoutMillis = 3000;
+
+    /**
+     * 异步 HTTP 客户端回调线程数（固定，不随并发增长）
+     */
+    private int ioThreads = 2;
+}
@@ -0,0 +1,22 @@
+package com.soundvibe.search.config;
+
+import co.elastic.clients.elasticsearch.ElasticsearchAsyncClient;
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Elasticsearch 异步客户端配置
+ * 与 Spring Data 自动配置的同步客户端共用同一个 transport（连接池、JSON 映射一致），
+ * 请求经 RestClient 的非阻塞 I/O 发送，由少量固定的 I/O 线程回调完成，不随并发请求数增加线程
+ *
+ * @author SoundVibe Team
+ */
+@Configuration
+public class ElasticsearchAsyncConfig {
+
+    @Bean
+    public ElasticsearchAsyncClient elasticsearchAsyncClient(ElasticsearchClient elasticsearchClient) {
+        return new ElasticsearchAsyncClient(elasticsearchClient._transport(), elasticsearchClient._transportOptions());
+    }
+}
@@ -0,0 +1,50 @@
+package com.soundvibe.search.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 查询向量合批配置属性类
+ * 绑定 application.yml 中 analysis.embed-batch.* 配置项
+ * <p>
+ * 并发语义搜索的文本在 windowMillis 内攒成一批，调用 /api/embed/text/batch 一次编码，
+ * 使 Python 端的 GPU/CPU 推理按批执行
+ *
+ * @author SoundVibe Team
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "analysis.embed-batch")
+public class EmbedBatchProperties {
+
+    /**
+     * 是否启用合批（关闭时每个请求直接调用单条接口）
+     */
+    private boolean enabled = true;
+
+    /**
+     * 攒批窗口（毫秒），从批内第一条请求到达开始计时
+     */
+    private long windowMillis = 5;
+
+    /**
+     * 单批最大条数（需与 Python 端上限 64 保持一致）
+     */
+    private int maxBatchSize = 32;
+
+    /**
+     * 同时在途的批量请求数
+     */
+    private int maxInFlight = 4;
+
+    /**
+     * 调用方等待向量的超时时间（毫秒）
+     */
+    private long timeoutMillis = 10_000;
+
+    /**
+     * 批量接口返回 404 后逐条调用的持续时间（毫秒），到期后重新探测批量接口
+     */
+    private long unsupportedRetryMillis = 60_000;
+}
@@ -0,0 +1,32 @@
+package com.soundvibe.search.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * PACK 分轨向量配置属性类
+ * 绑定 application.yml 中 search.file-vectors.* 配置项
+ *
+ * @author SoundVibe Team
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "search.file-vectors")
+public class FileVectorProperties {
+
+    /**
+     * 是否为 PACK 作品写入分轨 nested 向量（关闭时与 SINGLE 一样只写一个作品级向量）
+     */
+    private boolean enabled = true;
+
+    /**
+     * 每个作品最多写入的分轨向量数（按文件排序截断）
+     */
+    private int maxPerTrack = 32;
+
+    /**
+     * 与已保留分轨的余弦相似度不低于该值时视为重复（同一素材的不同版本/切片），不再单独索引
+     */
+    private double dedupSimilarity = 0.98;
+}
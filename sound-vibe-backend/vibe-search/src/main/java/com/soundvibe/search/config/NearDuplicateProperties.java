@@ -0,0 +1,49 @@
+package com.soundvibe.search.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 近似重复作品检测配置属性类
+ * 绑定 application.yml 中 search.near-duplicate.* 配置项
+ *
+ * @author SoundVibe Team
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "search.near-duplicate")
+public class NearDuplicateProperties {
+
+    /**
+     * 是否启用近似重复检测（关闭时每个作品自成一组）
+     */
+    private boolean enabled = true;
+
+    /**
+     * LSH 分段数（每段一张哈希表），签名总位数 = bands * rowsPerBand
+     */
+    private int bands = 20;
+
+    /**
+     * 每段位数（不超过 32），越大候选越少、召回越低
+     */
+    private int rowsPerBand = 24;
+
+    /**
+     * 估计余弦相似度不低于该值时视为同一素材的重复上传
+     */
+    private double similarity = 0.98;
+
+    /**
+     * 随机超平面种子（固定后重启前后签名一致）
+     */
+    private long seed = 20240601L;
+
+    /**
+     * 关键词搜索是否按 duplicateGroup 折叠重复作品
+     * 依赖全部文档已写入 duplicateGroup（缺失该字段的文档会被折叠为同一组），
+     * 上线后先由 vibe-catalog 全量重新同步一次再开启
+     */
+    private boolean collapseKeywordSearch = false;
+}
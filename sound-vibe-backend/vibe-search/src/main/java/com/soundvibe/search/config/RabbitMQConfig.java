@@ -1,14 +1,21 @@
 package com.soundvibe.search.config;
 
 import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueBuilder;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 /**
  * RabbitMQ 配置
- * 声明队列并配置 JSON 消息转换器
+ * 声明队列（作品同步 / 已保存搜索命中通知）并配置 JSON 消息转换器
+ * 作品同步队列使用批量消费的容器工厂，一批消息处理完只使搜索响应缓存失效一次
+ * 作品同步重试队列没有消费者：消息按 expiration 过期后经死信路由回作品同步队列，实现延迟重投
  *
  * @author SoundVibe Team
  */
@@ -20,6 +27,21 @@ public class RabbitMQConfig {
      */
     public static final String TRACK_SYNC_QUEUE = "soundvibe.track.sync.queue";
 
+    /**
+     * 作品同步延迟重试队列名称常量（过期后死信回 TRACK_SYNC_QUEUE）
+     */
+    public static final String TRACK_SYNC_RETRY_QUEUE = "soundvibe.track.sync.retry.queue";
+
+    /**
+     * 已保存搜索命中通知队列名称常量（由通知服务消费）
+     */
+    public static final String SAVED_SEARCH_MATCH_QUEUE = "soundvibe.search.saved-search.match.queue";
+
+    /**
+     * 作品同步批量消费容器工厂 Bean 名称
+     */
+    public static final String TRACK_SYNC_CONTAINER_FACTORY = "trackSyncContainerFactory";
+
     /**
      * 声明作品同步队列
      * durable=true 持久化，服务重启后队列不丢失
@@ -29,6 +51,46 @@ public class RabbitMQConfig {
         return new Queue(TRACK_SYNC_QUEUE, true);
     }
 
+    /**
+     * 声明作品同步延迟重试队列
+     * 死信交换机为默认交换机，路由键为作品同步队列名，过期的消息直接回到作品同步队列
+     */
+    @Bean
+    public Queue trackSyncRetryQueue() {
+        return QueueBuilder.durable(TRACK_SYNC_RETRY_QUEUE)
+                .deadLetterExchange("")
+                .deadLetterRoutingKey(TRACK_SYNC_QUEUE)
+                .build();
+    }
+
+    /**
+     * 声明已保存搜索命中通知队列
+     * 每条消息为一批匹配：{ matchedAt, matches: [{ userId, savedSearchId, savedSearchName, trackId, ... }] }
+     */
+    @Bean
+    public Queue savedSearchMatchQueue() {
+        return new Queue(SAVED_SEARCH_MATCH_QUEUE, true);
+    }
+
+    /**
+     * 作品同步批量消费容器工厂
+     * 沿用 spring.rabbitmq.listener.simple 的通用配置，每次最多取 batchSize 条，凑批最多等待 receiveTimeout
+     */
+    @Bean(TRACK_SYNC_CONTAINER_FACTORY)
+    public SimpleRabbitListenerContainerFactory trackSyncContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer,
+            ConnectionFactory connectionFactory,
+            @Value("${search.sync.batch-size:50}") int batchSize,
+            @Value("${search.sync.batch-receive-timeout-millis:200}") long receiveTimeoutMillis) {
+        var factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(batchSize);
+        factory.setReceiveTimeout(receiveTimeoutMillis);
+        return factory;
+    }
+
     /**
      * JSON 消息转换器
      * 统一使用 Jackson 进行消息的序列化/反序列化
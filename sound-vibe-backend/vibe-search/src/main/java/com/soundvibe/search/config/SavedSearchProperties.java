@@ -0,0 +1,56 @@
+package com.soundvibe.search.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 已保存搜索（新作品提醒）配置属性类
+ * 绑定 application.yml 中 search.saved-search.* 配置项
+ * <p>
+ * 用户保存的搜索条件以 percolator 查询存入独立索引；新作品上架时反向匹配（文档找查询），
+ * 在 windowMillis 内攒批的新作品只发起一次 percolate 请求，命中结果批量推送到通知队列。
+ * 匹配开销与新作品数量成正比，与用户数和轮询频率无关
+ *
+ * @author SoundVibe Team
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "search.saved-search")
+public class SavedSearchProperties {
+
+    /**
+     * 是否启用新作品匹配
+     */
+    private boolean enabled = true;
+
+    /**
+     * percolator 索引名
+     */
+    private String index = "saved_searches";
+
+    /**
+     * 每个用户最多保存的搜索数
+     */
+    private int maxPerUser = 20;
+
+    /**
+     * 新作品攒批窗口（毫秒）
+     */
+    private long windowMillis = 1_000;
+
+    /**
+     * 单次 percolate 最多携带的新作品数
+     */
+    private int maxBatchTracks = 100;
+
+    /**
+     * percolate 结果分页大小（命中的已保存搜索数）
+     */
+    private int pageSize = 500;
+
+    /**
+     * 单条通知消息最多包含的匹配数
+     */
+    private int notifyBatchSize = 200;
+}
@@ -0,0 +1,52 @@
+package com.soundvibe.search.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 搜索响应缓存配置属性类
+ * 绑定 application.yml 中 search.response-cache.* 配置项
+ * <p>
+ * 浏览页的查询（空关键词 + 常见风格/BPM 筛选 + 首页）在大量访客之间完全相同，
+ * 按归一化后的查询条件缓存整页响应；条目与索引代数绑定，作品同步后失效，
+ * 失效后的一段时间内仍先返回旧结果，同时在后台刷新（stale-while-revalidate）
+ *
+ * @author SoundVibe Team
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "search.response-cache")
+public class SearchCacheProperties {
+
+    /**
+     * 是否启用响应缓存
+     */
+    private boolean enabled = true;
+
+    /**
+     * 最多缓存的查询数量（LRU 淘汰）
+     */
+    private int maxEntries = 2_000;
+
+    /**
+     * 只缓存前几页（页码从 0 开始，页码小于该值才缓存）
+     */
+    private int cacheablePages = 3;
+
+    /**
+     * 写入对查询可见的延迟（毫秒），与索引 refresh_interval 一致
+     * 代数递增后该时间内发起的查询可能读不到新写入，其结果不视为最新
+     */
+    private long visibilityDelayMillis = 1_000;
+
+    /**
+     * 条目最长视为最新的时间（毫秒），兜底其他实例消费的同步消息
+     */
+    private long maxAgeMillis = 60_000;
+
+    /**
+     * 条目过期后仍可先返回旧结果、同时后台刷新的窗口（毫秒）
+     */
+    private long staleWhileRevalidateMillis = 30_000;
+}
@@ -0,0 +1,57 @@
+package com.soundvibe.search.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 作品索引配置属性类
+ * 绑定 application.yml 中 search.index.* 配置项
+ * <p>
+ * 物理索引按版本命名（tracks_v1, tracks_v2 ...），业务代码只通过别名访问：
+ * - 读别名：所有查询（search / kNN / 聚合）使用
+ * - 写别名：TrackSyncListener 增量写入使用
+ * 重建索引时新版本在后台构建完成后，原子切换两个别名，对外无感知
+ *
+ * @author SoundVibe Team
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "search.index")
+public class SearchIndexProperties {
+
+    /**
+     * 读别名（与旧版物理索引同名，兼容已有查询）
+     */
+    private String readAlias = "tracks";
+
+    /**
+     * 写别名
+     */
+    private String writeAlias = "tracks_write";
+
+    /**
+     * 物理索引名前缀，完整名称为 {prefix}{version}
+     */
+    private String indexPrefix = "tracks_v";
+
+    /**
+     * 重建时每批 bulk 写入的文档数
+     */
+    private int bulkSize = 500;
+
+    /**
+     * 正常服务时的副本数（重建期间临时置为 0）
+     */
+    private int replicas = 1;
+
+    /**
+     * 正常服务时的刷新间隔（重建期间临时置为 -1 关闭刷新）
+     */
+    private String refreshInterval = "1s";
+
+    /**
+     * 别名切换后是否删除旧版本物理索引
+     */
+    private boolean deleteOldIndex = false;
+}
@@ -0,0 +1,52 @@
+package com.soundvibe.search.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 语义搜索时延预算配置属性类
+ * 绑定 application.yml 中 search.semantic.* 配置项
+ * <p>
+ * 每个请求拥有 budgetMillis 的总预算：文本嵌入最多占用 embedBudgetMillis，
+ * 剩余部分作为 ES kNN 的服务端超时。嵌入无法在预算内拿到（超时、失败或断路器打开）时
+ * 降级为 title/tags 的 BM25 关键词搜索，并在响应中标记 degraded
+ *
+ * @author SoundVibe Team
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "search.semantic")
+public class SemanticSearchProperties {
+
+    /**
+     * 单次语义搜索的总时延预算（毫秒）
+     */
+    private long budgetMillis = 1500;
+
+    /**
+     * 文本嵌入可占用的预算（毫秒）
+     */
+    private long embedBudgetMillis = 1000;
+
+    /**
+     * kNN 至少保留的时间（毫秒），嵌入耗尽预算后仍给 ES 一个最小窗口
+     */
+    private long minSearchMillis = 100;
+
+    /**
+     * 嵌入不可用时是否降级为关键词搜索（关闭时返回空列表）
+     */
+    private boolean keywordFallback = true;
+
+    /**
+     * 是否与文本嵌入并发预取关键词结果（降级时省去一次串行 ES 往返，向量可用时取消）
+     * 取消只断开客户端连接，ES 仍会执行完该查询，开启后正常路径的 ES 查询量翻倍，默认关闭
+     */
+    private boolean prefetchKeyword = false;
+
+    /**
+     * 关键词降级搜索的服务端超时（毫秒）
+     */
+    private long fallbackSearchMillis = 500;
+}
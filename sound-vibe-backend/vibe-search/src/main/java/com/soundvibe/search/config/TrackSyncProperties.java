@@ -0,0 +1,27 @@
+package com.soundvibe.search.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 作品同步配置属性类
+ * 绑定 application.yml 中 search.sync.* 配置项（concurrency / batch-size 由监听器注解与容器工厂直接读取）
+ *
+ * @author SoundVibe Team
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "search.sync")
+public class TrackSyncProperties {
+
+    /**
+     * 状态/价格事件先于创建文档的 UPSERT 到达（文档不存在）时，延迟多久重投（毫秒）
+     */
+    private long notFoundRetryDelayMillis = 5000;
+
+    /**
+     * 文档不存在时的最大重投次数，用尽后丢弃（作品已被删除等情况）
+     */
+    private int notFoundMaxRetries = 5;
+}
@@ -0,0 +1,57 @@
+package com.soundvibe.search.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 进程内向量索引配置属性类
+ * 绑定 application.yml 中 search.vector-index.* 配置项
+ *
+ * @author SoundVibe Team
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "search.vector-index")
+public class VectorIndexProperties {
+
+    /**
+     * 是否启用进程内向量索引（ES 不可用时的语义搜索兜底）
+     */
+    private boolean enabled = true;
+
+    /**
+     * 向量维度（与 CLAP 输出一致）
+     */
+    private int dims = 512;
+
+    /**
+     * 最多容纳的向量数（超出后新向量不再进入内存索引，仅 ES 可查）
+     */
+    private int maxVectors = 1_000_000;
+
+    /**
+     * 启动后是否从 ES 预热全部已上架作品向量
+     */
+    private boolean warmUpOnStartup = true;
+
+    /**
+     * 预热失败（如 ES 不可用）后的首次重试间隔（毫秒），之后每次翻倍
+     */
+    private long warmUpRetryInitialMillis = 5_000;
+
+    /**
+     * 预热重试间隔上限（毫秒）
+     */
+    private long warmUpRetryMaxMillis = 300_000;
+
+    /**
+     * 预热完成后定期全量刷新的间隔（毫秒），补齐增量同步遗漏的向量；0 表示不刷新
+     */
+    private long refreshIntervalMillis = 3_600_000;
+
+    /**
+     * 内存索引就绪后是否作为第一阶段直接返回结果（不再查询 ES kNN）
+     */
+    private boolean serveFirst = false;
+}
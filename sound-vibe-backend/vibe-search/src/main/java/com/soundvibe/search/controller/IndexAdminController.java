@@ -0,0 +1,69 @@
+package com.soundvibe.search.controller;
+
+import com.soundvibe.common.exception.BizException;
+import com.soundvibe.common.result.Result;
+import com.soundvibe.common.result.ResultCode;
+import com.soundvibe.search.infrastructure.TrackIndexManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 索引运维控制器（内部运维接口）
+ * 提供蓝绿重建索引的触发与进度查询
+ * <p>
+ * 接口设计：
+ * - POST /search/internal/index/rebuild  创建新版本索引并在后台全量拷贝，完成后原子切换别名
+ * - GET  /search/internal/index/rebuild  查询最近一次重建的状态
+ * <p>
+ * 仅限内网：网关拒绝 /search/internal/**，只能直连 vibe-search 调用；调用方须以管理员身份（X-User-Role: ADMIN）
+ *
+ * @author SoundVibe Team
+ */
+@Slf4j
+@RestController
+@RequestMapping("/search/internal/index")
+@RequiredArgsConstructor
+public class IndexAdminController {
+
+    private static final String ADMIN_ROLE = "ADMIN";
+
+    private final TrackIndexManager trackIndexManager;
+
+    /**
+     * 触发蓝绿重建
+     * 立即返回，重建在后台进行；重建期间增量同步会双写到新旧两个索引
+     */
+    @PostMapping("/rebuild")
+    public Result<TrackIndexManager.RebuildStatus> rebuild(
+            @RequestHeader(value = "X-User-Id", required = false) Long userId,
+            @RequestHeader(value = "X-User-Role", required = false) String role) {
+
+        checkAdmin(role);
+        log.info("触发作品索引蓝绿重建: userId={}", userId);
+        return Result.success(trackIndexManager.startRebuild());
+    }
+
+    /**
+     * 查询重建进度
+     */
+    @GetMapping("/rebuild")
+    public Result<TrackIndexManager.RebuildStatus> rebuildStatus(
+            @RequestHeader(value = "X-User-Role", required = false) String role) {
+
+        checkAdmin(role);
+        return Result.success(trackIndexManager.getStatus());
+    }
+
+    // ==================== Private ====================
+
+    private void checkAdmin(String role) {
+        if (!ADMIN_ROLE.equals(role)) {
+            throw new BizException(ResultCode.FORBIDDEN, "仅管理员可操作索引");
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.soundvibe.search.controller;
+
+import com.soundvibe.common.exception.BizException;
+import com.soundvibe.common.result.Result;
+import com.soundvibe.common.result.ResultCode;
+import com.soundvibe.search.model.dto.SavedSearchDTO;
+import com.soundvibe.search.model.vo.SavedSearchVO;
+import com.soundvibe.search.service.SavedSearchService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * 已保存搜索控制器
+ * 保存后有新作品上架并匹配时，经通知队列推送提醒
+ * <p>
+ * 需要登录：网关对 /search/saved/** 校验 Token 并注入 X-User-Id
+ *
+ * @author SoundVibe Team
+ */
+@Slf4j
+@RestController
+@RequestMapping("/search/saved")
+@RequiredArgsConstructor
+public class SavedSearchController {
+
+    private final SavedSearchService savedSearchService;
+
+    /**
+     * 保存搜索
+     * POST /search/saved
+     */
+    @PostMapping
+    public Result<SavedSearchVO> create(
+            @RequestBody SavedSearchDTO dto,
+            @RequestHeader(value = "X-User-Id", required = false) Long userId) {
+
+        checkUserId(userId);
+        log.info("保存搜索请求: userId={}, name={}", userId, dto.name());
+        return Result.success(savedSearchService.create(userId, dto));
+    }
+
+    /**
+     * 我的已保存搜索
+     * GET /search/saved
+     */
+    @GetMapping
+    public Result<List<SavedSearchVO>> list(
+            @RequestHeader(value = "X-User-Id", required = false) Long userId) {
+
+        checkUserId(userId);
+        return Result.success(savedSearchService.list(userId));
+    }
+
+    /**
+     * 删除已保存搜索
+     * DELETE /search/saved/{id}
+     */
+    @DeleteMapping("/{id}")
+    public Result<Void> delete(
+            @PathVariable("id") String id,
+            @RequestHeader(value = "X-User-Id", required = false) Long userId) {
+
+        checkUserId(userId);
+        log.info("删除已保存搜索请求: userId={}, searchId={}", userId, id);
+        savedSearchService.delete(userId, id);
+        return Result.success();
+    }
+
+    // ==================== Private ====================
+
+    private void checkUserId(Long userId) {
+        if (userId == null) {
+            throw new BizException(ResultCode.UNAUTHORIZED, "缺少用户身份信息（X-User-Id）");
+        }
+    }
+}
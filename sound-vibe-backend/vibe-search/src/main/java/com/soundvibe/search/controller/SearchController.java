@@ -2,18 +2,30 @@ package com.soundvibe.search.controller;
 
 import com.soundvibe.common.result.Result;
 import com.soundvibe.search.document.TrackDoc;
+import com.soundvibe.search.model.dto.TrackSearchDTO;
+import com.soundvibe.search.model.vo.DuplicateTrackVO;
+import com.soundvibe.search.model.vo.SemanticSearchVO;
+import com.soundvibe.search.model.vo.SuggestionVO;
+import com.soundvibe.search.model.vo.TrackSearchVO;
 import com.soundvibe.search.service.TrackSearchService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * 搜索控制器
@@ -21,7 +33,10 @@ import java.util.Map;
  * <p>
  * 接口设计：
  * - GET /search/tracks?keyword=xxx&genre=Trap&minBpm=120&maxBpm=160&page=0&size=20
+ * - GET /search/tracks?...&facets=true 同一次请求附带调式/风格/BPM/价格/类型分面计数
  * - 所有参数均可选，无条件时返回最新作品列表
+ * - 搜索类接口返回 CompletableFuture（Servlet 异步），等待 ES 期间释放请求线程
+ * - /search/tracks 前几页走响应缓存，返回 ETag，支持 If-None-Match 条件请求
  *
  * @author SoundVibe Team
  */
@@ -33,34 +48,75 @@ public class SearchController {
 
     private final TrackSearchService trackSearchService;
 
+    /**
+     * 响应缓存状态头（HIT / STALE / MISS / BYPASS）
+     */
+    private static final String HEADER_CACHE_STATUS = "X-Cache";
+
     /**
      * 搜索作品
+     * 同一维度可重复传参多选（如 genre=Trap&genre=Drill），维度之间为“与”
      *
      * @param keyword    关键词（匹配标题和标签）
-     * @param genre      音乐风格（精确匹配）
+     * @param genre      音乐风格（精确匹配，可多选）
      * @param minBpm     最小 BPM（范围下界）
      * @param maxBpm     最大 BPM（范围上界）
-     * @param musicalKey 音乐调式（精确匹配，如 "C minor"）
+     * @param musicalKey 音乐调式（精确匹配，如 "C minor"，可多选）
+     * @param trackType  作品类型（SINGLE / PACK，可多选）
+     * @param minPrice   最低价格（含）
+     * @param maxPrice   最高价格（不含）
+     * @param facets     是否同时返回分面计数（一次 ES 请求）
      * @param page       页码（从 0 开始）
      * @param size       每页大小
-     * @return 分页搜索结果
+     * @param ifNoneMatch 客户端缓存的 ETag，与当前结果一致时返回 304
+     * @return 分页搜索结果（附 ETag / X-Cache 响应头）
      */
     @GetMapping("/tracks")
-    public Result<Page<TrackDoc>> search(
+    public CompletableFuture<ResponseEntity<Result<TrackSearchVO>>> search(
             @RequestParam(value = "keyword", required = false) String keyword,
-            @RequestParam(value = "genre", required = false) String genre,
+            @RequestParam(value = "genre", required = false) List<String> genre,
             @RequestParam(value = "minBpm", required = false) Integer minBpm,
             @RequestParam(value = "maxBpm", required = false) Integer maxBpm,
-            @RequestParam(value = "musicalKey", required = false) String musicalKey,
+            @RequestParam(value = "musicalKey", required = false) List<String> musicalKey,
+            @RequestParam(value = "trackType", required = false) List<String> trackType,
+            @RequestParam(value = "minPrice", required = false) BigDecimal minPrice,
+            @RequestParam(value = "maxPrice", required = false) BigDecimal maxPrice,
+            @RequestParam(value = "facets", defaultValue = "false") boolean facets,
             @RequestParam(value = "page", defaultValue = "0") int page,
-            @RequestParam(value = "size", defaultValue = "20") int size) {
+            @RequestParam(value = "size", defaultValue = "20") int size,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+
+        log.info("搜索作品: keyword={}, genre={}, bpm=[{}-{}], musicalKey={}, trackType={}, price=[{}-{}), facets={}, page={}, size={}",
+                keyword, genre, minBpm, maxBpm, musicalKey, trackType, minPrice, maxPrice, facets, page, size);
 
-        log.info("搜索作品: keyword={}, genre={}, bpm=[{}-{}], musicalKey={}, page={}, size={}",
-                keyword, genre, minBpm, maxBpm, musicalKey, page, size);
+        var criteria = new TrackSearchDTO(keyword, genre, musicalKey, trackType, minBpm, maxBpm, minPrice, maxPrice);
+        return trackSearchService.cachedSearch(criteria, PageRequest.of(page, size), facets).thenApply(cached -> {
+            var headers = new HttpHeaders();
+            headers.set(HEADER_CACHE_STATUS, cached.status().name());
+            if (cached.etag() == null) {
+                return ResponseEntity.ok().headers(headers).body(Result.success(cached.body()));
+            }
+            // 浏览器每次携带 If-None-Match 回源校验，内容未变时只返回 304
+            headers.setETag(cached.etag());
+            headers.setCacheControl(CacheControl.noCache());
+            if (cached.etag().equals(ifNoneMatch)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).headers(headers).<Result<TrackSearchVO>>build();
+            }
+            return ResponseEntity.ok().headers(headers).body(Result.success(cached.body()));
+        });
+    }
 
-        var pageable = PageRequest.of(page, size);
-        var result = trackSearchService.search(keyword, minBpm, maxBpm, genre, musicalKey, pageable);
-        return Result.success(result);
+    /**
+     * 搜索联想（输入即搜）
+     * 输入框每次按键调用，匹配标题、发布者用户名和风格标签的前缀
+     *
+     * @param prefix 用户已输入的前缀
+     * @return 至多 10 条联想项
+     */
+    @GetMapping("/suggest")
+    public CompletableFuture<Result<List<SuggestionVO>>> suggest(@RequestParam("prefix") String prefix) {
+        log.debug("搜索联想: prefix='{}'", prefix);
+        return trackSearchService.suggest(prefix).thenApply(Result::success);
     }
 
     /**
@@ -69,31 +125,60 @@ public class SearchController {
      * 选了某个风格 → 只返回拥有该风格的作品中出现的调式
      */
     @GetMapping("/filters")
-    public Result<Map<String, Object>> getFilters(
+    public CompletableFuture<Result<Map<String, Object>>> getFilters(
             @RequestParam(value = "musicalKey", required = false) String musicalKey,
             @RequestParam(value = "genre", required = false) String genre) {
 
         log.info("获取筛选选项: musicalKey={}, genre={}", musicalKey, genre);
-        var filters = trackSearchService.getAvailableFilters(musicalKey, genre);
-        return Result.success(filters);
+        return trackSearchService.getAvailableFilters(musicalKey, genre).thenApply(Result::success);
     }
 
     /**
      * 语义搜索（基于 CLAP 音频向量的 kNN 近邻搜索）
      * 用户输入自然语言描述（如 "dark trap beat with 808"），
      * 系统将文本转换为向量并在 ES 中执行 kNN 搜索，返回音频特征最相似的作品
+     * 分析服务超时或熔断时降级为关键词搜索，响应中 degraded=true
      *
      * @param q 搜索文本（自然语言描述）
-     * @param k 返回结果数量（默认 10）
-     * @return 按相似度排序的作品列表
+     * @param k 返回结果数量（默认 10，1 ~ 100）
+     * @return 按相似度排序的作品列表及降级标记
      */
     @GetMapping("/semantic")
-    public Result<List<TrackDoc>> semanticSearch(
+    public CompletableFuture<Result<SemanticSearchVO>> semanticSearch(
             @RequestParam("q") String q,
             @RequestParam(value = "k", defaultValue = "10") int k) {
 
         log.info("语义搜索: q='{}', k={}", q, k);
-        var results = trackSearchService.semanticSearch(q, k);
-        return Result.success(results);
+        return trackSearchService.semanticSearch(q, k).thenApply(Result::success);
+    }
+
+    /**
+     * 相似作品推荐（"More like this"）
+     * 使用该作品已索引的 CLAP 音频向量做 kNN，不调用模型推理，结果按作品缓存
+     *
+     * @param id 源作品 ID
+     * @param k  返回结果数量（默认 10，1 ~ 100，不含源作品本身）
+     * @return 按相似度排序的作品列表
+     */
+    @GetMapping("/tracks/{id}/similar")
+    public CompletableFuture<Result<List<TrackDoc>>> similar(
+            @PathVariable("id") Long id,
+            @RequestParam(value = "k", defaultValue = "10") int k) {
+
+        log.info("相似作品查询: trackId={}, k={}", id, k);
+        return trackSearchService.findSimilar(id, k).thenApply(Result::success);
+    }
+
+    /**
+     * 近似重复作品（同一素材换标题重新上传）
+     * 基于 CLAP 向量的 LSH 签名比对，不经过 ES kNN
+     *
+     * @param id 作品 ID
+     * @return 按估计相似度降序的已上架重复作品
+     */
+    @GetMapping("/tracks/{id}/duplicates")
+    public CompletableFuture<Result<List<DuplicateTrackVO>>> duplicates(@PathVariable("id") Long id) {
+        log.info("近似重复作品查询: trackId={}", id);
+        return trackSearchService.findDuplicates(id).thenApply(Result::success);
     }
 }
@@ -0,0 +1,35 @@
+package com.soundvibe.search.document;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.elasticsearch.annotations.Field;
+import org.springframework.data.elasticsearch.annotations.FieldType;
+
+/**
+ * 作品内单个文件的 CLAP 向量（TrackDoc.fileVectors 的 nested 元素）
+ * 仅 PACK 作品使用，语义搜索命中任意分轨即可召回整个作品
+ *
+ * @author SoundVibe Team
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class FileVectorDoc {
+
+    /**
+     * 作品文件 ID（track_files.id）
+     */
+    @Field(type = FieldType.Long)
+    private Long fileId;
+
+    /**
+     * CLAP 音频特征向量（512 维，cosine + HNSW）
+     */
+    @Field(type = FieldType.Dense_Vector, dims = 512)
+    private float[] vector;
+}
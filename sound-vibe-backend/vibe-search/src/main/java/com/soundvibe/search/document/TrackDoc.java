@@ -1,29 +1,39 @@
 package com.soundvibe.search.document;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.soundvibe.search.vector.VectorOps;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Transient;
+import org.springframework.data.elasticsearch.annotations.CompletionContext;
+import org.springframework.data.elasticsearch.annotations.CompletionField;
 import org.springframework.data.elasticsearch.annotations.Document;
 import org.springframework.data.elasticsearch.annotations.Field;
 import org.springframework.data.elasticsearch.annotations.FieldType;
+import org.springframework.data.elasticsearch.core.suggest.Completion;
 
 import java.math.BigDecimal;
 import java.util.List;
 
 /**
  * Elasticsearch 作品文档
- * 映射到 ES 索引 "tracks"，用于全文搜索和过滤
+ * 映射到 ES 读别名 "tracks"，用于全文搜索和过滤
+ * 物理索引为 tracks_v{n}，由 TrackIndexManager 创建并管理别名，Spring Data 不自动建索引
  * <p>
  * v2 重构：
  * - bpm/musicalKey/duration 变为数组（支持 PACK 含多个音频场景）
  * - 移除 audioId（PACK 有多个文件，不再使用单一 audioId）
  * - 新增 trackType 区分 SINGLE / PACK
  * - ES 的 TermQuery/RangeQuery 对数组天然支持"any match"语义
+ * - PACK 的每个分轨向量写入 nested fileVectors，任意分轨都可被语义搜索命中
  * <p>
  * 同步来源：vibe-catalog 通过 RabbitMQ 发送聚合后的数组
+ * 版本控制：tracks.sync_version 按字段分组记录——syncVersion 为内容（全量写入）版本，statusVersion / priceVersion
+ * 为状态、价格最近一次生效的版本；每类事件只与自己负责字段的版本比较，先到的新状态不会让后到的旧内容被整体丢弃；
+ * 文档不存在时以 external_gte 写入，由删除留下的版本墓碑拒绝删除前的旧消息
  *
  * @author SoundVibe Team
  */
@@ -32,7 +42,7 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @JsonIgnoreProperties(ignoreUnknown = true)
-@Document(indexName = "tracks")
+@Document(indexName = "tracks", createIndex = false, versionType = Document.VersionType.EXTERNAL_GTE)
 public class TrackDoc {
 
     /**
@@ -119,6 +129,39 @@ public class TrackDoc {
     @Field(type = FieldType.Integer)
     private Integer status;
 
+    /**
+     * 近似重复的原作品 ID（同一素材的重复上传指向最早的作品；非重复作品为 null）
+     * 由 TrackSyncListener 同步时经 NearDuplicateIndex 判定
+     */
+    @Field(type = FieldType.Long)
+    private Long duplicateOf;
+
+    /**
+     * 重复组 ID：重复作品为 duplicateOf，否则为作品自身 ID
+     * 搜索结果按该字段折叠，同一素材只展示一条
+     */
+    @Field(type = FieldType.Long)
+    private Long duplicateGroup;
+
+    /**
+     * 最近一次生效的全量写入（UPSERT）的同步版本号（tracks.sync_version）
+     * 旧格式消息写入时为 null；早期文档的局部更新也推进过该字段
+     */
+    @Field(type = FieldType.Long)
+    private Long syncVersion;
+
+    /**
+     * status 字段最近一次生效的同步版本号（STATUS 事件或带 status 的全量写入）
+     */
+    @Field(type = FieldType.Long)
+    private Long statusVersion;
+
+    /**
+     * price 字段最近一次生效的同步版本号（PRICE 事件或带 price 的全量写入）
+     */
+    @Field(type = FieldType.Long)
+    private Long priceVersion;
+
     /**
      * CLAP 音频特征向量（512 维）
      * 由 vibe-analysis Python 服务生成，用于语义搜索（kNN）
@@ -126,4 +169,39 @@ public class TrackDoc {
      */
     @Field(type = FieldType.Dense_Vector, dims = 512)
     private float[] audioVector;
+
+    /**
+     * PACK 作品的分轨向量（nested，每个元素一个文件）
+     * 写入 fileVectors 的作品不再写 audioVector，每个文档的向量只出现在其中一个字段，
+     * 语义搜索对两个字段各做一次 kNN 合并排序时不会重复计分
+     */
+    @Field(type = FieldType.Nested)
+    private List<FileVectorDoc> fileVectors;
+
+    /**
+     * 语义搜索命中的分轨文件 ID（仅查询结果使用，不写入索引）
+     */
+    @Transient
+    private Long matchedFileId;
+
+    /**
+     * 搜索联想（completion suggester）
+     * 输入项：标题、标题中每个词开头的后缀、发布者用户名、风格标签，由 TrackSyncListener 同步时生成
+     * status 作为 category context（取自 status 字段），查询时只匹配已上架作品，
+     * 因此上下架只需局部更新 status，联想结果随之变化
+     */
+    @CompletionField(analyzer = "standard", searchAnalyzer = "standard", maxInputLength = 100,
+            contexts = @CompletionContext(name = "status", type = CompletionContext.ContextMappingType.CATEGORY, path = "status"))
+    private Completion suggest;
+
+    /**
+     * 作品级代表向量：SINGLE 为 audioVector，PACK 为各分轨向量的质心
+     * 供相似作品推荐与进程内向量索引使用
+     */
+    public float[] trackVector() {
+        if (audioVector != null || fileVectors == null || fileVectors.isEmpty()) {
+            return audioVector;
+        }
+        return VectorOps.centroid(fileVectors.stream().map(FileVectorDoc::getVector).toList());
+    }
 }
@@ -0,0 +1,44 @@
+package com.soundvibe.search.infrastructure;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 索引代数（进程内全局计数器）
+ * 每批对作品索引的写入生效后（TrackSyncListener 处理完一批同步消息、重建后切换别名）递增一次，
+ * 搜索响应缓存以此判断条目是否基于最新的索引内容
+ * <p>
+ * 同步队列为竞争消费：多实例部署时只有消费到消息的实例会递增，其余实例依赖缓存的 maxAge 兜底
+ *
+ * @author SoundVibe Team
+ */
+@Slf4j
+@Component
+public class IndexGeneration {
+
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * 最近一次递增的时间戳（毫秒），用于判断写入是否已经过 refresh 对查询可见
+     */
+    private volatile long lastAdvancedAt = System.currentTimeMillis();
+
+    public long current() {
+        return generation.get();
+    }
+
+    public long lastAdvancedAt() {
+        return lastAdvancedAt;
+    }
+
+    /**
+     * 一批写入生效后调用
+     */
+    public void advance() {
+        lastAdvancedAt = System.currentTimeMillis();
+        long next = generation.incrementAndGet();
+        log.debug("索引代数递增: generation={}", next);
+    }
+}
@@ -0,0 +1,117 @@
+package com.soundvibe.search.infrastructure;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch.core.SearchRequest;
+import co.elastic.clients.elasticsearch.core.SearchResponse;
+import co.elastic.clients.elasticsearch.core.search.Hit;
+import co.elastic.clients.json.JsonpDeserializer;
+import co.elastic.clients.json.JsonpUtils;
+import co.elastic.clients.transport.rest_client.RestClientTransport;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.soundvibe.search.document.TrackDoc;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.elasticsearch.client.Request;
+import org.elasticsearch.client.Response;
+import org.elasticsearch.client.ResponseListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 带 inner_hits 的 nested kNN 搜索
+ * 服务端（ES 8.11+）支持在 nested 向量的 kNN 子句上返回 inner_hits，用于定位命中的分轨；
+ * 当前 Java 客户端（8.10）的 KnnQuery 尚无 inner_hits 属性，因此：
+ * 1. 先用类型化 API 构建 SearchRequest 并序列化为 JSON
+ * 2. 给作用于 nested 字段的 kNN 子句补上 inner_hits（只取最相似的 1 个分轨，不取 _source）
+ * 3. 经底层 RestClient 异步发送，再用客户端自带的反序列化器解析为 SearchResponse
+ *
+ * @author SoundVibe Team
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NestedKnnSearcher {
+
+    private final ElasticsearchClient elasticsearchClient;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * 异步执行搜索（RestClient 非阻塞 I/O，回调在其 I/O 线程上完成）
+     *
+     * @param index      索引或别名
+     * @param request    类型化构建的搜索请求（index 参数以本方法入参为准）
+     * @param nestedPath nested 字段路径（如 "fileVectors"），作用于其子字段的 kNN 子句会附带 inner_hits
+     * @return 搜索响应，命中分轨见 Hit.innerHits().get(nestedPath)；cancel 会中止底层 HTTP 请求
+     */
+    public CompletableFuture<SearchResponse<TrackDoc>> searchAsync(String index, SearchRequest request, String nestedPath) {
+        var jsonpMapper = elasticsearchClient._jsonpMapper();
+        var httpRequest = new Request("POST", "/" + index + "/_search");
+        try {
+            var body = (ObjectNode) objectMapper.readTree(JsonpUtils.toJsonString(request, jsonpMapper));
+            var knn = body.get("knn");
+            if (knn != null) {
+                for (JsonNode clause : knn.isArray() ? knn : List.of(knn)) {
+                    var field = clause.path("field").asText("");
+                    if (field.startsWith(nestedPath + ".")) {
+                        var innerHits = ((ObjectNode) clause).putObject("inner_hits");
+                        innerHits.put("size", 1);
+                        innerHits.put("_source", false);
+                    }
+                }
+            }
+            httpRequest.setJsonEntity(objectMapper.writeValueAsString(body));
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        var future = new CompletableFuture<SearchResponse<TrackDoc>>();
+        var restClient = ((RestClientTransport) elasticsearchClient._transport()).restClient();
+        var cancellable = restClient.performRequestAsync(httpRequest, new ResponseListener() {
+            @Override
+            public void onSuccess(Response httpResponse) {
+                try (var content = httpResponse.getEntity().getContent();
+                     var parser = jsonpMapper.jsonProvider().createParser(content)) {
+                    future.complete(SearchResponse.createSearchResponseDeserializer(JsonpDeserializer.<TrackDoc>of(TrackDoc.class))
+                            .deserialize(parser, jsonpMapper));
+                } catch (Exception e) {
+                    future.completeExceptionally(e);
+                }
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                future.completeExceptionally(e);
+            }
+        });
+        future.whenComplete((response, e) -> {
+            if (future.isCancelled()) {
+                cancellable.cancel();
+            }
+        });
+        return future;
+    }
+
+    /**
+     * 从 inner_hits 的 nested offset 取命中分轨的文件 ID
+     * 要求 _source 中保留了 nestedPath 数组（可排除向量子字段），offset 与数组下标一致
+     *
+     * @return 文件 ID；非 nested 命中时返回 null
+     */
+    public static Long matchedFileId(Hit<TrackDoc> hit, String nestedPath) {
+        var doc = hit.source();
+        var inner = hit.innerHits().get(nestedPath);
+        if (doc == null || doc.getFileVectors() == null || inner == null || inner.hits().hits().isEmpty()) {
+            return null;
+        }
+        var nested = inner.hits().hits().get(0).nested();
+        if (nested == null || nested.offset() >= doc.getFileVectors().size()) {
+            return null;
+        }
+        return doc.getFileVectors().get(nested.offset()).getFileId();
+    }
+}
@@ -0,0 +1,80 @@
+package com.soundvibe.search.infrastructure;
+
+import com.soundvibe.search.config.SavedSearchProperties;
+import com.soundvibe.search.document.TrackDoc;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 已保存搜索的 percolator 索引
+ * <p>
+ * percolator 查询在写入时按索引 mapping 解析，被匹配的文档也按同一 mapping 分析，
+ * 因此 mapping 由 TrackDoc 生成（去掉向量与联想字段），再加上已保存搜索自身的字段：
+ * - searchId / userId / name / createdAt：元数据
+ * - criteria：原始搜索条件（不建索引，只用于回显）
+ * - query：percolator 查询
+ * <p>
+ * TrackDoc 新增可筛选字段后需重建本索引（删除后重启服务，已保存搜索需从备份回灌）
+ *
+ * @author SoundVibe Team
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SavedSearchIndex {
+
+    public static final String FIELD_SEARCH_ID = "searchId";
+    public static final String FIELD_USER_ID = "userId";
+    public static final String FIELD_NAME = "name";
+    public static final String FIELD_CRITERIA = "criteria";
+    public static final String FIELD_CREATED_AT = "createdAt";
+    public static final String FIELD_QUERY = "query";
+
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final SavedSearchProperties properties;
+
+    /**
+     * 服务启动时创建索引
+     * ES 不可用时仅记录日志，不阻止服务启动
+     */
+    @PostConstruct
+    public void init() {
+        try {
+            var indexOps = elasticsearchOperations.indexOps(IndexCoordinates.of(properties.getIndex()));
+            if (indexOps.exists()) {
+                return;
+            }
+            var mapping = elasticsearchOperations.indexOps(TrackDoc.class).createMapping();
+            @SuppressWarnings("unchecked")
+            var trackProperties = (Map<String, Object>) mapping.get("properties");
+            trackProperties.remove("audioVector");
+            trackProperties.remove("fileVectors");
+            trackProperties.remove("suggest");
+
+            trackProperties.put(FIELD_SEARCH_ID, Map.of("type", "keyword"));
+            trackProperties.put(FIELD_USER_ID, Map.of("type", "long"));
+            trackProperties.put(FIELD_NAME, Map.of("type", "keyword", "index", false));
+            trackProperties.put(FIELD_CRITERIA, Map.of("type", "object", "enabled", false));
+            trackProperties.put(FIELD_CREATED_AT, Map.of("type", "date", "format", "epoch_millis"));
+            trackProperties.put(FIELD_QUERY, Map.of("type", "percolator"));
+
+            Map<String, Object> settings = new LinkedHashMap<>();
+            settings.put("index.number_of_shards", 1);
+            indexOps.create(settings, mapping);
+            log.info("已保存搜索 percolator 索引创建成功: {}", properties.getIndex());
+        } catch (Exception e) {
+            log.warn("已保存搜索索引初始化失败（ES 可能未就绪）: {}", e.getMessage());
+        }
+    }
+
+    public String name() {
+        return properties.getIndex();
+    }
+}
@@ -0,0 +1,223 @@
+package com.soundvibe.search.infrastructure;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.FieldValue;
+import co.elastic.clients.elasticsearch._types.SortOrder;
+import co.elastic.clients.json.JsonData;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.soundvibe.search.config.RabbitMQConfig;
+import com.soundvibe.search.config.SavedSearchProperties;
+import com.soundvibe.search.document.TrackDoc;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 新作品 → 已保存搜索 反向匹配
+ * <p>
+ * 工作方式：
+ * 1. TrackSyncListener 在作品首次发布写入生效后提交作品，立即返回（重新上架不提交，不重复提醒）
+ * 2. 匹配线程取到第一件后最多再等 windowMillis，或攒满 maxBatchTracks 立即匹配
+ * 3. 一批作品以 documents 数组放入同一个 percolate 请求，命中的已保存搜索通过
+ *    _percolator_document_slot 对应回作品；命中数多时按 searchId 用 search_after 翻页
+ * 4. 匹配结果按 notifyBatchSize 拼成批量消息推送到通知队列（不通知作者本人）
+ *
+ * @author SoundVibe Team
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SavedSearchMatcher {
+
+    private static final String SLOT_FIELD = "_percolator_document_slot";
+
+    /**
+     * 待匹配队列容量，超出时丢弃并记录日志（匹配为尽力而为的提醒）
+     */
+    private static final int QUEUE_CAPACITY = 10_000;
+
+    private final ElasticsearchClient elasticsearchClient;
+    private final SavedSearchIndex savedSearchIndex;
+    private final SavedSearchProperties properties;
+    private final RabbitTemplate rabbitTemplate;
+
+    private final BlockingQueue<TrackDoc> pending = new LinkedBlockingQueue<>(QUEUE_CAPACITY);
+
+    private Thread worker;
+
+    @PostConstruct
+    public void start() {
+        if (!properties.isEnabled()) {
+            log.info("已保存搜索匹配已关闭");
+            return;
+        }
+        worker = new Thread(this::matchLoop, "saved-search-matcher");
+        worker.setDaemon(true);
+        worker.start();
+        log.info("已保存搜索匹配已启动: window={}ms, maxBatchTracks={}",
+                properties.getWindowMillis(), properties.getMaxBatchTracks());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+
+    /**
+     * 提交一件首次发布的作品
+     */
+    public void submit(TrackDoc trackDoc) {
+        if (!properties.isEnabled() || trackDoc == null || trackDoc.getId() == null) {
+            return;
+        }
+        if (!pending.offer(trackDoc)) {
+            log.warn("已保存搜索匹配队列已满，跳过: trackId={}", trackDoc.getId());
+        }
+    }
+
+    private void matchLoop() {
+        long windowNanos = TimeUnit.MILLISECONDS.toNanos(properties.getWindowMillis());
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                List<TrackDoc> batch = new ArrayList<>(properties.getMaxBatchTracks());
+                batch.add(pending.take());
+
+                long deadline = System.nanoTime() + windowNanos;
+                while (batch.size() < properties.getMaxBatchTracks()) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        break;
+                    }
+                    var next = pending.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                match(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                log.error("已保存搜索匹配失败: error={}", e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * 一次 percolate（分页）匹配一批作品，并批量推送通知
+     */
+    private void match(List<TrackDoc> tracks) throws IOException {
+        var documents = tracks.stream().map(this::percolateDocument).toList();
+        List<Map<String, Object>> matches = new ArrayList<>();
+        int total = 0;
+        List<FieldValue> searchAfter = null;
+
+        while (true) {
+            var after = searchAfter;
+            var response = elasticsearchClient.search(s -> {
+                s.index(savedSearchIndex.name())
+                        .query(q -> q.percolate(p -> p
+                                .field(SavedSearchIndex.FIELD_QUERY)
+                                .documents(documents)))
+                        .source(src -> src.filter(f -> f.includes(
+                                SavedSearchIndex.FIELD_SEARCH_ID, SavedSearchIndex.FIELD_USER_ID, SavedSearchIndex.FIELD_NAME)))
+                        .sort(so -> so.field(fs -> fs.field(SavedSearchIndex.FIELD_SEARCH_ID).order(SortOrder.Asc)))
+                        .size(properties.getPageSize());
+                if (after != null) {
+                    s.searchAfter(after);
+                }
+                return s;
+            }, ObjectNode.class);
+
+            var hits = response.hits().hits();
+            for (var hit : hits) {
+                var source = hit.source();
+                if (source == null) {
+                    continue;
+                }
+                long userId = source.path(SavedSearchIndex.FIELD_USER_ID).asLong();
+                for (int slot : slots(hit.fields().get(SLOT_FIELD))) {
+                    var track = tracks.get(slot);
+                    if (Objects.equals(track.getProducerId(), userId)) {
+                        continue;
+                    }
+                    Map<String, Object> match = new LinkedHashMap<>();
+                    match.put("userId", userId);
+                    match.put("savedSearchId", source.path(SavedSearchIndex.FIELD_SEARCH_ID).asText());
+                    match.put("savedSearchName", source.path(SavedSearchIndex.FIELD_NAME).asText());
+                    match.put("trackId", track.getId());
+                    match.put("title", track.getTitle());
+                    match.put("producerName", track.getProducerName());
+                    match.put("coverId", track.getCoverId());
+                    matches.add(match);
+                    if (matches.size() >= properties.getNotifyBatchSize()) {
+                        total += publish(matches);
+                        matches = new ArrayList<>();
+                    }
+                }
+            }
+            if (hits.size() < properties.getPageSize()) {
+                break;
+            }
+            searchAfter = hits.get(hits.size() - 1).sort();
+        }
+        if (!matches.isEmpty()) {
+            total += publish(matches);
+        }
+        log.info("已保存搜索匹配完成: tracks={}, 推送匹配 {} 条", tracks.size(), total);
+    }
+
+    /**
+     * 被匹配的作品文档：只含可筛选字段（percolator 不需要向量）
+     */
+    private JsonData percolateDocument(TrackDoc track) {
+        Map<String, Object> document = new HashMap<>();
+        document.put("title", track.getTitle());
+        document.put("tags", track.getTags());
+        document.put("trackType", track.getTrackType());
+        document.put("producerId", track.getProducerId());
+        document.put("producerName", track.getProducerName());
+        document.put("bpmValues", track.getBpmValues());
+        document.put("musicalKeys", track.getMusicalKeys());
+        document.put("genres", track.getGenres());
+        document.put("durations", track.getDurations());
+        document.put("price", track.getPrice());
+        document.put("status", track.getStatus());
+        document.values().removeIf(Objects::isNull);
+        return JsonData.of(document);
+    }
+
+    /**
+     * 命中的文档下标；只有一个文档时 ES 可能不返回该字段
+     */
+    private List<Integer> slots(JsonData slotField) {
+        if (slotField == null) {
+            return List.of(0);
+        }
+        var array = slotField.toJson().asJsonArray();
+        List<Integer> slots = new ArrayList<>(array.size());
+        for (int i = 0; i < array.size(); i++) {
+            slots.add(array.getJsonNumber(i).intValue());
+        }
+        return slots;
+    }
+
+    private int publish(List<Map<String, Object>> matches) {
+        Map<String, Object> message = new LinkedHashMap<>();
+        message.put("matchedAt", System.currentTimeMillis());
+        message.put("matches", matches);
+        rabbitTemplate.convertAndSend(RabbitMQConfig.SAVED_SEARCH_MATCH_QUEUE, message);
+        return matches.size();
+    }
+}
@@ -0,0 +1,183 @@
+package com.soundvibe.search.infrastructure;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.soundvibe.search.config.SearchCacheProperties;
+import com.soundvibe.search.model.vo.TrackSearchVO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * 搜索响应缓存（进程内 LRU，按索引代数失效，stale-while-revalidate）
+ * <p>
+ * 条目状态：
+ * - 最新：缓存时的代数等于当前代数，查询发起于最近一次写入可见之后，且未超过 maxAge
+ * - 过期但可用：刚过期（maxAge 或代数变化后 staleWhileRevalidate 窗口内），直接返回旧结果并在后台刷新一次；
+ *   无论是否持续有写入，条目年龄超过 maxAge + staleWhileRevalidate 后都不再返回
+ * - 不可用：同步加载
+ * <p>
+ * 同一个 key 同一时刻只有一个加载/刷新请求在途，并发未命中共享其结果，流量突增时不会击穿到 ES
+ * ETag 为响应内容摘要：后台刷新得到相同内容时 ETag 不变，客户端的条件请求仍可命中 304
+ *
+ * @author SoundVibe Team
+ */
+@Slf4j
+@Component
+public class SearchResponseCache {
+
+    private final SearchCacheProperties properties;
+    private final IndexGeneration indexGeneration;
+    private final ObjectMapper objectMapper;
+
+    private final Map<String, Entry> cache;
+
+    /**
+     * 在途的加载/刷新请求
+     */
+    private final Map<String, CompletableFuture<Entry>> inFlight = new ConcurrentHashMap<>();
+
+    public SearchResponseCache(SearchCacheProperties properties, IndexGeneration indexGeneration, ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.indexGeneration = indexGeneration;
+        this.objectMapper = objectMapper;
+        int maxEntries = properties.getMaxEntries();
+        this.cache = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * 读取缓存，未命中时经 loader 加载
+     *
+     * @param key    归一化后的查询条件
+     * @param loader 实际执行搜索
+     * @return 响应、ETag 及缓存状态
+     */
+    public CompletableFuture<CachedResponse> get(String key, Supplier<CompletableFuture<TrackSearchVO>> loader) {
+        long now = System.currentTimeMillis();
+        Entry entry;
+        synchronized (cache) {
+            entry = cache.get(key);
+        }
+        if (entry != null) {
+            if (isFresh(entry, now)) {
+                return CompletableFuture.completedFuture(entry.toResponse(CacheStatus.HIT));
+            }
+            if (isServableStale(entry, now)) {
+                load(key, loader).exceptionally(e -> {
+                    log.warn("搜索响应后台刷新失败: key={}, error={}", key, e.getMessage());
+                    return null;
+                });
+                return CompletableFuture.completedFuture(entry.toResponse(CacheStatus.STALE));
+            }
+        }
+        return load(key, loader).thenApply(loaded -> loaded.toResponse(CacheStatus.MISS));
+    }
+
+    private boolean isFresh(Entry entry, long now) {
+        return entry.generation() == indexGeneration.current()
+                && entry.startedAt() >= indexGeneration.lastAdvancedAt() + properties.getVisibilityDelayMillis()
+                && now - entry.startedAt() < properties.getMaxAgeMillis();
+    }
+
+    /**
+     * 过期条目只在自身年龄不超过 maxAge + staleWhileRevalidate 时返回，持续写入也不会让旧条目无限期被复用
+     * 在此期限内：仅因 maxAge 过期的条目可直接返回；因写入失效的条目只在写入后的短暂窗口内返回
+     */
+    private boolean isServableStale(Entry entry, long now) {
+        long swr = properties.getStaleWhileRevalidateMillis();
+        if (now - entry.startedAt() >= properties.getMaxAgeMillis() + swr) {
+            return false;
+        }
+        boolean invalidatedByWrite = entry.generation() != indexGeneration.current()
+                || entry.startedAt() < indexGeneration.lastAdvancedAt() + properties.getVisibilityDelayMillis();
+        return !invalidatedByWrite
+                || now - indexGeneration.lastAdvancedAt() < properties.getVisibilityDelayMillis() + swr;
+    }
+
+    /**
+     * 单飞加载：同一 key 已有在途请求时复用
+     * 代数在查询发起前读取，查询期间发生的写入会使新条目立即过期
+     */
+    private CompletableFuture<Entry> load(String key, Supplier<CompletableFuture<TrackSearchVO>> loader) {
+        var promise = new CompletableFuture<Entry>();
+        var existing = inFlight.putIfAbsent(key, promise);
+        if (existing != null) {
+            return existing;
+        }
+        long generation = indexGeneration.current();
+        long startedAt = System.currentTimeMillis();
+        CompletableFuture<TrackSearchVO> request;
+        try {
+            request = loader.get();
+        } catch (RuntimeException e) {
+            // loader 同步抛出时也要结束 promise 并移出在途表，否则该 key 的后续请求会一直等待
+            inFlight.remove(key, promise);
+            promise.completeExceptionally(e);
+            return promise;
+        }
+        request.whenComplete((result, e) -> {
+            inFlight.remove(key, promise);
+            if (e != null) {
+                promise.completeExceptionally(e);
+                return;
+            }
+            var entry = new Entry(result, etag(result), generation, startedAt);
+            synchronized (cache) {
+                var current = cache.get(key);
+                // 并发刷新时保留较新的查询结果
+                if (current == null || current.startedAt() <= startedAt) {
+                    cache.put(key, entry);
+                }
+            }
+            promise.complete(entry);
+        });
+        return promise;
+    }
+
+    /**
+     * 弱 ETag：响应 JSON 的 SHA-256 前 8 字节
+     */
+    private String etag(TrackSearchVO result) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(result));
+            return "W/\"" + HexFormat.of().formatHex(Arrays.copyOf(digest, 8)) + "\"";
+        } catch (Exception e) {
+            log.warn("计算搜索响应 ETag 失败: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 缓存状态（写入响应头 X-Cache，便于观察命中率）
+     */
+    public enum CacheStatus {
+        HIT, STALE, MISS, BYPASS
+    }
+
+    /**
+     * @param body   搜索响应
+     * @param etag   响应内容摘要（未缓存的请求为 null）
+     * @param status 缓存状态
+     */
+    public record CachedResponse(TrackSearchVO body, String etag, CacheStatus status) {
+    }
+
+    private record Entry(TrackSearchVO body, String etag, long generation, long startedAt) {
+
+        CachedResponse toResponse(CacheStatus status) {
+            return new CachedResponse(body, etag, status);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.soundvibe.search.infrastructure;
+
+import com.soundvibe.search.document.TrackDoc;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 相似作品结果缓存（进程内 LRU）
+ * 以源作品 ID 为 key 缓存 kNN 结果，源作品下一次同步（TrackSyncListener）时失效
+ * <p>
+ * 同一作品不同 k 的请求共用一个条目：缓存的 k 足够大时直接截取前 k 条
+ *
+ * @author SoundVibe Team
+ */
+@Slf4j
+@Component
+public class SimilarTrackCache {
+
+    /**
+     * 最多缓存的源作品数量
+     */
+    private static final int MAX_ENTRIES = 10_000;
+
+    private final Map<Long, Entry> cache = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    /**
+     * 读取缓存
+     *
+     * @return 命中时返回前 k 条结果，未命中或缓存的 k 不足时返回 null
+     */
+    public synchronized List<TrackDoc> get(Long trackId, int k) {
+        var entry = cache.get(trackId);
+        if (entry == null) {
+            return null;
+        }
+        // 缓存条目本身已少于当时请求的 k，说明候选已全部取尽，也可直接复用
+        if (entry.k() >= k || entry.results().size() < entry.k()) {
+            return entry.results().subList(0, Math.min(k, entry.results().size()));
+        }
+        return null;
+    }
+
+    public synchronized void put(Long trackId, int k, List<TrackDoc> results) {
+        cache.put(trackId, new Entry(k, List.copyOf(results)));
+    }
+
+    /**
+     * 作品同步/删除后使其相似结果失效
+     */
+    public synchronized void evict(Long trackId) {
+        if (trackId != null && cache.remove(trackId) != null) {
+            log.debug("相似作品缓存失效: trackId={}", trackId);
+        }
+    }
+
+    private record Entry(int k, List<TrackDoc> results) {
+    }
+}
@@ -0,0 +1,62 @@
+package com.soundvibe.search.infrastructure;
+
+import com.soundvibe.search.model.vo.SuggestionVO;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 搜索联想前缀缓存（进程内 LRU + TTL）
+ * 输入框逐字触发的请求集中在少量热门前缀上，命中时无需访问 ES
+ * <p>
+ * 不做主动失效：作品同步后最多 TTL 时间内联想结果未更新，对联想场景可接受
+ *
+ * @author SoundVibe Team
+ */
+@Component
+public class SuggestionCache {
+
+    /**
+     * 最多缓存的前缀数量
+     */
+    private static final int MAX_ENTRIES = 5_000;
+
+    /**
+     * 缓存有效期（毫秒）
+     */
+    private static final long TTL_MILLIS = 60_000;
+
+    private final Map<String, Entry> cache = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    /**
+     * 读取缓存
+     *
+     * @param prefix 已归一化的前缀
+     * @return 命中且未过期时返回联想列表，否则返回 null
+     */
+    public synchronized List<SuggestionVO> get(String prefix) {
+        var entry = cache.get(prefix);
+        if (entry == null) {
+            return null;
+        }
+        if (System.currentTimeMillis() - entry.cachedAt() > TTL_MILLIS) {
+            cache.remove(prefix);
+            return null;
+        }
+        return entry.suggestions();
+    }
+
+    public synchronized void put(String prefix, List<SuggestionVO> suggestions) {
+        cache.put(prefix, new Entry(List.copyOf(suggestions), System.currentTimeMillis()));
+    }
+
+    private record Entry(List<SuggestionVO> suggestions, long cachedAt) {
+    }
+}
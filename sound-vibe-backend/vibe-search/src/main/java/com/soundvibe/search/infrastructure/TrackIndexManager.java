@@ -0,0 +1,796 @@
+package com.soundvibe.search.infrastructure;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.ElasticsearchException;
+import co.elastic.clients.elasticsearch._types.Result;
+import co.elastic.clients.elasticsearch._types.Script;
+import co.elastic.clients.elasticsearch._types.SortOrder;
+import co.elastic.clients.elasticsearch._types.VersionType;
+import co.elastic.clients.elasticsearch.core.GetResponse;
+import co.elastic.clients.elasticsearch.core.UpdateResponse;
+import co.elastic.clients.elasticsearch.core.bulk.BulkOperation;
+import co.elastic.clients.elasticsearch.core.search.Hit;
+import co.elastic.clients.json.JsonData;
+import com.soundvibe.common.exception.BizException;
+import com.soundvibe.common.result.ResultCode;
+import com.soundvibe.search.config.SearchIndexProperties;
+import com.soundvibe.search.document.TrackDoc;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.IndexQuery;
+import org.springframework.data.elasticsearch.core.query.IndexQueryBuilder;
+import org.springframework.data.elasticsearch.core.query.SeqNoPrimaryTerm;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 作品索引管理器（蓝绿重建）
+ * 封装物理索引版本、读写别名和增量写入，业务代码不直接感知物理索引名
+ * <p>
+ * 职责:
+ * 1. 启动时确保读/写别名存在（兼容旧版名为 tracks 的物理索引）
+ * 2. 增量写入/删除统一走写别名；重建期间同时双写到新索引
+ * 3. 重建：创建 tracks_v{n+1}（副本 0、关闭刷新）→ scroll + bulk 全量拷贝
+ *    → 恢复副本与刷新 → 原子切换读写别名
+ * <p>
+ * 增量写入按字段分组做版本校验：全量写入与 syncVersion（内容版本）比较，状态/价格更新与各自的 statusVersion / priceVersion 比较
+ * <p>
+ * 全量拷贝以文档内最大的同步版本号作为外部版本号（version_type=external）：重建期间双写进来的新数据优先，快照中的旧版本直接跳过
+ *
+ * @author SoundVibe Team
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TrackIndexManager {
+
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final ElasticsearchClient elasticsearchClient;
+    private final SearchIndexProperties indexProperties;
+    private final IndexGeneration indexGeneration;
+
+    /**
+     * scroll 上下文保活时间
+     */
+    private static final String SCROLL_KEEP_ALIVE = "2m";
+
+    /**
+     * 条件写入（if_seq_no）遇到并发冲突时的最大尝试次数
+     */
+    private static final int CONDITIONAL_WRITE_ATTEMPTS = 5;
+
+    private static final String SYNC_VERSION_FIELD = "syncVersion";
+
+    /**
+     * 局部更新使用的字段版本号（与 TrackDoc 字段一致）
+     */
+    public static final String STATUS_VERSION_FIELD = "statusVersion";
+    public static final String PRICE_VERSION_FIELD = "priceVersion";
+
+    private static final String PAINLESS = "painless";
+
+    /**
+     * 版本化局部更新：消息版本高于文档内该字段的版本号（params.field）才合并字段并推进该版本号，否则 noop
+     * 早期文档没有字段版本号时以 syncVersion 为准，两者都没有时直接应用
+     */
+    private static final String VERSIONED_UPDATE_SCRIPT =
+            "def current = ctx._source[params.field];"
+                    + " if (current == null) { current = ctx._source.syncVersion; }"
+                    + " if (current == null || params.v > current) {"
+                    + " for (entry in params.doc.entrySet()) { ctx._source[entry.getKey()] = entry.getValue(); }"
+                    + " ctx._source[params.field] = params.v;"
+                    + " } else { ctx.op = 'noop'; }";
+
+    /**
+     * 重建任务执行线程（同一时刻只允许一个重建任务）
+     */
+    private final ExecutorService rebuildExecutor = Executors.newSingleThreadExecutor(r -> {
+        var thread = new Thread(r, "track-index-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final AtomicBoolean rebuilding = new AtomicBoolean(false);
+
+    /**
+     * 正在构建中的新索引（非 null 时增量写入需要双写）
+     */
+    private volatile String buildingIndex;
+
+    /**
+     * 重建期间被删除的作品 ID → 删除事件的同步版本号，拷贝完成后在新索引上以 external_gte 重放删除
+     * 删除后又被重新写入的作品在写入时移出；旧格式消息没有版本号，记为 {@link #UNVERSIONED}
+     */
+    private final Map<Long, Long> deletedDuringRebuild = new ConcurrentHashMap<>();
+
+    private static final long UNVERSIONED = -1L;
+
+    private volatile RebuildStatus lastStatus = RebuildStatus.idle();
+
+    /**
+     * 服务启动时初始化别名
+     * ES 不可用时仅记录日志，不阻止服务启动
+     */
+    @PostConstruct
+    public void initAliases() {
+        var readAlias = indexProperties.getReadAlias();
+        var writeAlias = indexProperties.getWriteAlias();
+        try {
+            if (aliasExists(readAlias)) {
+                if (!aliasExists(writeAlias)) {
+                    var current = resolveSingleIndex(readAlias);
+                    elasticsearchClient.indices().updateAliases(u -> u
+                            .actions(a -> a.add(ad -> ad.index(current).alias(writeAlias))));
+                    log.info("补齐写别名: {} -> {}", writeAlias, current);
+                }
+                var current = resolveSingleIndex(readAlias);
+                syncMapping(current);
+                log.info("作品索引别名已就绪: {} -> {}", readAlias, current);
+                return;
+            }
+
+            if (indexExists(readAlias)) {
+                // 旧版物理索引 tracks：只挂写别名，读取仍按原名命中，首次重建时替换为别名
+                if (!aliasExists(writeAlias)) {
+                    elasticsearchClient.indices().updateAliases(u -> u
+                            .actions(a -> a.add(ad -> ad.index(readAlias).alias(writeAlias))));
+                }
+                syncMapping(readAlias);
+                log.warn("检测到旧版物理索引 [{}]，已挂载写别名 [{}]，建议执行一次索引重建迁移到版本化索引",
+                        readAlias, writeAlias);
+                return;
+            }
+
+            var firstIndex = indexProperties.getIndexPrefix() + 1;
+            createVersionedIndex(firstIndex, false);
+            elasticsearchClient.indices().updateAliases(u -> u
+                    .actions(a -> a.add(ad -> ad.index(firstIndex).alias(readAlias)))
+                    .actions(a -> a.add(ad -> ad.index(firstIndex).alias(writeAlias).isWriteIndex(true))));
+            log.info("作品索引初始化完成: {} (read={}, write={})", firstIndex, readAlias, writeAlias);
+        } catch (Exception e) {
+            log.error("作品索引别名初始化失败: error={}", e.getMessage(), e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuildExecutor.shutdownNow();
+    }
+
+    // ======================== 增量写入 ========================
+
+    /**
+     * 写入（upsert）单个作品文档
+     * 携带同步版本号时以文档内的 syncVersion（内容版本）判定先后：
+     * - 文档已存在：版本低于 syncVersion 的消息直接丢弃（同版本的全量重发照常覆盖），以 if_seq_no 条件写入；
+     *   status / price 已被更新版本的 STATUS / PRICE 事件改过时保留索引中的值，只覆盖内容字段
+     * - 文档不存在：以 external_gte 外部版本写入，删除留下的版本墓碑会拒绝删除之前的旧消息
+     * 读取与写入之间有并发写入时（409）重新读取判定
+     * 重建期间同时写入新索引，保证切换别名后不丢增量
+     * <p>
+     * 写入生效后 trackDoc 即为索引中的最终内容（含保留的 status / price），调用方可直接用于进程内索引
+     *
+     * @param trackDoc 作品文档
+     * @param version  同步版本号（旧格式消息为 null，此时不做版本校验）
+     * @return 写入结果
+     */
+    public WriteResult index(TrackDoc trackDoc, Long version) throws IOException {
+        var status = trackDoc.getStatus();
+        var price = trackDoc.getPrice();
+        var coordinates = IndexCoordinates.of(indexProperties.getWriteAlias());
+        if (version == null) {
+            setVersions(trackDoc, null);
+            elasticsearchOperations.index(buildIndexQuery(trackDoc, null), coordinates);
+        } else {
+            var applied = false;
+            for (int attempt = 1; !applied; attempt++) {
+                // 重试时按最新读取的文档重新合并
+                trackDoc.setStatus(status);
+                trackDoc.setPrice(price);
+                setVersions(trackDoc, version);
+                var current = getSyncState(trackDoc.getId());
+                IndexQuery query;
+                if (current.found()) {
+                    var state = current.source();
+                    var currentVersion = state != null ? state.getSyncVersion() : null;
+                    if (currentVersion != null && currentVersion > version) {
+                        return WriteResult.STALE;
+                    }
+                    keepNewerFields(trackDoc, state, version);
+                    query = new IndexQueryBuilder()
+                            .withId(String.valueOf(trackDoc.getId()))
+                            .withObject(trackDoc)
+                            .withSeqNoPrimaryTerm(new SeqNoPrimaryTerm(current.seqNo(), current.primaryTerm()))
+                            .build();
+                } else {
+                    query = buildIndexQuery(trackDoc, version);
+                }
+                try {
+                    elasticsearchOperations.index(query, coordinates);
+                    applied = true;
+                } catch (OptimisticLockingFailureException e) {
+                    // 文档不存在时冲突来自删除墓碑（旧消息）或并发创建，重新读取即可区分
+                    if (attempt >= CONDITIONAL_WRITE_ATTEMPTS) {
+                        throw e;
+                    }
+                }
+            }
+        }
+
+        var target = buildingIndex;
+        if (target != null) {
+            deletedDuringRebuild.remove(trackDoc.getId());
+            try {
+                elasticsearchOperations.index(buildIndexQuery(trackDoc, latestVersion(trackDoc)),
+                        IndexCoordinates.of(target));
+            } catch (OptimisticLockingFailureException ignored) {
+                // 新索引中已有更新的版本
+            } catch (Exception e) {
+                log.warn("重建期间双写失败: trackId={}, index={}, error={}",
+                        trackDoc.getId(), target, e.getMessage());
+            }
+        }
+        return WriteResult.APPLIED;
+    }
+
+    /**
+     * 按 ID 读取完整文档（走写别名，实时读取）
+     */
+    public TrackDoc get(Long trackId) {
+        return elasticsearchOperations.get(String.valueOf(trackId), TrackDoc.class,
+                IndexCoordinates.of(indexProperties.getWriteAlias()));
+    }
+
+    /**
+     * 局部更新单个作品文档（_update + painless 脚本）
+     * 只传输变化的字段（如 status / price），避免重发整篇文档与 512 维向量
+     * <p>
+     * 先后顺序由脚本在 ES 端判定：params.v 大于文档内该字段的版本号（versionField）才合并字段并推进该版本号，
+     * 否则置为 noop（视为过期消息）。只与同一字段的版本比较，其它字段的更新或内容写入先到不影响判定
+     * 更新以读取到的 if_seq_no 为条件，读取后有并发写入时（409）重新读取并重试
+     * <p>
+     * 重建期间把更新后的完整文档写入新索引，防止全量拷贝用快照中的旧版本覆盖
+     *
+     * @param trackId      作品 ID
+     * @param partialDoc   需要更新的字段
+     * @param versionField 这些字段的版本号字段（{@link #STATUS_VERSION_FIELD} / {@link #PRICE_VERSION_FIELD}）
+     * @param version      同步版本号（旧格式消息为 null，此时直接合并字段）
+     * @return 写入结果；文档尚未写入时为 NOT_FOUND，调用方应稍后重试
+     */
+    public WriteResult update(Long trackId, Map<String, Object> partialDoc, String versionField, Long version)
+            throws IOException {
+        var id = String.valueOf(trackId);
+        var writeAlias = indexProperties.getWriteAlias();
+
+        for (int attempt = 1; ; attempt++) {
+            var meta = elasticsearchClient.get(g -> g
+                            .index(writeAlias)
+                            .id(id)
+                            .source(src -> src.fetch(false)),
+                    TrackDoc.class);
+            if (!meta.found()) {
+                return WriteResult.NOT_FOUND;
+            }
+
+            UpdateResponse<TrackDoc> response;
+            try {
+                response = elasticsearchClient.update(u -> {
+                    u.index(writeAlias)
+                            .id(id)
+                            .ifSeqNo(meta.seqNo())
+                            .ifPrimaryTerm(meta.primaryTerm());
+                    return version == null
+                            ? u.doc(partialDoc)
+                            : u.script(versionedUpdateScript(partialDoc, versionField, version));
+                }, TrackDoc.class);
+            } catch (ElasticsearchException e) {
+                if (e.status() == 404) {
+                    return WriteResult.NOT_FOUND;
+                }
+                // 读取元数据后有并发写入，按最新的 seq_no 重试
+                if (e.status() == 409 && attempt < CONDITIONAL_WRITE_ATTEMPTS) {
+                    continue;
+                }
+                throw e;
+            }
+
+            if (version != null && response.result() == Result.NoOp) {
+                return WriteResult.STALE;
+            }
+            copyToBuildingIndex(trackId);
+            return WriteResult.APPLIED;
+        }
+    }
+
+    /**
+     * 删除单个作品文档
+     * 文档内任一同步版本号高于删除事件版本时说明删除已过期；否则以 external_gte 删除，留下的版本墓碑拒绝后到的旧消息
+     *
+     * @param version 同步版本号（为 null 时不做版本校验）
+     */
+    public void delete(Long trackId, Long version) throws IOException {
+        var id = String.valueOf(trackId);
+        if (version == null) {
+            elasticsearchOperations.delete(id, IndexCoordinates.of(indexProperties.getWriteAlias()));
+        } else {
+            var current = getSyncState(trackId);
+            var currentVersion = current.found() && current.source() != null ? latestVersion(current.source()) : null;
+            if (currentVersion != null && currentVersion > version) {
+                log.debug("删除事件已过期: trackId={}, version={}, current={}", trackId, version, currentVersion);
+                return;
+            }
+            try {
+                elasticsearchClient.delete(d -> d
+                        .index(indexProperties.getWriteAlias())
+                        .id(id)
+                        .version(version)
+                        .versionType(VersionType.ExternalGte));
+            } catch (ElasticsearchException e) {
+                if (e.status() != 409) {
+                    throw e;
+                }
+                log.debug("删除事件已过期: trackId={}, version={}", trackId, version);
+                return;
+            }
+        }
+
+        var target = buildingIndex;
+        if (target != null) {
+            deletedDuringRebuild.put(trackId, version != null ? version : UNVERSIONED);
+            try {
+                elasticsearchOperations.delete(id, IndexCoordinates.of(target));
+            } catch (Exception e) {
+                log.warn("重建期间双删失败: trackId={}, index={}, error={}", trackId, target, e.getMessage());
+            }
+        }
+    }
+
+    private IndexQuery buildIndexQuery(TrackDoc trackDoc, Long version) {
+        var builder = new IndexQueryBuilder()
+                .withId(String.valueOf(trackDoc.getId()))
+                .withObject(trackDoc);
+        if (version != null) {
+            // 版本类型由 TrackDoc 的 @Document(versionType = EXTERNAL_GTE) 决定
+            builder.withVersion(version);
+        }
+        return builder.build();
+    }
+
+    /**
+     * 新索引统一以文档内最大的同步版本号作为外部版本号，与双写的全量文档可比较；旧文档没有版本号时沿用 _version
+     * 每次生效的写入都会推进其中一个版本号，因此该值随写入单调递增
+     */
+    private static Long copyVersion(TrackDoc source, Long esVersion) {
+        var latest = latestVersion(source);
+        return latest != null ? latest : esVersion;
+    }
+
+    private static Long latestVersion(TrackDoc doc) {
+        Long latest = null;
+        for (Long version : new Long[]{doc.getSyncVersion(), doc.getStatusVersion(), doc.getPriceVersion()}) {
+            if (version != null && (latest == null || version > latest)) {
+                latest = version;
+            }
+        }
+        return latest;
+    }
+
+    private static void setVersions(TrackDoc trackDoc, Long version) {
+        trackDoc.setSyncVersion(version);
+        trackDoc.setStatusVersion(version);
+        trackDoc.setPriceVersion(version);
+    }
+
+    /**
+     * 全量写入时保留索引中由更新版本的 STATUS / PRICE 事件写入的 status / price
+     */
+    private static void keepNewerFields(TrackDoc trackDoc, TrackDoc current, long version) {
+        if (current == null) {
+            return;
+        }
+        if (current.getStatusVersion() != null && current.getStatusVersion() > version) {
+            trackDoc.setStatus(current.getStatus());
+            trackDoc.setStatusVersion(current.getStatusVersion());
+        }
+        if (current.getPriceVersion() != null && current.getPriceVersion() > version) {
+            trackDoc.setPrice(current.getPrice());
+            trackDoc.setPriceVersion(current.getPriceVersion());
+        }
+    }
+
+    /**
+     * 只读取 seq_no / primary_term、各同步版本号与 status / price 字段（不取向量）
+     */
+    private GetResponse<TrackDoc> getSyncState(Long trackId) throws IOException {
+        return elasticsearchClient.get(g -> g
+                        .index(indexProperties.getWriteAlias())
+                        .id(String.valueOf(trackId))
+                        .sourceIncludes(SYNC_VERSION_FIELD, STATUS_VERSION_FIELD, PRICE_VERSION_FIELD, "status", "price"),
+                TrackDoc.class);
+    }
+
+    private static Script versionedUpdateScript(Map<String, Object> partialDoc, String versionField, long version) {
+        return Script.of(s -> s.inline(i -> i
+                .lang(PAINLESS)
+                .source(VERSIONED_UPDATE_SCRIPT)
+                .params("doc", JsonData.of(partialDoc))
+                .params("field", JsonData.of(versionField))
+                .params("v", JsonData.of(version))));
+    }
+
+    /**
+     * 重建期间把写别名上的最新完整文档（含版本号）复制到新索引
+     */
+    private void copyToBuildingIndex(Long trackId) {
+        var target = buildingIndex;
+        if (target == null) {
+            return;
+        }
+        try {
+            var current = elasticsearchClient.get(g -> g
+                            .index(indexProperties.getWriteAlias())
+                            .id(String.valueOf(trackId)),
+                    TrackDoc.class);
+            if (current.found() && current.source() != null) {
+                deletedDuringRebuild.remove(trackId);
+                elasticsearchOperations.index(buildIndexQuery(current.source(),
+                                copyVersion(current.source(), current.version())),
+                        IndexCoordinates.of(target));
+            }
+        } catch (OptimisticLockingFailureException ignored) {
+            // 新索引中已有更新的版本
+        } catch (Exception e) {
+            log.warn("重建期间双写局部更新失败: trackId={}, index={}, error={}", trackId, target, e.getMessage());
+        }
+    }
+
+    // ======================== 蓝绿重建 ========================
+
+    /**
+     * 启动一次后台重建
+     * 立即创建新版本物理索引并开始双写，全量拷贝与别名切换在后台线程完成
+     *
+     * @return 重建任务的初始状态
+     */
+    public RebuildStatus startRebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            throw new BizException(ResultCode.BIZ_ERROR, "索引重建正在进行中: " + buildingIndex);
+        }
+
+        String sourceIndex;
+        String targetIndex;
+        try {
+            sourceIndex = resolveSingleIndex(indexProperties.getReadAlias());
+            targetIndex = indexProperties.getIndexPrefix() + nextVersion();
+            createVersionedIndex(targetIndex, true);
+        } catch (Exception e) {
+            rebuilding.set(false);
+            log.error("创建新版本索引失败: error={}", e.getMessage(), e);
+            throw new BizException(ResultCode.SYSTEM_ERROR, "创建新版本索引失败: " + e.getMessage());
+        }
+
+        deletedDuringRebuild.clear();
+        buildingIndex = targetIndex;
+        lastStatus = RebuildStatus.running(sourceIndex, targetIndex);
+        log.info("索引重建开始: {} -> {}", sourceIndex, targetIndex);
+
+        rebuildExecutor.submit(() -> runRebuild(sourceIndex, targetIndex));
+        return lastStatus;
+    }
+
+    /**
+     * 查询最近一次重建的状态
+     */
+    public RebuildStatus getStatus() {
+        return lastStatus;
+    }
+
+    private void runRebuild(String sourceIndex, String targetIndex) {
+        var startedAt = lastStatus.startedAt();
+        try {
+            long[] counters = copyDocuments(sourceIndex, targetIndex);
+
+            // 重放重建期间的删除，避免被快照中的旧文档“复活”
+            for (var entry : deletedDuringRebuild.entrySet()) {
+                replayDelete(targetIndex, entry.getKey(), entry.getValue());
+            }
+
+            restoreServingSettings(targetIndex);
+            swapAliases(sourceIndex, targetIndex);
+
+            lastStatus = new RebuildStatus("COMPLETED", sourceIndex, targetIndex,
+                    counters[0], counters[1], null, startedAt, new Date());
+            log.info("索引重建完成: {} -> {}, copied={}, skipped={}",
+                    sourceIndex, targetIndex, counters[0], counters[1]);
+
+            if (indexProperties.isDeleteOldIndex() && !sourceIndex.equals(indexProperties.getReadAlias())) {
+                elasticsearchClient.indices().delete(d -> d.index(sourceIndex));
+                log.info("旧版本索引已删除: {}", sourceIndex);
+            }
+        } catch (Exception e) {
+            lastStatus = new RebuildStatus("FAILED", sourceIndex, targetIndex,
+                    0, 0, e.getMessage(), startedAt, new Date());
+            log.error("索引重建失败（别名未切换，线上不受影响）: {} -> {}, error={}",
+                    sourceIndex, targetIndex, e.getMessage(), e);
+        } finally {
+            buildingIndex = null;
+            deletedDuringRebuild.clear();
+            rebuilding.set(false);
+        }
+    }
+
+    /**
+     * 在新索引上重放删除：带版本的删除以 external_gte 执行，新索引中已有更新版本（删除后重新写入）时 409 跳过
+     */
+    private void replayDelete(String targetIndex, Long trackId, long version) throws IOException {
+        var id = String.valueOf(trackId);
+        if (version == UNVERSIONED) {
+            elasticsearchOperations.delete(id, IndexCoordinates.of(targetIndex));
+            return;
+        }
+        try {
+            elasticsearchClient.delete(d -> d
+                    .index(targetIndex)
+                    .id(id)
+                    .version(version)
+                    .versionType(VersionType.ExternalGte));
+        } catch (ElasticsearchException e) {
+            if (e.status() != 409) {
+                throw e;
+            }
+            log.debug("重放删除跳过（新索引中已有更新版本）: trackId={}, version={}", trackId, version);
+        }
+    }
+
+    /**
+     * scroll 读取旧索引，按原版本号以 external 方式 bulk 写入新索引
+     *
+     * @return [成功写入数, 因已存在（双写更新）而跳过数]
+     */
+    private long[] copyDocuments(String sourceIndex, String targetIndex) throws IOException {
+        long copied = 0;
+        long skipped = 0;
+
+        var response = elasticsearchClient.search(s -> s
+                        .index(sourceIndex)
+                        .version(true)
+                        .size(indexProperties.getBulkSize())
+                        .scroll(t -> t.time(SCROLL_KEEP_ALIVE))
+                        .sort(so -> so.doc(d -> d.order(SortOrder.Asc))),
+                TrackDoc.class);
+        var scrollId = response.scrollId();
+        var hits = response.hits().hits();
+
+        try {
+            while (hits != null && !hits.isEmpty()) {
+                long[] batch = bulkCreate(targetIndex, hits);
+                copied += batch[0];
+                skipped += batch[1];
+                lastStatus = lastStatus.withProgress(copied, skipped);
+
+                final var currentScrollId = scrollId;
+                var next = elasticsearchClient.scroll(s -> s
+                                .scrollId(currentScrollId)
+                                .scroll(t -> t.time(SCROLL_KEEP_ALIVE)),
+                        TrackDoc.class);
+                scrollId = next.scrollId();
+                hits = next.hits().hits();
+            }
+        } finally {
+            if (scrollId != null) {
+                final var finalScrollId = scrollId;
+                try {
+                    elasticsearchClient.clearScroll(c -> c.scrollId(finalScrollId));
+                } catch (Exception e) {
+                    log.debug("清理 scroll 上下文失败: {}", e.getMessage());
+                }
+            }
+        }
+        return new long[]{copied, skipped};
+    }
+
+    private long[] bulkCreate(String targetIndex, List<Hit<TrackDoc>> hits) throws IOException {
+        List<BulkOperation> operations = new ArrayList<>(hits.size());
+        for (Hit<TrackDoc> hit : hits) {
+            if (hit.source() == null) continue;
+            // 保留原文档版本号；新索引中已有双写进来的同版本或更新版本时返回 409
+            var version = copyVersion(hit.source(), hit.version());
+            operations.add(BulkOperation.of(op -> op.index(c -> c
+                    .index(targetIndex)
+                    .id(hit.id())
+                    .version(version)
+                    .versionType(VersionType.External)
+                    .document(hit.source()))));
+        }
+        if (operations.isEmpty()) {
+            return new long[]{0, 0};
+        }
+
+        var bulkResponse = elasticsearchClient.bulk(b -> b.operations(operations));
+        long copied = 0;
+        long skipped = 0;
+        for (var item : bulkResponse.items()) {
+            if (item.error() == null) {
+                copied++;
+            } else if (item.status() == 409) {
+                skipped++;
+            } else {
+                throw new IllegalStateException("bulk 写入失败: id=" + item.id() + ", reason=" + item.error().reason());
+            }
+        }
+        return new long[]{copied, skipped};
+    }
+
+    /**
+     * 恢复线上服务配置（副本数 + 刷新间隔）并立即刷新
+     */
+    private void restoreServingSettings(String index) throws IOException {
+        elasticsearchClient.indices().putSettings(p -> p
+                .index(index)
+                .settings(s -> s
+                        .numberOfReplicas(String.valueOf(indexProperties.getReplicas()))
+                        .refreshInterval(t -> t.time(indexProperties.getRefreshInterval()))));
+        elasticsearchClient.indices().refresh(r -> r.index(index));
+    }
+
+    /**
+     * 原子切换读写别名
+     * 源为旧版物理索引 tracks 时，使用 remove_index 在同一请求内删除它并把同名别名挂到新索引
+     */
+    private void swapAliases(String sourceIndex, String targetIndex) throws IOException {
+        var readAlias = indexProperties.getReadAlias();
+        var writeAlias = indexProperties.getWriteAlias();
+        boolean legacySource = sourceIndex.equals(readAlias);
+
+        elasticsearchClient.indices().updateAliases(u -> {
+            u.actions(a -> a.add(ad -> ad.index(targetIndex).alias(readAlias)));
+            u.actions(a -> a.add(ad -> ad.index(targetIndex).alias(writeAlias).isWriteIndex(true)));
+            if (legacySource) {
+                u.actions(a -> a.removeIndex(ri -> ri.index(sourceIndex)));
+            } else {
+                u.actions(a -> a.remove(r -> r.index(sourceIndex).alias(readAlias)));
+                u.actions(a -> a.remove(r -> r.index(sourceIndex).alias(writeAlias)));
+            }
+            return u;
+        });
+        indexGeneration.advance();
+        log.info("别名切换完成: {} / {} -> {}", readAlias, writeAlias, targetIndex);
+    }
+
+    // ======================== 索引工具方法 ========================
+
+    /**
+     * 按 TrackDoc 注解生成 mapping 创建物理索引
+     *
+     * @param bulkLoading true 时以副本 0、关闭刷新的方式创建，用于批量灌数
+     */
+    private void createVersionedIndex(String indexName, boolean bulkLoading) {
+        var mapping = elasticsearchOperations.indexOps(TrackDoc.class).createMapping();
+        Map<String, Object> settings = new LinkedHashMap<>();
+        if (bulkLoading) {
+            settings.put("index.number_of_replicas", 0);
+            settings.put("index.refresh_interval", "-1");
+        } else {
+            settings.put("index.number_of_replicas", indexProperties.getReplicas());
+            settings.put("index.refresh_interval", indexProperties.getRefreshInterval());
+        }
+        elasticsearchOperations.indexOps(IndexCoordinates.of(indexName)).create(settings, mapping);
+        log.info("物理索引创建成功: {}, bulkLoading={}", indexName, bulkLoading);
+    }
+
+    /**
+     * 将 TrackDoc 中新增的字段（如 suggest）追加到已有索引的 mapping
+     * ES 只允许新增字段；已有字段类型冲突时仅告警，需通过索引重建迁移
+     */
+    private void syncMapping(String indexName) {
+        try {
+            var mapping = elasticsearchOperations.indexOps(TrackDoc.class).createMapping();
+            elasticsearchOperations.indexOps(IndexCoordinates.of(indexName)).putMapping(mapping);
+        } catch (Exception e) {
+            log.warn("索引 mapping 无法原地更新，请执行索引重建: index={}, error={}", indexName, e.getMessage());
+        }
+    }
+
+    /**
+     * 计算下一个版本号（已有 tracks_v3 → 4；仅有旧版索引 → 1）
+     */
+    private int nextVersion() throws IOException {
+        var prefix = indexProperties.getIndexPrefix();
+        var existing = elasticsearchClient.indices()
+                .get(g -> g.index(prefix + "*").allowNoIndices(true).ignoreUnavailable(true))
+                .result().keySet();
+
+        int max = 0;
+        for (String name : existing) {
+            try {
+                max = Math.max(max, Integer.parseInt(name.substring(prefix.length())));
+            } catch (NumberFormatException ignored) {
+                // 非本规则命名的索引，忽略
+            }
+        }
+        return max + 1;
+    }
+
+    /**
+     * 解析别名（或旧版物理索引名）当前指向的唯一物理索引
+     */
+    private String resolveSingleIndex(String aliasOrIndex) throws IOException {
+        if (!aliasExists(aliasOrIndex)) {
+            if (indexExists(aliasOrIndex)) {
+                return aliasOrIndex;
+            }
+            throw new IllegalStateException("索引或别名不存在: " + aliasOrIndex);
+        }
+        var indices = elasticsearchClient.indices().getAlias(g -> g.name(aliasOrIndex)).result().keySet();
+        if (indices.size() != 1) {
+            throw new IllegalStateException("别名 " + aliasOrIndex + " 应指向唯一索引，实际: " + indices);
+        }
+        return indices.iterator().next();
+    }
+
+    private boolean aliasExists(String alias) throws IOException {
+        return elasticsearchClient.indices().existsAlias(e -> e.name(alias)).value();
+    }
+
+    private boolean indexExists(String index) throws IOException {
+        return elasticsearchClient.indices().exists(e -> e.index(index)).value();
+    }
+
+    /**
+     * 增量写入结果
+     */
+    public enum WriteResult {
+        /**
+         * 已写入
+         */
+        APPLIED,
+        /**
+         * 消息版本不高于索引中的版本，已丢弃
+         */
+        STALE,
+        /**
+         * 文档不存在（局部更新时，创建它的全量写入尚未到达）
+         */
+        NOT_FOUND
+    }
+
+    /**
+     * 索引重建状态（不可变 Record）
+     *
+     * @param state       IDLE / RUNNING / COMPLETED / FAILED
+     * @param sourceIndex 重建前读别名指向的物理索引
+     * @param targetIndex 新版本物理索引
+     * @param copied      已拷贝文档数
+     * @param skipped     因双写已存在而跳过的文档数
+     * @param error       失败原因
+     * @param startedAt   开始时间
+     * @param finishedAt  结束时间
+     */
+    public record RebuildStatus(String state, String sourceIndex, String targetIndex,
+                                long copied, long skipped, String error,
+                                Date startedAt, Date finishedAt) {
+
+        static RebuildStatus idle() {
+            return new RebuildStatus("IDLE", null, null, 0, 0, null, null, null);
+        }
+
+        static RebuildStatus running(String sourceIndex, String targetIndex) {
+            return new RebuildStatus("RUNNING", sourceIndex, targetIndex, 0, 0, null, new Date(), null);
+        }
+
+        RebuildStatus withProgress(long copied, long skipped) {
+            return new RebuildStatus(state, sourceIndex, targetIndex, copied, skipped, error, startedAt, finishedAt);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.soundvibe.search.infrastructure;
+
+import cn.hutool.core.util.StrUtil;
+import co.elastic.clients.elasticsearch._types.FieldValue;
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import co.elastic.clients.json.JsonData;
+import com.soundvibe.search.model.dto.TrackSearchDTO;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 作品搜索条件 → ES 查询
+ * 搜索接口（/search/tracks）与已保存搜索（percolator）共用，保证“保存的搜索”与“当下搜一次”命中一致
+ *
+ * @author SoundVibe Team
+ */
+public final class TrackQueryBuilder {
+
+    /**
+     * 筛选维度名（亦为分面聚合名）
+     */
+    public static final String DIM_KEYS = "musicalKeys";
+    public static final String DIM_GENRES = "genres";
+    public static final String DIM_TRACK_TYPES = "trackTypes";
+    public static final String DIM_BPM = "bpm";
+    public static final String DIM_PRICE = "priceRanges";
+
+    private TrackQueryBuilder() {
+    }
+
+    /**
+     * 关键词匹配 title / tags
+     */
+    public static Query keywordQuery(String keyword) {
+        return Query.of(q -> q.multiMatch(mm -> mm
+                .fields("title", "tags")
+                .query(keyword)));
+    }
+
+    /**
+     * 各维度上的筛选条件（同维度多选为 terms“或”，维度之间为“与”）
+     */
+    public static Map<String, Query> dimensionFilters(TrackSearchDTO criteria) {
+        Map<String, Query> filters = new LinkedHashMap<>();
+        if (!criteria.musicalKeys().isEmpty()) {
+            filters.put(DIM_KEYS, termsQuery("musicalKeys", criteria.musicalKeys()));
+        }
+        if (!criteria.genres().isEmpty()) {
+            filters.put(DIM_GENRES, termsQuery("genres", criteria.genres()));
+        }
+        if (!criteria.trackTypes().isEmpty()) {
+            filters.put(DIM_TRACK_TYPES, termsQuery("trackType", criteria.trackTypes()));
+        }
+        if (criteria.minBpm() != null || criteria.maxBpm() != null) {
+            filters.put(DIM_BPM, Query.of(q -> q.range(r -> {
+                var rangeQuery = r.field("bpmValues");
+                if (criteria.minBpm() != null) {
+                    rangeQuery.gte(JsonData.of(criteria.minBpm()));
+                }
+                if (criteria.maxBpm() != null) {
+                    rangeQuery.lte(JsonData.of(criteria.maxBpm()));
+                }
+                return rangeQuery;
+            })));
+        }
+        if (criteria.minPrice() != null || criteria.maxPrice() != null) {
+            filters.put(DIM_PRICE, Query.of(q -> q.range(r -> {
+                var rangeQuery = r.field("price");
+                if (criteria.minPrice() != null) {
+                    rangeQuery.gte(JsonData.of(criteria.minPrice()));
+                }
+                if (criteria.maxPrice() != null) {
+                    rangeQuery.lt(JsonData.of(criteria.maxPrice()));
+                }
+                return rangeQuery;
+            })));
+        }
+        return filters;
+    }
+
+    /**
+     * 关键词 + 全部维度条件合成的单个查询（不含上架状态过滤）
+     */
+    public static Query matchQuery(TrackSearchDTO criteria) {
+        List<Query> filters = new ArrayList<>(dimensionFilters(criteria).values());
+        if (StrUtil.isBlank(criteria.keyword())) {
+            return filters.isEmpty()
+                    ? Query.of(q -> q.matchAll(m -> m))
+                    : Query.of(q -> q.bool(b -> b.filter(filters)));
+        }
+        return Query.of(q -> q.bool(b -> b
+                .must(keywordQuery(criteria.keyword()))
+                .filter(filters)));
+    }
+
+    private static Query termsQuery(String field, List<String> values) {
+        var fieldValues = values.stream().map(FieldValue::of).toList();
+        return Query.of(q -> q.terms(t -> t.field(field).terms(tv -> tv.value(fieldValues))));
+    }
+}
@@ -1,13 +1,27 @@
 package com.soundvibe.search.listener;
 
+import com.soundvibe.search.config.FileVectorProperties;
 import com.soundvibe.search.config.RabbitMQConfig;
+import com.soundvibe.search.config.TrackSyncProperties;
+import com.soundvibe.search.document.FileVectorDoc;
 import com.soundvibe.search.document.TrackDoc;
-import com.soundvibe.search.repository.TrackDocRepository;
+import com.soundvibe.search.infrastructure.IndexGeneration;
+import com.soundvibe.search.infrastructure.SavedSearchMatcher;
+import com.soundvibe.search.infrastructure.SimilarTrackCache;
+import com.soundvibe.search.infrastructure.TrackIndexManager;
+import com.soundvibe.search.infrastructure.TrackIndexManager.WriteResult;
+import com.soundvibe.search.vector.InMemoryVectorIndex;
+import com.soundvibe.search.vector.NearDuplicateIndex;
+import com.soundvibe.search.vector.VectorOps;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.data.elasticsearch.core.suggest.Completion;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -19,7 +33,18 @@ import java.util.stream.Collectors;
  * v2 重构：
  * - 支持数组字段：bpmValues, musicalKeys, durations
  * - 消息格式由 vibe-catalog 的 TrackServiceImpl.sendTrackSyncMessage 定义
- * - 同步策略：全量覆盖（save = upsert），保证最终一致性
+ * - PACK 的分轨向量写入 nested fileVectors（去重 + 截断），SINGLE 只写 audioVector
+ * - 同步策略：内容变化全量覆盖（save = upsert）；状态/价格变化走 _update 局部更新，不重发向量
+ * - 写入经 TrackIndexManager 走写别名，索引重建期间自动双写
+ * - 消息携带 version（tracks.sync_version），按字段分组与文档内的版本号比较后丢弃乱序的旧消息：
+ *   UPSERT 比较内容版本 syncVersion（保留更新版本写入的 status / price），STATUS / PRICE 只比较各自字段的版本
+ * - STATUS / PRICE 先于创建文档的 UPSERT 到达时经重试队列延迟重投，有限次数后丢弃；
+ *   以上两点保证多个消费者并发、乱序消费时不丢更新
+ * - 批量消费：一批消息中有写入生效时递增一次索引代数，搜索响应缓存随之失效
+ * - 作品首次发布（UPSERT 带 newRelease 标记）时提交给 SavedSearchMatcher，反向匹配用户的已保存搜索；
+ *   下架后重新上架不再提交，已收到过提醒的用户不会重复收到
+ * - 写入前经 NearDuplicateIndex 判定近似重复，写入 duplicateOf / duplicateGroup；
+ *   音频分析完成（asset.analysis.completed）后 vibe-catalog 重发的 UPSERT 首次带上向量，重复上传在此被标记
  *
  * @author SoundVibe Team
  */
@@ -28,25 +53,206 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class TrackSyncListener {
 
-    private final TrackDocRepository trackDocRepository;
+    private static final int STATUS_PUBLISHED = 1;
+
+    private static final String TRACK_TYPE_PACK = "PACK";
+
+    /**
+     * 同步事件类型（与 vibe-catalog 的 TrackSyncEventType 一致）
+     */
+    private static final String EVENT_UPSERT = "UPSERT";
+    private static final String EVENT_STATUS = "STATUS";
+    private static final String EVENT_PRICE = "PRICE";
+    private static final String EVENT_DELETE = "DELETE";
+
+    /**
+     * 标题按词拆出的后缀联想项上限（"dark trap beat" → "trap beat", "beat"）
+     */
+    private static final int MAX_TITLE_SUFFIXES = 5;
+
+    private static final String METRIC_NEAR_DUPLICATES = "search.near_duplicates.detected";
+
+    /**
+     * 重投消息中记录已重试次数的字段
+     */
+    private static final String RETRY_COUNT_FIELD = "syncRetries";
+
+    private final TrackIndexManager trackIndexManager;
+    private final SimilarTrackCache similarTrackCache;
+    private final IndexGeneration indexGeneration;
+    private final SavedSearchMatcher savedSearchMatcher;
+    private final InMemoryVectorIndex inMemoryVectorIndex;
+    private final NearDuplicateIndex nearDuplicateIndex;
+    private final FileVectorProperties fileVectorProperties;
+    private final MeterRegistry meterRegistry;
+    private final TrackSyncProperties trackSyncProperties;
+    private final RabbitTemplate rabbitTemplate;
 
     /**
-     * 监听作品同步队列
-     * 接收 Track 同步消息 → 转换为 TrackDoc → 写入 ES
+     * 批量监听作品同步队列
+     * 逐条按 eventType 分发：UPSERT 全量写入；STATUS / PRICE 局部更新；DELETE 删除
+     * 未携带 eventType 的旧格式消息按 UPSERT 处理；单条失败只记录日志，不影响同批其余消息
+     * 整批中有写入生效时只递增一次索引代数，搜索响应缓存按批失效
      *
-     * @param message 作品同步消息（Jackson 反序列化为 Map）
+     * @param messages 作品同步消息（Jackson 反序列化为 Map）
      */
-    @RabbitListener(queues = RabbitMQConfig.TRACK_SYNC_QUEUE)
-    public void onTrackSync(Map<String, Object> message) {
-        try {
-            var trackDoc = convertToTrackDoc(message);
-            trackDocRepository.save(trackDoc);
-            log.info("ES 索引同步成功: trackId={}, title={}, bpmValues={}, musicalKeys={}",
-                    trackDoc.getId(), trackDoc.getTitle(),
-                    trackDoc.getBpmValues(), trackDoc.getMusicalKeys());
-        } catch (Exception e) {
-            log.error("作品索引同步失败: message={}, error={}", message, e.getMessage(), e);
+    @RabbitListener(queues = RabbitMQConfig.TRACK_SYNC_QUEUE,
+            containerFactory = RabbitMQConfig.TRACK_SYNC_CONTAINER_FACTORY,
+            concurrency = "${search.sync.concurrency:1}")
+    public void onTrackSync(List<Map<String, Object>> messages) {
+        boolean changed = false;
+        for (var message : messages) {
+            try {
+                var eventType = String.valueOf(message.getOrDefault("eventType", EVENT_UPSERT));
+                changed |= switch (eventType) {
+                    case EVENT_STATUS -> applyStatusChange(message);
+                    case EVENT_PRICE -> applyPriceChange(message);
+                    case EVENT_DELETE -> applyDelete(message);
+                    default -> applyUpsert(message);
+                };
+            } catch (Exception e) {
+                log.error("作品索引同步失败: message={}, error={}", message, e.getMessage(), e);
+            }
+        }
+        if (changed) {
+            indexGeneration.advance();
+        }
+    }
+
+    // ======================== 事件处理 ========================
+
+    /**
+     * 全量写入：转换为 TrackDoc → 写入 ES
+     *
+     * @return 写入是否生效
+     */
+    private boolean applyUpsert(Map<String, Object> message) throws IOException {
+        var trackDoc = convertToTrackDoc(message);
+        markDuplicates(trackDoc);
+        var version = toLong(message.get("version"));
+        if (trackIndexManager.index(trackDoc, version) == WriteResult.STALE) {
+            log.info("同步消息已过期，忽略: trackId={}, version={}", trackDoc.getId(), version);
+            return false;
+        }
+        // 作品向量/状态可能变化，使其相似作品缓存失效
+        similarTrackCache.evict(trackDoc.getId());
+        // 同步进程内向量索引（下架/无向量时会被移出）
+        inMemoryVectorIndex.upsert(trackDoc);
+        nearDuplicateIndex.upsert(trackDoc.getId(), trackDoc.trackVector(), trackDoc.getDuplicateGroup());
+        // 首次发布：匹配已保存搜索（内容编辑、分析回写等重发的 UPSERT 不带该标记）
+        if (Boolean.TRUE.equals(message.get("newRelease")) && Objects.equals(trackDoc.getStatus(), STATUS_PUBLISHED)) {
+            savedSearchMatcher.submit(trackDoc);
         }
+        log.info("ES 索引同步成功: trackId={}, title={}, bpmValues={}, musicalKeys={}",
+                trackDoc.getId(), trackDoc.getTitle(),
+                trackDoc.getBpmValues(), trackDoc.getMusicalKeys());
+        return true;
+    }
+
+    /**
+     * 上下架：只更新 status 字段（联想的 status context 随之生效）
+     *
+     * @return 写入是否生效
+     */
+    private boolean applyStatusChange(Map<String, Object> message) throws IOException {
+        var trackId = toLong(message.get("id"));
+        var status = toInteger(message.get("status"));
+        if (trackId == null || status == null) {
+            log.warn("状态变更事件缺少字段，忽略: message={}", message);
+            return false;
+        }
+        var version = toLong(message.get("version"));
+        var result = trackIndexManager.update(trackId, Map.of("status", status),
+                TrackIndexManager.STATUS_VERSION_FIELD, version);
+        if (result == WriteResult.NOT_FOUND) {
+            retryLater(message, trackId);
+            return false;
+        }
+        if (result == WriteResult.STALE) {
+            log.info("状态变更消息已过期，忽略: trackId={}, version={}", trackId, version);
+            return false;
+        }
+        similarTrackCache.evict(trackId);
+
+        if (Objects.equals(status, STATUS_PUBLISHED)) {
+            // 重新上架：事件中不含向量，从索引读取一次完整文档装入进程内向量索引
+            // 首次发布走带 newRelease 的 UPSERT，这里不再匹配已保存搜索，避免重复提醒
+            inMemoryVectorIndex.upsert(trackIndexManager.get(trackId));
+        } else {
+            inMemoryVectorIndex.remove(trackId);
+        }
+        log.info("ES 状态局部更新成功: trackId={}, status={}", trackId, status);
+        return true;
+    }
+
+    /**
+     * 改价：只更新 price 字段
+     *
+     * @return 写入是否生效
+     */
+    private boolean applyPriceChange(Map<String, Object> message) throws IOException {
+        var trackId = toLong(message.get("id"));
+        if (trackId == null) {
+            log.warn("价格变更事件缺少作品 ID，忽略: message={}", message);
+            return false;
+        }
+        var price = message.get("price") != null
+                ? new BigDecimal(message.get("price").toString())
+                : null;
+
+        Map<String, Object> partialDoc = new HashMap<>();
+        partialDoc.put("price", price);
+        var version = toLong(message.get("version"));
+        var result = trackIndexManager.update(trackId, partialDoc, TrackIndexManager.PRICE_VERSION_FIELD, version);
+        if (result == WriteResult.NOT_FOUND) {
+            retryLater(message, trackId);
+            return false;
+        }
+        if (result == WriteResult.STALE) {
+            log.info("价格变更消息已过期，忽略: trackId={}, version={}", trackId, version);
+            return false;
+        }
+        inMemoryVectorIndex.updateMetadata(trackId, doc -> doc.setPrice(price));
+        log.info("ES 价格局部更新成功: trackId={}, price={}", trackId, price);
+        return true;
+    }
+
+    /**
+     * 删除：从 ES、相似缓存和进程内向量索引中移除
+     *
+     * @return 写入是否生效
+     */
+    private boolean applyDelete(Map<String, Object> message) throws IOException {
+        var trackId = toLong(message.get("id"));
+        if (trackId == null) {
+            log.warn("删除事件缺少作品 ID，忽略: message={}", message);
+            return false;
+        }
+        trackIndexManager.delete(trackId, toLong(message.get("version")));
+        similarTrackCache.evict(trackId);
+        inMemoryVectorIndex.remove(trackId);
+        nearDuplicateIndex.remove(trackId);
+        log.info("ES 索引删除成功: trackId={}", trackId);
+        return true;
+    }
+
+    /**
+     * 文档尚未写入（创建它的 UPSERT 在其它消费者上或仍在队列中）：经重试队列延迟重投
+     * 超过最大重投次数后丢弃（作品已被删除等）
+     */
+    private void retryLater(Map<String, Object> message, Long trackId) {
+        var retries = Optional.ofNullable(toInteger(message.get(RETRY_COUNT_FIELD))).orElse(0);
+        if (retries >= trackSyncProperties.getNotFoundMaxRetries()) {
+            log.warn("作品仍未写入索引，放弃局部更新: trackId={}, retries={}, message={}", trackId, retries, message);
+            return;
+        }
+        Map<String, Object> retry = new LinkedHashMap<>(message);
+        retry.put(RETRY_COUNT_FIELD, retries + 1);
+        rabbitTemplate.convertAndSend(RabbitMQConfig.TRACK_SYNC_RETRY_QUEUE, retry, m -> {
+            m.getMessageProperties().setExpiration(String.valueOf(trackSyncProperties.getNotFoundRetryDelayMillis()));
+            return m;
+        });
+        log.info("作品尚未写入索引，延迟重投局部更新: trackId={}, retry={}", trackId, retries + 1);
     }
 
     /**
@@ -54,7 +260,7 @@ public class TrackSyncListener {
      * 消息字段来源于 TrackServiceImpl.sendTrackSyncMessage
      */
     private TrackDoc convertToTrackDoc(Map<String, Object> message) {
-        return TrackDoc.builder()
+        var trackDoc = TrackDoc.builder()
                 .id(toLong(message.get("id")))
                 .title((String) message.get("title"))
                 .trackType((String) message.get("trackType"))
@@ -75,6 +281,108 @@ public class TrackSyncListener {
                 // CLAP 音频特征向量（512 维），用于语义搜索
                 .audioVector(toFloatArray(message.get("audioVector")))
                 .build();
+        applyVectorLayout(trackDoc, message.get("fileVectors"));
+        trackDoc.setSuggest(buildSuggest(trackDoc));
+        return trackDoc;
+    }
+
+    // ======================== 向量布局 ========================
+
+    /**
+     * 决定作品向量写入哪个字段：
+     * - SINGLE，或去重后只剩一个分轨向量的 PACK：只写 audioVector
+     * - PACK：分轨向量去重、截断后写入 nested fileVectors，不再写 audioVector
+     * <p>
+     * 控制索引体积：每个向量只在 HNSW 中出现一次；同一素材的近似重复分轨只保留一个；
+     * 单作品分轨数受 maxPerTrack 限制
+     */
+    private void applyVectorLayout(TrackDoc trackDoc, Object fileVectorsValue) {
+        if (!fileVectorProperties.isEnabled() || !TRACK_TYPE_PACK.equals(trackDoc.getTrackType())) {
+            return;
+        }
+        List<FileVectorDoc> kept = new ArrayList<>();
+        if (fileVectorsValue instanceof Collection<?> items) {
+            for (Object item : items) {
+                if (kept.size() >= fileVectorProperties.getMaxPerTrack()) {
+                    break;
+                }
+                if (!(item instanceof Map<?, ?> entry)) {
+                    continue;
+                }
+                var vector = toFloatArray(entry.get("vector"));
+                if (vector == null || isNearDuplicate(vector, kept)) {
+                    continue;
+                }
+                kept.add(new FileVectorDoc(toLong(entry.get("fileId")), vector));
+            }
+        }
+        if (kept.size() < 2) {
+            // 不足两个不同分轨，沿用作品级单向量
+            if (kept.size() == 1 && trackDoc.getAudioVector() == null) {
+                trackDoc.setAudioVector(kept.get(0).getVector());
+            }
+            return;
+        }
+        trackDoc.setFileVectors(kept);
+        trackDoc.setAudioVector(null);
+    }
+
+    private boolean isNearDuplicate(float[] vector, List<FileVectorDoc> kept) {
+        for (var existing : kept) {
+            if (VectorOps.cosine(vector, existing.getVector()) >= fileVectorProperties.getDedupSimilarity()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // ======================== 近似重复 ========================
+
+    /**
+     * 判定作品是否为已收录作品的重复上传（签名比对，不访问 ES）
+     * 重复组沿用命中作品已有的重复组，取自身 ID 与各命中作品重复组中最小的一个：
+     * C 只命中 B、B 已归入 A 组时，C 同样归入 A 组，同一段 loop 的各份拷贝不会被拆成多组
+     * 无向量或无命中时自成一组
+     */
+    private void markDuplicates(TrackDoc trackDoc) {
+        var matches = nearDuplicateIndex.findDuplicates(trackDoc.getId(), trackDoc.trackVector());
+        long group = trackDoc.getId();
+        for (var match : matches) {
+            group = Math.min(group, match.group());
+        }
+        trackDoc.setDuplicateGroup(group);
+        if (group != trackDoc.getId()) {
+            trackDoc.setDuplicateOf(group);
+            meterRegistry.counter(METRIC_NEAR_DUPLICATES).increment();
+            log.info("检测到近似重复作品: trackId={}, duplicateOf={}, producerId={}, matches={}",
+                    trackDoc.getId(), group, trackDoc.getProducerId(), matches);
+        }
+    }
+
+    // ======================== 搜索联想 ========================
+
+    /**
+     * 生成 completion 联想输入项：标题、标题按词后缀、发布者用户名、风格标签
+     * 是否可被联想由 status context 决定，上下架无需重新生成
+     */
+    private Completion buildSuggest(TrackDoc trackDoc) {
+        Set<String> inputs = new LinkedHashSet<>();
+        var title = trackDoc.getTitle();
+        if (title != null && !title.isBlank()) {
+            inputs.add(title.trim());
+            // completion 只做前缀匹配，补充从第 2、3… 个词开始的后缀，使词中间的前缀也能命中
+            var words = title.trim().split("\\s+");
+            for (int i = 1; i < words.length && i <= MAX_TITLE_SUFFIXES; i++) {
+                inputs.add(String.join(" ", Arrays.copyOfRange(words, i, words.length)));
+            }
+        }
+        if (trackDoc.getProducerName() != null && !trackDoc.getProducerName().isBlank()) {
+            inputs.add(trackDoc.getProducerName().trim());
+        }
+        if (trackDoc.getGenres() != null) {
+            inputs.addAll(trackDoc.getGenres());
+        }
+        return inputs.isEmpty() ? null : new Completion(new ArrayList<>(inputs));
     }
 
     // ======================== 标签/风格解析 ========================
@@ -0,0 +1,16 @@
+package com.soundvibe.search.model.dto;
+
+import java.io.Serializable;
+
+/**
+ * 保存搜索请求 DTO
+ *
+ * @param name     名称（如 "140bpm C minor trap"）
+ * @param criteria 搜索条件，与 /search/tracks 的参数一致
+ * @author SoundVibe Team
+ */
+public record SavedSearchDTO(
+        String name,
+        TrackSearchDTO criteria
+) implements Serializable {
+}
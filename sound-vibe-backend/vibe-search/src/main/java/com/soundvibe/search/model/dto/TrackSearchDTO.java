@@ -0,0 +1,37 @@
+package com.soundvibe.search.model.dto;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * 作品搜索条件 DTO（不可变 Record）
+ * 同一维度内多选为“或”，不同维度之间为“与”
+ *
+ * @param keyword     关键词（匹配 title 或 tags）
+ * @param genres      音乐风格（可多选）
+ * @param musicalKeys 音乐调式（可多选，如 "C minor"）
+ * @param trackTypes  作品类型（SINGLE / PACK，可多选）
+ * @param minBpm      最小 BPM（范围下界）
+ * @param maxBpm      最大 BPM（范围上界）
+ * @param minPrice    最低价格（含）
+ * @param maxPrice    最高价格（不含，与价格区间聚合的桶边界一致）
+ * @author SoundVibe Team
+ */
+public record TrackSearchDTO(
+        String keyword,
+        List<String> genres,
+        List<String> musicalKeys,
+        List<String> trackTypes,
+        Integer minBpm,
+        Integer maxBpm,
+        BigDecimal minPrice,
+        BigDecimal maxPrice
+) implements Serializable {
+
+    public TrackSearchDTO {
+        genres = genres == null ? List.of() : genres;
+        musicalKeys = musicalKeys == null ? List.of() : musicalKeys;
+        trackTypes = trackTypes == null ? List.of() : trackTypes;
+    }
+}
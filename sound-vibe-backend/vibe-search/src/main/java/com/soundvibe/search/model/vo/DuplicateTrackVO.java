@@ -0,0 +1,17 @@
+package com.soundvibe.search.model.vo;
+
+import com.soundvibe.search.document.TrackDoc;
+
+import java.io.Serializable;
+
+/**
+ * 近似重复作品 VO
+ *
+ * @param track      重复作品（不含向量字段）
+ * @param similarity 由 LSH 签名估计的余弦相似度
+ */
+public record DuplicateTrackVO(
+        TrackDoc track,
+        double similarity
+) implements Serializable {
+}
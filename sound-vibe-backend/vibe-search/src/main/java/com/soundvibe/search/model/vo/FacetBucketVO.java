@@ -0,0 +1,19 @@
+package com.soundvibe.search.model.vo;
+
+import java.io.Serializable;
+
+/**
+ * 分面计数桶 VO
+ *
+ * @param key   桶标识（词项值 / BPM 区间下界 / 价格区间名）
+ * @param count 命中作品数
+ * @param from  区间下界（含，词项桶为 null）
+ * @param to    区间上界（不含，词项桶或无上界时为 null）
+ */
+public record FacetBucketVO(
+        String key,
+        long count,
+        Double from,
+        Double to
+) implements Serializable {
+}
@@ -0,0 +1,21 @@
+package com.soundvibe.search.model.vo;
+
+import com.soundvibe.search.model.dto.TrackSearchDTO;
+
+import java.io.Serializable;
+
+/**
+ * 已保存搜索 VO
+ *
+ * @param id        已保存搜索 ID
+ * @param name      名称
+ * @param criteria  搜索条件
+ * @param createdAt 创建时间（毫秒时间戳）
+ */
+public record SavedSearchVO(
+        String id,
+        String name,
+        TrackSearchDTO criteria,
+        Long createdAt
+) implements Serializable {
+}
@@ -0,0 +1,20 @@
+package com.soundvibe.search.model.vo;
+
+import com.soundvibe.search.document.TrackDoc;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * 语义搜索响应 VO
+ *
+ * @param tracks        按相关度排序的作品列表
+ * @param degraded      是否为降级结果（分析服务不可用时改用关键词搜索）
+ * @param degradeReason 降级原因（未降级时为 null）
+ */
+public record SemanticSearchVO(
+        List<TrackDoc> tracks,
+        boolean degraded,
+        String degradeReason
+) implements Serializable {
+}
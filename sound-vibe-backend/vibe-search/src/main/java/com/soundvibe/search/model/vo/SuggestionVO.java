@@ -0,0 +1,21 @@
+package com.soundvibe.search.model.vo;
+
+import java.io.Serializable;
+
+/**
+ * 搜索联想项 VO
+ *
+ * @param text         命中的联想文本（标题 / 发布者 / 风格标签）
+ * @param trackId      来源作品 ID（点击可直接跳转作品详情）
+ * @param title        来源作品标题
+ * @param producerName 来源作品发布者
+ * @param coverId      来源作品封面资产 ID
+ */
+public record SuggestionVO(
+        String text,
+        Long trackId,
+        String title,
+        String producerName,
+        Long coverId
+) implements Serializable {
+}
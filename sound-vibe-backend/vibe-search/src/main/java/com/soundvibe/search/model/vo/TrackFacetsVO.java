@@ -0,0 +1,23 @@
+package com.soundvibe.search.model.vo;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * 作品搜索分面 VO
+ * 每个分面的计数都应用了除自身维度以外的全部筛选条件（多选分面）
+ *
+ * @param musicalKeys 调式及计数
+ * @param genres      风格及计数
+ * @param bpm         BPM 直方图（按固定间隔分桶）
+ * @param priceRanges 价格区间及计数
+ * @param trackTypes  作品类型（SINGLE / PACK）及计数
+ */
+public record TrackFacetsVO(
+        List<FacetBucketVO> musicalKeys,
+        List<FacetBucketVO> genres,
+        List<FacetBucketVO> bpm,
+        List<FacetBucketVO> priceRanges,
+        List<FacetBucketVO> trackTypes
+) implements Serializable {
+}
@@ -0,0 +1,27 @@
+package com.soundvibe.search.model.vo;
+
+import com.soundvibe.search.document.TrackDoc;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * 作品搜索响应 VO
+ * 分页字段与 Spring Data Page 的 JSON 同名，前端无需区分是否请求了分面
+ *
+ * @param content       当前页作品
+ * @param totalElements 命中总数
+ * @param totalPages    总页数
+ * @param size          每页大小
+ * @param number        当前页码（从 0 开始）
+ * @param facets        分面计数（未请求时为 null）
+ */
+public record TrackSearchVO(
+        List<TrackDoc> content,
+        long totalElements,
+        int totalPages,
+        int size,
+        int number,
+        TrackFacetsVO facets
+) implements Serializable {
+}
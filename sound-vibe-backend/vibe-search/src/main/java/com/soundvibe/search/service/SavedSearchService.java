@@ -0,0 +1,35 @@
+package com.soundvibe.search.service;
+
+import com.soundvibe.search.model.dto.SavedSearchDTO;
+import com.soundvibe.search.model.vo.SavedSearchVO;
+
+import java.util.List;
+
+/**
+ * 已保存搜索服务接口
+ * 用户保存的搜索条件存为 percolator 查询，新作品上架时由 SavedSearchMatcher 反向匹配并推送提醒，
+ * 用户无需反复轮询搜索
+ *
+ * @author SoundVibe Team
+ */
+public interface SavedSearchService {
+
+    /**
+     * 保存搜索
+     *
+     * @param userId 当前用户 ID
+     * @param dto    名称与搜索条件（至少包含一个条件）
+     * @return 已保存的搜索
+     */
+    SavedSearchVO create(Long userId, SavedSearchDTO dto);
+
+    /**
+     * 查询当前用户的已保存搜索（按创建时间倒序）
+     */
+    List<SavedSearchVO> list(Long userId);
+
+    /**
+     * 删除已保存搜索（只能删除自己的）
+     */
+    void delete(Long userId, String searchId);
+}
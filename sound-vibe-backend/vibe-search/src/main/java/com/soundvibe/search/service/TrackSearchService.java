@@ -1,15 +1,22 @@
 package com.soundvibe.search.service;
 
 import com.soundvibe.search.document.TrackDoc;
-import org.springframework.data.domain.Page;
+import com.soundvibe.search.infrastructure.SearchResponseCache.CachedResponse;
+import com.soundvibe.search.model.dto.TrackSearchDTO;
+import com.soundvibe.search.model.vo.DuplicateTrackVO;
+import com.soundvibe.search.model.vo.SemanticSearchVO;
+import com.soundvibe.search.model.vo.SuggestionVO;
+import com.soundvibe.search.model.vo.TrackSearchVO;
 import org.springframework.data.domain.Pageable;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * 作品搜索服务接口
  * 基于 Elasticsearch 提供全文搜索、结构化过滤和语义搜索能力
+ * 搜索类方法异步执行，返回的 future 在 ES / 分析服务的 I/O 回调中完成
  *
  * @author SoundVibe Team
  */
@@ -17,34 +24,74 @@ public interface TrackSearchService {
 
     /**
      * 搜索作品
+     * 请求分面时命中结果与全部分面计数在同一次 ES 请求中返回：
+     * 分面维度的条件放入 post_filter，每个分面只应用其余维度的条件（多选分面）
      *
-     * @param keyword    关键词（匹配 title 或 tags）
-     * @param minBpm     最小 BPM（可选，范围下界）
-     * @param maxBpm     最大 BPM（可选，范围上界）
-     * @param genre      音乐风格（可选，精确匹配 genres 数组中的某个值）
-     * @param musicalKey 音乐调式（可选，精确匹配，如 "C Major"）
+     * @param criteria   搜索条件
      * @param pageable   分页参数
-     * @return 分页搜索结果
+     * @param withFacets 是否同时返回分面（调式 / 风格 / BPM 直方图 / 价格区间 / 作品类型）
+     * @return 分页搜索结果（未请求分面时 facets 为 null）
      */
-    Page<TrackDoc> search(String keyword, Integer minBpm, Integer maxBpm, String genre, String musicalKey, Pageable pageable);
+    CompletableFuture<TrackSearchVO> search(TrackSearchDTO criteria, Pageable pageable, boolean withFacets);
+
+    /**
+     * 搜索作品（前几页走响应缓存）
+     * 结果按归一化后的查询条件缓存，作品同步使索引代数递增后失效；
+     * 刚失效的条目先返回旧结果并在后台刷新（stale-while-revalidate）
+     *
+     * @return 搜索结果、ETag（内容摘要，未缓存的页为 null）及缓存状态
+     */
+    CompletableFuture<CachedResponse> cachedSearch(TrackSearchDTO criteria, Pageable pageable, boolean withFacets);
 
     /**
      * 语义搜索（基于 CLAP 向量的 kNN 近邻搜索）
      * 将用户文本通过 Python 分析服务转换为向量，再用 ES kNN 查找最相似的音频作品
+     * 整个请求受时延预算约束；嵌入在预算内不可用时降级为关键词搜索并标记 degraded
+     *
+     * @param queryText 用户的自然语言搜索文本（如 "dark trap beat with 808"），不能为空白，最长 512 字符
+     * @param k         返回的最近邻数量（1 ~ 100）
+     * @return 按相似度排序的作品列表及降级标记
+     */
+    CompletableFuture<SemanticSearchVO> semanticSearch(String queryText, int k);
+
+    /**
+     * 相似作品推荐（"More like this"）
+     * 直接使用索引中已存储的源作品 audioVector 执行 kNN，不经过模型推理
+     * 结果按源作品缓存，直到该作品下一次同步
+     * 源作品不存在时 future 以 BizException(TRACK_NOT_FOUND) 异常完成
      *
-     * @param queryText 用户的自然语言搜索文本（如 "dark trap beat with 808"）
-     * @param k         返回的最近邻数量
+     * @param trackId 源作品 ID
+     * @param k       返回的相似作品数量（1 ~ 100，不含源作品本身）
      * @return 按相似度排序的作品列表
      */
-    List<TrackDoc> semanticSearch(String queryText, int k);
+    CompletableFuture<List<TrackDoc>> findSimilar(Long trackId, int k);
+
+    /**
+     * 近似重复作品（同一素材的重复上传）
+     * 由进程内 LSH 签名索引给出候选与相似度，再从 ES 读取其中已上架的作品
+     *
+     * @param trackId 作品 ID
+     * @return 按相似度降序的重复作品；作品未收录或无向量时为空
+     */
+    CompletableFuture<List<DuplicateTrackVO>> findDuplicates(Long trackId);
+
+    /**
+     * 搜索联想（输入即搜）
+     * 基于 completion suggester 匹配标题、发布者用户名和风格标签的前缀，热门前缀走进程内缓存
+     *
+     * @param prefix 用户已输入的前缀
+     * @return 至多 10 条联想项（按权重排序，文本去重）
+     */
+    CompletableFuture<List<SuggestionVO>> suggest(String prefix);
 
     /**
      * 获取当前可用的筛选选项（动态聚合）
      * 支持级联过滤：选了某个 key 后只返回含该 key 的 genres，反之亦然
+     * 结果页应改用 search(..., withFacets=true)，在一次请求中同时拿到命中与带计数的分面
      *
      * @param musicalKey 当前已选的调式（可选）
      * @param genre      当前已选的风格（可选）
      * @return { "musicalKeys": [...], "genres": [...] }
      */
-    Map<String, Object> getAvailableFilters(String musicalKey, String genre);
+    CompletableFuture<Map<String, Object>> getAvailableFilters(String musicalKey, String genre);
 }
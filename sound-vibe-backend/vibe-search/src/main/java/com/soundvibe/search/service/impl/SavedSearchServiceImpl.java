@@ -0,0 +1,149 @@
+package com.soundvibe.search.service.impl;
+
+import cn.hutool.core.util.IdUtil;
+import cn.hutool.core.util.StrUtil;
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.Refresh;
+import co.elastic.clients.elasticsearch._types.SortOrder;
+import co.elastic.clients.json.JsonpUtils;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.soundvibe.common.exception.BizException;
+import com.soundvibe.common.result.ResultCode;
+import com.soundvibe.search.config.SavedSearchProperties;
+import com.soundvibe.search.infrastructure.SavedSearchIndex;
+import com.soundvibe.search.infrastructure.TrackQueryBuilder;
+import com.soundvibe.search.model.dto.SavedSearchDTO;
+import com.soundvibe.search.model.dto.TrackSearchDTO;
+import com.soundvibe.search.model.vo.SavedSearchVO;
+import com.soundvibe.search.service.SavedSearchService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 已保存搜索服务实现
+ * 数据直接存放在 percolator 索引中，搜索条件经 TrackQueryBuilder 转为与 /search/tracks 一致的查询
+ *
+ * @author SoundVibe Team
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SavedSearchServiceImpl implements SavedSearchService {
+
+    private static final int MAX_NAME_LENGTH = 100;
+
+    private final ElasticsearchClient elasticsearchClient;
+    private final SavedSearchIndex savedSearchIndex;
+    private final SavedSearchProperties properties;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public SavedSearchVO create(Long userId, SavedSearchDTO dto) {
+        if (dto == null || StrUtil.isBlank(dto.name())) {
+            throw new BizException(ResultCode.PARAM_ERROR, "名称不能为空");
+        }
+        var criteria = dto.criteria();
+        if (criteria == null || isEmpty(criteria)) {
+            // 无条件的搜索会匹配所有新作品
+            throw new BizException(ResultCode.PARAM_ERROR, "至少需要一个搜索条件");
+        }
+        var name = StrUtil.subPre(dto.name().trim(), MAX_NAME_LENGTH);
+
+        try {
+            long count = elasticsearchClient.count(c -> c
+                    .index(savedSearchIndex.name())
+                    .query(q -> q.term(t -> t.field(SavedSearchIndex.FIELD_USER_ID).value(userId)))).count();
+            if (count >= properties.getMaxPerUser()) {
+                throw new BizException(ResultCode.BIZ_ERROR, "最多保存 " + properties.getMaxPerUser() + " 个搜索");
+            }
+
+            var searchId = IdUtil.fastSimpleUUID();
+            long createdAt = System.currentTimeMillis();
+            var query = TrackQueryBuilder.matchQuery(criteria);
+
+            ObjectNode document = objectMapper.createObjectNode();
+            document.put(SavedSearchIndex.FIELD_SEARCH_ID, searchId);
+            document.put(SavedSearchIndex.FIELD_USER_ID, userId);
+            document.put(SavedSearchIndex.FIELD_NAME, name);
+            document.set(SavedSearchIndex.FIELD_CRITERIA, objectMapper.valueToTree(criteria));
+            document.put(SavedSearchIndex.FIELD_CREATED_AT, createdAt);
+            document.set(SavedSearchIndex.FIELD_QUERY,
+                    objectMapper.readTree(JsonpUtils.toJsonString(query, elasticsearchClient._jsonpMapper())));
+
+            elasticsearchClient.index(i -> i
+                    .index(savedSearchIndex.name())
+                    .id(searchId)
+                    .document(document)
+                    .refresh(Refresh.WaitFor));
+
+            log.info("已保存搜索: userId={}, searchId={}, name={}, criteria={}", userId, searchId, name, criteria);
+            return new SavedSearchVO(searchId, name, criteria, createdAt);
+        } catch (IOException e) {
+            log.error("保存搜索失败: userId={}, error={}", userId, e.getMessage(), e);
+            throw new BizException(ResultCode.SYSTEM_ERROR, "保存搜索失败");
+        }
+    }
+
+    @Override
+    public List<SavedSearchVO> list(Long userId) {
+        try {
+            var response = elasticsearchClient.search(s -> s
+                    .index(savedSearchIndex.name())
+                    .query(q -> q.term(t -> t.field(SavedSearchIndex.FIELD_USER_ID).value(userId)))
+                    .source(src -> src.filter(f -> f.excludes(SavedSearchIndex.FIELD_QUERY)))
+                    .sort(so -> so.field(fs -> fs.field(SavedSearchIndex.FIELD_CREATED_AT).order(SortOrder.Desc)))
+                    .size(properties.getMaxPerUser()),
+                    ObjectNode.class);
+
+            return response.hits().hits().stream()
+                    .map(hit -> hit.source())
+                    .filter(Objects::nonNull)
+                    .map(this::toVO)
+                    .toList();
+        } catch (IOException e) {
+            log.error("查询已保存搜索失败: userId={}, error={}", userId, e.getMessage(), e);
+            throw new BizException(ResultCode.SYSTEM_ERROR, "查询已保存搜索失败");
+        }
+    }
+
+    @Override
+    public void delete(Long userId, String searchId) {
+        try {
+            var existing = elasticsearchClient.get(g -> g
+                    .index(savedSearchIndex.name())
+                    .id(searchId)
+                    .sourceIncludes(SavedSearchIndex.FIELD_USER_ID),
+                    ObjectNode.class);
+            if (!existing.found() || existing.source() == null
+                    || existing.source().path(SavedSearchIndex.FIELD_USER_ID).asLong() != userId) {
+                throw new BizException(ResultCode.NOT_FOUND, "已保存搜索不存在: id=" + searchId);
+            }
+            elasticsearchClient.delete(d -> d
+                    .index(savedSearchIndex.name())
+                    .id(searchId)
+                    .refresh(Refresh.WaitFor));
+            log.info("删除已保存搜索: userId={}, searchId={}", userId, searchId);
+        } catch (IOException e) {
+            log.error("删除已保存搜索失败: userId={}, searchId={}, error={}", userId, searchId, e.getMessage(), e);
+            throw new BizException(ResultCode.SYSTEM_ERROR, "删除已保存搜索失败");
+        }
+    }
+
+    private boolean isEmpty(TrackSearchDTO criteria) {
+        return StrUtil.isBlank(criteria.keyword()) && TrackQueryBuilder.dimensionFilters(criteria).isEmpty();
+    }
+
+    private SavedSearchVO toVO(ObjectNode source) {
+        return new SavedSearchVO(
+                source.path(SavedSearchIndex.FIELD_SEARCH_ID).asText(),
+                source.path(SavedSearchIndex.FIELD_NAME).asText(),
+                objectMapper.convertValue(source.get(SavedSearchIndex.FIELD_CRITERIA), TrackSearchDTO.class),
+                source.path(SavedSearchIndex.FIELD_CREATED_AT).asLong());
+    }
+}
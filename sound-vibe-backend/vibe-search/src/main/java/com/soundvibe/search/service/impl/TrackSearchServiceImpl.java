@@ -1,37 +1,65 @@
 package com.soundvibe.search.service.impl;
 
 import cn.hutool.core.util.StrUtil;
-import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch.ElasticsearchAsyncClient;
+import co.elastic.clients.elasticsearch._types.KnnQuery;
+import co.elastic.clients.elasticsearch.core.SearchRequest;
 import co.elastic.clients.elasticsearch.core.SearchResponse;
 import co.elastic.clients.elasticsearch.core.search.Hit;
-import com.soundvibe.search.client.AnalysisClient;
-import com.soundvibe.search.client.dto.TextEmbedRequest;
+import com.soundvibe.search.client.BatchingEmbedClient;
+import com.soundvibe.common.exception.BizException;
+import com.soundvibe.common.result.ResultCode;
+import com.soundvibe.search.config.NearDuplicateProperties;
+import com.soundvibe.search.config.SearchCacheProperties;
+import com.soundvibe.search.config.SearchIndexProperties;
+import com.soundvibe.search.config.SemanticSearchProperties;
+import com.soundvibe.search.config.VectorIndexProperties;
 import com.soundvibe.search.document.TrackDoc;
+import com.soundvibe.search.infrastructure.NestedKnnSearcher;
+import com.soundvibe.search.infrastructure.SearchResponseCache;
+import com.soundvibe.search.infrastructure.SearchResponseCache.CacheStatus;
+import com.soundvibe.search.infrastructure.SearchResponseCache.CachedResponse;
+import com.soundvibe.search.infrastructure.SimilarTrackCache;
+import com.soundvibe.search.infrastructure.SuggestionCache;
+import com.soundvibe.search.infrastructure.TrackQueryBuilder;
+import com.soundvibe.search.model.dto.TrackSearchDTO;
+import com.soundvibe.search.model.vo.DuplicateTrackVO;
+import com.soundvibe.search.model.vo.FacetBucketVO;
+import com.soundvibe.search.model.vo.SemanticSearchVO;
+import com.soundvibe.search.model.vo.SuggestionVO;
+import com.soundvibe.search.model.vo.TrackFacetsVO;
+import com.soundvibe.search.model.vo.TrackSearchVO;
+import com.soundvibe.search.vector.InMemoryVectorIndex;
+import com.soundvibe.search.vector.NearDuplicateIndex;
 import com.soundvibe.search.service.TrackSearchService;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.elasticsearch.client.elc.NativeQuery;
-import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
-import org.springframework.data.elasticsearch.core.SearchHitSupport;
-import org.springframework.data.elasticsearch.core.SearchHits;
-import org.springframework.data.elasticsearch.core.SearchPage;
 import org.springframework.stereotype.Service;
 
 import co.elastic.clients.elasticsearch._types.query_dsl.BoolQuery;
+import co.elastic.clients.elasticsearch.core.search.CompletionContext;
 import co.elastic.clients.elasticsearch._types.SortOrder;
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregate;
 import co.elastic.clients.elasticsearch._types.aggregations.Aggregation;
+import co.elastic.clients.elasticsearch._types.aggregations.AggregationRange;
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
 import co.elastic.clients.elasticsearch._types.aggregations.StringTermsBucket;
-import co.elastic.clients.json.JsonData;
-import org.springframework.data.elasticsearch.client.elc.ElasticsearchAggregations;
 
 import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
  * 作品搜索服务实现
- * 基于 Spring Data Elasticsearch 5.x + NativeQuery 构建复合查询
+ * 搜索接口基于 ElasticsearchAsyncClient 非阻塞执行，返回 CompletableFuture，等待 ES / 分析服务期间不占用请求线程
  * 支持关键词搜索、结构化过滤和 CLAP 向量语义搜索（kNN）
  *
  * @author SoundVibe Team
@@ -41,64 +69,278 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class TrackSearchServiceImpl implements TrackSearchService {
 
-    private final ElasticsearchOperations elasticsearchOperations;
-    private final ElasticsearchClient elasticsearchClient;
-    private final AnalysisClient analysisClient;
+    private final ElasticsearchAsyncClient elasticsearchAsyncClient;
+    private final BatchingEmbedClient batchingEmbedClient;
+    private final SearchIndexProperties indexProperties;
+    private final SimilarTrackCache similarTrackCache;
+    private final InMemoryVectorIndex inMemoryVectorIndex;
+    private final VectorIndexProperties vectorIndexProperties;
+    private final SuggestionCache suggestionCache;
+    private final SemanticSearchProperties semanticProperties;
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final MeterRegistry meterRegistry;
+    private final NestedKnnSearcher nestedKnnSearcher;
+    private final SearchResponseCache searchResponseCache;
+    private final SearchCacheProperties searchCacheProperties;
+    private final NearDuplicateIndex nearDuplicateIndex;
+    private final NearDuplicateProperties nearDuplicateProperties;
 
     private static final int STATUS_PUBLISHED = 1;
-    private static final String INDEX_NAME = "tracks";
+
+    /**
+     * 向量字段（列表类结果不回传）
+     */
+    private static final String FIELD_AUDIO_VECTOR = "audioVector";
+    private static final String FIELD_FILE_VECTORS = "fileVectors";
+
+    /**
+     * 重复组字段及折叠后的组计数聚合名
+     */
+    private static final String FIELD_DUPLICATE_GROUP = "duplicateGroup";
+    private static final String AGG_DUPLICATE_GROUPS = "duplicate_groups";
+    private static final String AGG_GROUP_COUNT = "count";
+
+    /**
+     * cardinality 聚合的精确计数上限（ES 允许的最大值），组数低于该值时计数精确
+     */
+    private static final int GROUP_COUNT_PRECISION = 40000;
+
+    /**
+     * 分面聚合名（亦为筛选维度名）及分面内层桶聚合名
+     */
+    private static final String FACET_KEYS = TrackQueryBuilder.DIM_KEYS;
+    private static final String FACET_GENRES = TrackQueryBuilder.DIM_GENRES;
+    private static final String FACET_TRACK_TYPES = TrackQueryBuilder.DIM_TRACK_TYPES;
+    private static final String FACET_BPM = TrackQueryBuilder.DIM_BPM;
+    private static final String FACET_PRICE = TrackQueryBuilder.DIM_PRICE;
+    private static final String FACET_BUCKETS = "buckets";
+
+    /**
+     * BPM 直方图桶宽
+     */
+    private static final double BPM_HISTOGRAM_INTERVAL = 10;
+
+    /**
+     * 价格区间桶（下界含、上界不含）
+     */
+    private static final List<PriceRange> PRICE_RANGES = List.of(
+            new PriceRange("free", null, 0.01),
+            new PriceRange("0-50", 0.01, 50.0),
+            new PriceRange("50-100", 50.0, 100.0),
+            new PriceRange("100-200", 100.0, 200.0),
+            new PriceRange("200+", 200.0, null));
+
+    /**
+     * 分析服务断路器名称（配置见 resilience4j.circuitbreaker.instances.analysis-service）
+     */
+    private static final String ANALYSIS_BREAKER = "analysis-service";
+
+    private static final String METRIC_SEMANTIC_REQUESTS = "search.semantic.requests";
+    private static final String OUTCOME_KNN = "knn";
+    private static final String OUTCOME_MEMORY = "memory";
+    private static final String OUTCOME_KEYWORD_FALLBACK = "keyword_fallback";
+    private static final String OUTCOME_EMPTY = "empty";
+
+    /**
+     * 客户端截止时间在服务端 timeout 之外多留的余量（毫秒），让按时返回的部分结果仍能到达
+     */
+    private static final long CLIENT_DEADLINE_GRACE_MILLIS = 50;
+
+    private static final String SUGGESTER_NAME = "track-suggest";
+    private static final int SUGGEST_SIZE = 10;
+    private static final int MAX_PREFIX_LENGTH = 50;
+
+    /**
+     * 语义搜索 / 相似作品单次返回数量上限（num_candidates = k * 10）
+     */
+    private static final int MAX_K = 100;
 
     @Override
-    public Page<TrackDoc> search(String keyword, Integer minBpm, Integer maxBpm, String genre, String musicalKey, Pageable pageable) {
+    public CompletableFuture<TrackSearchVO> search(TrackSearchDTO criteria, Pageable pageable, boolean withFacets) {
 
+        // 主查询：只放不参与分面的条件（上架状态 + 关键词）
         var boolQueryBuilder = new BoolQuery.Builder();
-
         boolQueryBuilder.filter(f -> f.term(t -> t.field("status").value(STATUS_PUBLISHED)));
+        if (StrUtil.isNotBlank(criteria.keyword())) {
+            boolQueryBuilder.must(TrackQueryBuilder.keywordQuery(criteria.keyword()));
+        }
 
-        if (StrUtil.isNotBlank(keyword)) {
-            boolQueryBuilder.must(m -> m.multiMatch(mm -> mm
-                    .fields("title", "tags")
-                    .query(keyword)
-            ));
+        // 分面维度上的筛选条件：请求分面时放入 post_filter，聚合在 post_filter 之前计算，
+        // 每个分面再各自套上“除自身维度外”的其余条件，得到多选分面的正确计数
+        var facetFilters = TrackQueryBuilder.dimensionFilters(criteria);
+        if (!withFacets) {
+            facetFilters.values().forEach(boolQueryBuilder::filter);
+        }
+        var boolQuery = boolQueryBuilder.build();
+
+        // 重复上传折叠：每个 duplicateGroup 只保留排序最靠前的一条，总数改为组数
+        boolean collapse = nearDuplicateProperties.isCollapseKeywordSearch();
+        Map<String, Aggregation> aggregations = withFacets ? facetAggregations(facetFilters) : new LinkedHashMap<>();
+        if (collapse) {
+            // 聚合不受 post_filter 影响，组计数需自行套上全部分面条件
+            aggregations.put(AGG_DUPLICATE_GROUPS, Aggregation.of(a -> a
+                    .filter(combine(facetFilters, null))
+                    .aggregations(AGG_GROUP_COUNT, ga -> ga.cardinality(c -> c
+                            .field(FIELD_DUPLICATE_GROUP)
+                            .precisionThreshold(GROUP_COUNT_PRECISION)))));
         }
 
-        if (StrUtil.isNotBlank(genre)) {
-            boolQueryBuilder.filter(f -> f.term(t -> t.field("genres").value(genre)));
+        var request = SearchRequest.of(s -> {
+            s.index(indexProperties.getReadAlias())
+                    .query(q -> q.bool(boolQuery))
+                    .source(src -> src.filter(sf -> sf.excludes(FIELD_AUDIO_VECTOR, FIELD_FILE_VECTORS)))
+                    .sort(so -> so.field(fs -> fs.field("id").order(SortOrder.Desc)))
+                    .from((int) pageable.getOffset())
+                    .size(pageable.getPageSize())
+                    .trackTotalHits(t -> t.enabled(true));
+            if (withFacets) {
+                s.postFilter(combine(facetFilters, null));
+            }
+            if (collapse) {
+                s.collapse(c -> c.field(FIELD_DUPLICATE_GROUP));
+            }
+            if (!aggregations.isEmpty()) {
+                s.aggregations(aggregations);
+            }
+            return s;
+        });
+
+        log.debug("ES 搜索查询: criteria={}, page={}, facets={}", criteria, pageable, withFacets);
+
+        return elasticsearchAsyncClient.search(request, TrackDoc.class).thenApply(response -> {
+            var content = response.hits().hits().stream()
+                    .map(Hit::source)
+                    .filter(Objects::nonNull)
+                    .toList();
+            long total = response.hits().total() != null ? response.hits().total().value() : content.size();
+            if (collapse) {
+                total = response.aggregations().get(AGG_DUPLICATE_GROUPS).filter()
+                        .aggregations().get(AGG_GROUP_COUNT).cardinality().value();
+            }
+            int totalPages = (int) ((total + pageable.getPageSize() - 1) / pageable.getPageSize());
+            var facets = withFacets ? parseFacets(response.aggregations()) : null;
+            return new TrackSearchVO(content, total, totalPages, pageable.getPageSize(), pageable.getPageNumber(), facets);
+        });
+    }
+
+    @Override
+    public CompletableFuture<CachedResponse> cachedSearch(TrackSearchDTO criteria, Pageable pageable, boolean withFacets) {
+        if (!searchCacheProperties.isEnabled() || pageable.getPageNumber() >= searchCacheProperties.getCacheablePages()) {
+            return search(criteria, pageable, withFacets)
+                    .thenApply(result -> new CachedResponse(result, null, CacheStatus.BYPASS));
         }
+        return searchResponseCache.get(responseCacheKey(criteria, pageable, withFacets),
+                () -> search(criteria, pageable, withFacets));
+    }
 
-        if (StrUtil.isNotBlank(musicalKey)) {
-            boolQueryBuilder.filter(f -> f.term(t -> t.field("musicalKeys").value(musicalKey)));
+    /**
+     * 响应缓存 key：关键词去首尾空白、合并空白并小写（与 standard 分析器一致），
+     * 多选条件去重排序，数值去掉多余的小数位，使等价查询落到同一条目
+     */
+    private String responseCacheKey(TrackSearchDTO criteria, Pageable pageable, boolean withFacets) {
+        var keyword = StrUtil.isBlank(criteria.keyword())
+                ? ""
+                : criteria.keyword().trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+        return String.join("|",
+                keyword,
+                String.join(",", new TreeSet<>(criteria.genres())),
+                String.join(",", new TreeSet<>(criteria.musicalKeys())),
+                String.join(",", new TreeSet<>(criteria.trackTypes())),
+                String.valueOf(criteria.minBpm()),
+                String.valueOf(criteria.maxBpm()),
+                criteria.minPrice() != null ? criteria.minPrice().stripTrailingZeros().toPlainString() : "null",
+                criteria.maxPrice() != null ? criteria.maxPrice().stripTrailingZeros().toPlainString() : "null",
+                String.valueOf(pageable.getPageNumber()),
+                String.valueOf(pageable.getPageSize()),
+                String.valueOf(withFacets));
+    }
+
+    // ======================== 分面 ========================
+
+    /**
+     * 合并除 excluded 维度外的全部分面条件，无条件时为 match_all
+     */
+    private Query combine(Map<String, Query> facetFilters, String excluded) {
+        var others = facetFilters.entrySet().stream()
+                .filter(e -> !e.getKey().equals(excluded))
+                .map(Map.Entry::getValue)
+                .toList();
+        if (others.isEmpty()) {
+            return Query.of(q -> q.matchAll(m -> m));
         }
+        return Query.of(q -> q.bool(b -> b.filter(others)));
+    }
 
-        if (minBpm != null || maxBpm != null) {
-            boolQueryBuilder.filter(f -> f.range(r -> {
-                var rangeQuery = r.field("bpmValues");
-                if (minBpm != null) {
-                    rangeQuery.gte(JsonData.of(minBpm));
-                }
-                if (maxBpm != null) {
-                    rangeQuery.lte(JsonData.of(maxBpm));
-                }
-                return rangeQuery;
-            }));
+    private Map<String, Aggregation> facetAggregations(Map<String, Query> facetFilters) {
+        Map<String, Aggregation> aggregations = new LinkedHashMap<>();
+        aggregations.put(FACET_KEYS, facet(facetFilters, FACET_KEYS,
+                Aggregation.of(a -> a.terms(t -> t.field("musicalKeys").size(50)))));
+        aggregations.put(FACET_GENRES, facet(facetFilters, FACET_GENRES,
+                Aggregation.of(a -> a.terms(t -> t.field("genres").size(100)))));
+        aggregations.put(FACET_TRACK_TYPES, facet(facetFilters, FACET_TRACK_TYPES,
+                Aggregation.of(a -> a.terms(t -> t.field("trackType").size(10)))));
+        aggregations.put(FACET_BPM, facet(facetFilters, FACET_BPM,
+                Aggregation.of(a -> a.histogram(h -> h
+                        .field("bpmValues")
+                        .interval(BPM_HISTOGRAM_INTERVAL)
+                        .minDocCount(1)))));
+        aggregations.put(FACET_PRICE, facet(facetFilters, FACET_PRICE,
+                Aggregation.of(a -> a.range(r -> r
+                        .field("price")
+                        .ranges(PRICE_RANGES.stream()
+                                .map(range -> AggregationRange.of(ar -> {
+                                    ar.key(range.key());
+                                    if (range.from() != null) {
+                                        ar.from(range.from().toString());
+                                    }
+                                    if (range.to() != null) {
+                                        ar.to(range.to().toString());
+                                    }
+                                    return ar;
+                                }))
+                                .toList())))));
+        return aggregations;
+    }
+
+    /**
+     * 分面聚合：filter（其余维度条件）→ 子聚合 buckets
+     */
+    private Aggregation facet(Map<String, Query> facetFilters, String dimension, Aggregation buckets) {
+        return Aggregation.of(a -> a
+                .filter(combine(facetFilters, dimension))
+                .aggregations(FACET_BUCKETS, buckets));
+    }
+
+    private TrackFacetsVO parseFacets(Map<String, Aggregate> aggMap) {
+        if (aggMap == null || aggMap.isEmpty()) {
+            return new TrackFacetsVO(List.of(), List.of(), List.of(), List.of(), List.of());
         }
 
-        var query = NativeQuery.builder()
-                .withQuery(q -> q.bool(boolQueryBuilder.build()))
-                .withSort(s -> s.field(fs -> fs.field("id").order(SortOrder.Desc)))
-                .withPageable(pageable)
-                .build();
+        return new TrackFacetsVO(
+                termBuckets(facetBuckets(aggMap, FACET_KEYS)),
+                termBuckets(facetBuckets(aggMap, FACET_GENRES)),
+                facetBuckets(aggMap, FACET_BPM).histogram().buckets().array().stream()
+                        .map(b -> new FacetBucketVO(String.valueOf((long) b.key()), b.docCount(),
+                                b.key(), b.key() + BPM_HISTOGRAM_INTERVAL))
+                        .toList(),
+                facetBuckets(aggMap, FACET_PRICE).range().buckets().array().stream()
+                        .map(b -> new FacetBucketVO(b.key(), b.docCount(), b.from(), b.to()))
+                        .toList(),
+                termBuckets(facetBuckets(aggMap, FACET_TRACK_TYPES)));
+    }
 
-        log.debug("ES 搜索查询: keyword={}, genre={}, musicalKey={}, bpm=[{}-{}], page={}",
-                keyword, genre, musicalKey, minBpm, maxBpm, pageable);
+    private Aggregate facetBuckets(Map<String, Aggregate> aggMap, String dimension) {
+        return aggMap.get(dimension).filter().aggregations().get(FACET_BUCKETS);
+    }
 
-        SearchHits<TrackDoc> searchHits = elasticsearchOperations.search(query, TrackDoc.class);
-        SearchPage<TrackDoc> searchPage = SearchHitSupport.searchPageFor(searchHits, pageable);
-        return (Page<TrackDoc>) SearchHitSupport.unwrapSearchHits(searchPage);
+    private List<FacetBucketVO> termBuckets(Aggregate aggregate) {
+        return aggregate.sterms().buckets().array().stream()
+                .map(b -> new FacetBucketVO(b.key().stringValue(), b.docCount(), null, null))
+                .toList();
     }
 
     @Override
-    public Map<String, Object> getAvailableFilters(String musicalKey, String genre) {
+    public CompletableFuture<Map<String, Object>> getAvailableFilters(String musicalKey, String genre) {
 
         var boolQueryBuilder = new BoolQuery.Builder();
         boolQueryBuilder.filter(f -> f.term(t -> t.field("status").value(STATUS_PUBLISHED)));
@@ -109,89 +351,433 @@ public class TrackSearchServiceImpl implements TrackSearchService {
         if (StrUtil.isNotBlank(genre)) {
             boolQueryBuilder.filter(f -> f.term(t -> t.field("genres").value(genre)));
         }
+        var boolQuery = boolQueryBuilder.build();
+
+        return elasticsearchAsyncClient.search(s -> s
+                        .index(indexProperties.getReadAlias())
+                        .query(q -> q.bool(boolQuery))
+                        .aggregations("available_keys", a -> a.terms(t -> t.field("musicalKeys").size(50)))
+                        .aggregations("available_genres", a -> a.terms(t -> t.field("genres").size(100)))
+                        .size(0),
+                TrackDoc.class
+        ).thenApply(response -> {
+            List<String> keys = new ArrayList<>();
+            List<String> genres = new ArrayList<>();
+
+            if (response.aggregations() != null) {
+                try {
+                    for (StringTermsBucket bucket : response.aggregations().get("available_keys").sterms().buckets().array()) {
+                        keys.add(bucket.key().stringValue());
+                    }
+                    for (StringTermsBucket bucket : response.aggregations().get("available_genres").sterms().buckets().array()) {
+                        genres.add(bucket.key().stringValue());
+                    }
+                } catch (Exception e) {
+                    log.warn("解析聚合结果失败: {}", e.getMessage(), e);
+                }
+            }
 
-        var query = NativeQuery.builder()
-                .withQuery(q -> q.bool(boolQueryBuilder.build()))
-                .withAggregation("available_keys",
-                        Aggregation.of(a -> a.terms(t -> t.field("musicalKeys").size(50))))
-                .withAggregation("available_genres",
-                        Aggregation.of(a -> a.terms(t -> t.field("genres").size(100))))
-                .withMaxResults(0)
-                .build();
-
-        SearchHits<TrackDoc> hits = elasticsearchOperations.search(query, TrackDoc.class);
+            Collections.sort(keys);
+            Collections.sort(genres);
 
-        List<String> keys = new ArrayList<>();
-        List<String> genres = new ArrayList<>();
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("musicalKeys", keys);
+            result.put("genres", genres);
+            return result;
+        });
+    }
 
-        if (hits.getAggregations() != null) {
-            try {
-                var esAggs = (ElasticsearchAggregations) hits.getAggregations();
-                var aggMap = esAggs.aggregationsAsMap();
+    // ======================== 语义搜索（kNN） ========================
 
-                for (StringTermsBucket bucket : aggMap.get("available_keys").aggregation().getAggregate().sterms().buckets().array()) {
-                    keys.add(bucket.key().stringValue());
-                }
-                for (StringTermsBucket bucket : aggMap.get("available_genres").aggregation().getAggregate().sterms().buckets().array()) {
-                    genres.add(bucket.key().stringValue());
+    @Override
+    public CompletableFuture<SemanticSearchVO> semanticSearch(String queryText, int k) {
+        // 无效文本在此拒绝，不进入嵌入合批（否则整批被分析服务拒绝）
+        if (queryText == null || queryText.isBlank()) {
+            throw new BizException(ResultCode.PARAM_ERROR, "搜索文本不能为空");
+        }
+        if (queryText.length() > BatchingEmbedClient.MAX_TEXT_LENGTH) {
+            throw new BizException(ResultCode.PARAM_ERROR,
+                    "搜索文本不能超过 " + BatchingEmbedClient.MAX_TEXT_LENGTH + " 个字符");
+        }
+        checkK(k);
+        log.info("语义搜索: queryText='{}', k={}", queryText, k);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(semanticProperties.getBudgetMillis());
+
+        // 关键词降级路径与文本嵌入同时发起：嵌入失败时直接使用已在途的结果，不再串行多一次 ES 往返
+        var keywordLeg = semanticProperties.isKeywordFallback() && semanticProperties.isPrefetchKeyword()
+                ? keywordSearch(queryText, k)
+                : null;
+
+        // 1. 调用 Python 分析服务，将文本转换为 CLAP 向量（并发请求在几毫秒窗口内合批编码）
+        //    经断路器保护并限定在嵌入预算内；拿不到向量时降级为关键词搜索
+        var embedding = circuitBreakerRegistry.circuitBreaker(ANALYSIS_BREAKER).executeCompletionStage(() ->
+                batchingEmbedClient.embed(queryText, semanticProperties.getEmbedBudgetMillis()));
+
+        return embedding.toCompletableFuture().handle((queryVector, error) -> {
+            if (error != null) {
+                var cause = unwrap(error);
+                if (cause instanceof CallNotPermittedException) {
+                    return keywordFallback(queryText, k, "分析服务断路器已打开", keywordLeg);
                 }
-            } catch (Exception e) {
-                log.warn("解析聚合结果失败: {}", e.getMessage(), e);
+                log.warn("文本嵌入失败或超出预算: queryText='{}', error={}", queryText, cause.getMessage());
+                return keywordFallback(queryText, k, "文本嵌入超时或失败", keywordLeg);
+            }
+            if (queryVector == null || queryVector.isEmpty()) {
+                log.warn("文本嵌入返回空向量: queryText='{}'", queryText);
+                return keywordFallback(queryText, k, "文本嵌入返回空向量", keywordLeg);
+            }
+            // 向量可用，取消预取的关键词请求
+            if (keywordLeg != null) {
+                keywordLeg.cancel(true);
+            }
+            log.debug("文本嵌入完成: dims={}", queryVector.size());
+            return vectorSearch(queryText, queryVector, k, deadline);
+        }).thenCompose(Function.identity());
+    }
+
+    private CompletableFuture<SemanticSearchVO> vectorSearch(String queryText, List<Float> queryVector, int k, long deadline) {
+        // 2. 进程内向量索引作为第一阶段（可选）：就绪时直接返回，省去 ES 往返
+        if (vectorIndexProperties.isServeFirst() && inMemoryVectorIndex.isReady()) {
+            var results = collapseDuplicates(inMemoryVectorIndex.search(toFloatArray(queryVector), k));
+            recordOutcome(OUTCOME_MEMORY);
+            log.info("语义搜索完成（进程内索引）: queryText='{}', 命中 {} 条", queryText, results.size());
+            return CompletableFuture.completedFuture(new SemanticSearchVO(results, false, null));
+        }
+
+        // 3. 使用 ES 8.x kNN 搜索（作品级 audioVector + PACK 分轨 nested 向量），剩余预算作为服务端超时
+        //    分轨子句附带 inner_hits，返回命中的分轨文件
+        long searchMillis = remainingMillis(deadline);
+        var searchTimeout = searchMillis + "ms";
+        var statusFilter = Query.of(f -> f.term(t -> t.field("status").value(STATUS_PUBLISHED)));
+        var request = SearchRequest.of(s -> s
+                .knn(knnClauses(queryVector, k, statusFilter))
+                .source(src -> src.filter(sf -> sf.excludes(FIELD_AUDIO_VECTOR, FIELD_FILE_VECTORS + ".vector")))
+                .timeout(searchTimeout)
+                .size(k));
+
+        // 服务端 timeout 只约束分片上的检索，节点或连接卡住时不起作用：客户端同样在剩余预算后取消请求
+        var knnLeg = withClientDeadline(
+                nestedKnnSearcher.searchAsync(indexProperties.getReadAlias(), request, FIELD_FILE_VECTORS), searchMillis);
+
+        return knnLeg
+                .thenApply(response -> {
+                    List<TrackDoc> results = response.hits().hits().stream()
+                            .filter(hit -> hit.source() != null)
+                            .map(hit -> {
+                                var doc = hit.source();
+                                doc.setMatchedFileId(NestedKnnSearcher.matchedFileId(hit, FIELD_FILE_VECTORS));
+                                doc.setFileVectors(null);
+                                return doc;
+                            })
+                            .collect(Collectors.toList());
+                    results = collapseDuplicates(results);
+
+                    recordOutcome(OUTCOME_KNN);
+                    log.info("语义搜索完成: queryText='{}', 命中 {} 条, timedOut={}", queryText, results.size(), response.timedOut());
+                    return CompletableFuture.completedFuture(new SemanticSearchVO(results, false, null));
+                })
+                .exceptionally(e -> {
+                    var cause = unwrap(e);
+                    boolean timedOut = cause instanceof CancellationException;
+                    if (timedOut) {
+                        log.warn("ES kNN 搜索超出预算（{} ms），已取消: queryText='{}'", searchMillis, queryText);
+                    } else {
+                        log.error("ES kNN 搜索异常: queryText='{}', error={}", queryText, cause.getMessage(), e);
+                    }
+                    // 降级到进程内向量索引（同样只含已上架作品），未就绪时降级为关键词搜索
+                    if (inMemoryVectorIndex.isReady()) {
+                        var results = collapseDuplicates(inMemoryVectorIndex.search(toFloatArray(queryVector), k));
+                        recordOutcome(OUTCOME_MEMORY);
+                        log.warn("语义搜索降级为进程内索引: queryText='{}', 命中 {} 条", queryText, results.size());
+                        return CompletableFuture.completedFuture(new SemanticSearchVO(results, false, null));
+                    }
+                    return keywordFallback(queryText, k, timedOut ? "向量检索超时" : "向量检索不可用", null);
+                })
+                .thenCompose(Function.identity());
+    }
+
+    /**
+     * 降级为 title/tags 的 BM25 关键词搜索（与 /search/tracks 的 multi_match 一致）
+     *
+     * @param keywordLeg 已预取的关键词请求，为 null 时在此发起
+     */
+    private CompletableFuture<SemanticSearchVO> keywordFallback(String queryText, int k, String reason,
+                                                                CompletableFuture<SearchResponse<TrackDoc>> keywordLeg) {
+        if (!semanticProperties.isKeywordFallback()) {
+            recordOutcome(OUTCOME_EMPTY);
+            return CompletableFuture.completedFuture(new SemanticSearchVO(List.of(), true, reason));
+        }
+        var leg = keywordLeg != null ? keywordLeg : keywordSearch(queryText, k);
+        return leg.handle((response, e) -> {
+            if (e != null) {
+                log.error("关键词降级搜索异常: queryText='{}', error={}", queryText, unwrap(e).getMessage(), e);
+                recordOutcome(OUTCOME_EMPTY);
+                return new SemanticSearchVO(List.of(), true, reason);
             }
+            List<TrackDoc> results = collapseDuplicates(response.hits().hits().stream()
+                    .map(Hit::source)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList()));
+
+            recordOutcome(OUTCOME_KEYWORD_FALLBACK);
+            log.warn("语义搜索降级为关键词搜索: queryText='{}', reason={}, 命中 {} 条", queryText, reason, results.size());
+            return new SemanticSearchVO(results, true, reason);
+        });
+    }
+
+    /**
+     * 发起关键词搜索请求
+     * 返回传输层的原始 future，cancel 会中止底层 HTTP 请求（只释放连接，ES 端的查询仍会执行完）
+     */
+    private CompletableFuture<SearchResponse<TrackDoc>> keywordSearch(String queryText, int k) {
+        return withClientDeadline(elasticsearchAsyncClient.search(s -> s
+                .index(indexProperties.getReadAlias())
+                .query(q -> q.bool(b -> b
+                        .filter(f -> f.term(t -> t.field("status").value(STATUS_PUBLISHED)))
+                        .must(m -> m.multiMatch(mm -> mm
+                                .fields("title", "tags")
+                                .query(queryText)))))
+                .source(src -> src.filter(sf -> sf.excludes(FIELD_AUDIO_VECTOR, FIELD_FILE_VECTORS)))
+                .timeout(semanticProperties.getFallbackSearchMillis() + "ms")
+                .size(k),
+                TrackDoc.class
+        ), semanticProperties.getFallbackSearchMillis());
+    }
+
+    /**
+     * 超过 timeoutMillis（加少量余量）仍未返回时取消请求，以 CancellationException 失败
+     *
+     * @param request 传输层的原始 future（cancel 会中止底层 HTTP 请求）
+     */
+    private <T> CompletableFuture<T> withClientDeadline(CompletableFuture<T> request, long timeoutMillis) {
+        CompletableFuture.delayedExecutor(timeoutMillis + CLIENT_DEADLINE_GRACE_MILLIS, TimeUnit.MILLISECONDS)
+                .execute(() -> request.cancel(true));
+        return request;
+    }
+
+    /**
+     * 向量 kNN 子句：作品级 audioVector（SINGLE）与分轨 fileVectors.vector（PACK）
+     * 每个文档的向量只存在于其中一个字段，两路结果按相似度统一排序，不会重复计分
+     */
+    private List<KnnQuery> knnClauses(List<Float> queryVector, int k, Query filter) {
+        return List.of(
+                KnnQuery.of(knn -> knn
+                        .field(FIELD_AUDIO_VECTOR)
+                        .queryVector(queryVector)
+                        .k(k)
+                        .numCandidates(k * 10)
+                        .filter(filter)),
+                KnnQuery.of(knn -> knn
+                        .field(FIELD_FILE_VECTORS + ".vector")
+                        .queryVector(queryVector)
+                        .k(k)
+                        .numCandidates(k * 10)
+                        .filter(filter)));
+    }
+
+    /**
+     * k 超出 [1, MAX_K] 时拒绝（否则 ES 拒绝 kNN 请求，或被当作失败降级为关键词搜索）
+     */
+    private void checkK(int k) {
+        if (k < 1 || k > MAX_K) {
+            throw new BizException(ResultCode.PARAM_ERROR, "k 必须在 1 ~ " + MAX_K + " 之间");
         }
+    }
 
-        Collections.sort(keys);
-        Collections.sort(genres);
+    /**
+     * 剩余预算（毫秒），不低于 minSearchMillis
+     */
+    private long remainingMillis(long deadline) {
+        long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+        return Math.max(remaining, semanticProperties.getMinSearchMillis());
+    }
+
+    /**
+     * 记录语义搜索结果来源，降级率 = keyword_fallback / 全部
+     */
+    private void recordOutcome(String outcome) {
+        meterRegistry.counter(METRIC_SEMANTIC_REQUESTS, "outcome", outcome).increment();
+    }
 
-        Map<String, Object> result = new LinkedHashMap<>();
-        result.put("musicalKeys", keys);
-        result.put("genres", genres);
+    private float[] toFloatArray(List<Float> vector) {
+        float[] result = new float[vector.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = vector.get(i);
+        }
         return result;
     }
 
-    // ======================== 语义搜索（kNN） ========================
+    // ======================== 相似作品（More like this） ========================
 
     @Override
-    public List<TrackDoc> semanticSearch(String queryText, int k) {
-        log.info("语义搜索: queryText='{}', k={}", queryText, k);
+    public CompletableFuture<List<TrackDoc>> findSimilar(Long trackId, int k) {
+        checkK(k);
+        var cached = similarTrackCache.get(trackId, k);
+        if (cached != null) {
+            log.debug("相似作品命中缓存: trackId={}, k={}", trackId, k);
+            return CompletableFuture.completedFuture(cached);
+        }
 
-        // 1. 调用 Python 分析服务，将文本转换为 CLAP 向量
-        var embedResponse = analysisClient.embedText(new TextEmbedRequest(queryText));
-        List<Float> queryVector = embedResponse.vector();
+        // 1. 读取源作品已存储的向量（无需调用 Python 分析服务）
+        return elasticsearchAsyncClient.get(g -> g
+                        .index(indexProperties.getReadAlias())
+                        .id(String.valueOf(trackId)),
+                TrackDoc.class
+        ).thenCompose(got -> {
+            var source = got.source();
+            if (!got.found() || source == null) {
+                throw new BizException(ResultCode.TRACK_NOT_FOUND, "作品不存在或未上架: id=" + trackId);
+            }
+            // PACK 使用分轨向量质心
+            float[] vector = source.trackVector();
+            if (vector == null || vector.length == 0) {
+                log.info("源作品尚无音频向量，无法推荐相似作品: trackId={}", trackId);
+                return CompletableFuture.completedFuture(List.<TrackDoc>of());
+            }
 
-        if (queryVector == null || queryVector.isEmpty()) {
-            log.warn("文本嵌入返回空向量: queryText='{}'", queryText);
-            return List.of();
-        }
+            List<Float> queryVector = new ArrayList<>(vector.length);
+            for (float v : vector) {
+                queryVector.add(v);
+            }
 
-        log.debug("文本嵌入完成: dims={}", queryVector.size());
-
-        // 2. 使用 ES 8.x kNN 搜索
-        try {
-            SearchResponse<TrackDoc> response = elasticsearchClient.search(s -> s
-                    .index(INDEX_NAME)
-                    .knn(knn -> knn
-                            .field("audioVector")
-                            .queryVector(queryVector)
-                            .k(k)
-                            .numCandidates(k * 10)
-                            .filter(f -> f.term(t -> t.field("status").value(STATUS_PUBLISHED)))
-                    )
-                    .size(k),
+            // 2. kNN：仅已上架作品，排除源作品本身及其重复上传；结果不回传向量字段
+            var sourceGroup = source.getDuplicateGroup();
+            var filter = Query.of(f -> f.bool(b -> {
+                b.filter(ff -> ff.term(t -> t.field("status").value(STATUS_PUBLISHED)))
+                        .mustNot(mn -> mn.ids(ids -> ids.values(String.valueOf(trackId))));
+                if (sourceGroup != null && nearDuplicateProperties.isEnabled()) {
+                    b.mustNot(mn -> mn.term(t -> t.field(FIELD_DUPLICATE_GROUP).value(sourceGroup)));
+                }
+                return b;
+            }));
+            return elasticsearchAsyncClient.search(s -> s
+                            .index(indexProperties.getReadAlias())
+                            .knn(knnClauses(queryVector, k, filter))
+                            .source(src -> src.filter(sf -> sf.excludes(FIELD_AUDIO_VECTOR, FIELD_FILE_VECTORS)))
+                            .size(k),
                     TrackDoc.class
-            );
+            ).thenApply(response -> {
+                List<TrackDoc> results = collapseDuplicates(response.hits().hits().stream()
+                        .map(Hit::source)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toList()));
+
+                similarTrackCache.put(trackId, k, results);
+                log.info("相似作品查询完成: trackId={}, k={}, 命中 {} 条", trackId, k, results.size());
+                return results;
+            }).exceptionally(e -> {
+                log.error("ES 相似作品 kNN 异常: trackId={}, error={}", trackId, unwrap(e).getMessage(), e);
+                return List.of();
+            });
+        });
+    }
 
-            List<TrackDoc> results = response.hits().hits().stream()
+    // ======================== 近似重复 ========================
+
+    @Override
+    public CompletableFuture<List<DuplicateTrackVO>> findDuplicates(Long trackId) {
+        var matches = nearDuplicateIndex.duplicatesOf(trackId);
+        if (matches.isEmpty()) {
+            return CompletableFuture.completedFuture(List.of());
+        }
+        var ids = matches.stream().map(m -> String.valueOf(m.trackId())).toList();
+
+        // 签名索引含草稿作品，对外只返回已上架的
+        return elasticsearchAsyncClient.search(s -> s
+                        .index(indexProperties.getReadAlias())
+                        .query(q -> q.bool(b -> b
+                                .filter(f -> f.ids(i -> i.values(ids)))
+                                .filter(f -> f.term(t -> t.field("status").value(STATUS_PUBLISHED)))))
+                        .source(src -> src.filter(sf -> sf.excludes(FIELD_AUDIO_VECTOR, FIELD_FILE_VECTORS)))
+                        .size(ids.size()),
+                TrackDoc.class
+        ).thenApply(response -> {
+            Map<Long, TrackDoc> docs = response.hits().hits().stream()
                     .map(Hit::source)
                     .filter(Objects::nonNull)
-                    .collect(Collectors.toList());
-
-            log.info("语义搜索完成: queryText='{}', 命中 {} 条", queryText, results.size());
+                    .collect(Collectors.toMap(TrackDoc::getId, Function.identity(), (a, b) -> a));
+            List<DuplicateTrackVO> results = matches.stream()
+                    .filter(m -> docs.containsKey(m.trackId()))
+                    .map(m -> new DuplicateTrackVO(docs.get(m.trackId()), m.similarity()))
+                    .toList();
+            log.info("近似重复查询完成: trackId={}, 候选 {} 条, 已上架 {} 条", trackId, matches.size(), results.size());
             return results;
+        });
+    }
 
-        } catch (Exception e) {
-            log.error("ES kNN 搜索异常: queryText='{}', error={}", queryText, e.getMessage(), e);
-            return List.of();
+    /**
+     * 同一重复组只保留排序最靠前的一条（未写入 duplicateGroup 的旧文档按自身 ID 成组）
+     */
+    private List<TrackDoc> collapseDuplicates(List<TrackDoc> docs) {
+        if (!nearDuplicateProperties.isEnabled()) {
+            return docs;
+        }
+        Set<Long> groups = new HashSet<>();
+        return docs.stream()
+                .filter(doc -> groups.add(doc.getDuplicateGroup() != null ? doc.getDuplicateGroup() : doc.getId()))
+                .collect(Collectors.toList());
+    }
+
+    // ======================== 搜索联想 ========================
+
+    @Override
+    public CompletableFuture<List<SuggestionVO>> suggest(String prefix) {
+        if (StrUtil.isBlank(prefix)) {
+            return CompletableFuture.completedFuture(List.of());
         }
+        // 与 standard 分析器一致做小写归一，保证 "Dark" / "dark" 共用缓存条目
+        var normalized = StrUtil.subPre(prefix.trim().toLowerCase(Locale.ROOT), MAX_PREFIX_LENGTH);
+
+        var cached = suggestionCache.get(normalized);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        return elasticsearchAsyncClient.search(s -> s
+                        .index(indexProperties.getReadAlias())
+                        .source(src -> src.filter(sf -> sf.includes("id", "title", "producerName", "coverId")))
+                        .suggest(su -> su.suggesters(SUGGESTER_NAME, fs -> fs
+                                .prefix(normalized)
+                                .completion(c -> c
+                                        .field("suggest")
+                                        .size(SUGGEST_SIZE)
+                                        .skipDuplicates(true)
+                                        .contexts("status", List.of(CompletionContext.of(cc -> cc
+                                                .context(ctx -> ctx.category(String.valueOf(STATUS_PUBLISHED))))))))),
+                TrackDoc.class
+        ).thenApply(response -> {
+            List<SuggestionVO> results = new ArrayList<>();
+            var suggestions = response.suggest().get(SUGGESTER_NAME);
+            if (suggestions != null) {
+                for (var suggestion : suggestions) {
+                    for (var option : suggestion.completion().options()) {
+                        var doc = option.source();
+                        results.add(new SuggestionVO(
+                                option.text(),
+                                doc != null ? doc.getId() : Long.valueOf(option.id()),
+                                doc != null ? doc.getTitle() : null,
+                                doc != null ? doc.getProducerName() : null,
+                                doc != null ? doc.getCoverId() : null));
+                    }
+                }
+            }
+
+            suggestionCache.put(normalized, results);
+            log.debug("搜索联想完成: prefix='{}', 命中 {} 条", normalized, results.size());
+            return results;
+        }).exceptionally(e -> {
+            log.error("ES 搜索联想异常: prefix='{}', error={}", normalized, unwrap(e).getMessage(), e);
+            return List.of();
+        });
+    }
+
+    /**
+     * 取出 CompletableFuture 链路包装的原始异常
+     */
+    private static Throwable unwrap(Throwable e) {
+        return e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+    }
+
+    private record PriceRange(String key, Double from, Double to) {
     }
 }
@@ -0,0 +1,379 @@
+package com.soundvibe.search.vector;
+
+import com.soundvibe.search.config.VectorIndexProperties;
+import com.soundvibe.search.document.TrackDoc;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * 进程内向量索引（暴力检索，堆外连续 float32 存储）
+ * 保存所有已上架作品的 CLAP 向量，在 ES 不可用时为语义搜索兜底，也可作为低延迟的第一阶段
+ * <p>
+ * 存储设计：
+ * - 向量按槽位连续存放在若干块 direct ByteBuffer 中（每块 CHUNK_VECTORS 个向量），不占用堆
+ * - 写入时 L2 归一化，检索时点积即余弦相似度（与 ES dense_vector 的 cosine 一致）
+ * - 删除采用“末尾槽位搬移”，存储始终保持紧凑，检索只需线性扫描 [0, size)
+ * <p>
+ * 过滤语义：只收录 status=1 的作品，因此与 ES kNN 的 status 过滤等价
+ * PACK 作品只收录分轨向量的质心，召回粒度为作品级（ES nested kNN 为分轨级）
+ *
+ * @author SoundVibe Team
+ */
+@Slf4j
+@Component
+public class InMemoryVectorIndex {
+
+    /**
+     * 每块堆外存储容纳的向量数（512 维时每块 32MB）
+     */
+    private static final int CHUNK_VECTORS = 16_384;
+
+    private static final int STATUS_PUBLISHED = 1;
+
+    private final boolean enabled;
+    private final int dims;
+    private final int maxVectors;
+    private final int vectorBytes;
+
+    private final List<ByteBuffer> chunks = new ArrayList<>();
+    private final Map<Long, Integer> slotById = new HashMap<>();
+    private long[] ids = new long[1024];
+    private TrackDoc[] docs = new TrackDoc[1024];
+    private long[] writtenAt = new long[1024];
+    private int size;
+
+    /**
+     * 写入序号（每次 upsert 递增），全量刷新据此区分刷新开始后才写入的作品
+     */
+    private long writeSequence;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * 预热完成后置为 true，此前内存中的数据不完整，不应对外提供结果
+     */
+    private volatile boolean ready;
+
+    public InMemoryVectorIndex(VectorIndexProperties properties) {
+        this.enabled = properties.isEnabled();
+        this.dims = properties.getDims();
+        this.maxVectors = properties.getMaxVectors();
+        this.vectorBytes = dims * Float.BYTES;
+        log.info("进程内向量索引: enabled={}, dims={}, maxVectors={}, simd={}",
+                enabled, dims, maxVectors, VectorOps.SIMD_AVAILABLE);
+        if (enabled && !VectorOps.SIMD_AVAILABLE) {
+            log.warn("JVM 未加载 jdk.incubator.vector，向量计算退化为标量实现；"
+                    + "启动参数须包含 --add-modules jdk.incubator.vector（java -jar 时可经 JDK_JAVA_OPTIONS 传入）");
+        }
+    }
+
+    /**
+     * 写入或覆盖一个作品的向量
+     * 非上架状态或无向量的作品会被移出索引
+     */
+    public void upsert(TrackDoc trackDoc) {
+        if (!enabled || trackDoc == null || trackDoc.getId() == null) {
+            return;
+        }
+        // PACK 取分轨向量质心
+        float[] vector = trackDoc.trackVector();
+        if (!Objects.equals(trackDoc.getStatus(), STATUS_PUBLISHED) || vector == null) {
+            remove(trackDoc.getId());
+            return;
+        }
+        if (vector.length != dims) {
+            log.warn("向量维度不匹配，跳过内存索引: trackId={}, dims={}", trackDoc.getId(), vector.length);
+            return;
+        }
+
+        float[] normalized = vector.clone();
+        if (!VectorOps.normalize(normalized)) {
+            remove(trackDoc.getId());
+            return;
+        }
+        var meta = withoutVector(trackDoc);
+
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotById.get(trackDoc.getId());
+            if (slot == null) {
+                if (size >= maxVectors) {
+                    log.warn("进程内向量索引已满（{}），跳过: trackId={}", maxVectors, trackDoc.getId());
+                    return;
+                }
+                slot = size++;
+                ensureCapacity(size);
+                slotById.put(trackDoc.getId(), slot);
+            }
+            writeVector(slot, normalized);
+            ids[slot] = trackDoc.getId();
+            docs[slot] = meta;
+            writtenAt[slot] = ++writeSequence;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 就地修改已收录作品的元数据副本（如价格），向量不变
+     * 作品未收录时忽略
+     */
+    public void updateMetadata(Long trackId, Consumer<TrackDoc> patch) {
+        if (!enabled || trackId == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotById.get(trackId);
+            if (slot != null) {
+                // 替换为新副本，已返回给调用方的结果对象不受影响
+                var copy = withoutVector(docs[slot]);
+                patch.accept(copy);
+                docs[slot] = copy;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 移除一个作品（末尾槽位搬移到空出的位置）
+     */
+    public void remove(Long trackId) {
+        if (!enabled || trackId == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotById.remove(trackId);
+            if (slot == null) {
+                return;
+            }
+            int last = --size;
+            if (slot != last) {
+                copySlot(last, slot);
+                ids[slot] = ids[last];
+                docs[slot] = docs[last];
+                writtenAt[slot] = writtenAt[last];
+                slotById.put(ids[slot], slot);
+            }
+            docs[last] = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 暴力检索 top-k
+     *
+     * @param queryVector 查询向量（无需预先归一化）
+     * @param k           返回数量
+     * @return 按余弦相似度降序排列的作品（不含向量字段）
+     */
+    public List<TrackDoc> search(float[] queryVector, int k) {
+        if (queryVector == null || queryVector.length != dims || k <= 0) {
+            return List.of();
+        }
+        float[] query = queryVector.clone();
+        if (!VectorOps.normalize(query)) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            int limit = Math.min(k, size);
+            if (limit == 0) {
+                return List.of();
+            }
+            // 小顶堆保存当前 top-k，堆顶为其中最低分
+            float[] heapScores = new float[limit];
+            int[] heapSlots = new int[limit];
+            int heapSize = 0;
+
+            for (int slot = 0; slot < size; slot++) {
+                float score = VectorOps.dot(chunks.get(slot / CHUNK_VECTORS), (slot % CHUNK_VECTORS) * vectorBytes, query);
+                if (heapSize < limit) {
+                    heapScores[heapSize] = score;
+                    heapSlots[heapSize] = slot;
+                    siftUp(heapScores, heapSlots, heapSize++);
+                } else if (score > heapScores[0]) {
+                    heapScores[0] = score;
+                    heapSlots[0] = slot;
+                    siftDown(heapScores, heapSlots, heapSize);
+                }
+            }
+
+            // 依次弹出堆顶得到升序，倒序填充为降序
+            TrackDoc[] ordered = new TrackDoc[heapSize];
+            for (int i = heapSize - 1; i >= 0; i--) {
+                ordered[i] = docs[heapSlots[0]];
+                heapScores[0] = heapScores[i];
+                heapSlots[0] = heapSlots[i];
+                siftDown(heapScores, heapSlots, i);
+            }
+            return Arrays.asList(ordered);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 当前写入序号，全量刷新开始前记录
+     */
+    public long writeSequence() {
+        lock.readLock().lock();
+        try {
+            return writeSequence;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 移除不在 keep 中、且最后一次写入不晚于 sequence 的作品
+     * 全量刷新读完 ES 后调用：ES 中已不存在（删除 / 下架消息丢失）的作品被清理，
+     * 刷新期间由增量同步新写入的作品保留
+     *
+     * @param keep     本次全量读取到的作品 ID
+     * @param sequence 刷新开始前的写入序号
+     * @return 移除的作品数
+     */
+    public int retainOnly(Set<Long> keep, long sequence) {
+        if (!enabled) {
+            return 0;
+        }
+        lock.writeLock().lock();
+        try {
+            List<Long> stale = new ArrayList<>();
+            for (int slot = 0; slot < size; slot++) {
+                if (writtenAt[slot] <= sequence && !keep.contains(ids[slot])) {
+                    stale.add(ids[slot]);
+                }
+            }
+            // 写锁可重入，逐个按末尾槽位搬移移除
+            stale.forEach(this::remove);
+            return stale.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    public void markReady() {
+        this.ready = true;
+        log.info("进程内向量索引就绪: size={}", size());
+    }
+
+    // ======================== 存储操作 ========================
+
+    private void ensureCapacity(int required) {
+        while (chunks.size() * CHUNK_VECTORS < required) {
+            chunks.add(ByteBuffer.allocateDirect(CHUNK_VECTORS * vectorBytes).order(ByteOrder.nativeOrder()));
+        }
+        if (ids.length < required) {
+            int newLength = Math.min(Math.max(ids.length * 2, required), maxVectors);
+            ids = Arrays.copyOf(ids, newLength);
+            docs = Arrays.copyOf(docs, newLength);
+            writtenAt = Arrays.copyOf(writtenAt, newLength);
+        }
+    }
+
+    private void writeVector(int slot, float[] vector) {
+        var chunk = chunks.get(slot / CHUNK_VECTORS);
+        int offset = (slot % CHUNK_VECTORS) * vectorBytes;
+        for (int i = 0; i < dims; i++) {
+            chunk.putFloat(offset + i * Float.BYTES, vector[i]);
+        }
+    }
+
+    private void copySlot(int from, int to) {
+        var src = chunks.get(from / CHUNK_VECTORS);
+        var dst = chunks.get(to / CHUNK_VECTORS);
+        int srcOffset = (from % CHUNK_VECTORS) * vectorBytes;
+        int dstOffset = (to % CHUNK_VECTORS) * vectorBytes;
+        dst.put(dstOffset, src, srcOffset, vectorBytes);
+    }
+
+    /**
+     * 元数据副本（去掉向量，避免在堆上重复保存 512 维数组）
+     */
+    private TrackDoc withoutVector(TrackDoc doc) {
+        return TrackDoc.builder()
+                .id(doc.getId())
+                .title(doc.getTitle())
+                .trackType(doc.getTrackType())
+                .producerId(doc.getProducerId())
+                .producerName(doc.getProducerName())
+                .coverId(doc.getCoverId())
+                .bpmValues(doc.getBpmValues())
+                .musicalKeys(doc.getMusicalKeys())
+                .genres(doc.getGenres())
+                .durations(doc.getDurations())
+                .tags(doc.getTags())
+                .price(doc.getPrice())
+                .status(doc.getStatus())
+                .duplicateOf(doc.getDuplicateOf())
+                .duplicateGroup(doc.getDuplicateGroup())
+                .build();
+    }
+
+    // ======================== 小顶堆 ========================
+
+    private static void siftUp(float[] scores, int[] slots, int index) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (scores[parent] <= scores[index]) {
+                break;
+            }
+            swap(scores, slots, parent, index);
+            index = parent;
+        }
+    }
+
+    private static void siftDown(float[] scores, int[] slots, int heapSize) {
+        int index = 0;
+        while (true) {
+            int left = 2 * index + 1;
+            if (left >= heapSize) {
+                break;
+            }
+            int smallest = left;
+            int right = left + 1;
+            if (right < heapSize && scores[right] < scores[left]) {
+                smallest = right;
+            }
+            if (scores[index] <= scores[smallest]) {
+                break;
+            }
+            swap(scores, slots, index, smallest);
+            index = smallest;
+        }
+    }
+
+    private static void swap(float[] scores, int[] slots, int a, int b) {
+        float score = scores[a];
+        scores[a] = scores[b];
+        scores[b] = score;
+        int slot = slots[a];
+        slots[a] = slots[b];
+        slots[b] = slot;
+    }
+}
@@ -0,0 +1,304 @@
+package com.soundvibe.search.vector;
+
+import com.soundvibe.search.config.NearDuplicateProperties;
+import com.soundvibe.search.config.VectorIndexProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 近似重复作品索引（随机超平面 LSH）
+ * 同一段 loop 换个标题重新上传时，CLAP 向量几乎相同，据此在同步写入前识别重复作品
+ * <p>
+ * 签名：向量与 bands * rowsPerBand 个随机高斯超平面做点积，取符号位得到位签名（SimHash）；
+ * 两个向量签名的汉明距离 h 服从 P(位不同) = θ / π，因此 cos(π * h / bits) 即余弦相似度的估计
+ * <p>
+ * 检索：签名切成 bands 段，每段的位作为一张哈希表的桶 key，任一段完全相同即为候选，
+ * 再按全签名汉明距离估计相似度并按阈值过滤。默认 20 段 x 24 位时，
+ * 余弦 0.98 的重复对召回约 99%，余弦 0.5 的无关作品进入候选的概率约 0.1%
+ * <p>
+ * 只保存签名（默认配置下每个作品 64 字节）与所属重复组，不保存原向量
+ *
+ * @author SoundVibe Team
+ */
+@Slf4j
+@Component
+public class NearDuplicateIndex {
+
+    private final boolean enabled;
+    private final int dims;
+    private final int bands;
+    private final int rowsPerBand;
+    private final int bits;
+    private final double similarity;
+
+    /**
+     * 随机超平面矩阵，按维度优先存放（[dims][bits]）：
+     * 投影时逐维度把 v[j] * 第 j 行累加到全部位上，内层循环连续访问，可被 JIT 自动向量化
+     */
+    private final float[] hyperplanes;
+
+    private final Map<Long, long[]> sketchById = new HashMap<>();
+    private final Map<Long, Long> groupById = new HashMap<>();
+    private final Map<Long, Long> writtenAtById = new HashMap<>();
+
+    /**
+     * 写入序号（每次 upsert 递增），全量刷新据此区分刷新开始后才写入的作品
+     */
+    private long writeSequence;
+    private final List<Map<Integer, Set<Long>>> tables;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public NearDuplicateIndex(NearDuplicateProperties properties, VectorIndexProperties vectorIndexProperties) {
+        this.enabled = properties.isEnabled();
+        this.dims = vectorIndexProperties.getDims();
+        this.bands = properties.getBands();
+        this.rowsPerBand = properties.getRowsPerBand();
+        this.bits = bands * rowsPerBand;
+        this.similarity = properties.getSimilarity();
+        if (rowsPerBand <= 0 || rowsPerBand > Integer.SIZE) {
+            throw new IllegalArgumentException("search.near-duplicate.rows-per-band 取值范围为 1-32: " + rowsPerBand);
+        }
+
+        this.hyperplanes = new float[enabled ? dims * bits : 0];
+        var random = new SplittableRandom(properties.getSeed());
+        for (int i = 0; i < hyperplanes.length; i++) {
+            hyperplanes[i] = (float) random.nextGaussian();
+        }
+        this.tables = new ArrayList<>(bands);
+        for (int b = 0; b < bands; b++) {
+            tables.add(new HashMap<>());
+        }
+        log.info("近似重复索引: enabled={}, bands={}, rowsPerBand={}, similarity={}",
+                enabled, bands, rowsPerBand, similarity);
+    }
+
+    /**
+     * 查找与给定向量近似重复的已收录作品（不修改索引）
+     *
+     * @param trackId 作品自身 ID（结果中排除）
+     * @param vector  作品级向量（无需归一化）
+     * @return 估计相似度不低于阈值的作品，按相似度降序
+     */
+    public List<Match> findDuplicates(Long trackId, float[] vector) {
+        if (!enabled || vector == null || vector.length != dims) {
+            return List.of();
+        }
+        var sketch = sketch(vector);
+        lock.readLock().lock();
+        try {
+            return matches(sketch, trackId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 查找已收录作品的近似重复作品
+     *
+     * @return 按相似度降序的重复作品；作品未收录时为空
+     */
+    public List<Match> duplicatesOf(Long trackId) {
+        if (!enabled || trackId == null) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            var sketch = sketchById.get(trackId);
+            return sketch != null ? matches(sketch, trackId) : List.of();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 写入或覆盖一个作品的签名，自成一组
+     */
+    public void upsert(Long trackId, float[] vector) {
+        upsert(trackId, vector, null);
+    }
+
+    /**
+     * 写入或覆盖一个作品的签名及其重复组；向量为空时移出索引
+     *
+     * @param group 作品的 duplicateGroup（为 null 时自成一组）
+     */
+    public void upsert(Long trackId, float[] vector, Long group) {
+        if (!enabled || trackId == null) {
+            return;
+        }
+        if (vector == null || vector.length != dims) {
+            remove(trackId);
+            return;
+        }
+        var sketch = sketch(vector);
+        lock.writeLock().lock();
+        try {
+            var previous = sketchById.put(trackId, sketch);
+            if (previous != null) {
+                unlink(trackId, previous);
+            }
+            groupById.put(trackId, group != null ? group : trackId);
+            writtenAtById.put(trackId, ++writeSequence);
+            for (int b = 0; b < bands; b++) {
+                tables.get(b).computeIfAbsent(bandKey(sketch, b), key -> new HashSet<>()).add(trackId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long trackId) {
+        if (!enabled || trackId == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            var previous = sketchById.remove(trackId);
+            if (previous != null) {
+                unlink(trackId, previous);
+            }
+            groupById.remove(trackId);
+            writtenAtById.remove(trackId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 当前写入序号，全量刷新开始前记录
+     */
+    public long writeSequence() {
+        lock.readLock().lock();
+        try {
+            return writeSequence;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 移除不在 keep 中、且最后一次写入不晚于 sequence 的作品（语义同 InMemoryVectorIndex.retainOnly）
+     *
+     * @return 移除的作品数
+     */
+    public int retainOnly(Set<Long> keep, long sequence) {
+        if (!enabled) {
+            return 0;
+        }
+        lock.writeLock().lock();
+        try {
+            List<Long> stale = new ArrayList<>();
+            writtenAtById.forEach((trackId, writtenAt) -> {
+                if (writtenAt <= sequence && !keep.contains(trackId)) {
+                    stale.add(trackId);
+                }
+            });
+            stale.forEach(this::remove);
+            return stale.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return sketchById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ======================== 签名与检索 ========================
+
+    /**
+     * 位签名：第 i 位为向量与第 i 个超平面点积的符号
+     */
+    private long[] sketch(float[] vector) {
+        var projections = new float[bits];
+        for (int j = 0; j < dims; j++) {
+            float value = vector[j];
+            int row = j * bits;
+            for (int i = 0; i < bits; i++) {
+                projections[i] += value * hyperplanes[row + i];
+            }
+        }
+        var sketch = new long[(bits + Long.SIZE - 1) / Long.SIZE];
+        for (int i = 0; i < bits; i++) {
+            if (projections[i] >= 0) {
+                sketch[i >>> 6] |= 1L << (i & 63);
+            }
+        }
+        return sketch;
+    }
+
+    /**
+     * 第 band 段的 rowsPerBand 位（可能跨越两个 long）
+     */
+    private int bandKey(long[] sketch, int band) {
+        int from = band * rowsPerBand;
+        long key = 0;
+        for (int i = 0; i < rowsPerBand; i++) {
+            int bit = from + i;
+            key |= ((sketch[bit >>> 6] >>> (bit & 63)) & 1L) << i;
+        }
+        return (int) key;
+    }
+
+    /**
+     * 调用方持有读锁或写锁
+     */
+    private List<Match> matches(long[] sketch, Long excludedId) {
+        Set<Long> candidates = new HashSet<>();
+        for (int b = 0; b < bands; b++) {
+            var bucket = tables.get(b).get(bandKey(sketch, b));
+            if (bucket != null) {
+                candidates.addAll(bucket);
+            }
+        }
+        candidates.remove(excludedId);
+
+        List<Match> matches = new ArrayList<>();
+        for (var candidate : candidates) {
+            double estimated = estimateCosine(sketch, sketchById.get(candidate));
+            if (estimated >= similarity) {
+                matches.add(new Match(candidate, estimated, groupById.getOrDefault(candidate, candidate)));
+            }
+        }
+        matches.sort(Comparator.comparingDouble(Match::similarity).reversed().thenComparingLong(Match::trackId));
+        return matches;
+    }
+
+    private double estimateCosine(long[] a, long[] b) {
+        int hamming = 0;
+        for (int i = 0; i < a.length; i++) {
+            hamming += Long.bitCount(a[i] ^ b[i]);
+        }
+        return Math.cos(Math.PI * hamming / bits);
+    }
+
+    private void unlink(Long trackId, long[] sketch) {
+        for (int b = 0; b < bands; b++) {
+            var table = tables.get(b);
+            int key = bandKey(sketch, b);
+            var bucket = table.get(key);
+            if (bucket != null && bucket.remove(trackId) && bucket.isEmpty()) {
+                table.remove(key);
+            }
+        }
+    }
+
+    /**
+     * 近似重复命中
+     *
+     * @param trackId    重复作品 ID
+     * @param similarity 由签名汉明距离估计的余弦相似度
+     * @param group      重复作品所属的重复组（写入时记录的 duplicateGroup）
+     */
+    public record Match(long trackId, double similarity, long group) {
+    }
+}
@@ -0,0 +1,42 @@
+package com.soundvibe.search.vector;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * 基于 JDK Vector API 的 SIMD 点积
+ * 仅在运行时加载了 jdk.incubator.vector 模块时由 VectorOps 调用，否则本类不会被加载
+ *
+ * @author SoundVibe Team
+ */
+final class SimdVectorOps {
+
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+
+    private SimdVectorOps() {
+    }
+
+    static int laneCount() {
+        return SPECIES.length();
+    }
+
+    static float dot(ByteBuffer storage, int byteOffset, float[] query) {
+        var acc = FloatVector.zero(SPECIES);
+        int i = 0;
+        int bound = SPECIES.loopBound(query.length);
+        for (; i < bound; i += SPECIES.length()) {
+            var stored = FloatVector.fromByteBuffer(SPECIES, storage, byteOffset + i * Float.BYTES, ByteOrder.nativeOrder());
+            var q = FloatVector.fromArray(SPECIES, query, i);
+            acc = stored.fma(q, acc);
+        }
+        float sum = acc.reduceLanes(VectorOperators.ADD);
+        for (; i < query.length; i++) {
+            sum += storage.getFloat(byteOffset + i * Float.BYTES) * query[i];
+        }
+        return sum;
+    }
+}
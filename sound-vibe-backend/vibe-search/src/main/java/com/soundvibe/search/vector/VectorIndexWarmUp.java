@@ -0,0 +1,166 @@
+package com.soundvibe.search.vector;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.SortOrder;
+import co.elastic.clients.elasticsearch.core.search.Hit;
+import com.soundvibe.search.config.NearDuplicateProperties;
+import com.soundvibe.search.config.SearchIndexProperties;
+import com.soundvibe.search.config.VectorIndexProperties;
+import com.soundvibe.search.document.TrackDoc;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 进程内向量索引预热
+ * 服务启动完成后在后台线程从 ES 读别名 scroll 全部带向量的作品，写入 InMemoryVectorIndex（只收录已上架的）
+ * 与 NearDuplicateIndex（含草稿）
+ * 预热期间 TrackSyncListener 的增量写入照常进行，两者均为 upsert，互不冲突
+ * <p>
+ * 启动时 ES 不可用正是内存兜底要覆盖的场景：预热失败后按指数退避重试直到成功，
+ * 成功后按 refreshIntervalMillis 定期全量刷新，补齐 ES 或消息队列故障期间遗漏的增量：
+ * 写入 ES 中的全部作品后，移除本次未读到、且刷新开始后没有被增量同步写入过的作品（删除 / 下架消息丢失的情况）
+ *
+ * @author SoundVibe Team
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class VectorIndexWarmUp {
+
+    private static final int SCROLL_SIZE = 1000;
+    private static final String SCROLL_KEEP_ALIVE = "2m";
+
+    private final ElasticsearchClient elasticsearchClient;
+    private final InMemoryVectorIndex inMemoryVectorIndex;
+    private final NearDuplicateIndex nearDuplicateIndex;
+    private final VectorIndexProperties vectorIndexProperties;
+    private final NearDuplicateProperties nearDuplicateProperties;
+    private final SearchIndexProperties indexProperties;
+
+    /**
+     * 预热 / 刷新线程（单线程，重试与刷新串行执行）
+     */
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        var thread = new Thread(r, "vector-index-warmup");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!vectorIndexProperties.isEnabled() && !nearDuplicateProperties.isEnabled()) {
+            return;
+        }
+        if (!vectorIndexProperties.isWarmUpOnStartup()) {
+            inMemoryVectorIndex.markReady();
+            return;
+        }
+        scheduler.execute(() -> warmUpWithRetry(vectorIndexProperties.getWarmUpRetryInitialMillis()));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    // ======================== Private Methods ========================
+
+    /**
+     * 预热一次，失败时延迟 retryMillis 后重试（间隔翻倍，不超过上限）
+     */
+    private void warmUpWithRetry(long retryMillis) {
+        if (load()) {
+            inMemoryVectorIndex.markReady();
+            long refreshMillis = vectorIndexProperties.getRefreshIntervalMillis();
+            if (refreshMillis > 0) {
+                scheduler.scheduleWithFixedDelay(this::load, refreshMillis, refreshMillis, TimeUnit.MILLISECONDS);
+            }
+            return;
+        }
+        log.warn("进程内向量索引预热失败，{} ms 后重试（语义搜索兜底暂不可用）", retryMillis);
+        long nextRetryMillis = Math.min(retryMillis * 2, vectorIndexProperties.getWarmUpRetryMaxMillis());
+        scheduler.schedule(() -> warmUpWithRetry(nextRetryMillis), retryMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 从 ES scroll 全部带向量的作品写入内存索引，读完后移除 ES 中已不存在的作品
+     * 上架状态由 InMemoryVectorIndex.upsert 判断（非上架作品被移出），NearDuplicateIndex 收录全部
+     *
+     * @return 是否完整读完（未读完时不做移除）
+     */
+    private boolean load() {
+        long start = System.currentTimeMillis();
+        long vectorSequence = inMemoryVectorIndex.writeSequence();
+        long sketchSequence = nearDuplicateIndex.writeSequence();
+        Set<Long> loaded = new HashSet<>();
+        String scrollId = null;
+        try {
+            var response = elasticsearchClient.search(s -> s
+                            .index(indexProperties.getReadAlias())
+                            .query(q -> q.bool(b -> b
+                                    .filter(f -> f.bool(vb -> vb
+                                            .should(sh -> sh.exists(e -> e.field("audioVector")))
+                                            .should(sh -> sh.nested(n -> n
+                                                    .path("fileVectors")
+                                                    .query(nq -> nq.exists(e -> e.field("fileVectors.vector")))))
+                                            .minimumShouldMatch("1")))))
+                            .size(SCROLL_SIZE)
+                            .scroll(t -> t.time(SCROLL_KEEP_ALIVE))
+                            .sort(so -> so.doc(d -> d.order(SortOrder.Asc))),
+                    TrackDoc.class);
+            scrollId = response.scrollId();
+            List<Hit<TrackDoc>> hits = response.hits().hits();
+
+            while (hits != null && !hits.isEmpty()) {
+                for (var hit : hits) {
+                    var doc = hit.source();
+                    if (doc == null || doc.getId() == null) {
+                        continue;
+                    }
+                    inMemoryVectorIndex.upsert(doc);
+                    nearDuplicateIndex.upsert(doc.getId(), doc.trackVector(), doc.getDuplicateGroup());
+                    loaded.add(doc.getId());
+                }
+
+                final var currentScrollId = scrollId;
+                var next = elasticsearchClient.scroll(s -> s
+                                .scrollId(currentScrollId)
+                                .scroll(t -> t.time(SCROLL_KEEP_ALIVE)),
+                        TrackDoc.class);
+                scrollId = next.scrollId();
+                hits = next.hits().hits();
+            }
+
+            // 刷新开始前已收录、本次未读到的作品已从 ES 删除或不再带向量（增量消息丢失），移出
+            int removed = inMemoryVectorIndex.retainOnly(loaded, vectorSequence);
+            int removedSketches = nearDuplicateIndex.retainOnly(loaded, sketchSequence);
+            log.info("进程内向量索引加载完成: size={}, nearDuplicateSize={}, removed={}, removedSketches={}, 耗时 {} ms",
+                    inMemoryVectorIndex.size(), nearDuplicateIndex.size(), removed, removedSketches,
+                    System.currentTimeMillis() - start);
+            return true;
+        } catch (Exception e) {
+            log.error("进程内向量索引加载失败: error={}", e.getMessage(), e);
+            return false;
+        } finally {
+            if (scrollId != null) {
+                final var finalScrollId = scrollId;
+                try {
+                    elasticsearchClient.clearScroll(c -> c.scrollId(finalScrollId));
+                } catch (Exception e) {
+                    log.debug("清理 scroll 上下文失败: {}", e.getMessage());
+                }
+            }
+        }
+    }
+}
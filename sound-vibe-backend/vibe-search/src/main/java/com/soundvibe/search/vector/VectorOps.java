@@ -0,0 +1,116 @@
+package com.soundvibe.search.vector;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * 向量运算分发
+ * 启动参数包含 --add-modules jdk.incubator.vector 时走 SIMD 实现，否则退化为 4 路展开的标量循环
+ *
+ * @author SoundVibe Team
+ */
+public final class VectorOps {
+
+    /**
+     * 运行时是否可用 Vector API
+     */
+    public static final boolean SIMD_AVAILABLE =
+            ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+    private VectorOps() {
+    }
+
+    /**
+     * 计算堆外存储中的向量与查询向量的点积
+     *
+     * @param storage    堆外向量存储（native 字节序）
+     * @param byteOffset 向量起始字节偏移
+     * @param query      查询向量（长度即维度）
+     */
+    public static float dot(ByteBuffer storage, int byteOffset, float[] query) {
+        if (SIMD_AVAILABLE) {
+            return SimdVectorOps.dot(storage, byteOffset, query);
+        }
+        return scalarDot(storage, byteOffset, query);
+    }
+
+    static float scalarDot(ByteBuffer storage, int byteOffset, float[] query) {
+        float s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+        int i = 0;
+        int bound = query.length & ~3;
+        for (; i < bound; i += 4) {
+            int base = byteOffset + i * Float.BYTES;
+            s0 += storage.getFloat(base) * query[i];
+            s1 += storage.getFloat(base + 4) * query[i + 1];
+            s2 += storage.getFloat(base + 8) * query[i + 2];
+            s3 += storage.getFloat(base + 12) * query[i + 3];
+        }
+        float sum = s0 + s1 + s2 + s3;
+        for (; i < query.length; i++) {
+            sum += storage.getFloat(byteOffset + i * Float.BYTES) * query[i];
+        }
+        return sum;
+    }
+
+    /**
+     * L2 归一化（原地），归一化后点积即余弦相似度
+     *
+     * @return 原向量是否为非零向量
+     */
+    public static boolean normalize(float[] vector) {
+        double norm = 0;
+        for (float v : vector) {
+            norm += (double) v * v;
+        }
+        if (norm == 0) {
+            return false;
+        }
+        float inv = (float) (1.0 / Math.sqrt(norm));
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] *= inv;
+        }
+        return true;
+    }
+
+    /**
+     * 两个向量的余弦相似度（任一为零向量时返回 0）
+     */
+    public static double cosine(float[] a, float[] b) {
+        double dot = 0, normA = 0, normB = 0;
+        for (int i = 0; i < a.length; i++) {
+            dot += (double) a[i] * b[i];
+            normA += (double) a[i] * a[i];
+            normB += (double) b[i] * b[i];
+        }
+        if (normA == 0 || normB == 0) {
+            return 0;
+        }
+        return dot / Math.sqrt(normA * normB);
+    }
+
+    /**
+     * 多个向量归一化后的均值再归一化（作品级代表向量）
+     *
+     * @return 质心；输入为空或全为零向量时返回 null
+     */
+    public static float[] centroid(List<float[]> vectors) {
+        float[] sum = null;
+        for (float[] vector : vectors) {
+            if (vector == null) {
+                continue;
+            }
+            float[] normalized = vector.clone();
+            if (!normalize(normalized)) {
+                continue;
+            }
+            if (sum == null) {
+                sum = normalized;
+            } else {
+                for (int i = 0; i < sum.length; i++) {
+                    sum[i] += normalized[i];
+                }
+            }
+        }
+        return sum != null && normalize(sum) ? sum : null;
+    }
+}
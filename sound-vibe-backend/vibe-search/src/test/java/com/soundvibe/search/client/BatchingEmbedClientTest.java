@@ -0,0 +1,216 @@
+package com.soundvibe.search.client;
+
+import com.soundvibe.common.exception.BizException;
+import com.soundvibe.common.result.ResultCode;
+import com.soundvibe.search.client.dto.TextBatchEmbedRequest;
+import com.soundvibe.search.client.dto.TextBatchEmbedResponse;
+import com.soundvibe.search.client.dto.TextEmbedRequest;
+import com.soundvibe.search.client.dto.TextEmbedResponse;
+import com.soundvibe.search.config.EmbedBatchProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * BatchingEmbedClient 合批、同文本合并与失败隔离
+ * 分析服务以内存桩代替，记录每次批量 / 单条调用的文本
+ *
+ * @author SoundVibe Team
+ */
+class BatchingEmbedClientTest {
+
+    private static final long WAIT_SECONDS = 5;
+
+    private StubAnalysisClient analysisClient;
+    private EmbedBatchProperties properties;
+    private BatchingEmbedClient client;
+
+    @BeforeEach
+    void setUp() {
+        analysisClient = new StubAnalysisClient();
+        properties = new EmbedBatchProperties();
+        properties.setWindowMillis(50);
+        properties.setMaxBatchSize(32);
+        properties.setMaxInFlight(4);
+        properties.setTimeoutMillis(WAIT_SECONDS * 1000);
+        client = new BatchingEmbedClient(analysisClient, properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.shutdown();
+    }
+
+    @Test
+    void concurrentRequestsShareOneBatchAndDuplicateTextsAreEncodedOnce() throws Exception {
+        client.start();
+
+        var first = client.embed("dark trap");
+        var duplicate = client.embed("dark trap");
+        var other = client.embed("lofi piano");
+
+        assertThat(first.get(WAIT_SECONDS, TimeUnit.SECONDS)).isEqualTo(vectorOf("dark trap"));
+        assertThat(duplicate.get(WAIT_SECONDS, TimeUnit.SECONDS)).isEqualTo(vectorOf("dark trap"));
+        assertThat(other.get(WAIT_SECONDS, TimeUnit.SECONDS)).isEqualTo(vectorOf("lofi piano"));
+        assertThat(analysisClient.batchCalls).containsExactly(List.of("dark trap", "lofi piano"));
+        assertThat(analysisClient.singleCalls).isEmpty();
+    }
+
+    @Test
+    void batchIsSplitAtMaxBatchSize() throws Exception {
+        properties.setMaxBatchSize(2);
+        client.start();
+
+        var futures = List.of(client.embed("a"), client.embed("b"), client.embed("c"));
+        for (var future : futures) {
+            future.get(WAIT_SECONDS, TimeUnit.SECONDS);
+        }
+
+        assertThat(analysisClient.batchCalls).containsExactly(List.of("a", "b"), List.of("c"));
+    }
+
+    @Test
+    void blankAndOversizedTextsAreRejectedWithoutCallingTheService() {
+        client.start();
+
+        assertParamError(client.embed("   "));
+        assertParamError(client.embed("x".repeat(BatchingEmbedClient.MAX_TEXT_LENGTH + 1)));
+        assertThat(analysisClient.batchCalls).isEmpty();
+        assertThat(analysisClient.singleCalls).isEmpty();
+    }
+
+    @Test
+    void rejectedBatchIsRetriedPerTextSoOnlyTheInvalidTextFails() throws Exception {
+        analysisClient.batchHandler = texts -> CompletableFuture.failedFuture(new BizException(422, "HTTP 422"));
+        analysisClient.singleHandler = text -> text.equals("bad")
+                ? CompletableFuture.failedFuture(new BizException(422, "HTTP 422"))
+                : CompletableFuture.completedFuture(new TextEmbedResponse(vectorOf(text)));
+        client.start();
+
+        var good = client.embed("good");
+        var bad = client.embed("bad");
+        var alsoGood = client.embed("also good");
+
+        assertThat(good.get(WAIT_SECONDS, TimeUnit.SECONDS)).isEqualTo(vectorOf("good"));
+        assertThat(alsoGood.get(WAIT_SECONDS, TimeUnit.SECONDS)).isEqualTo(vectorOf("also good"));
+        assertThatThrownBy(() -> bad.get(WAIT_SECONDS, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .cause().isInstanceOf(BizException.class)
+                .extracting(cause -> ((BizException) cause).getCode()).isEqualTo(422);
+        assertThat(analysisClient.singleCalls).containsExactlyInAnyOrder("good", "bad", "also good");
+    }
+
+    @Test
+    void serverErrorFailsTheWholeBatchWithoutPerTextRetry() {
+        analysisClient.batchHandler = texts -> CompletableFuture.failedFuture(new BizException(500, "HTTP 500"));
+        client.start();
+
+        var first = client.embed("a");
+        var second = client.embed("b");
+
+        assertThatThrownBy(() -> first.get(WAIT_SECONDS, TimeUnit.SECONDS)).hasCauseInstanceOf(BizException.class);
+        assertThatThrownBy(() -> second.get(WAIT_SECONDS, TimeUnit.SECONDS)).hasCauseInstanceOf(BizException.class);
+        assertThat(analysisClient.singleCalls).isEmpty();
+    }
+
+    @Test
+    void missingBatchEndpointFallsBackToSingleCallsAndIsProbedAgainAfterExpiry() throws Exception {
+        properties.setUnsupportedRetryMillis(300);
+        analysisClient.batchHandler = texts -> CompletableFuture.failedFuture(new BizException(404, "HTTP 404"));
+        client.start();
+
+        assertThat(client.embed("first").get(WAIT_SECONDS, TimeUnit.SECONDS)).isEqualTo(vectorOf("first"));
+        assertThat(client.embed("second").get(WAIT_SECONDS, TimeUnit.SECONDS)).isEqualTo(vectorOf("second"));
+        assertThat(analysisClient.batchCalls).hasSize(1);
+        assertThat(analysisClient.singleCalls).containsExactly("first", "second");
+
+        // 降级到期后重新走批量接口
+        analysisClient.batchHandler = StubAnalysisClient::batchVectors;
+        Thread.sleep(400);
+        assertThat(client.embed("third").get(WAIT_SECONDS, TimeUnit.SECONDS)).isEqualTo(vectorOf("third"));
+        assertThat(analysisClient.batchCalls).hasSize(2);
+    }
+
+    @Test
+    void collectorSurvivesUnexpectedExceptions() throws Exception {
+        analysisClient.batchHandler = texts -> {
+            throw new IllegalStateException("boom");
+        };
+        client.start();
+
+        assertThatThrownBy(() -> client.embed("a").get(WAIT_SECONDS, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(IllegalStateException.class);
+
+        analysisClient.batchHandler = StubAnalysisClient::batchVectors;
+        assertThat(client.embed("b").get(WAIT_SECONDS, TimeUnit.SECONDS)).isEqualTo(vectorOf("b"));
+    }
+
+    @Test
+    void circuitBreakerIgnoresClientErrors() {
+        var predicate = new AnalysisFailurePredicate();
+
+        assertThat(predicate.test(new BizException(ResultCode.PARAM_ERROR, "blank"))).isFalse();
+        assertThat(predicate.test(new CompletionException(new BizException(422, "HTTP 422")))).isFalse();
+        assertThat(predicate.test(new BizException(500, "HTTP 500"))).isTrue();
+        assertThat(predicate.test(new TimeoutException())).isTrue();
+    }
+
+    // ==================== Private ====================
+
+    private static List<Float> vectorOf(String text) {
+        return List.of((float) text.hashCode(), (float) text.length());
+    }
+
+    private static void assertParamError(CompletableFuture<List<Float>> future) {
+        assertThatThrownBy(() -> future.get(WAIT_SECONDS, TimeUnit.SECONDS))
+                .cause().isInstanceOf(BizException.class)
+                .extracting(cause -> ((BizException) cause).getCode()).isEqualTo(ResultCode.PARAM_ERROR.getCode());
+    }
+
+    /**
+     * 分析服务桩：默认按文本生成确定的向量，可替换批量 / 单条接口的行为
+     */
+    private static final class StubAnalysisClient extends AsyncAnalysisClient {
+
+        private final List<List<String>> batchCalls = new CopyOnWriteArrayList<>();
+        private final List<String> singleCalls = new CopyOnWriteArrayList<>();
+
+        private volatile Function<List<String>, CompletableFuture<TextBatchEmbedResponse>> batchHandler =
+                StubAnalysisClient::batchVectors;
+        private volatile Function<String, CompletableFuture<TextEmbedResponse>> singleHandler =
+                text -> CompletableFuture.completedFuture(new TextEmbedResponse(vectorOf(text)));
+
+        private StubAnalysisClient() {
+            super(null, null);
+        }
+
+        private static CompletableFuture<TextBatchEmbedResponse> batchVectors(List<String> texts) {
+            return CompletableFuture.completedFuture(
+                    new TextBatchEmbedResponse(texts.stream().map(BatchingEmbedClientTest::vectorOf).toList()));
+        }
+
+        @Override
+        public CompletableFuture<TextBatchEmbedResponse> embedTextBatch(TextBatchEmbedRequest request) {
+            batchCalls.add(List.copyOf(request.texts()));
+            return batchHandler.apply(request.texts());
+        }
+
+        @Override
+        public CompletableFuture<TextEmbedResponse> embedText(TextEmbedRequest request) {
+            singleCalls.add(request.text());
+            return singleHandler.apply(request.text());
+        }
+    }
+}
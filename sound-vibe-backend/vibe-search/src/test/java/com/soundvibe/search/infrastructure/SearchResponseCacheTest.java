@@ -0,0 +1,95 @@
+package com.soundvibe.search.infrastructure;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.soundvibe.search.config.SearchCacheProperties;
+import com.soundvibe.search.infrastructure.SearchResponseCache.CacheStatus;
+import com.soundvibe.search.model.vo.TrackSearchVO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * SearchResponseCache 单飞加载与 stale-while-revalidate 边界
+ *
+ * @author SoundVibe Team
+ */
+class SearchResponseCacheTest {
+
+    private static final String KEY = "genre=trap|page=0";
+
+    private SearchCacheProperties properties;
+    private IndexGeneration indexGeneration;
+    private SearchResponseCache cache;
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        properties = new SearchCacheProperties();
+        properties.setVisibilityDelayMillis(0);
+        indexGeneration = new IndexGeneration();
+        cache = new SearchResponseCache(properties, indexGeneration, new ObjectMapper());
+    }
+
+    @Test
+    void loaderThrowingSynchronouslyDoesNotLeaveTheKeyInFlight() throws Exception {
+        var failed = cache.get(KEY, () -> {
+            throw new IllegalStateException("boom");
+        });
+        assertThatThrownBy(() -> failed.get(1, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalStateException.class);
+
+        var response = cache.get(KEY, this::load).get(1, TimeUnit.SECONDS);
+        assertThat(response.status()).isEqualTo(CacheStatus.MISS);
+        assertThat(response.body().totalElements()).isEqualTo(1);
+    }
+
+    @Test
+    void freshEntryIsServedFromCache() throws Exception {
+        cache.get(KEY, this::load).get(1, TimeUnit.SECONDS);
+
+        var response = cache.get(KEY, this::load).get(1, TimeUnit.SECONDS);
+        assertThat(response.status()).isEqualTo(CacheStatus.HIT);
+        assertThat(response.etag()).isNotNull();
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void recentlyExpiredEntryIsServedStaleAndRefreshedInBackground() throws Exception {
+        properties.setMaxAgeMillis(50);
+        properties.setStaleWhileRevalidateMillis(5_000);
+        cache.get(KEY, this::load).get(1, TimeUnit.SECONDS);
+        Thread.sleep(80);
+
+        var response = cache.get(KEY, this::load).get(1, TimeUnit.SECONDS);
+        assertThat(response.status()).isEqualTo(CacheStatus.STALE);
+        assertThat(response.body().totalElements()).isEqualTo(1);
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void continuousWritesDoNotExtendStaleServingPastTheEntryAge() throws Exception {
+        properties.setMaxAgeMillis(50);
+        properties.setStaleWhileRevalidateMillis(50);
+        cache.get(KEY, this::load).get(1, TimeUnit.SECONDS);
+        Thread.sleep(120);
+
+        // 写入刚发生，写入后的 swr 窗口仍然打开，但条目自身已超过 maxAge + swr
+        indexGeneration.advance();
+        var response = cache.get(KEY, this::load).get(1, TimeUnit.SECONDS);
+        assertThat(response.status()).isEqualTo(CacheStatus.MISS);
+        assertThat(response.body().totalElements()).isEqualTo(2);
+    }
+
+    // ==================== Private ====================
+
+    private CompletableFuture<TrackSearchVO> load() {
+        int n = loads.incrementAndGet();
+        return CompletableFuture.completedFuture(new TrackSearchVO(List.of(), n, 1, 20, 0, null));
+    }
+}
@@ -0,0 +1,92 @@
+package com.soundvibe.search.vector;
+
+import com.soundvibe.search.config.VectorIndexProperties;
+import com.soundvibe.search.document.TrackDoc;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 进程内向量索引 JMH 基准
+ * 测量 512 维暴力 top-10 检索在 10 万 / 100 万向量规模下的 QPS，对比 SIMD 与标量实现
+ * <p>
+ * 运行方式：执行 main 方法（需先 mvn test-compile 生成 JMH 元数据）
+ *
+ * @author SoundVibe Team
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class InMemoryVectorIndexBenchmark {
+
+    private static final int DIMS = 512;
+    private static final int TOP_K = 10;
+
+    @Param({"100000", "1000000"})
+    private int vectors;
+
+    private InMemoryVectorIndex index;
+    private float[][] queries;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        var properties = new VectorIndexProperties();
+        properties.setDims(DIMS);
+        properties.setMaxVectors(vectors);
+        index = new InMemoryVectorIndex(properties);
+
+        var random = new SplittableRandom(42);
+        for (long id = 1; id <= vectors; id++) {
+            index.upsert(TrackDoc.builder()
+                    .id(id)
+                    .title("track-" + id)
+                    .status(1)
+                    .audioVector(randomVector(random))
+                    .build());
+        }
+        index.markReady();
+
+        queries = new float[64][];
+        for (int i = 0; i < queries.length; i++) {
+            queries[i] = randomVector(random);
+        }
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {"--add-modules=jdk.incubator.vector", "-Xmx2g", "-XX:MaxDirectMemorySize=3g"})
+    public List<TrackDoc> simdTop10() {
+        return index.search(nextQuery(), TOP_K);
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {"-Xmx2g", "-XX:MaxDirectMemorySize=3g"})
+    public List<TrackDoc> scalarTop10() {
+        return index.search(nextQuery(), TOP_K);
+    }
+
+    private float[] nextQuery() {
+        return queries[cursor++ & (queries.length - 1)];
+    }
+
+    private static float[] randomVector(SplittableRandom random) {
+        float[] vector = new float[DIMS];
+        for (int i = 0; i < DIMS; i++) {
+            vector[i] = (float) random.nextGaussian();
+        }
+        return vector;
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(InMemoryVectorIndexBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,229 @@
+package com.soundvibe.search.vector;
+
+import com.soundvibe.search.config.VectorIndexProperties;
+import com.soundvibe.search.document.TrackDoc;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * InMemoryVectorIndex 的堆外存储与暴力检索
+ * 覆盖分块扩容、末尾槽位搬移与槽位重映射、小顶堆 top-k 顺序、上架过滤、元数据更新与维度校验
+ *
+ * @author SoundVibe Team
+ */
+class InMemoryVectorIndexTest {
+
+    private static final int DIMS = 16;
+    private static final int PUBLISHED = 1;
+    private static final int DRAFT = 0;
+
+    /**
+     * 与 InMemoryVectorIndex.CHUNK_VECTORS 一致
+     */
+    private static final int CHUNK_VECTORS = 16_384;
+
+    private final SplittableRandom random = new SplittableRandom(42);
+
+    private VectorIndexProperties properties;
+    private InMemoryVectorIndex index;
+
+    @BeforeEach
+    void setUp() {
+        properties = new VectorIndexProperties();
+        properties.setDims(DIMS);
+        index = new InMemoryVectorIndex(properties);
+    }
+
+    @Test
+    void topKIsOrderedBySimilarityLikeABruteForceSort() {
+        List<float[]> vectors = new ArrayList<>();
+        for (long id = 0; id < 500; id++) {
+            var vector = randomVector();
+            vectors.add(vector);
+            index.upsert(doc(id, vector, PUBLISHED));
+        }
+        var query = randomVector();
+
+        var expected = IntStream.range(0, vectors.size()).boxed()
+                .sorted(Comparator.comparingDouble((Integer i) -> cosine(query, vectors.get(i))).reversed())
+                .limit(10)
+                .map(Integer::longValue)
+                .toList();
+        assertThat(index.search(query, 10)).extracting(TrackDoc::getId).containsExactlyElementsOf(expected);
+
+        // k 大于收录数时返回全部；k 非正时为空
+        assertThat(index.search(query, 1_000)).hasSize(500);
+        assertThat(index.search(query, 0)).isEmpty();
+    }
+
+    @Test
+    void storageGrowsAcrossChunksAndKeepsEveryVector() {
+        // 跨越 3 个分块与多次 ids / docs 扩容；向量由 ID 决定，检索自身向量时最近邻即自身
+        int total = CHUNK_VECTORS * 2 + 5;
+        for (int i = 0; i < total; i++) {
+            index.upsert(doc(i, vectorOf(i), PUBLISHED));
+        }
+        assertThat(index.size()).isEqualTo(total);
+
+        for (int i : new int[]{0, CHUNK_VECTORS - 1, CHUNK_VECTORS, CHUNK_VECTORS * 2, total - 1}) {
+            assertThat(index.search(vectorOf(i), 1)).extracting(TrackDoc::getId).containsExactly((long) i);
+        }
+    }
+
+    @Test
+    void removalMovesTheLastSlotAndRemapsItsId() {
+        List<float[]> vectors = new ArrayList<>();
+        for (long id = 1; id <= 5; id++) {
+            var vector = randomVector();
+            vectors.add(vector);
+            index.upsert(doc(id, vector, PUBLISHED));
+        }
+
+        // 删除中间的 2：末尾的 5 搬到其槽位，之后仍可被检索、覆盖与删除
+        index.remove(2L);
+        assertThat(index.size()).isEqualTo(4);
+        assertThat(index.search(vectors.get(4), 1)).extracting(TrackDoc::getId).containsExactly(5L);
+        assertThat(index.search(vectors.get(1), 4)).extracting(TrackDoc::getId).doesNotContain(2L);
+
+        var replacement = randomVector();
+        index.upsert(doc(5L, replacement, PUBLISHED));
+        assertThat(index.size()).isEqualTo(4);
+        assertThat(index.search(replacement, 1)).extracting(TrackDoc::getId).containsExactly(5L);
+
+        index.remove(5L);
+        index.remove(5L);
+        index.remove(99L);
+        assertThat(index.size()).isEqualTo(3);
+        assertThat(index.search(replacement, 10)).extracting(TrackDoc::getId).containsExactlyInAnyOrder(1L, 3L, 4L);
+    }
+
+    @Test
+    void onlyPublishedTracksWithANonZeroVectorAreIndexed() {
+        var vector = randomVector();
+        index.upsert(doc(1L, vector, DRAFT));
+        assertThat(index.size()).isZero();
+
+        index.upsert(doc(1L, vector, PUBLISHED));
+        index.upsert(doc(2L, randomVector(), PUBLISHED));
+        assertThat(index.size()).isEqualTo(2);
+
+        // 下架、向量被清空或为零向量时移出
+        index.upsert(doc(1L, vector, DRAFT));
+        index.upsert(doc(2L, null, PUBLISHED));
+        assertThat(index.size()).isZero();
+        index.upsert(doc(3L, randomVector(), PUBLISHED));
+        index.upsert(doc(3L, new float[DIMS], PUBLISHED));
+        assertThat(index.size()).isZero();
+    }
+
+    @Test
+    void metadataUpdatesReplaceTheCopyWithoutTouchingTheVector() {
+        var vector = randomVector();
+        index.upsert(doc(1L, vector, PUBLISHED));
+        var before = index.search(vector, 1).get(0);
+        assertThat(before.getAudioVector()).isNull();
+
+        index.updateMetadata(1L, doc -> doc.setPrice(new BigDecimal("19.99")));
+        index.updateMetadata(42L, doc -> doc.setPrice(BigDecimal.ONE));
+
+        var after = index.search(vector, 1).get(0);
+        assertThat(after.getPrice()).isEqualByComparingTo("19.99");
+        assertThat(after.getTitle()).isEqualTo("track-1");
+        // 已返回给调用方的对象不受影响
+        assertThat(before.getPrice()).isEqualByComparingTo("9.99");
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    void mismatchedDimensionsAreIgnored() {
+        var vector = randomVector();
+        index.upsert(doc(1L, vector, PUBLISHED));
+
+        // 维度不符的写入跳过，已收录的向量保持不变
+        index.upsert(doc(1L, new float[DIMS * 2], PUBLISHED));
+        index.upsert(doc(2L, new float[DIMS - 1], PUBLISHED));
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(index.search(vector, 1)).extracting(TrackDoc::getId).containsExactly(1L);
+
+        assertThat(index.search(new float[DIMS / 2], 5)).isEmpty();
+        assertThat(index.search(null, 5)).isEmpty();
+    }
+
+    @Test
+    void retainOnlyKeepsTracksWrittenAfterTheSequence() {
+        index.upsert(doc(1L, randomVector(), PUBLISHED));
+        index.upsert(doc(2L, randomVector(), PUBLISHED));
+        index.upsert(doc(3L, randomVector(), PUBLISHED));
+        long sequence = index.writeSequence();
+        // 刷新期间由增量同步写入
+        index.upsert(doc(4L, randomVector(), PUBLISHED));
+        index.upsert(doc(3L, randomVector(), PUBLISHED));
+
+        int removed = index.retainOnly(Set.of(1L), sequence);
+        assertThat(removed).isEqualTo(1);
+        assertThat(index.size()).isEqualTo(3);
+        assertThat(index.search(randomVector(), 10)).extracting(TrackDoc::getId).containsExactlyInAnyOrder(1L, 3L, 4L);
+    }
+
+    @Test
+    void disabledIndexStaysEmpty() {
+        properties.setEnabled(false);
+        index = new InMemoryVectorIndex(properties);
+        index.upsert(doc(1L, randomVector(), PUBLISHED));
+        index.markReady();
+
+        assertThat(index.size()).isZero();
+        assertThat(index.isReady()).isFalse();
+    }
+
+    // ==================== Private ====================
+
+    private static TrackDoc doc(long id, float[] vector, int status) {
+        return TrackDoc.builder()
+                .id(id)
+                .title("track-" + id)
+                .status(status)
+                .price(new BigDecimal("9.99"))
+                .audioVector(vector)
+                .build();
+    }
+
+    private float[] randomVector() {
+        var vector = new float[DIMS];
+        for (int i = 0; i < DIMS; i++) {
+            vector[i] = (float) random.nextGaussian();
+        }
+        return vector;
+    }
+
+    private static float[] vectorOf(long id) {
+        var seeded = new SplittableRandom(id);
+        var vector = new float[DIMS];
+        for (int i = 0; i < DIMS; i++) {
+            vector[i] = (float) seeded.nextGaussian();
+        }
+        return vector;
+    }
+
+    private static double cosine(float[] a, float[] b) {
+        double dot = 0;
+        double normA = 0;
+        double normB = 0;
+        for (int i = 0; i < a.length; i++) {
+            dot += a[i] * b[i];
+            normA += a[i] * a[i];
+            normB += b[i] * b[i];
+        }
+        return dot / Math.sqrt(normA * normB);
+    }
+}
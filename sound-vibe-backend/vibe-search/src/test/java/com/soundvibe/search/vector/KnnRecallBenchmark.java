@@ -0,0 +1,595 @@
+package com.soundvibe.search.vector;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch.core.BulkRequest;
+import co.elastic.clients.json.jackson.JacksonJsonpMapper;
+import co.elastic.clients.transport.rest_client.RestClientTransport;
+import org.apache.http.HttpHost;
+import org.elasticsearch.client.RestClient;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * kNN 参数的召回率 / 时延基准
+ * 为 semanticSearch 的 k、numCandidates、量化方式和 HNSW 参数提供依据，并可作为回归门禁
+ * <p>
+ * 流程：
+ * 1. 数据：合成的聚簇向量（固定种子，可复现），或 --data 指定的 .fvecs 导出文件
+ * 2. 真值：Java 暴力计算每个查询的精确 top-k（余弦）
+ * 3. 扫参：对每组索引参数建一次索引，再对每组 (k, numCandidates) 跑全部查询
+ * 4. 报告：recall@k、p50 / p99 时延、索引体积与向量内存估算，打印为表格，可输出 CSV
+ * <p>
+ * 后端：
+ * - es：本地 ES 临时索引，扫 type（hnsw / int8_hnsw，后者需 ES 8.12+）、m、ef_construction
+ * - memory：无需 ES 的进程内替身，float32 暴力检索为基线，int8 标量量化暴力检索 +
+ *   按 numCandidates 过采样后 float32 重排，估计量化对召回的影响
+ * <p>
+ * 门禁：
+ * - --min-recall：numCandidates = k × 10（线上取值）的行召回率低于该值时失败
+ * - --baseline：与基线 CSV 同参数的行比较，召回率下降超过 --recall-tolerance
+ *   或 p99 超出基线 (1 + --latency-tolerance) 倍时失败
+ * 任一不满足时以退出码 1 结束
+ * <p>
+ * 运行方式（在 sound-vibe-backend 目录）：
+ * mvn -pl vibe-search -am -Pknn-bench test -Dknn.args="--backend=memory --vectors=20000 --min-recall=0.95"
+ * mvn -pl vibe-search -am -Pknn-bench test -Dknn.args="--backend=es --es=http://localhost:9200 --m=16,32 --out=knn.csv"
+ * <p>
+ * 参数（均有默认值）：--backend=memory|es --es=URI --data=FILE.fvecs --vectors=20000 --dims=512
+ * --queries=200 --seed=42 --k=10 --num-candidates=50,100,200 --types=hnsw --m=16 --ef-construction=100
+ * --out=FILE.csv --baseline=FILE.csv --min-recall=0 --recall-tolerance=0.01 --latency-tolerance=0.5
+ *
+ * @author SoundVibe Team
+ */
+public class KnnRecallBenchmark {
+
+    private static final String INDEX = "bench_knn_recall";
+    private static final int WARMUP_QUERIES = 20;
+    private static final int BULK_SIZE = 500;
+
+    /**
+     * 合成数据的簇数与簇内噪声（CLAP 向量按风格/音色聚簇，均匀随机向量会高估 HNSW 召回）
+     */
+    private static final int CLUSTERS = 64;
+    private static final double CLUSTER_NOISE = 0.6;
+
+    private static final String CSV_HEADER = "backend,type,m,efConstruction,k,numCandidates,recall,p50Ms,p99Ms,storeMb,vectorRamMb";
+
+    public static void main(String[] args) throws Exception {
+        var options = Options.parse(args);
+
+        var dataset = options.data != null
+                ? Dataset.load(Path.of(options.data), options.queries, options.seed)
+                : Dataset.synthetic(options.vectors, options.dims, options.queries, options.seed);
+        System.out.printf("数据: vectors=%d, dims=%d, queries=%d, 来源=%s%n",
+                dataset.vectors.length, dataset.dims, dataset.queries.length,
+                options.data != null ? options.data : "synthetic(seed=" + options.seed + ")");
+
+        int maxK = options.ks.stream().max(Integer::compare).orElse(10);
+        long start = System.nanoTime();
+        var truth = groundTruth(dataset, maxK);
+        System.out.printf("真值: 暴力 top-%d 用时 %.1f s%n", maxK, (System.nanoTime() - start) / 1e9);
+
+        List<Row> rows = "es".equals(options.backend)
+                ? runElasticsearch(options, dataset, truth)
+                : runMemory(options, dataset, truth);
+
+        printTable(rows);
+        if (options.out != null) {
+            writeCsv(Path.of(options.out), rows);
+            System.out.println("结果已写入 " + options.out);
+        }
+
+        var violations = gate(options, rows);
+        if (!violations.isEmpty()) {
+            System.out.println("门禁未通过:");
+            violations.forEach(v -> System.out.println("  - " + v));
+            System.exit(1);
+        }
+        System.out.println("门禁通过");
+    }
+
+    // ======================== 真值 ========================
+
+    /**
+     * 每个查询的精确 top-maxK 下标（按余弦降序），查询间并行
+     */
+    private static int[][] groundTruth(Dataset dataset, int maxK) {
+        int[][] truth = new int[dataset.queries.length][];
+        IntStream.range(0, dataset.queries.length).parallel().forEach(q ->
+                truth[q] = exactTopK(dataset.vectors, dataset.queries[q], maxK));
+        return truth;
+    }
+
+    private static int[] exactTopK(float[][] vectors, float[] query, int k) {
+        var heap = new TopK(k);
+        for (int i = 0; i < vectors.length; i++) {
+            heap.offer(i, dot(vectors[i], query));
+        }
+        return heap.sortedIds();
+    }
+
+    private static double recall(int[] truth, int k, Collection<Integer> found) {
+        int hits = 0;
+        var expected = new HashSet<Integer>(k);
+        for (int i = 0; i < Math.min(k, truth.length); i++) {
+            expected.add(truth[i]);
+        }
+        for (var id : found) {
+            if (expected.contains(id)) {
+                hits++;
+            }
+        }
+        return (double) hits / expected.size();
+    }
+
+    // ======================== 进程内替身 ========================
+
+    private static List<Row> runMemory(Options options, Dataset dataset, int[][] truth) {
+        List<Row> rows = new ArrayList<>();
+        int n = dataset.vectors.length;
+        int dims = dataset.dims;
+
+        // float32 暴力检索：召回率恒为 1，作为时延与内存基线
+        for (int k : options.ks) {
+            long[] latencies = new long[dataset.queries.length];
+            for (int q = 0; q < dataset.queries.length; q++) {
+                long t = System.nanoTime();
+                exactTopK(dataset.vectors, dataset.queries[q], k);
+                latencies[q] = System.nanoTime() - t;
+            }
+            rows.add(new Row("memory", "flat", 0, 0, k, n, 1.0,
+                    percentile(latencies, 0.50), percentile(latencies, 0.99), 0, mb((long) n * dims * 4)));
+        }
+
+        // int8 标量量化：粗排取 numCandidates，再用 float32 重排取 top-k
+        var quantized = Int8Quantizer.fit(dataset.vectors, 0.99);
+        byte[][] codes = new byte[n][];
+        for (int i = 0; i < n; i++) {
+            codes[i] = quantized.encode(dataset.vectors[i]);
+        }
+        for (int k : options.ks) {
+            for (int numCandidates : options.numCandidates) {
+                if (numCandidates < k) {
+                    continue;
+                }
+                long[] latencies = new long[dataset.queries.length];
+                double recallSum = 0;
+                for (int q = 0; q < dataset.queries.length; q++) {
+                    var query = dataset.queries[q];
+                    long t = System.nanoTime();
+                    var queryCode = quantized.encode(query);
+                    var coarse = new TopK(numCandidates);
+                    for (int i = 0; i < n; i++) {
+                        coarse.offer(i, quantized.dot(codes[i], queryCode));
+                    }
+                    var rerank = new TopK(k);
+                    for (int id : coarse.sortedIds()) {
+                        rerank.offer(id, dot(dataset.vectors[id], query));
+                    }
+                    var found = rerank.sortedIds();
+                    latencies[q] = System.nanoTime() - t;
+                    recallSum += recall(truth[q], k, Arrays.stream(found).boxed().toList());
+                }
+                rows.add(new Row("memory", "int8", 0, 0, k, numCandidates, recallSum / dataset.queries.length,
+                        percentile(latencies, 0.50), percentile(latencies, 0.99), 0, mb((long) n * (dims + 4))));
+            }
+        }
+        return rows;
+    }
+
+    // ======================== Elasticsearch ========================
+
+    private static List<Row> runElasticsearch(Options options, Dataset dataset, int[][] truth) throws Exception {
+        List<Row> rows = new ArrayList<>();
+        try (var restClient = RestClient.builder(HttpHost.create(options.es)).build()) {
+            var client = new ElasticsearchClient(new RestClientTransport(restClient, new JacksonJsonpMapper()));
+            try {
+                for (var type : options.types) {
+                    for (int m : options.ms) {
+                        for (int efConstruction : options.efConstructions) {
+                            long loadStart = System.nanoTime();
+                            createIndex(client, dataset.dims, type, m, efConstruction);
+                            load(client, dataset);
+                            client.indices().forcemerge(f -> f.index(INDEX).maxNumSegments(1L));
+                            client.indices().refresh(r -> r.index(INDEX));
+                            long storeBytes = client.indices().stats(s -> s.index(INDEX))
+                                    .all().primaries().store().sizeInBytes();
+                            System.out.printf("索引: type=%s, m=%d, ef_construction=%d, 构建 %.1f s%n",
+                                    type, m, efConstruction, (System.nanoTime() - loadStart) / 1e9);
+
+                            for (int k : options.ks) {
+                                for (int numCandidates : options.numCandidates) {
+                                    if (numCandidates < k) {
+                                        continue;
+                                    }
+                                    rows.add(measure(client, dataset, truth, type, m, efConstruction, k, numCandidates,
+                                            storeBytes));
+                                }
+                            }
+                        }
+                    }
+                }
+            } finally {
+                if (client.indices().exists(e -> e.index(INDEX)).value()) {
+                    client.indices().delete(d -> d.index(INDEX));
+                }
+            }
+        }
+        return rows;
+    }
+
+    private static void createIndex(ElasticsearchClient client, int dims, String type, int m, int efConstruction)
+            throws IOException {
+        if (client.indices().exists(e -> e.index(INDEX)).value()) {
+            client.indices().delete(d -> d.index(INDEX));
+        }
+        var mapping = """
+                {
+                  "properties": {
+                    "vector": {
+                      "type": "dense_vector", "dims": %d, "index": true, "similarity": "cosine",
+                      "index_options": { "type": "%s", "m": %d, "ef_construction": %d }
+                    }
+                  }
+                }
+                """.formatted(dims, type, m, efConstruction);
+        client.indices().create(c -> c
+                .index(INDEX)
+                .settings(s -> s.numberOfShards("1").numberOfReplicas("0").refreshInterval(t -> t.time("-1")))
+                .mappings(mp -> mp.withJson(new StringReader(mapping))));
+    }
+
+    private static void load(ElasticsearchClient client, Dataset dataset) throws IOException {
+        var bulk = new BulkRequest.Builder();
+        int pending = 0;
+        for (int i = 0; i < dataset.vectors.length; i++) {
+            var id = String.valueOf(i);
+            Map<String, Object> doc = Map.of("vector", dataset.vectors[i]);
+            bulk.operations(op -> op.index(idx -> idx.index(INDEX).id(id).document(doc)));
+            if (++pending == BULK_SIZE) {
+                client.bulk(bulk.build());
+                bulk = new BulkRequest.Builder();
+                pending = 0;
+            }
+        }
+        if (pending > 0) {
+            client.bulk(bulk.build());
+        }
+    }
+
+    private static Row measure(ElasticsearchClient client, Dataset dataset, int[][] truth, String type, int m,
+                               int efConstruction, int k, int numCandidates, long storeBytes) throws IOException {
+        for (int q = 0; q < Math.min(WARMUP_QUERIES, dataset.queries.length); q++) {
+            knn(client, dataset.queries[q], k, numCandidates);
+        }
+        long[] latencies = new long[dataset.queries.length];
+        double recallSum = 0;
+        for (int q = 0; q < dataset.queries.length; q++) {
+            long t = System.nanoTime();
+            var found = knn(client, dataset.queries[q], k, numCandidates);
+            latencies[q] = System.nanoTime() - t;
+            recallSum += recall(truth[q], k, found);
+        }
+        // 向量常驻内存估算：float32 每维 4 字节（int8 每维 1 字节 + 4 字节修正项），HNSW 图每向量约 m × 2 条边
+        long vectorBytes = "int8_hnsw".equals(type)
+                ? (long) dataset.vectors.length * (dataset.dims + 4)
+                : (long) dataset.vectors.length * dataset.dims * 4;
+        long graphBytes = (long) dataset.vectors.length * m * 2 * 4;
+        return new Row("es", type, m, efConstruction, k, numCandidates, recallSum / dataset.queries.length,
+                percentile(latencies, 0.50), percentile(latencies, 0.99), mb(storeBytes), mb(vectorBytes + graphBytes));
+    }
+
+    private static List<Integer> knn(ElasticsearchClient client, float[] query, int k, int numCandidates)
+            throws IOException {
+        List<Float> queryVector = new ArrayList<>(query.length);
+        for (float v : query) {
+            queryVector.add(v);
+        }
+        var response = client.search(s -> s
+                .index(INDEX)
+                .knn(kn -> kn.field("vector").queryVector(queryVector).k(k).numCandidates(numCandidates))
+                .source(src -> src.fetch(false))
+                .size(k), Void.class);
+        return response.hits().hits().stream().map(h -> Integer.valueOf(h.id())).toList();
+    }
+
+    // ======================== 报告与门禁 ========================
+
+    private static void printTable(List<Row> rows) {
+        System.out.println();
+        System.out.printf("%-7s %-10s %4s %6s %4s %6s %8s %9s %9s %9s %11s%n",
+                "backend", "type", "m", "efC", "k", "numC", "recall", "p50(ms)", "p99(ms)", "store(MB)", "vecRAM(MB)");
+        for (var row : rows) {
+            System.out.printf("%-7s %-10s %4d %6d %4d %6d %8.4f %9.2f %9.2f %9.1f %11.1f%n",
+                    row.backend, row.type, row.m, row.efConstruction, row.k, row.numCandidates,
+                    row.recall, row.p50Ms, row.p99Ms, row.storeMb, row.vectorRamMb);
+        }
+        System.out.println();
+    }
+
+    private static void writeCsv(Path path, List<Row> rows) throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add(CSV_HEADER);
+        rows.forEach(row -> lines.add(row.toCsv()));
+        Files.write(path, lines);
+    }
+
+    private static List<String> gate(Options options, List<Row> rows) throws IOException {
+        List<String> violations = new ArrayList<>();
+        for (var row : rows) {
+            // 线上取值 numCandidates = k × 10（TrackSearchServiceImpl.knnClauses）
+            if (row.numCandidates == row.k * 10 && row.recall < options.minRecall) {
+                violations.add("%s recall=%.4f < min-recall=%.4f".formatted(row.key(), row.recall, options.minRecall));
+            }
+        }
+        if (options.baseline != null) {
+            Map<String, Row> baseline = new HashMap<>();
+            for (var line : Files.readAllLines(Path.of(options.baseline))) {
+                if (!line.isBlank() && !line.startsWith("backend,")) {
+                    var row = Row.fromCsv(line);
+                    baseline.put(row.key(), row);
+                }
+            }
+            for (var row : rows) {
+                var base = baseline.get(row.key());
+                if (base == null) {
+                    continue;
+                }
+                if (row.recall < base.recall - options.recallTolerance) {
+                    violations.add("%s recall %.4f → %.4f".formatted(row.key(), base.recall, row.recall));
+                }
+                if (row.p99Ms > base.p99Ms * (1 + options.latencyTolerance)) {
+                    violations.add("%s p99 %.2f ms → %.2f ms".formatted(row.key(), base.p99Ms, row.p99Ms));
+                }
+            }
+        }
+        return violations;
+    }
+
+    private static double percentile(long[] nanos, double p) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        int index = Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1);
+        return sorted[Math.max(index, 0)] / 1_000_000.0;
+    }
+
+    private static double mb(long bytes) {
+        return bytes / 1024.0 / 1024.0;
+    }
+
+    private static float dot(float[] a, float[] b) {
+        float sum = 0;
+        for (int i = 0; i < a.length; i++) {
+            sum += a[i] * b[i];
+        }
+        return sum;
+    }
+
+    // ======================== 数据集 ========================
+
+    /**
+     * 索引向量与查询向量（均已 L2 归一化，点积即余弦）
+     */
+    private record Dataset(float[][] vectors, float[][] queries, int dims) {
+
+        /**
+         * 聚簇合成数据：查询取自同分布但不在索引中的点
+         */
+        static Dataset synthetic(int count, int dims, int queryCount, long seed) {
+            var random = new SplittableRandom(seed);
+            float[][] centers = new float[CLUSTERS][];
+            for (int c = 0; c < CLUSTERS; c++) {
+                centers[c] = gaussian(dims, random, 1.0);
+            }
+            float[][] vectors = new float[count][];
+            for (int i = 0; i < count; i++) {
+                vectors[i] = around(centers[random.nextInt(CLUSTERS)], random);
+            }
+            float[][] queries = new float[queryCount][];
+            for (int q = 0; q < queryCount; q++) {
+                queries[q] = around(centers[random.nextInt(CLUSTERS)], random);
+            }
+            return new Dataset(vectors, queries, dims);
+        }
+
+        /**
+         * 读取 .fvecs（每条向量：int32 小端维度 + dims 个 float32），随机留出 queryCount 条作查询
+         */
+        static Dataset load(Path file, int queryCount, long seed) throws IOException {
+            List<float[]> all = new ArrayList<>();
+            try (var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+                byte[] header = new byte[4];
+                while (in.read(header) == 4) {
+                    int dims = ByteBuffer.wrap(header).order(ByteOrder.LITTLE_ENDIAN).getInt();
+                    byte[] body = in.readNBytes(dims * 4);
+                    float[] vector = new float[dims];
+                    ByteBuffer.wrap(body).order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer().get(vector);
+                    if (VectorOps.normalize(vector)) {
+                        all.add(vector);
+                    }
+                }
+            }
+            if (all.size() <= queryCount) {
+                throw new IllegalArgumentException("向量数不足以留出查询: " + all.size());
+            }
+            Collections.shuffle(all, new Random(seed));
+            var queries = all.subList(0, queryCount).toArray(new float[0][]);
+            var vectors = all.subList(queryCount, all.size()).toArray(new float[0][]);
+            return new Dataset(vectors, queries, vectors[0].length);
+        }
+
+        private static float[] around(float[] center, SplittableRandom random) {
+            float[] noise = gaussian(center.length, random, CLUSTER_NOISE);
+            float[] vector = new float[center.length];
+            for (int i = 0; i < vector.length; i++) {
+                vector[i] = center[i] + noise[i];
+            }
+            VectorOps.normalize(vector);
+            return vector;
+        }
+
+        private static float[] gaussian(int dims, SplittableRandom random, double scale) {
+            float[] vector = new float[dims];
+            for (int i = 0; i < dims; i++) {
+                vector[i] = (float) (random.nextGaussian() * scale);
+            }
+            VectorOps.normalize(vector);
+            return vector;
+        }
+    }
+
+    // ======================== int8 标量量化 ========================
+
+    /**
+     * 与 ES int8_hnsw 思路一致：按置信区间截取全局分位数作为量化范围，线性映射到 [-127, 127]
+     */
+    private record Int8Quantizer(float min, float max) {
+
+        static Int8Quantizer fit(float[][] vectors, double confidence) {
+            int sample = Math.min(vectors.length, 2_000);
+            int dims = vectors[0].length;
+            float[] values = new float[sample * dims];
+            for (int i = 0; i < sample; i++) {
+                System.arraycopy(vectors[i], 0, values, i * dims, dims);
+            }
+            Arrays.sort(values);
+            int lower = (int) ((1 - confidence) / 2 * values.length);
+            int upper = values.length - 1 - lower;
+            return new Int8Quantizer(values[lower], values[upper]);
+        }
+
+        byte[] encode(float[] vector) {
+            byte[] code = new byte[vector.length];
+            float scale = 254f / (max - min);
+            for (int i = 0; i < vector.length; i++) {
+                float clamped = Math.max(min, Math.min(max, vector[i]));
+                code[i] = (byte) Math.round((clamped - min) * scale - 127);
+            }
+            return code;
+        }
+
+        float dot(byte[] a, byte[] b) {
+            int sum = 0;
+            for (int i = 0; i < a.length; i++) {
+                sum += a[i] * b[i];
+            }
+            return sum;
+        }
+    }
+
+    // ======================== top-k 小顶堆 ========================
+
+    private static final class TopK {
+
+        private final int capacity;
+        private final PriorityQueue<float[]> heap;
+
+        TopK(int capacity) {
+            this.capacity = capacity;
+            // float[]{score, id}
+            this.heap = new PriorityQueue<>(capacity + 1, Comparator.comparingDouble(e -> e[0]));
+        }
+
+        void offer(int id, float score) {
+            if (heap.size() < capacity) {
+                heap.add(new float[]{score, id});
+            } else if (score > heap.peek()[0]) {
+                heap.poll();
+                heap.add(new float[]{score, id});
+            }
+        }
+
+        int[] sortedIds() {
+            var entries = new ArrayList<>(heap);
+            entries.sort((a, b) -> Float.compare(b[0], a[0]));
+            return entries.stream().mapToInt(e -> (int) e[1]).toArray();
+        }
+    }
+
+    // ======================== 结果行与参数 ========================
+
+    private record Row(String backend, String type, int m, int efConstruction, int k, int numCandidates,
+                       double recall, double p50Ms, double p99Ms, double storeMb, double vectorRamMb) {
+
+        String key() {
+            return "%s/%s/m=%d/efC=%d/k=%d/numC=%d".formatted(backend, type, m, efConstruction, k, numCandidates);
+        }
+
+        String toCsv() {
+            return String.format(Locale.ROOT, "%s,%s,%d,%d,%d,%d,%.4f,%.3f,%.3f,%.1f,%.1f",
+                    backend, type, m, efConstruction, k, numCandidates, recall, p50Ms, p99Ms, storeMb, vectorRamMb);
+        }
+
+        static Row fromCsv(String line) {
+            var f = line.split(",");
+            return new Row(f[0], f[1], Integer.parseInt(f[2]), Integer.parseInt(f[3]), Integer.parseInt(f[4]),
+                    Integer.parseInt(f[5]), Double.parseDouble(f[6]), Double.parseDouble(f[7]),
+                    Double.parseDouble(f[8]), Double.parseDouble(f[9]), Double.parseDouble(f[10]));
+        }
+    }
+
+    private static final class Options {
+        String backend = "memory";
+        String es = "http://localhost:9200";
+        String data;
+        int vectors = 20_000;
+        int dims = 512;
+        int queries = 200;
+        long seed = 42;
+        List<Integer> ks = List.of(10);
+        List<Integer> numCandidates = List.of(50, 100, 200);
+        List<String> types = List.of("hnsw");
+        List<Integer> ms = List.of(16);
+        List<Integer> efConstructions = List.of(100);
+        String out;
+        String baseline;
+        double minRecall = 0;
+        double recallTolerance = 0.01;
+        double latencyTolerance = 0.5;
+
+        static Options parse(String[] args) {
+            var options = new Options();
+            for (var arg : args) {
+                if (arg.isBlank()) {
+                    continue;
+                }
+                var parts = arg.replaceFirst("^--", "").split("=", 2);
+                if (parts.length != 2) {
+                    throw new IllegalArgumentException("参数格式应为 --name=value: " + arg);
+                }
+                var value = parts[1];
+                switch (parts[0]) {
+                    case "backend" -> options.backend = value;
+                    case "es" -> options.es = value;
+                    case "data" -> options.data = value;
+                    case "vectors" -> options.vectors = Integer.parseInt(value);
+                    case "dims" -> options.dims = Integer.parseInt(value);
+                    case "queries" -> options.queries = Integer.parseInt(value);
+                    case "seed" -> options.seed = Long.parseLong(value);
+                    case "k" -> options.ks = ints(value);
+                    case "num-candidates" -> options.numCandidates = ints(value);
+                    case "types" -> options.types = List.of(value.split(","));
+                    case "m" -> options.ms = ints(value);
+                    case "ef-construction" -> options.efConstructions = ints(value);
+                    case "out" -> options.out = value;
+                    case "baseline" -> options.baseline = value;
+                    case "min-recall" -> options.minRecall = Double.parseDouble(value);
+                    case "recall-tolerance" -> options.recallTolerance = Double.parseDouble(value);
+                    case "latency-tolerance" -> options.latencyTolerance = Double.parseDouble(value);
+                    default -> throw new IllegalArgumentException("未知参数: " + arg);
+                }
+            }
+            return options;
+        }
+
+        private static List<Integer> ints(String value) {
+            return Arrays.stream(value.split(",")).map(String::trim).map(Integer::parseInt).toList();
+        }
+    }
+}
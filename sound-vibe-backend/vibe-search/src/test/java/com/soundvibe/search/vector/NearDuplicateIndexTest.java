@@ -0,0 +1,182 @@
+package com.soundvibe.search.vector;
+
+import com.soundvibe.search.config.NearDuplicateProperties;
+import com.soundvibe.search.config.VectorIndexProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * NearDuplicateIndex 的 LSH 召回与误报
+ * 以固定种子生成随机向量，近似重复样本为原向量叠加少量高斯噪声（余弦约 0.995）
+ *
+ * @author SoundVibe Team
+ */
+class NearDuplicateIndexTest {
+
+    private static final int DIMS = 512;
+    private static final int TRACKS = 200;
+    private static final double NOISE = 0.1;
+
+    private final SplittableRandom random = new SplittableRandom(42);
+
+    private NearDuplicateProperties properties;
+    private VectorIndexProperties vectorIndexProperties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new NearDuplicateProperties();
+        vectorIndexProperties = new VectorIndexProperties();
+        vectorIndexProperties.setDims(DIMS);
+    }
+
+    @Test
+    void nearDuplicatesAreRecalledAndUnrelatedVectorsAreNot() {
+        var index = new NearDuplicateIndex(properties, vectorIndexProperties);
+        List<float[]> originals = new ArrayList<>();
+        for (long id = 1; id <= TRACKS; id++) {
+            var vector = randomVector();
+            originals.add(vector);
+            index.upsert(id, vector);
+        }
+
+        int recalled = 0;
+        for (int i = 0; i < TRACKS; i++) {
+            var duplicate = perturb(originals.get(i));
+            assertThat(cosine(originals.get(i), duplicate)).isGreaterThan(0.99);
+
+            var matches = index.findDuplicates(10_000L + i, duplicate);
+            if (!matches.isEmpty() && matches.get(0).trackId() == i + 1) {
+                recalled++;
+            }
+        }
+        // 默认 20 段 x 24 位，余弦 0.98 以上的重复对理论召回约 99%
+        assertThat(recalled).isGreaterThanOrEqualTo((int) (TRACKS * 0.97));
+
+        int falsePositives = 0;
+        for (int i = 0; i < TRACKS; i++) {
+            falsePositives += index.findDuplicates(20_000L + i, randomVector()).size();
+        }
+        assertThat(falsePositives).isZero();
+    }
+
+    @Test
+    void matchesExcludeTheQueriedTrackAndAreSortedBySimilarity() {
+        var index = new NearDuplicateIndex(properties, vectorIndexProperties);
+        var original = randomVector();
+        index.upsert(1L, original);
+        index.upsert(2L, perturb(original));
+        index.upsert(3L, randomVector());
+
+        var matches = index.duplicatesOf(1L);
+        assertThat(matches).extracting(NearDuplicateIndex.Match::trackId).containsExactly(2L);
+        assertThat(matches.get(0).similarity()).isGreaterThanOrEqualTo(properties.getSimilarity());
+
+        var byVector = index.findDuplicates(1L, original);
+        assertThat(byVector).extracting(NearDuplicateIndex.Match::trackId).containsExactly(2L);
+    }
+
+    @Test
+    void matchesCarryTheGroupRecordedAtUpsert() {
+        var index = new NearDuplicateIndex(properties, vectorIndexProperties);
+        var original = randomVector();
+        index.upsert(1L, original);
+        // B 已归入 A（1）组；C 只与 B 比对时也应得到 A 组
+        var second = perturb(original);
+        index.upsert(2L, second, 1L);
+
+        var matches = index.findDuplicates(3L, second);
+        assertThat(matches).extracting(NearDuplicateIndex.Match::group).containsOnly(1L);
+
+        // 未指定重复组的作品自成一组；移除后重新写入不残留旧组
+        index.upsert(4L, randomVector());
+        index.upsert(2L, second, null);
+        assertThat(index.duplicatesOf(1L)).extracting(NearDuplicateIndex.Match::group).containsExactly(2L);
+        index.remove(2L);
+        index.upsert(2L, second);
+        assertThat(index.duplicatesOf(1L)).extracting(NearDuplicateIndex.Match::group).containsExactly(2L);
+    }
+
+    @Test
+    void removedAndOverwrittenTracksLeaveNoStaleBuckets() {
+        var index = new NearDuplicateIndex(properties, vectorIndexProperties);
+        var original = randomVector();
+        index.upsert(1L, original);
+        index.upsert(2L, perturb(original));
+
+        index.remove(2L);
+        assertThat(index.duplicatesOf(1L)).isEmpty();
+
+        // 覆盖为无关向量后不再与原向量成组；向量为空时移出索引
+        index.upsert(2L, perturb(original));
+        index.upsert(2L, randomVector());
+        assertThat(index.duplicatesOf(1L)).isEmpty();
+        index.upsert(1L, null);
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    void retainOnlyDropsUnseenTracksWrittenBeforeTheSequence() {
+        var index = new NearDuplicateIndex(properties, vectorIndexProperties);
+        var original = randomVector();
+        index.upsert(1L, original);
+        index.upsert(2L, perturb(original));
+        long sequence = index.writeSequence();
+        index.upsert(3L, perturb(original));
+
+        assertThat(index.retainOnly(Set.of(1L), sequence)).isEqualTo(1);
+        assertThat(index.duplicatesOf(1L)).extracting(NearDuplicateIndex.Match::trackId).containsExactly(3L);
+    }
+
+    @Test
+    void disabledIndexOrWrongDimensionsNeverMatch() {
+        var original = randomVector();
+
+        properties.setEnabled(false);
+        var disabled = new NearDuplicateIndex(properties, vectorIndexProperties);
+        disabled.upsert(1L, original);
+        assertThat(disabled.findDuplicates(2L, original)).isEmpty();
+        assertThat(disabled.size()).isZero();
+
+        properties.setEnabled(true);
+        var index = new NearDuplicateIndex(properties, vectorIndexProperties);
+        index.upsert(1L, original);
+        assertThat(index.findDuplicates(2L, new float[DIMS / 2])).isEmpty();
+    }
+
+    // ==================== Private ====================
+
+    private float[] randomVector() {
+        var vector = new float[DIMS];
+        for (int i = 0; i < DIMS; i++) {
+            vector[i] = (float) random.nextGaussian();
+        }
+        return vector;
+    }
+
+    private float[] perturb(float[] vector) {
+        var copy = new float[DIMS];
+        for (int i = 0; i < DIMS; i++) {
+            copy[i] = vector[i] + (float) (random.nextGaussian() * NOISE);
+        }
+        return copy;
+    }
+
+    private static double cosine(float[] a, float[] b) {
+        double dot = 0;
+        double normA = 0;
+        double normB = 0;
+        for (int i = 0; i < a.length; i++) {
+            dot += a[i] * b[i];
+            normA += a[i] * a[i];
+            normB += b[i] * b[i];
+        }
+        return dot / Math.sqrt(normA * normB);
+    }
+}
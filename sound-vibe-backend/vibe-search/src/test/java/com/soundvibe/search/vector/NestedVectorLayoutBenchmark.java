@@ -0,0 +1,254 @@
+package com.soundvibe.search.vector;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.KnnQuery;
+import co.elastic.clients.elasticsearch.core.BulkRequest;
+import co.elastic.clients.elasticsearch.core.SearchResponse;
+import co.elastic.clients.json.jackson.JacksonJsonpMapper;
+import co.elastic.clients.transport.rest_client.RestClientTransport;
+import org.apache.http.HttpHost;
+import org.elasticsearch.client.RestClient;
+
+import java.io.StringReader;
+import java.util.*;
+
+/**
+ * PACK 向量布局基准：作品级单向量 vs 分轨 nested 向量
+ * 在同一份合成数据上建两个临时索引，比较索引体积、kNN 查询延迟与分轨命中率（hit@10）
+ * <p>
+ * 数据：singles 个单文件作品 + packs 个合集，每个合集 stems 个分轨，其中约 1/4 为其他分轨的近似副本
+ * （模拟同一素材的不同版本），nested 布局按线上规则去重、截断后写入
+ * <p>
+ * 查询：随机取一个合集分轨加噪声作为查询向量，统计该合集是否出现在 top-10
+ * <p>
+ * 运行方式：需要可访问的 ES 8.11+，执行 main 方法
+ * 参数：[esUri=http://localhost:9200] [singles=5000] [packs=1000] [stems=20] [queries=300]
+ *
+ * @author SoundVibe Team
+ */
+public class NestedVectorLayoutBenchmark {
+
+    private static final int DIMS = 512;
+    private static final int TOP_K = 10;
+    private static final int MAX_PER_TRACK = 32;
+    private static final double DEDUP_SIMILARITY = 0.98;
+
+    private static final String SINGLE_LAYOUT_INDEX = "bench_vector_layout_single";
+    private static final String NESTED_LAYOUT_INDEX = "bench_vector_layout_nested";
+
+    private static final String MAPPING = """
+            {
+              "properties": {
+                "status": { "type": "integer" },
+                "audioVector": { "type": "dense_vector", "dims": 512, "index": true, "similarity": "cosine" },
+                "fileVectors": {
+                  "type": "nested",
+                  "properties": {
+                    "fileId": { "type": "long" },
+                    "vector": { "type": "dense_vector", "dims": 512, "index": true, "similarity": "cosine" }
+                  }
+                }
+              }
+            }
+            """;
+
+    public static void main(String[] args) throws Exception {
+        var esUri = args.length > 0 ? args[0] : "http://localhost:9200";
+        int singles = args.length > 1 ? Integer.parseInt(args[1]) : 5000;
+        int packs = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+        int stems = args.length > 3 ? Integer.parseInt(args[3]) : 20;
+        int queries = args.length > 4 ? Integer.parseInt(args[4]) : 300;
+
+        try (var restClient = RestClient.builder(HttpHost.create(esUri)).build()) {
+            var client = new ElasticsearchClient(new RestClientTransport(restClient, new JacksonJsonpMapper()));
+            var random = new SplittableRandom(42);
+
+            // 合成数据：trackId → 分轨向量（SINGLE 只有一个）
+            Map<Long, List<float[]>> tracks = new LinkedHashMap<>();
+            long id = 1;
+            for (int i = 0; i < singles; i++) {
+                tracks.put(id++, List.of(randomVector(random)));
+            }
+            List<Long> packIds = new ArrayList<>();
+            for (int i = 0; i < packs; i++) {
+                List<float[]> packStems = new ArrayList<>();
+                for (int s = 0; s < stems; s++) {
+                    packStems.add(s > 0 && random.nextInt(4) == 0
+                            ? noisyCopy(packStems.get(random.nextInt(packStems.size())), 0.05f, random)
+                            : randomVector(random));
+                }
+                packIds.add(id);
+                tracks.put(id++, packStems);
+            }
+
+            recreate(client, SINGLE_LAYOUT_INDEX);
+            recreate(client, NESTED_LAYOUT_INDEX);
+            long nestedVectors = load(client, tracks);
+            System.out.printf("数据: singles=%d, packs=%d, stems/pack=%d, nested 布局实际写入分轨向量=%d%n",
+                    singles, packs, stems, nestedVectors);
+
+            for (var index : List.of(SINGLE_LAYOUT_INDEX, NESTED_LAYOUT_INDEX)) {
+                client.indices().forcemerge(f -> f.index(index).maxNumSegments(1L));
+                client.indices().refresh(r -> r.index(index));
+            }
+
+            // 查询：某个合集分轨的加噪副本，期望召回该合集
+            List<float[]> queryVectors = new ArrayList<>();
+            List<Long> expected = new ArrayList<>();
+            for (int q = 0; q < queries; q++) {
+                var packId = packIds.get(random.nextInt(packIds.size()));
+                var packStems = tracks.get(packId);
+                queryVectors.add(noisyCopy(packStems.get(random.nextInt(packStems.size())), 0.2f, random));
+                expected.add(packId);
+            }
+
+            report(client, SINGLE_LAYOUT_INDEX, false, queryVectors, expected);
+            report(client, NESTED_LAYOUT_INDEX, true, queryVectors, expected);
+
+            client.indices().delete(d -> d.index(SINGLE_LAYOUT_INDEX, NESTED_LAYOUT_INDEX));
+        }
+    }
+
+    // ======================== 建索引与写入 ========================
+
+    private static void recreate(ElasticsearchClient client, String index) throws Exception {
+        if (client.indices().exists(e -> e.index(index)).value()) {
+            client.indices().delete(d -> d.index(index));
+        }
+        client.indices().create(c -> c
+                .index(index)
+                .settings(s -> s.numberOfShards("1").numberOfReplicas("0"))
+                .mappings(m -> m.withJson(new StringReader(MAPPING))));
+    }
+
+    /**
+     * 单向量布局：每个作品一个 audioVector（合集取分轨质心）
+     * nested 布局：SINGLE 写 audioVector，合集分轨去重、截断后写 fileVectors
+     *
+     * @return nested 布局写入的分轨向量数
+     */
+    private static long load(ElasticsearchClient client, Map<Long, List<float[]>> tracks) throws Exception {
+        long nestedVectors = 0;
+        var single = new BulkRequest.Builder();
+        var nested = new BulkRequest.Builder();
+        int pending = 0;
+        for (var entry : tracks.entrySet()) {
+            var trackId = String.valueOf(entry.getKey());
+            var vectors = entry.getValue();
+
+            Map<String, Object> singleDoc = Map.of("status", 1, "audioVector", VectorOps.centroid(vectors));
+            single.operations(op -> op.index(i -> i.index(SINGLE_LAYOUT_INDEX).id(trackId).document(singleDoc)));
+
+            Map<String, Object> nestedDoc = new HashMap<>();
+            nestedDoc.put("status", 1);
+            var kept = dedup(vectors);
+            if (kept.size() < 2) {
+                nestedDoc.put("audioVector", kept.get(0));
+            } else {
+                List<Map<String, Object>> fileVectors = new ArrayList<>();
+                for (int f = 0; f < kept.size(); f++) {
+                    fileVectors.add(Map.of("fileId", (long) f, "vector", kept.get(f)));
+                }
+                nestedDoc.put("fileVectors", fileVectors);
+                nestedVectors += kept.size();
+            }
+            nested.operations(op -> op.index(i -> i.index(NESTED_LAYOUT_INDEX).id(trackId).document(nestedDoc)));
+
+            if (++pending == 200) {
+                client.bulk(single.build());
+                client.bulk(nested.build());
+                single = new BulkRequest.Builder();
+                nested = new BulkRequest.Builder();
+                pending = 0;
+            }
+        }
+        if (pending > 0) {
+            client.bulk(single.build());
+            client.bulk(nested.build());
+        }
+        return nestedVectors;
+    }
+
+    private static List<float[]> dedup(List<float[]> vectors) {
+        List<float[]> kept = new ArrayList<>();
+        for (var vector : vectors) {
+            if (kept.size() >= MAX_PER_TRACK) {
+                break;
+            }
+            if (kept.stream().noneMatch(k -> VectorOps.cosine(k, vector) >= DEDUP_SIMILARITY)) {
+                kept.add(vector);
+            }
+        }
+        return kept;
+    }
+
+    // ======================== 测量 ========================
+
+    private static void report(ElasticsearchClient client, String index, boolean nestedLayout,
+                               List<float[]> queryVectors, List<Long> expected) throws Exception {
+        var stats = client.indices().stats(s -> s.index(index)).all().primaries();
+        long storeBytes = stats.store().sizeInBytes();
+        long luceneDocs = stats.docs().count();
+
+        // 预热
+        for (int i = 0; i < Math.min(20, queryVectors.size()); i++) {
+            search(client, index, nestedLayout, queryVectors.get(i));
+        }
+
+        long[] latencies = new long[queryVectors.size()];
+        int hits = 0;
+        for (int i = 0; i < queryVectors.size(); i++) {
+            long start = System.nanoTime();
+            var response = search(client, index, nestedLayout, queryVectors.get(i));
+            latencies[i] = System.nanoTime() - start;
+            var target = String.valueOf(expected.get(i));
+            if (response.hits().hits().stream().anyMatch(h -> target.equals(h.id()))) {
+                hits++;
+            }
+        }
+        Arrays.sort(latencies);
+        System.out.printf("%-28s store=%.1f MB, luceneDocs=%d, p50=%.1f ms, p95=%.1f ms, p99=%.1f ms, hit@%d=%.3f%n",
+                index, storeBytes / 1024.0 / 1024.0, luceneDocs,
+                percentile(latencies, 0.50), percentile(latencies, 0.95), percentile(latencies, 0.99),
+                TOP_K, (double) hits / queryVectors.size());
+    }
+
+    private static SearchResponse<Void> search(ElasticsearchClient client, String index, boolean nestedLayout,
+                                               float[] query) throws Exception {
+        List<Float> queryVector = new ArrayList<>(query.length);
+        for (float v : query) {
+            queryVector.add(v);
+        }
+        List<KnnQuery> clauses = new ArrayList<>();
+        clauses.add(KnnQuery.of(k -> k.field("audioVector").queryVector(queryVector).k(TOP_K).numCandidates(TOP_K * 10)));
+        if (nestedLayout) {
+            clauses.add(KnnQuery.of(k -> k.field("fileVectors.vector").queryVector(queryVector).k(TOP_K).numCandidates(TOP_K * 10)));
+        }
+        return client.search(s -> s.index(index).knn(clauses).source(src -> src.fetch(false)).size(TOP_K), Void.class);
+    }
+
+    private static double percentile(long[] sortedNanos, double p) {
+        int index = Math.min(sortedNanos.length - 1, (int) Math.ceil(p * sortedNanos.length) - 1);
+        return sortedNanos[Math.max(index, 0)] / 1_000_000.0;
+    }
+
+    // ======================== 合成向量 ========================
+
+    private static float[] randomVector(SplittableRandom random) {
+        float[] vector = new float[DIMS];
+        for (int i = 0; i < DIMS; i++) {
+            vector[i] = (float) random.nextGaussian();
+        }
+        VectorOps.normalize(vector);
+        return vector;
+    }
+
+    private static float[] noisyCopy(float[] source, float noise, SplittableRandom random) {
+        float[] vector = source.clone();
+        for (int i = 0; i < DIMS; i++) {
+            vector[i] += (float) (random.nextGaussian() * noise / Math.sqrt(DIMS));
+        }
+        VectorOps.normalize(vector);
+        return vector;
+    }
+}
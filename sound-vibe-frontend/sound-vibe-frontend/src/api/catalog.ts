@@ -155,8 +155,9 @@ export const catalogApi = {
  * 根据资产 ID 构建文件访问 URL
  * 通过 vibe-asset 的 /assets/file/{id} 端点实时获取预签名 URL（302 重定向）
  * 适用于 <img> 和 <audio> 标签的 src 属性
+ * 图片可传 size（长边像素，按显示尺寸 × 设备像素比估算），服务端返回不小于该尺寸的缩略图
  */
-export function getAssetFileUrl(assetId: number | null): string {
+export function getAssetFileUrl(assetId: number | null, size?: number): string {
   if (!assetId) return ''
-  return `/api/assets/file/${assetId}`
+  return size ? `/api/assets/file/${assetId}?size=${size}` : `/api/assets/file/${assetId}`
 }
@@ -20,6 +20,25 @@ export interface TrackSearchResult {
   autoTags: string[] | null
   price: number | null
   status: number
+  /** 语义搜索命中的合集分轨文件 ID（仅 AI 搜索结果，单文件作品为 null） */
+  matchedFileId?: number | null
+}
+
+/** 分面计数桶（区间桶带 from/to，词项桶为 null） */
+export interface FacetBucket {
+  key: string
+  count: number
+  from: number | null
+  to: number | null
+}
+
+/** 搜索分面（每个分面的计数已应用其余维度的筛选条件） */
+export interface SearchFacets {
+  musicalKeys: FacetBucket[]
+  genres: FacetBucket[]
+  bpm: FacetBucket[]
+  priceRanges: FacetBucket[]
+  trackTypes: FacetBucket[]
 }
 
 export interface SearchPage {
@@ -28,6 +47,8 @@ export interface SearchPage {
   totalPages: number
   size: number
   number: number
+  /** 仅在请求 facets=true 时返回 */
+  facets: SearchFacets | null
 }
 
 export interface SearchParams {
@@ -36,10 +57,19 @@ export interface SearchParams {
   minBpm?: number
   maxBpm?: number
   musicalKey?: string
+  /** 同一次请求返回分面计数 */
+  facets?: boolean
   page?: number
   size?: number
 }
 
+/** AI 语义搜索结果（degraded=true 表示 AI 服务繁忙，已改用关键词匹配） */
+export interface SemanticSearchResult {
+  tracks: TrackSearchResult[]
+  degraded: boolean
+  degradeReason: string | null
+}
+
 /** 动态筛选选项（来自 ES 聚合） */
 export interface FilterOptions {
   musicalKeys: string[]
@@ -57,6 +87,7 @@ export const searchApi = {
         minBpm: params?.minBpm || undefined,
         maxBpm: params?.maxBpm || undefined,
         musicalKey: params?.musicalKey || undefined,
+        facets: params?.facets || undefined,
         page: params?.page ?? 0,
         size: params?.size ?? 20
       }
@@ -82,14 +113,14 @@ export const searchApi = {
   /**
    * AI 语义搜索（基于 CLAP 音频向量的 kNN 近邻搜索）
    * 用户输入自然语言描述，后端将文本转换为向量并执行 kNN 搜索
-   * 返回按相似度排序的作品列表（非分页）
+   * 返回按相似度排序的作品列表（非分页）；AI 服务不可用时后端降级为关键词搜索
    */
-  semanticSearch(q: string, k: number = 10): Promise<TrackSearchResult[]> {
+  semanticSearch(q: string, k: number = 10): Promise<SemanticSearchResult> {
     return request({
       url: '/api/search/semantic',
       method: 'GET',
       params: { q, k },
       timeout: 15000
-    }) as Promise<TrackSearchResult[]>
+    }) as Promise<SemanticSearchResult>
   }
 }